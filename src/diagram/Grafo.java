@@ -1,6 +1,6 @@
 package diagram;
 
-import java.util.LinkedList;
+import java.util.IdentityHashMap;
 import java.util.MissingResourceException;
 
 import diagram.componente.Aresta;
@@ -16,7 +16,14 @@ import diagram.componente.Vertice;
  * vértices origem e destino não forem inseridos anteriormente.
  * 
  * A classe grafo utiliza a lista de adjacência como forma de representação 
- * substituindo o vetor de vértices por uma outra lista encadeada.
+ * mantendo os vértices em um vetor que cresce conforme a necessidade e, para
+ * cada vértice, um outro vetor com as arestas conectadas a ele. Desta forma o
+ * acesso a um vértice ou aresta pela sua posição é feito em tempo constante.
+ * Um índice de identidade associa cada vértice a sua posição no vetor, o que
+ * torna também constante o tempo para localizar um vértice já inserido.
+ * As arestas são registradas uma única vez, junto com os vértices aos quais
+ * foram conectadas, e o vetor com todas as arestas é mantido em memória até
+ * que o grafo seja alterado.
  * 
  * Um exemplo de como criar um grafo no editor é mostrado no exemplo abaixo. <br>
  * <br>
@@ -29,27 +36,38 @@ import diagram.componente.Vertice;
  * <br>
  * A classe também possui alguns métodos conhecidos dos grafos tais como os percursos
  * em largura e profundidade e o algoritmo de menor caminho muito utilizado pela 
- * classe SpringModel para desenhar um grafo.
+ * classe SpringModel para desenhar um grafo. Estes algoritmos são executados 
+ * sobre a fotografia compacta retornada pelo método compactar.
  *
  * @author Luis Henrique Castilho da Silva
+ * @see GrafoCompacto
  * @see diagram.graphdrawing.SpringModel
  */
 public class Grafo extends Object
 {
-	private int					numeroTotalArestas;
+	private static final int	CAPACIDADE_INICIAL = 10;
 	
-	private LinkedList 			listaVertice,
-								listaAresta[],
-								filaVertices,
-								pilhaVertices;
+	private int					numeroTotalArestas,
+								numeroTotalVertices,
+								grauVertices[];
+	
+	private Vertice				vetorVertices[];
+	
+	private Aresta				vetorArestas[][],
+								todasArestas[];
+	
+	private IdentityHashMap<Vertice, Integer>	indiceVertices;
+	
+	private IdentityHashMap<Aresta, Vertice[]>	registroArestas;
+	
+	private GrafoCompacto		grafoCompacto;
 	
 	/**
 	 * Cria um grafo sem nenhum vértice e aresta.
 	 */
 	public Grafo()
 	{
-		listaVertice = new LinkedList();
-		numeroTotalArestas = 0;
+		inicializarVetores(CAPACIDADE_INICIAL);
 	}
 	
 	/**
@@ -60,8 +78,7 @@ public class Grafo extends Object
 	 */
 	public Grafo(Vertice vertices[], Aresta arestas[])
 	{
-		listaVertice = new LinkedList();
-		numeroTotalArestas = 0;
+		inicializarVetores(CAPACIDADE_INICIAL);
 		setVertices(vertices);
 		setArestas(arestas);
 	}
@@ -79,13 +96,13 @@ public class Grafo extends Object
 		int i;
 		Vertice 	vertices[];
 				
-		if (listaVertice.size() == 0) 
+		if (numeroTotalVertices == 0) 
 			return null; //Caso não exista Vértices
 			
-		vertices = new Vertice[listaVertice.size()];
+		vertices = new Vertice[numeroTotalVertices];
 		
-		for (i = 0;i < listaVertice.size(); i++)
-			vertices[i] = (Vertice) listaVertice.get(i);
+		for (i = 0;i < numeroTotalVertices; i++)
+			vertices[i] = vetorVertices[i];
 			
 		return vertices;
 	}
@@ -93,14 +110,14 @@ public class Grafo extends Object
 	/**
 	 * Retorna o vértice especificado pelo parâmetro posição do vértice.
 	 * 
-	 * @param posicao a localização do vértice na lista encadeada
+	 * @param posicao a localização do vértice no vetor de vértices
 	 * @return o vértice especificado na posição
 	 * @see Grafo#getAresta
 	 */
 	public Vertice getVertice(int posicao)
 	{
-		if ((posicao >= 0) && (posicao < listaVertice.size()))
-			return (Vertice) listaVertice.get(posicao);
+		if ((posicao >= 0) && (posicao < numeroTotalVertices))
+			return vetorVertices[posicao];
 		
 		return null;
 	}
@@ -116,18 +133,7 @@ public class Grafo extends Object
 	 */
 	public boolean existeVertice(Vertice vertice)
 	{
-		int i;
-		Vertice verticeTemp;
-		
-		for (i = 0; i < listaVertice.size() ; i++)
-		{
-			verticeTemp = (Vertice) listaVertice.get(i);
-			
-			if (verticeTemp.equals(vertice))
-				return true;
-		}
-		
-		return false;
+		return indiceVertice(vertice) >= 0;
 	}
 	
 	/**
@@ -162,51 +168,50 @@ public class Grafo extends Object
 	}
 	
 	/**
-	 * Retorna todos as arestas contidas no grafo.
+	 * Retorna todos as arestas contidas no grafo. O vetor é montado somente 
+	 * após alguma alteração no grafo e as chamadas seguintes recebem uma cópia
+	 * dele, portanto o custo é linear em relação ao número de arestas.
 	 *
 	 * @return o vetor contendo todas as arestas
 	 */
 	public Aresta[] getTodasArestas()
 	{
-		int 		i, j, k, contador;
-		boolean 	existeAresta;
-		Vertice 	verticeTemp;
-		Aresta		arestas[],
-					arestaTemp;
+		int 							j, k, contador;
+		Aresta							arestas[],
+										arestaTemp;
+		IdentityHashMap<Aresta, Aresta>	arestasIncluidas;
 		
 		if (numeroTotalArestas <= 0)	
 			return null;
 		
-		contador = 0;
-		existeAresta = false;
-		arestas = new Aresta[numeroTotalArestas];
-		
-		for (j = 0; j < listaVertice.size(); j++)
+		if (todasArestas == null)
 		{
-			//Pecorrer todos os Vértices	
-			verticeTemp = (Vertice) listaVertice.get(j);
-
-			for (k = 0; k < listaAresta[j].size(); k++)
+			contador = 0;
+			arestas = new Aresta[numeroTotalArestas];
+			arestasIncluidas = new IdentityHashMap<Aresta, Aresta>(numeroTotalArestas);
+			
+			for (j = 0; j < numeroTotalVertices; j++)
 			{
-				arestaTemp = (Aresta) listaAresta[j].get(k);
-				
-				for (i = 0; i < arestas.length; i++)
-				{
-					//Percorre o vetor de retorno para identificar as arestas nao incluidas
-					if (arestaTemp.equals(arestas[i]))
-						existeAresta = true;
-				}
-				
-				if (!existeAresta)
+				//Pecorrer todos os Vértices	
+				for (k = 0; k < grauVertices[j]; k++)
 				{
-					arestas[contador] = arestaTemp;	
-					contador++;
+					arestaTemp = vetorArestas[j][k];
+					
+					//Cada aresta aparece no vetor da origem e do destino
+					if (arestasIncluidas.put(arestaTemp, arestaTemp) == null)
+					{
+						arestas[contador] = arestaTemp;	
+						contador++;
+					}
 				}
-				
-				existeAresta = false;
 			}
+			
+			todasArestas = arestas;
 		}
 		
+		arestas = new Aresta[todasArestas.length];
+		System.arraycopy(todasArestas, 0, arestas, 0, arestas.length);
+		
 		return arestas;
 	}
 	
@@ -223,61 +228,43 @@ public class Grafo extends Object
 		//Retorna nulo em caso de não existir o vertice, não existir nenhuma arestas em todo o grafo
 		//Para o caso de existir o vertice mas não exitir a aresta será retornado nulo.
 		int i, j;
-		Vertice verticeTemp;
 		Aresta	arestas[];
 		
 		if (numeroTotalArestas <= 0)
 			return null;
 			
-		for (i = 0; i < listaVertice.size(); i++)
-		{
-			verticeTemp = (Vertice) listaVertice.get(i);
+		i = indiceVertice(vertice);
+		
+		if ((i < 0) || (grauVertices[i] == 0))
+			return null;
 			
-			if (verticeTemp.equals(vertice))
-			{
-				if (listaAresta[i].size() == 0)
-					return null;
-					
-				arestas = new Aresta[listaAresta[i].size()];
-				
-				for (j = 0; j < arestas.length; j++)
-				{
-					arestas[j] = (Aresta) listaAresta[i].get(j);
-				}
-				
-				return arestas;
-			}
-		}
+		arestas = new Aresta[grauVertices[i]];
 		
-		return null;
+		for (j = 0; j < arestas.length; j++)
+			arestas[j] = vetorArestas[i][j];
+		
+		return arestas;
 	}
 	
 	/**
 	 * Retorna a aresta na qual o vértice passado pelo parâmetro está 
 	 * diretamente conectado a aresta e o indice identifica a localização extata 
-	 * dentro da lista encadeada do vértice.
+	 * dentro do vetor de arestas do vértice.
 	 * 
 	 * @param vertice o vértice onde a aresta está conectada
-	 * @param localização a localização da aresta na lista encadeada do vértice
+	 * @param localização a localização da aresta no vetor de arestas do vértice
 	 * @return a aresta diretamente ligada ao vértice
 	 * @see Grafo#getVertice
 	 */
 	public Aresta getAresta(Vertice vertice, int indice)
 	{
 		int i;
-		Vertice verticeTemp;
 		
-		for (i = 0; i < listaVertice.size(); i++)
-		{
-			verticeTemp = (Vertice) listaVertice.get(i);
-			
-			if (verticeTemp.equals(vertice))
-			{
-				//O vetice é igual ao passado pelo parâmetro
-				if ((indice < listaAresta[i].size()) && (indice >= 0))
-					return (Aresta) listaAresta[i].get(indice);
-			}
-		}
+		i = indiceVertice(vertice);
+		
+		//O vetice é igual ao passado pelo parâmetro
+		if ((i >= 0) && (indice < grauVertices[i]) && (indice >= 0))
+			return vetorArestas[i][indice];
 		
 		return null;
 	}
@@ -293,24 +280,7 @@ public class Grafo extends Object
 	 */
 	public boolean existeAresta(Aresta aresta)
 	{
-		int i, j;
-		Aresta arestaTemp;
-		
-		if (listaAresta == null)
-			return false;
-			
-		for (i = 0; i < listaAresta.length; i++)
-		{
-			for (j = 0; j < listaAresta[i].size(); j++)
-			{
-				arestaTemp = (Aresta) listaAresta[i].get(j);
-				
-				if (arestaTemp.equals(aresta))
-					return true;
-			}
-		}
-		
-		return false;
+		return registroArestas.containsKey(aresta);
 	}
 	
 	/**
@@ -325,37 +295,30 @@ public class Grafo extends Object
 	public int getNumeroTotalArestasDoVertice(Vertice vertice)
 	{
 		int i;
-		Vertice verticeTemp;
 		
-		for (i = 0; i < listaVertice.size(); i++)
-		{
-			verticeTemp = (Vertice) listaVertice.get(i);
-			if (verticeTemp.equals(vertice))
-				return listaAresta[i].size();
-		}
+		i = indiceVertice(vertice);
+		
+		if (i >= 0)
+			return grauVertices[i];
 		
 		return -1;
 	}
 	
 	/**
-	 * Retorna a localização extaa do vértice na estrutura de lista encadeada.
+	 * Retorna a localização extaa do vértice no vetor de vértices.
 	 *
-	 * @param vertice o vértice que deseja verficar sua posição na lista
-	 * @return a localização do vértice na lista encadeada
+	 * @param vertice o vértice que deseja verficar sua posição no vetor
+	 * @return a localização do vértice no vetor de vértices
 	 */
 	public int getLocalizacaoVertice(Vertice vertice)
 	{
-		//Retorna a localização do vértice na lista de vértices
+		//Retorna a localização do vértice no vetor de vértices
 		int i;
-		Vertice		verticeTemp;
 		
-		for (i = 0; i < listaVertice.size(); i++)
-		{
-			verticeTemp = (Vertice) listaVertice.get(i);
-			
-			if (verticeTemp.equals(vertice))
-				return i;
-		}
+		i = indiceVertice(vertice);
+		
+		if (i >= 0)
+			return i;
 		
 		return 0;
 	}
@@ -380,7 +343,24 @@ public class Grafo extends Object
 	 */
 	public int getNumeroTotalVertices()
 	{
-		return listaVertice.size();
+		return numeroTotalVertices;
+	}
+	
+	/**
+	 * Retorna uma fotografia imutável do grafo em um formato compacto, na qual
+	 * os vértices e as adjacências são representados por vetores de inteiros.
+	 * Os índices dos vértices na fotografia são os mesmos do grafo e a mesma
+	 * fotografia é retornada enquanto o grafo não for alterado.
+	 *
+	 * @return a fotografia compacta do grafo
+	 * @see GrafoCompacto
+	 */
+	public GrafoCompacto compactar()
+	{
+		if (grafoCompacto == null)
+			grafoCompacto = new GrafoCompacto(vetorVertices, numeroTotalVertices, vetorArestas, grauVertices, getTodasArestas(), indiceVertices);
+		
+		return grafoCompacto;
 	}
 	
 // Métodos Set...
@@ -397,13 +377,13 @@ public class Grafo extends Object
 		if (vertices == null)
 			throw new NullPointerException("**Excecao**\ndiagram.GrafoException: Vertice nulo.");
 
+		garantirCapacidade(numeroTotalVertices + vertices.length);
+		
 		for (i = 0;i < vertices.length; i++)
 		{
 			if (!existeVertice(vertices[i]))
-				listaVertice.add(vertices[i]);
+				adicionarVertice(vertices[i]);
 		}
-		
-		criarListaAresta();
 	}
 	
 	/**
@@ -417,10 +397,7 @@ public class Grafo extends Object
 			throw new NullPointerException("**Excecao**\ndiagram.GrafoException: Vertice nulo.");
 			
 		if (!existeVertice(vertice))
-		{	
-			listaVertice.add(vertice);
-			criarListaAresta();
-		}
+			adicionarVertice(vertice);
 	}
 	
 	/**
@@ -452,25 +429,24 @@ public class Grafo extends Object
 	 */	
 	public void setAresta(Aresta aresta) throws MissingResourceException
 	{
-		int i;
+		int origem, destino;
 		
 		if (!existeAresta(aresta))
 		{
-			if (existeVertice(aresta.getVerticeOrigem()) && existeVertice(aresta.getVerticeDestino()))
+			origem = indiceVertice(aresta.getVerticeOrigem());
+			destino = indiceVertice(aresta.getVerticeDestino());
+			
+			if ((origem >= 0) && (destino >= 0))
 			{
-				//O vertice de Origem e o vertice de Destino estão contidos na lista...
+				//O vertice de Origem e o vertice de Destino estão contidos no vetor...
 				//Pode ser inserido a aresta...
-				for (i = 0; i < listaVertice.size(); i++)
-				{
-					if (getVertice(i).equals(aresta.getVerticeOrigem()))
-					{
-						listaAresta[i].add(aresta);
-						numeroTotalArestas++;
-					}
-					
-					if (getVertice(i).equals(aresta.getVerticeDestino()))
-						listaAresta[i].add(aresta);
-				}
+				adicionarArestaVertice(origem, aresta);
+				adicionarArestaVertice(destino, aresta);
+				numeroTotalArestas++;
+				
+				//Guarda os vértices da inserção, pois eles podem ser alterados na aresta
+				registroArestas.put(aresta, new Vertice[] {vetorVertices[origem], vetorVertices[destino]});
+				invalidarFotografias();
 			}
 			else
 			{
@@ -492,31 +468,32 @@ public class Grafo extends Object
 	public void removerVertice(Vertice vertice)
 	{
 		int			i,
-					contTemp,
 					localVertice;
-		LinkedList	listaArestaTemp[];
 		
-		contTemp = 0;
-		localVertice = getLocalizacaoVertice(vertice);
-		listaArestaTemp = new LinkedList[getNumeroTotalVertices() - 1];
+		localVertice = indiceVertice(vertice);
+		
+		if (localVertice < 0)
+			return;
 				
 		//Deve-se remover todas as arestas antes
 		removerTodasArestas(vertice);
 		
-		//Remover o campo da lista de aresta referente ao vertice
-		for (i = 0;i < listaAresta.length; i++)
+		//Remover a posição do vetor de vértices e de arestas referente ao vertice
+		//e atualizar o índice dos vértices deslocados
+		indiceVertices.remove(vertice);
+		for (i = localVertice; i < numeroTotalVertices - 1; i++)
 		{
-			if (i != localVertice)
-			{
-				listaArestaTemp[contTemp] = listaAresta[i];
-				contTemp++;
-			}
+			vetorVertices[i] = vetorVertices[i + 1];
+			vetorArestas[i] = vetorArestas[i + 1];
+			grauVertices[i] = grauVertices[i + 1];
+			indiceVertices.put(vetorVertices[i], Integer.valueOf(i));
 		}
 		
-		listaAresta = listaArestaTemp;
-		
-		//Remover o vértice		
-		listaVertice.remove(vertice);
+		numeroTotalVertices--;
+		vetorVertices[numeroTotalVertices] = null;
+		invalidarFotografias();
+		vetorArestas[numeroTotalVertices] = new Aresta[0];
+		grauVertices[numeroTotalVertices] = 0;
 	}
 	
 	/**
@@ -529,26 +506,27 @@ public class Grafo extends Object
 	 */
 	public void removerAresta(Aresta aresta)
 	{
-		boolean 	removido;
-		int 		i, j;
-		Aresta 		arestaTemp;
+		int 		origem, destino;
+		Vertice		extremos[];
 		
-		removido = false;
-		for (i = 0; i < listaVertice.size(); i++)
-		{
-			for (j = 0 ; j < listaAresta[i].size(); j++)
-			{
-				arestaTemp = (Aresta) listaAresta[i].get(j);
-				if (arestaTemp.equals(aresta))
-				{
-					listaAresta[i].remove(j);
-					removido = true;	
-				}
-			}
-		}
+		//Os vértices da aresta podem ter sido alterados após a sua inserção, 
+		//então são utilizados os vértices guardados no registro
+		extremos = registroArestas.remove(aresta);
+		
+		if (extremos == null)
+			return;
+		
+		origem = indiceVertice(extremos[0]);
+		destino = indiceVertice(extremos[1]);
+		
+		if (origem >= 0)
+			removerArestaVertice(origem, aresta);
+		
+		if ((destino >= 0) && (destino != origem))
+			removerArestaVertice(destino, aresta);
 
-		if (removido)
-			numeroTotalArestas--;
+		numeroTotalArestas--;
+		invalidarFotografias();
 	}
 	
 	/**
@@ -562,19 +540,15 @@ public class Grafo extends Object
 	 */
 	public void removerTodasArestas(Vertice vertice)
 	{
-		int 	i,
-				contMax,
-				localVertice;
-		Aresta	arestaTemp;
+		int 	localVertice;
 		
-		localVertice = getLocalizacaoVertice(vertice);
-		contMax = listaAresta[localVertice].size();
+		localVertice = indiceVertice(vertice);
 		
-		for (i = 0; i < contMax; i++)
-		{
-			arestaTemp = (Aresta) listaAresta[localVertice].get(0);
-			removerAresta(arestaTemp);
-		}
+		if (localVertice < 0)
+			return;
+		
+		while (grauVertices[localVertice] > 0)
+			removerAresta(vetorArestas[localVertice][0]);
 	}
 	
 	/**
@@ -586,9 +560,7 @@ public class Grafo extends Object
 	 */
 	public void removerGrafo()
 	{
-		listaVertice.clear();
-		listaAresta = null;
-		numeroTotalArestas = 0;
+		inicializarVetores(CAPACIDADE_INICIAL);
 	}
 	
 	/**
@@ -605,78 +577,24 @@ public class Grafo extends Object
 	 */
 	public int distanciaMenorCaminho(Vertice origem, Vertice destino)
 	{
-		int			i, contador, custo[];
-		LinkedList	lista;
-		Vertice		verticesAdj[], verticeAtual, verticePosterior;
-		boolean 	adjacente;
+		int				indiceOrigem, indiceDestino, distancias[];
+		GrafoCompacto	compacto;
 		
-		lista = new LinkedList();
-		contador = 1;
+		compacto = compactar();
+		indiceOrigem = indiceVertice(origem);
+		indiceDestino = indiceVertice(destino);
 		
-		desmarcarTodosVerticeVisitados();
+		if ((indiceOrigem < 0) || (indiceDestino < 0) || (indiceOrigem == indiceDestino))
+			return 0;
 		
-		lista.add(origem);
-		origem.setVisitado(true);
-
-		//Insere todos os vertice em uma lista encadeada pelo percurso em largura
-		verticeAtual = origem;
-		while (!existeVertice(lista, destino))
-		{
-			verticesAdj = getVerticesAdjacentes(verticeAtual);
-			
-			if (verticesAdj != null)
-			{
-				for (i = 0; i < verticesAdj.length; i++)	
-				{
-					if (!verticesAdj[i].getVisitado())
-					{
-						verticesAdj[i].setVisitado(true);
-						lista.add(verticesAdj[i]);
-					}	
-				}
-			}
-			else
-				break;
-			
-			if (contador == lista.size())
-				return 0;
-				
-			verticeAtual = (Vertice) lista.get(contador);
-			contador++;
-		}
+		distancias = new int[numeroTotalVertices];
+		compacto.calcularDistancias(indiceOrigem, distancias, new int[numeroTotalVertices]);
 		
-		custo = new int[getNumeroTotalVertices()];
-		for (i = 0; i < getNumeroTotalVertices(); i++)
-			custo[i] = 1000000; //custo muito alto infinito
+		//Não existe caminho entre os vértices
+		if (distancias[indiceDestino] < 0)
+			return 0;
 		
-		contador = 0;
-		verticeAtual = (Vertice) lista.get(contador);
-		custo[getLocalizacaoVertice(verticeAtual)] = contador;
-		contador++;
-		i = 1;
-		adjacente = false;
-		while (lista.size() > i)
-		{
-			//Altera o vetor de custo
-			verticePosterior = (Vertice) lista.get(i);
-			
-			if (adjacencia(verticePosterior, verticeAtual))
-			{
-				custo[getLocalizacaoVertice(verticePosterior)] = custo[getLocalizacaoVertice(verticeAtual)] + 1;
-				adjacente = false;
-			}
-			else
-			{
-				verticeAtual = (Vertice) lista.get(contador);
-				contador++;
-				adjacente = true;
-			}
-			
-			if (!adjacente)
-				i++;
-		}		
-		
-		return custo[getLocalizacaoVertice(destino)];
+		return distancias[indiceDestino];
 	}
 	
 	/**
@@ -691,69 +609,26 @@ public class Grafo extends Object
 	 */
 	public Vertice[] percursoLarguraOrientado(int indiceInicial)
 	{
-		int			i,
-					contadorVertice;
-		Vertice		verticeTemp,
-					verticesRetorno[];
-		Aresta		arestaTemp;
-		LinkedList	listaRetorno;
-		
-		listaRetorno = new LinkedList();
-		contadorVertice = indiceInicial;
-		
-		if ((indiceInicial >= 0) && (indiceInicial < listaVertice.size()))
-		{
-			//O valor do indice está correto
-			
-			desmarcarTodosVerticeVisitados();
-			
-			//Inicializa a fila de Vértices
-			inicializarFila();
-			
-			//Visita o vértice...
-			verticeTemp = (Vertice) listaVertice.get(indiceInicial);
-			
-			//Marcar o vértice
-			verticeTemp.setVisitado(true);
-			listaRetorno.add(verticeTemp);
-			
-			//Inserir vértice na fila
-			inserirFila(verticeTemp);
-			
-			while(!filaVazia())
-			{
-				//Remover da fila
-				verticeTemp = removerFila();
-				contadorVertice = getLocalizacaoVertice(verticeTemp);
-					
-				for (i = 0; i < listaAresta[contadorVertice].size(); i++)
-				{
-					arestaTemp = (Aresta) listaAresta[contadorVertice].get(i);
-
-					if (!(arestaTemp.getVerticeDestino()).getVisitado())
-					{
-						//Visita o vértice...
-						verticeTemp = (Vertice) arestaTemp.getVerticeDestino();
-						
-						//Marcar o vértice
-						verticeTemp.setVisitado(true);
-						listaRetorno.add(verticeTemp);
-						
-						//Inserir vértice na fila
-						inserirFila(verticeTemp);
-					}
-				}
-			}
-			
-			destruirFila();
-			verticesRetorno = new Vertice[listaRetorno.size()];
-			for (i = 0; i < listaRetorno.size(); i++)
-				verticesRetorno[i] = (Vertice) listaRetorno.get(i);
-						
-			return verticesRetorno;
-		}
+		return percursoLarguraOrientado(new int[] {indiceInicial});
+	}
+	
+	/**
+	 * Retorna todos os vértice visitados durante um único percurso em largura 
+	 * iniciado ao mesmo tempo em vários vértices, considerando o sentido da 
+	 * aresta. Os vértices iniciais ocupam as primeiras posições do vetor, na
+	 * ordem em que foram informados, seguidos dos demais na ordem de visita. 
+	 * Partindo de um vértice de cada componente conexa, o percurso visita uma
+	 * floresta inteira em tempo linear.
+	 *
+	 * @param indicesIniciais as localizações na lista dos vértices iniciais
+	 * @return os vértices visitados ou null caso alguma localização seja inválida
+	 */
+	public Vertice[] percursoLarguraOrientado(int indicesIniciais[])
+	{
+		GrafoCompacto	compacto;
 		
-		return null;
+		compacto = compactar();
+		return percorrerLargura(indicesIniciais, compacto.getInicioSucessores(), compacto.getSucessores());
 	}
 	
 	/**
@@ -768,81 +643,26 @@ public class Grafo extends Object
 	 */
 	public Vertice[] percursoLargura(int indiceInicial)
 	{
-		int			i,
-					contadorVertice;
-		Vertice		verticeTemp,
-					verticesRetorno[];
-		Aresta		arestaTemp;
-		LinkedList	listaRetorno;
-		
-		listaRetorno = new LinkedList();
-		contadorVertice = indiceInicial;
-		
-		if ((indiceInicial >= 0) && (indiceInicial < listaVertice.size()))
-		{
-			//O valor do indice está correto
-			desmarcarTodosVerticeVisitados();
-			
-			//Inicializa a fila de Vértices
-			inicializarFila();
-			
-			//Visita o vértice...
-			verticeTemp = (Vertice) listaVertice.get(indiceInicial);
-			
-			//Marcar o vértice
-			verticeTemp.setVisitado(true);
-			listaRetorno.add(verticeTemp);
-			
-			//Inserir vértice na fila
-			inserirFila(verticeTemp);
-			
-			while(!filaVazia())
-			{
-				//Remover da fila
-				verticeTemp = removerFila();
-				contadorVertice = getLocalizacaoVertice(verticeTemp);
-					
-				for (i = 0; i < listaAresta[contadorVertice].size(); i++)
-				{
-					arestaTemp = (Aresta) listaAresta[contadorVertice].get(i);
-
-					if (!(arestaTemp.getVerticeOrigem()).getVisitado())
-					{
-						//Visita o vértice...
-						verticeTemp = (Vertice) arestaTemp.getVerticeOrigem();
-						
-						//Marcar o vértice
-						verticeTemp.setVisitado(true);
-						listaRetorno.add(verticeTemp);
-						
-						//Inserir vértice na fila
-						inserirFila(verticeTemp);
-					}
-					
-					if (!(arestaTemp.getVerticeDestino()).getVisitado())
-					{
-						//Visita o vértice...
-						verticeTemp = (Vertice) arestaTemp.getVerticeDestino();
-						
-						//Marcar o vértice
-						verticeTemp.setVisitado(true);
-						listaRetorno.add(verticeTemp);
-						
-						//Inserir vértice na fila
-						inserirFila(verticeTemp);
-					}
-				}
-			}
-			
-			destruirFila();
-			verticesRetorno = new Vertice[listaRetorno.size()];
-			for (i = 0; i < listaRetorno.size(); i++)
-				verticesRetorno[i] = (Vertice) listaRetorno.get(i);
-			
-			return verticesRetorno;
-		}
+		return percursoLargura(new int[] {indiceInicial});
+	}
+	
+	/**
+	 * Retorna todos os vértice visitados durante um único percurso em largura 
+	 * iniciado ao mesmo tempo em vários vértices, não considerando o sentido da
+	 * aresta. Os vértices iniciais ocupam as primeiras posições do vetor, na
+	 * ordem em que foram informados, seguidos dos demais na ordem de visita. 
+	 * Partindo de um vértice de cada componente conexa, o percurso visita todo
+	 * o grafo em tempo linear.
+	 *
+	 * @param indicesIniciais as localizações na lista dos vértices iniciais
+	 * @return os vértices visitados ou null caso alguma localização seja inválida
+	 */
+	public Vertice[] percursoLargura(int indicesIniciais[])
+	{
+		GrafoCompacto	compacto;
 		
-		return null;
+		compacto = compactar();
+		return percorrerLargura(indicesIniciais, compacto.getInicioAdjacentes(), compacto.getAdjacentes());
 	}
 	
 	/**
@@ -857,69 +677,61 @@ public class Grafo extends Object
 	 */
 	public Vertice[] percursoProfundidadeOrientado(int indiceInicial)
 	{
-		int			i,
-					contadorVertice;
-		Vertice		verticeTemp,
-					verticesRetorno[];
-		Aresta		arestaTemp;
-		LinkedList	listaRetorno;
-		
-		listaRetorno = new LinkedList();
-		contadorVertice = indiceInicial;
+		int				i, atual, topo, contador,
+						pilha[], ordem[], inicioVizinhos[], vizinhos[];
+		boolean			visitados[];
+		Vertice			verticesRetorno[];
+		GrafoCompacto	compacto;
 		
-		if ((indiceInicial >= 0) && (indiceInicial < listaVertice.size()))
+		if ((indiceInicial >= 0) && (indiceInicial < numeroTotalVertices))
 		{
 			//O valor do indice está correto
 			desmarcarTodosVerticeVisitados();
 			
-			//Inicializa a fila de Vértices
-			inicializarPilha();
-			
-			//Visita o vértice...
-			verticeTemp = (Vertice) listaVertice.get(indiceInicial);
-			
-			//Marcar o vértice
-			verticeTemp.setVisitado(true);
-			listaRetorno.add(verticeTemp);
-			
-			//Inserir vértice na pilha
-			inserirPilha(verticeTemp);
-			inserirPilha(verticeTemp);
-			
-			while(!pilhaVazia())
+			compacto = compactar();
+			inicioVizinhos = compacto.getInicioSucessores();
+			vizinhos = compacto.getSucessores();
+			visitados = new boolean[numeroTotalVertices];
+			pilha = new int[numeroTotalVertices + 1];
+			ordem = new int[numeroTotalVertices];
+			
+			//Visita e marca o vértice inicial inserindo-o na pilha
+			contador = 0;
+			topo = 0;
+			visitados[indiceInicial] = true;
+			ordem[contador++] = indiceInicial;
+			pilha[topo++] = indiceInicial;
+			pilha[topo++] = indiceInicial;
+			
+			while (topo > 0)
 			{
 				//Remover da pilha
-				verticeTemp = removerPilha();
-				contadorVertice = getLocalizacaoVertice(verticeTemp);
-				i = 0;
+				atual = pilha[--topo];
+				i = inicioVizinhos[atual];
 				
-				while (listaAresta[contadorVertice].size() > i)
+				while (i < inicioVizinhos[atual + 1])
 				{
-					arestaTemp = (Aresta) listaAresta[contadorVertice].get(i);
-					i++;
-					
-					if (!arestaTemp.getVerticeDestino().getVisitado())
+					if (!visitados[vizinhos[i]])
 					{
-						//Visita o vértice...
-						verticeTemp = (Vertice) arestaTemp.getVerticeDestino();
-						
-						//Marcar o vértice
-						verticeTemp.setVisitado(true);
-						listaRetorno.add(verticeTemp);
-						
-						//Inserir vértice na pilha
-						inserirPilha(verticeTemp);
+						//Visita e marca o vértice inserindo-o na pilha
+						atual = vizinhos[i];
+						visitados[atual] = true;
+						ordem[contador++] = atual;
+						pilha[topo++] = atual;
 						
-						contadorVertice = getLocalizacaoVertice(verticeTemp);
-						i = 0;
+						i = inicioVizinhos[atual];
 					}
+					else
+						i++;
 				}
 			}
 			
-			destruirPilha();
-			verticesRetorno = new Vertice[listaRetorno.size()];
-			for (i = 0; i < listaRetorno.size(); i++)
-				verticesRetorno[i] = (Vertice) listaRetorno.get(i);
+			verticesRetorno = new Vertice[contador];
+			for (i = 0; i < contador; i++)
+			{
+				verticesRetorno[i] = vetorVertices[ordem[i]];
+				verticesRetorno[i].setVisitado(true);
+			}
 			
 			return verticesRetorno;
 		}
@@ -939,85 +751,61 @@ public class Grafo extends Object
 	 */
 	public Vertice[] percursoProfundidade(int indiceInicial)
 	{
-		int			i,
-					contadorVertice;
-		Vertice		verticeTemp,
-					verticesRetorno[];
-		Aresta		arestaTemp;
-		LinkedList	listaRetorno;
-		
-		listaRetorno = new LinkedList();
-		contadorVertice = indiceInicial;
+		int				i, atual, topo, contador,
+						pilha[], ordem[], inicioVizinhos[], vizinhos[];
+		boolean			visitados[];
+		Vertice			verticesRetorno[];
+		GrafoCompacto	compacto;
 		
-		if ((indiceInicial >= 0) && (indiceInicial < listaVertice.size()))
+		if ((indiceInicial >= 0) && (indiceInicial < numeroTotalVertices))
 		{
 			//O valor do indice está correto
 			desmarcarTodosVerticeVisitados();
 			
-			//Inicializa a fila de Vértices
-			inicializarPilha();
-			
-			//Visita o vértice...
-			verticeTemp = (Vertice) listaVertice.get(indiceInicial);
-			
-			//Marcar o vértice
-			verticeTemp.setVisitado(true);
-			listaRetorno.add(verticeTemp);
-			
-			//Inserir vértice na pilha
-			inserirPilha(verticeTemp);
-			inserirPilha(verticeTemp);
-			
-			while(!pilhaVazia())
+			compacto = compactar();
+			inicioVizinhos = compacto.getInicioAdjacentes();
+			vizinhos = compacto.getAdjacentes();
+			visitados = new boolean[numeroTotalVertices];
+			pilha = new int[numeroTotalVertices + 1];
+			ordem = new int[numeroTotalVertices];
+			
+			//Visita e marca o vértice inicial inserindo-o na pilha
+			contador = 0;
+			topo = 0;
+			visitados[indiceInicial] = true;
+			ordem[contador++] = indiceInicial;
+			pilha[topo++] = indiceInicial;
+			pilha[topo++] = indiceInicial;
+			
+			while (topo > 0)
 			{
 				//Remover da pilha
-				verticeTemp = removerPilha();
-				contadorVertice = getLocalizacaoVertice(verticeTemp);
-				i = 0;
+				atual = pilha[--topo];
+				i = inicioVizinhos[atual];
 				
-				while (listaAresta[contadorVertice].size() > i)
+				while (i < inicioVizinhos[atual + 1])
 				{
-					arestaTemp = (Aresta) listaAresta[contadorVertice].get(i);
-					i++;
-					
-					if (!arestaTemp.getVerticeOrigem().getVisitado())
+					if (!visitados[vizinhos[i]])
 					{
-						//Visita o vértice...
-						verticeTemp = (Vertice) arestaTemp.getVerticeOrigem();
+						//Visita e marca o vértice inserindo-o na pilha
+						atual = vizinhos[i];
+						visitados[atual] = true;
+						ordem[contador++] = atual;
+						pilha[topo++] = atual;
 						
-						//Marcar o vértice
-						verticeTemp.setVisitado(true);
-						listaRetorno.add(verticeTemp);
-						
-						//Inserir vértice na pilha
-						inserirPilha(verticeTemp);
-						
-						contadorVertice = getLocalizacaoVertice(verticeTemp);
-						i = 0;
-					}
-					
-					if (!arestaTemp.getVerticeDestino().getVisitado())
-					{
-						//Visita o vértice...
-						verticeTemp = (Vertice) arestaTemp.getVerticeDestino();
-						
-						//Marcar o vértice
-						verticeTemp.setVisitado(true);
-						listaRetorno.add(verticeTemp);
-						
-						//Inserir vértice na pilha
-						inserirPilha(verticeTemp);
-						
-						contadorVertice = getLocalizacaoVertice(verticeTemp);
-						i = 0;
+						i = inicioVizinhos[atual];
 					}
+					else
+						i++;
 				}
 			}
 			
-			destruirPilha();
-			verticesRetorno = new Vertice[listaRetorno.size()];
-			for (i = 0; i < listaRetorno.size(); i++)
-				verticesRetorno[i] = (Vertice) listaRetorno.get(i);
+			verticesRetorno = new Vertice[contador];
+			for (i = 0; i < contador; i++)
+			{
+				verticesRetorno[i] = vetorVertices[ordem[i]];
+				verticesRetorno[i].setVisitado(true);
+			}
 			
 			return verticesRetorno;
 		}
@@ -1026,151 +814,201 @@ public class Grafo extends Object
 	}
 
 //Métodos privados da classe Grafo
-	private boolean existeVertice(LinkedList lista, Vertice vertice)
+	private Vertice[] percorrerLargura(int indicesIniciais[], int inicioVizinhos[], int vizinhos[])
 	{
-		int 		i;
-		Vertice		verticeTemp;
+		int				i, atual, vizinho, inicio, fim, fila[];
+		boolean			visitados[];
+		Vertice			verticesRetorno[];
 		
-		for (i = 0; i < lista.size(); i++)
-		{
-			verticeTemp = (Vertice) lista.get(i);
-			
-			if (verticeTemp.equals(vertice))
-				return true;
-		}
+		if ((indicesIniciais == null) || (indicesIniciais.length == 0))
+			return null;
 		
-		return false;
-	}
-	
-	private boolean adjacencia(Vertice origem, Vertice destino)
-	{
-		int 	i;
-		Vertice	vertices[];
+		for (i = 0; i < indicesIniciais.length; i++)
+			if ((indicesIniciais[i] < 0) || (indicesIniciais[i] >= numeroTotalVertices))
+				return null;
 		
-		vertices = getVerticesAdjacentes(origem);
+		desmarcarTodosVerticeVisitados();
+		visitados = new boolean[numeroTotalVertices];
+		fila = new int[numeroTotalVertices];
 		
-		if (vertices == null)
-			return false;
-			
-		for (i = 0; i < vertices.length; i++)
+		//Visita e marca os vértices iniciais inserindo-os na fila
+		inicio = 0;
+		fim = 0;
+		for (i = 0; i < indicesIniciais.length; i++)
 		{
-			if (vertices[i].equals(destino))
-				return true;	
+			if (!visitados[indicesIniciais[i]])
+			{
+				visitados[indicesIniciais[i]] = true;
+				fila[fim++] = indicesIniciais[i];
+			}
 		}
 		
-		return false;
-	}
-	
-	private void criarListaAresta()
-	{
-		int 		i;
-		LinkedList 	listaArestaTemp[];
-		
-		if (listaAresta == null)
+		while (inicio < fim)
 		{
-			//Criado pela primeira vez uma lista de arestas
-			listaAresta = new LinkedList[listaVertice.size()];
+			//Remover da fila
+			atual = fila[inicio++];
 			
-			for (i = 0; i < listaAresta.length; i++)
-				listaAresta[i] = new LinkedList();
-		}
-		else
-		{
-			if (listaVertice.size() > listaAresta.length)
+			for (i = inicioVizinhos[atual]; i < inicioVizinhos[atual + 1]; i++)
 			{
-				//Foram criados novos vértices que não possuem uma lista de arestas
-				listaArestaTemp = new LinkedList[listaVertice.size()];
+				vizinho = vizinhos[i];
 				
-				for (i = 0; i < listaArestaTemp.length; i++)
+				if (!visitados[vizinho])
 				{
-					listaArestaTemp[i] = new LinkedList();
-					
-					if (i < listaAresta.length)
-						listaArestaTemp[i] = listaAresta[i];
+					//Visita e marca o vértice inserindo-o na fila
+					visitados[vizinho] = true;
+					fila[fim++] = vizinho;
 				}
-				
-				listaAresta = null; //Seta para o coletor de lixo limpar da memória
-				
-				listaAresta = listaArestaTemp;
 			}
 		}
-	}
-	
-	private void desmarcarTodosVerticeVisitados()
-	{
-		//Ele percorre por todo o grafo desmarca os vertices visitados.
-		int 		i, j;
-		Vertice		verticeTemp;
-		Aresta		arestaTemp;
 		
-		for (i = 0; i < listaVertice.size(); i++)
+		verticesRetorno = new Vertice[fim];
+		for (i = 0; i < fim; i++)
 		{
-			verticeTemp = (Vertice) listaVertice.get(i);
-			verticeTemp.setVisitado(false);
-			
-			for (j = 0; j < listaAresta[i].size(); j++)
-			{
-				arestaTemp = (Aresta) listaAresta[i].get(j);
-				arestaTemp.setVisitado(false);
-			}	
+			verticesRetorno[i] = vetorVertices[fila[i]];
+			verticesRetorno[i].setVisitado(true);
 		}
+		
+		return verticesRetorno;
 	}
 	
-//Metodos da fila interna para o percurso em amplitude
-	private void inicializarFila()
-	{
-		filaVertices = new LinkedList();
-	}
-	
-	private void inserirFila(Vertice vertice)
+	private int indiceVertice(Vertice vertice)
 	{
-		filaVertices.addLast(vertice);
+		Integer indice;
+		
+		indice = indiceVertices.get(vertice);
+		
+		if (indice == null)
+			return -1;
+		
+		return indice.intValue();
 	}
 	
-	private Vertice removerFila()
+	private void invalidarFotografias()
 	{
-		return (Vertice) filaVertices.removeFirst();
+		//Descarta os vetores montados a partir da estrutura anterior do grafo
+		todasArestas = null;
+		grafoCompacto = null;
 	}
 	
-	private boolean filaVazia()
+	private void inicializarVetores(int capacidade)
 	{
-		if (filaVertices.size() > 0)
-			return false;
+		int i;
 		
-		return true;
-	}
-	
-	private void destruirFila()
-	{
-		filaVertices = null;	
+		numeroTotalVertices = 0;
+		numeroTotalArestas = 0;
+		indiceVertices = new IdentityHashMap<Vertice, Integer>(capacidade);
+		registroArestas = new IdentityHashMap<Aresta, Vertice[]>(capacidade);
+		invalidarFotografias();
+		vetorVertices = new Vertice[capacidade];
+		vetorArestas = new Aresta[capacidade][];
+		grauVertices = new int[capacidade];
+		
+		for (i = 0; i < capacidade; i++)
+			vetorArestas[i] = new Aresta[0];
 	}
 	
-//Métdos da pilha interna para o percurso em profundidade
-	private void inicializarPilha()
+	private void garantirCapacidade(int capacidade)
 	{
-		pilhaVertices = new LinkedList();
+		int 		i, novaCapacidade;
+		Vertice		verticesTemp[];
+		Aresta		arestasTemp[][];
+		int			grauTemp[];
+		
+		if (capacidade <= vetorVertices.length)
+			return;
+		
+		//Cresce o vetor pela metade do seu tamanho para diluir o custo da cópia
+		novaCapacidade = vetorVertices.length + (vetorVertices.length >> 1) + 1;
+		if (novaCapacidade < capacidade)
+			novaCapacidade = capacidade;
+		
+		verticesTemp = new Vertice[novaCapacidade];
+		arestasTemp = new Aresta[novaCapacidade][];
+		grauTemp = new int[novaCapacidade];
+		
+		System.arraycopy(vetorVertices, 0, verticesTemp, 0, numeroTotalVertices);
+		System.arraycopy(vetorArestas, 0, arestasTemp, 0, numeroTotalVertices);
+		System.arraycopy(grauVertices, 0, grauTemp, 0, numeroTotalVertices);
+		
+		for (i = numeroTotalVertices; i < novaCapacidade; i++)
+			arestasTemp[i] = new Aresta[0];
+		
+		vetorVertices = verticesTemp;
+		vetorArestas = arestasTemp;
+		grauVertices = grauTemp;
 	}
 	
-	private void inserirPilha(Vertice vertice)
+	private void adicionarVertice(Vertice vertice)
 	{
-		pilhaVertices.addLast(vertice);
+		garantirCapacidade(numeroTotalVertices + 1);
+		
+		vetorVertices[numeroTotalVertices] = vertice;
+		grauVertices[numeroTotalVertices] = 0;
+		indiceVertices.put(vertice, Integer.valueOf(numeroTotalVertices));
+		numeroTotalVertices++;
+		invalidarFotografias();
 	}
 	
-	private Vertice removerPilha()
+	private void adicionarArestaVertice(int indice, Aresta aresta)
 	{
-		return (Vertice) pilhaVertices.removeLast();	
+		Aresta arestasTemp[];
+		
+		if (grauVertices[indice] == vetorArestas[indice].length)
+		{
+			//O vetor de arestas do vértice está cheio e deve crescer
+			arestasTemp = new Aresta[(vetorArestas[indice].length * 2) + 2];
+			System.arraycopy(vetorArestas[indice], 0, arestasTemp, 0, grauVertices[indice]);
+			vetorArestas[indice] = arestasTemp;
+		}
+		
+		vetorArestas[indice][grauVertices[indice]] = aresta;
+		grauVertices[indice]++;
 	}
 	
-	private boolean pilhaVazia()
+	private boolean removerArestaVertice(int indice, Aresta aresta)
 	{
-		if (pilhaVertices.size() > 0)
+		//Remove todas as ocorrências da aresta mantendo a ordem das demais
+		int 		i, contador;
+		Aresta		arestas[];
+		
+		arestas = vetorArestas[indice];
+		contador = 0;
+		for (i = 0; i < grauVertices[indice]; i++)
+		{
+			if (!arestas[i].equals(aresta))
+			{
+				arestas[contador] = arestas[i];
+				contador++;
+			}
+		}
+		
+		if (contador == grauVertices[indice])
 			return false;
 		
-		return true;	
+		for (i = contador; i < grauVertices[indice]; i++)
+			arestas[i] = null;
+		
+		grauVertices[indice] = contador;
+		return true;
 	}
 	
-	private void destruirPilha()
+	private void desmarcarTodosVerticeVisitados()
 	{
-		pilhaVertices = null;
+		//Ele percorre por todo o grafo desmarca os vertices visitados.
+		int 		i, j;
+		Vertice		verticeTemp;
+		Aresta		arestaTemp;
+		
+		for (i = 0; i < numeroTotalVertices; i++)
+		{
+			verticeTemp = vetorVertices[i];
+			verticeTemp.setVisitado(false);
+			
+			for (j = 0; j < grauVertices[i]; j++)
+			{
+				arestaTemp = vetorArestas[i][j];
+				arestaTemp.setVisitado(false);
+			}	
+		}
 	}
-}
\ No newline at end of file
+}
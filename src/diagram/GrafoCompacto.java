@@ -0,0 +1,305 @@
+package diagram;
+
+import java.util.IdentityHashMap;
+
+import diagram.componente.Aresta;
+import diagram.componente.Vertice;
+
+/**
+ * Está classe é uma fotografia imutável de um grafo em um formato compacto,
+ * onde os vértices e as arestas são identificados por números inteiros e as
+ * adjacências são armazenadas em vetores primitivos no formato de linhas
+ * esparsas comprimidas (CSR). Os vizinhos do vértice i estão armazenados entre
+ * as posições getInicioAdjacentes()[i] e getInicioAdjacentes()[i + 1] do vetor
+ * getAdjacentes().
+ *
+ * Os algoritmos de percurso, menor caminho e desenho automático utilizam está
+ * representação para evitar a criação de vetores temporários de vértices e
+ * arestas a cada consulta. A fotografia é obtida através do método
+ * Grafo.compactar e não acompanha as alterações feitas no grafo depois dela,
+ * portanto um novo objeto deve ser solicitado após qualquer alteração.
+ *
+ * Os vetores retornados pelos métodos desta classe são compartilhados e não
+ * devem ser alterados.
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see Grafo#compactar
+ */
+public final class GrafoCompacto extends Object
+{
+	private final Vertice			vertices[];
+
+	private final Aresta			arestas[];
+
+	private final int				origens[],
+									destinos[],
+									inicioAdjacentes[],
+									adjacentes[],
+									inicioSucessores[],
+									sucessores[];
+
+	private final IdentityHashMap<Vertice, Integer>	indiceVertices;
+
+	/**
+	 * Cria a fotografia a partir da estrutura interna da classe Grafo. Os
+	 * vizinhos de cada vértice seguem a mesma ordem do seu vetor de arestas,
+	 * assim os percursos sobre a fotografia visitam os vértices na mesma ordem
+	 * que os percursos do grafo.
+	 *
+	 * @param vetorVertices o vetor de vértices do grafo
+	 * @param numeroVertices o número de vértices válidos no vetor
+	 * @param vetorArestas o vetor de arestas de cada vértice
+	 * @param grauVertices o número de arestas válidas de cada vértice
+	 * @param todasArestas o vetor com todas as arestas, sem repetição
+	 * @param indice o índice de identidade dos vértices
+	 */
+	GrafoCompacto(Vertice vetorVertices[], int numeroVertices, Aresta vetorArestas[][], int grauVertices[], Aresta todasArestas[], IdentityHashMap<Vertice, Integer> indice)
+	{
+		int 	i, k, e, origem, destino, numeroArestas,
+				contadorAdjacentes, contadorSucessores;
+		Aresta	arestaTemp;
+
+		numeroArestas = (todasArestas == null) ? 0 : todasArestas.length;
+
+		vertices = new Vertice[numeroVertices];
+		System.arraycopy(vetorVertices, 0, vertices, 0, numeroVertices);
+		indiceVertices = new IdentityHashMap<Vertice, Integer>(indice);
+
+		arestas = new Aresta[numeroArestas];
+		origens = new int[numeroArestas];
+		destinos = new int[numeroArestas];
+
+		for (e = 0; e < numeroArestas; e++)
+		{
+			arestas[e] = todasArestas[e];
+			origens[e] = getIndice(arestas[e].getVerticeOrigem());
+			destinos[e] = getIndice(arestas[e].getVerticeDestino());
+		}
+
+		//Cada aresta aparece no vetor da origem e do destino
+		contadorAdjacentes = 0;
+		for (i = 0; i < numeroVertices; i++)
+			contadorAdjacentes += grauVertices[i];
+
+		inicioAdjacentes = new int[numeroVertices + 1];
+		inicioSucessores = new int[numeroVertices + 1];
+		adjacentes = new int[contadorAdjacentes];
+		sucessores = new int[contadorAdjacentes];
+
+		contadorAdjacentes = 0;
+		contadorSucessores = 0;
+		for (i = 0; i < numeroVertices; i++)
+		{
+			inicioAdjacentes[i] = contadorAdjacentes;
+			inicioSucessores[i] = contadorSucessores;
+
+			for (k = 0; k < grauVertices[i]; k++)
+			{
+				arestaTemp = vetorArestas[i][k];
+				origem = getIndice(arestaTemp.getVerticeOrigem());
+				destino = getIndice(arestaTemp.getVerticeDestino());
+
+				if ((origem < 0) || (destino < 0))
+					continue;
+
+				adjacentes[contadorAdjacentes++] = (origem == i) ? destino : origem;
+
+				if (origem == i)
+					sucessores[contadorSucessores++] = destino;
+			}
+		}
+
+		inicioAdjacentes[numeroVertices] = contadorAdjacentes;
+		inicioSucessores[numeroVertices] = contadorSucessores;
+	}
+
+// Métodos Get...
+
+	/**
+	 * Retorna o número de vértices da fotografia.
+	 *
+	 * @return o número total de vértices
+	 */
+	public int getNumeroVertices()
+	{
+		return vertices.length;
+	}
+
+	/**
+	 * Retorna o número de arestas da fotografia.
+	 *
+	 * @return o número total de arestas
+	 */
+	public int getNumeroArestas()
+	{
+		return arestas.length;
+	}
+
+	/**
+	 * Retorna o vértice identificado pelo índice passado pelo parâmetro. O
+	 * índice é o mesmo utilizado pelo grafo no momento da fotografia.
+	 *
+	 * @param indice o índice do vértice
+	 * @return o vértice correspondente
+	 */
+	public Vertice getVertice(int indice)
+	{
+		return vertices[indice];
+	}
+
+	/**
+	 * Retorna o índice do vértice passado pelo parâmetro ou -1 caso ele não
+	 * pertença a fotografia.
+	 *
+	 * @param vertice o vértice a ser localizado
+	 * @return o índice do vértice
+	 */
+	public int getIndice(Vertice vertice)
+	{
+		Integer indice;
+
+		indice = indiceVertices.get(vertice);
+
+		if (indice == null)
+			return -1;
+
+		return indice.intValue();
+	}
+
+	/**
+	 * Retorna a aresta identificada pelo índice passado pelo parâmetro. A ordem
+	 * das arestas é a mesma do método Grafo.getTodasArestas.
+	 *
+	 * @param indice o índice da aresta
+	 * @return a aresta correspondente
+	 */
+	public Aresta getAresta(int indice)
+	{
+		return arestas[indice];
+	}
+
+	/**
+	 * Retorna o índice do vértice de origem da aresta.
+	 *
+	 * @param indice o índice da aresta
+	 * @return o índice do vértice de origem
+	 */
+	public int getOrigem(int indice)
+	{
+		return origens[indice];
+	}
+
+	/**
+	 * Retorna o índice do vértice de destino da aresta.
+	 *
+	 * @param indice o índice da aresta
+	 * @return o índice do vértice de destino
+	 */
+	public int getDestino(int indice)
+	{
+		return destinos[indice];
+	}
+
+	/**
+	 * Retorna o número de vizinhos do vértice sem considerar o sentido das
+	 * arestas.
+	 *
+	 * @param indice o índice do vértice
+	 * @return o grau do vértice
+	 */
+	public int getGrau(int indice)
+	{
+		return inicioAdjacentes[indice + 1] - inicioAdjacentes[indice];
+	}
+
+	/**
+	 * Retorna o vetor com o início da lista de vizinhos de cada vértice. Ele
+	 * possui uma posição a mais que o número de vértices.
+	 *
+	 * @return o vetor de deslocamentos dos vizinhos
+	 */
+	public int[] getInicioAdjacentes()
+	{
+		return inicioAdjacentes;
+	}
+
+	/**
+	 * Retorna o vetor com os vizinhos de todos os vértices sem considerar o
+	 * sentido das arestas.
+	 *
+	 * @return o vetor de vizinhos
+	 */
+	public int[] getAdjacentes()
+	{
+		return adjacentes;
+	}
+
+	/**
+	 * Retorna o vetor com o início da lista de sucessores de cada vértice. Ele
+	 * possui uma posição a mais que o número de vértices.
+	 *
+	 * @return o vetor de deslocamentos dos sucessores
+	 */
+	public int[] getInicioSucessores()
+	{
+		return inicioSucessores;
+	}
+
+	/**
+	 * Retorna o vetor com os sucessores de todos os vértices, ou seja, os
+	 * vértices de destino das arestas que partem de cada vértice.
+	 *
+	 * @return o vetor de sucessores
+	 */
+	public int[] getSucessores()
+	{
+		return sucessores;
+	}
+
+// Algoritmos...
+
+	/**
+	 * Executa um percurso em largura a partir do vértice de origem sem
+	 * considerar o sentido das arestas. O vetor de distâncias recebe o número
+	 * mínimo de arestas até cada vértice ou -1 para os vértices não alcançados
+	 * e o vetor fila recebe os vértices na ordem em que foram visitados.
+	 *
+	 * Os dois vetores devem possuir ao menos o tamanho do número de vértices e
+	 * podem ser reutilizados entre as chamadas para evitar novas alocações.
+	 *
+	 * @param origem o índice do vértice inicial
+	 * @param distancias o vetor que receberá as distâncias
+	 * @param fila o vetor que receberá a ordem de visita
+	 * @return o número de vértices alcançados
+	 */
+	public int calcularDistancias(int origem, int distancias[], int fila[])
+	{
+		int 	i, atual, vizinho, inicio, fim;
+
+		for (i = 0; i < vertices.length; i++)
+			distancias[i] = -1;
+
+		inicio = 0;
+		fim = 0;
+		distancias[origem] = 0;
+		fila[fim++] = origem;
+
+		while (inicio < fim)
+		{
+			atual = fila[inicio++];
+
+			for (i = inicioAdjacentes[atual]; i < inicioAdjacentes[atual + 1]; i++)
+			{
+				vizinho = adjacentes[i];
+
+				if (distancias[vizinho] < 0)
+				{
+					distancias[vizinho] = distancias[atual] + 1;
+					fila[fim++] = vizinho;
+				}
+			}
+		}
+
+		return fim;
+	}
+}
@@ -76,6 +76,8 @@ public abstract class Vertice extends Componente
 							y,
 							largura,
 							altura;
+	
+	private boolean			fixo;
 	/**
 	 * Instância um novo vértice.
 	 *
@@ -199,6 +201,18 @@ public abstract class Vertice extends Componente
 		return altura;
 	}
 	
+	/**
+	 * Retorna se o vértice está fixo, ou seja, se os algoritmos de desenho 
+	 * automático devem manter as suas coordenadas atuais.
+	 * 
+	 * @return verdadeiro caso o vértice esteja fixo
+	 * @see Vertice#setFixo
+	 */
+	public boolean getFixo()
+	{
+		return fixo;
+	}
+	
 //Métodos Set...
 
 	/**
@@ -263,6 +277,20 @@ public abstract class Vertice extends Componente
 		}
 	}
 	
+	/**
+	 * Fixa ou libera o vértice para os algoritmos de desenho automático. Um 
+	 * vértice fixo mantém as suas coordenadas, mas continua atraindo e 
+	 * repelindo os demais vértices, permitindo desenhar somente uma parte do
+	 * diagrama ao redor de uma parte já organizada.
+	 *
+	 * @param fixo verdadeiro para manter as coordenadas do vértice
+	 * @see diagram.graphdrawing.SpringModel
+	 */
+	public void setFixo(boolean fixo)
+	{
+		this.fixo = fixo;
+	}
+	
 //Metodo para selecionar o vértice
 
  	/**
@@ -0,0 +1,589 @@
+package diagram.editor;
+
+import java.awt.Component;
+import java.awt.EventQueue;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import diagram.Grafo;
+
+import diagram.componente.Aresta;
+import diagram.componente.ArestaSimples;
+import diagram.componente.Vertice;
+import diagram.componente.VerticeElipse;
+
+import diagram.graphdrawing.AlgoritmoDesenho;
+import diagram.graphdrawing.CacheDesenho;
+import diagram.graphdrawing.OuvinteDesenho;
+import diagram.graphdrawing.RegistroAlgoritmos;
+import diagram.graphdrawing.SpringModel;
+
+/**
+ * A classe DesenhoSegundoPlano organiza o diagrama apresentado pelo editor em
+ * uma linha de execução separada, mantendo a interface livre para que o
+ * usuário continue rolando a área de desenho enquanto o grafo é organizado.
+ *
+ * O algoritmo é executado sobre uma cópia do grafo, com vértices e arestas
+ * equivalentes, que é atualizada a cada execução mantendo os mesmos objetos
+ * para os componentes que não foram alterados. Assim o desenho incremental do
+ * SpringModel continua identificando as alterações feitas desde o último
+ * desenho. As posições parciais são publicadas na área de desenho com uma
+ * taxa máxima de quadros por segundo e as posições finais, juntamente com os
+ * pontos de quebra das arestas, são atribuídas de uma única vez pela linha de
+ * execução de eventos do AWT.
+ *
+ * Sem um algoritmo informado pelo método setAlgoritmo, as pequenas alterações
+ * são reorganizadas pelo desenho incremental do SpringModel e os demais
+ * diagramas pelo algoritmo escolhido por RegistroAlgoritmos.escolher. Somente
+ * o SpringModel publica as posições parciais. Os desenhos completos passam
+ * pelo CacheDesenho compartilhado, então um diagrama reaberto recebe de
+ * imediato o desenho já calculado para a mesma estrutura.<br>
+ * <br>
+ *&nbsp;DesenhoSegundoPlano desenho = new DesenhoSegundoPlano(grafo, area);<br>
+ *&nbsp;desenho.setTamanhoAresta(130);<br>
+ *&nbsp;desenho.iniciar();<br>
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see AreaAplicativo
+ * @see AreaApplet
+ * @see SpringModel
+ * @see RegistroAlgoritmos
+ * @see CacheDesenho
+ */
+public class DesenhoSegundoPlano implements OuvinteDesenho, Runnable
+{
+	/**
+	 * O número máximo padrão de vezes por segundo que as posições parciais são
+	 * publicadas na área de desenho.
+	 */
+	public static final int		QUADROS_POR_SEGUNDO_PADRAO = 20;
+
+	private Grafo				grafo;
+
+	private Component			area;
+
+	private int					tamanhoAresta,
+								quadrosPorSegundo;
+
+	private String				algoritmo;
+
+	private CacheDesenho		cache;
+
+	private Runnable			acaoConclusao;
+
+	//Cópia do grafo desenhada pela linha de execução do algoritmo
+	private Grafo				copia;
+
+	private IdentityHashMap<Vertice, Vertice>	copiasVertices;
+
+	private IdentityHashMap<Aresta, Aresta>		copiasArestas;
+
+	private SpringModel			springModel;
+
+	//Algoritmo em execução, alterado junto com o indicador de cancelamento
+	private AlgoritmoDesenho	algoritmoAtual;
+
+	//Componentes originais na ordem dos componentes da cópia
+	private Vertice				verticesOriginais[];
+
+	private Aresta				arestasOriginais[],
+								arestasCopiadas[];
+
+	//Alterado somente pela linha de execução de eventos do AWT
+	private Thread				linha;
+
+	private volatile boolean	cancelado;
+
+	//Controle dos quadros publicados durante o desenho
+	private long				ultimoQuadro;
+
+	private boolean				quadroPendente;
+
+	//Construtor
+
+	/**
+	 * Cria um novo objeto responsável em organizar o grafo passado pelo
+	 * parâmetro, apresentando o progresso na área de desenho informada.
+	 *
+	 * @param grafo o grafo a ser organizado
+	 * @param area a área de desenho do editor que apresenta o grafo
+	 */
+	public DesenhoSegundoPlano(Grafo grafo, Component area)
+	{
+		this.grafo = grafo;
+		this.area = area;
+		tamanhoAresta = SpringModel.TAMANHO_DESEJAVEL_ARESTA_PADRAO;
+		quadrosPorSegundo = QUADROS_POR_SEGUNDO_PADRAO;
+		cache = CacheDesenho.getCompartilhado();
+
+		copia = new Grafo();
+		copiasVertices = new IdentityHashMap<Vertice, Vertice>();
+		copiasArestas = new IdentityHashMap<Aresta, Aresta>();
+		springModel = new SpringModel(copia);
+		springModel.setOuvinte(this);
+	}
+
+//Métodos Get
+
+	/**
+	 * Retorna o grafo organizado por este objeto.
+	 *
+	 * @return o grafo organizado
+	 */
+	public Grafo getGrafo()
+	{
+		return grafo;
+	}
+
+	/**
+	 * Retorna o comprimento que o algoritmo tentará manter para as arestas.
+	 *
+	 * @return o tamanho ideal das arestas
+	 */
+	public int getTamanhoAresta()
+	{
+		return tamanhoAresta;
+	}
+
+	/**
+	 * Retorna o número máximo de vezes por segundo que as posições parciais
+	 * são publicadas na área de desenho.
+	 *
+	 * @return o número máximo de quadros por segundo
+	 */
+	public int getQuadrosPorSegundo()
+	{
+		return quadrosPorSegundo;
+	}
+
+	/**
+	 * Retorna o nome do algoritmo utilizado na organização do grafo.
+	 *
+	 * @return o nome registrado em RegistroAlgoritmos ou null quando o
+	 * algoritmo é escolhido automaticamente
+	 */
+	public String getAlgoritmo()
+	{
+		return algoritmo;
+	}
+
+	/**
+	 * Retorna o cache utilizado nos desenhos completos.
+	 *
+	 * @return o cache ou null quando os desenhos são sempre calculados
+	 */
+	public CacheDesenho getCache()
+	{
+		return cache;
+	}
+
+	/**
+	 * Informa se existe um desenho em execução. Deve ser chamado pela linha de
+	 * execução de eventos do AWT.
+	 *
+	 * @return verdadeiro enquanto as posições finais não forem atribuídas
+	 */
+	public boolean getExecutando()
+	{
+		return linha != null;
+	}
+
+//Métodos Set
+
+	/**
+	 * Altera o comprimento que o algoritmo tentará manter para as arestas.
+	 *
+	 * @param tamanhoAresta o novo tamanho ideal das arestas
+	 */
+	public void setTamanhoAresta(int tamanhoAresta)
+	{
+		if (tamanhoAresta > 0)
+			this.tamanhoAresta = tamanhoAresta;
+		else
+			this.tamanhoAresta = SpringModel.TAMANHO_DESEJAVEL_ARESTA_PADRAO;
+	}
+
+	/**
+	 * Altera o número máximo de vezes por segundo que as posições parciais
+	 * são publicadas na área de desenho.
+	 *
+	 * @param quadrosPorSegundo o novo número máximo de quadros por segundo
+	 */
+	public void setQuadrosPorSegundo(int quadrosPorSegundo)
+	{
+		if (quadrosPorSegundo > 0)
+			this.quadrosPorSegundo = quadrosPorSegundo;
+		else
+			this.quadrosPorSegundo = QUADROS_POR_SEGUNDO_PADRAO;
+	}
+
+	/**
+	 * Altera o algoritmo utilizado na organização do grafo. O desenho
+	 * incremental só é utilizado quando o algoritmo é escolhido
+	 * automaticamente.
+	 *
+	 * @param algoritmo o nome de um algoritmo registrado em RegistroAlgoritmos,
+	 * sendo null ou um nome não registrado substituídos pela escolha automática
+	 */
+	public void setAlgoritmo(String algoritmo)
+	{
+		if ((algoritmo != null) && RegistroAlgoritmos.existe(algoritmo))
+			this.algoritmo = algoritmo;
+		else
+			this.algoritmo = null;
+	}
+
+	/**
+	 * Altera o cache utilizado nos desenhos completos. Deve ser chamado pela
+	 * linha de execução de eventos do AWT.
+	 *
+	 * @param cache o novo cache ou null para sempre calcular os desenhos
+	 */
+	public void setCache(CacheDesenho cache)
+	{
+		this.cache = cache;
+	}
+
+	/**
+	 * Altera a ação executada pela linha de execução de eventos do AWT logo
+	 * após as posições finais serem atribuídas ao grafo, como a atualização
+	 * das barras de rolagem do editor.
+	 *
+	 * @param acaoConclusao a ação a ser executada ou null
+	 */
+	public void setAcaoConclusao(Runnable acaoConclusao)
+	{
+		this.acaoConclusao = acaoConclusao;
+	}
+
+//Métodos de controle do desenho
+
+	/**
+	 * Inicia a organização do grafo em uma nova linha de execução. Deve ser
+	 * chamado pela linha de execução de eventos do AWT, pois a cópia do grafo
+	 * é atualizada antes do início do desenho.
+	 *
+	 * @return falso caso já exista um desenho em execução
+	 */
+	public boolean iniciar()
+	{
+		if (linha != null)
+			return false;
+
+		//Um cancelamento pode ter ficado pendente no SpringModel quando o
+		//desenho anterior terminou antes de executá-lo
+		if (cancelado)
+		{
+			springModel = new SpringModel(copia);
+			springModel.setOuvinte(this);
+		}
+
+		sincronizarCopia();
+		springModel.setTamanhoAresta(tamanhoAresta);
+		cancelado = false;
+		ultimoQuadro = 0;
+		quadroPendente = false;
+
+		linha = new Thread(this, "DesenhoSegundoPlano");
+		linha.setDaemon(true);
+		linha.start();
+
+		return true;
+	}
+
+	/**
+	 * Interrompe o desenho em execução. As melhores posições obtidas até o
+	 * momento são atribuídas ao grafo normalmente.
+	 */
+	public void cancelar()
+	{
+		synchronized (this)
+		{
+			cancelado = true;
+			if (algoritmoAtual != null)
+				algoritmoAtual.cancelar();
+		}
+	}
+
+//Métodos herdados da interface Runnable
+
+	/**
+	 * Executa o algoritmo sobre a cópia do grafo. É chamado pela linha de
+	 * execução criada pelo método iniciar e não deve ser chamado diretamente.
+	 */
+	public void run()
+	{
+		boolean concluido;
+
+		concluido = false;
+		try{
+			desenhar();
+			concluido = true;
+		}finally{
+			EventQueue.invokeLater(new Conclusao(concluido));
+		}
+	}
+
+//Métodos herdados da interface OuvinteDesenho
+
+	/**
+	 * Publica as posições parciais na área de desenho quando o intervalo
+	 * mínimo entre dois quadros já passou e o quadro anterior já foi
+	 * apresentado.
+	 *
+	 * @param desenho o objeto que está executando o desenho
+	 * @param componente a posição da componente conexa desenhada
+	 * @param iteracao o número de iterações já concluídas nesta componente
+	 * @param energia a energia atual da componente conexa
+	 * @param maiorDeltaM o maior deltaM dos vértices livres da componente
+	 */
+	public void iteracaoRealizada(SpringModel desenho, int componente, int iteracao, double energia, double maiorDeltaM)
+	{
+		int 	x[], y[];
+		long	agora;
+
+		synchronized (this)
+		{
+			agora = System.nanoTime();
+			if (quadroPendente || ((ultimoQuadro != 0) && (agora - ultimoQuadro < 1000000000L / quadrosPorSegundo)))
+				return;
+
+			ultimoQuadro = agora;
+			quadroPendente = true;
+		}
+
+		x = new int[verticesOriginais.length];
+		y = new int[verticesOriginais.length];
+		desenho.copiarCoordenadas(x, y);
+		EventQueue.invokeLater(new Quadro(x, y));
+	}
+
+//Métodos privados da classe DesenhoSegundoPlano
+	private void desenhar()
+	{
+		String				nome;
+		AlgoritmoDesenho	desenho;
+
+		nome = algoritmo;
+		if (nome == null)
+		{
+			//Após pequenas alterações somente a vizinhança delas é reorganizada
+			acompanhar(springModel);
+			try{
+				if (springModel.desenharGrafoIncremental() || cancelado)
+					return;
+			}finally{
+				acompanhar(null);
+			}
+
+			nome = RegistroAlgoritmos.escolher(copia);
+		}
+
+		//O SpringModel desta classe publica as posições parciais
+		if (nome.equals(RegistroAlgoritmos.ALGORITMO_SPRING_MODEL))
+			desenho = springModel;
+		else
+		{
+			desenho = RegistroAlgoritmos.criar(nome, copia);
+			desenho.setTamanhoAresta(tamanhoAresta);
+		}
+
+		acompanhar(desenho);
+		try{
+			if (cancelado)
+				return;
+
+			if (cache != null)
+				cache.desenhar(desenho, nome);
+			else
+				desenho.desenharGrafo();
+		}finally{
+			acompanhar(null);
+		}
+
+		springModel.registrarDesenho();
+	}
+
+	private void acompanhar(AlgoritmoDesenho desenho)
+	{
+		//O cancelamento solicitado antes da troca é repassado ao novo
+		//algoritmo, que o mantém até o fim da sua próxima execução
+		synchronized (this)
+		{
+			algoritmoAtual = desenho;
+			if ((desenho != null) && cancelado)
+				desenho.cancelar();
+		}
+	}
+
+	private void sincronizarCopia()
+	{
+		//A cópia mantém os mesmos objetos para os componentes que não foram
+		//alterados, removendo e inserindo somente as diferenças
+		int 									i;
+		Aresta									arestas[], aresta, arestaCopia;
+		Vertice									vertice, verticeCopia;
+		Iterator<Map.Entry<Aresta, Aresta>>		iteradorArestas;
+		Iterator<Map.Entry<Vertice, Vertice>>	iteradorVertices;
+		Map.Entry<Aresta, Aresta>				entradaAresta;
+		Map.Entry<Vertice, Vertice>				entradaVertice;
+
+		iteradorArestas = copiasArestas.entrySet().iterator();
+		while (iteradorArestas.hasNext())
+		{
+			entradaAresta = iteradorArestas.next();
+			aresta = entradaAresta.getKey();
+			arestaCopia = entradaAresta.getValue();
+
+			if (!grafo.existeAresta(aresta)
+					|| (arestaCopia.getVerticeOrigem() != copiasVertices.get(aresta.getVerticeOrigem()))
+					|| (arestaCopia.getVerticeDestino() != copiasVertices.get(aresta.getVerticeDestino())))
+			{
+				copia.removerAresta(arestaCopia);
+				iteradorArestas.remove();
+			}
+		}
+
+		iteradorVertices = copiasVertices.entrySet().iterator();
+		while (iteradorVertices.hasNext())
+		{
+			entradaVertice = iteradorVertices.next();
+			if (!grafo.existeVertice(entradaVertice.getKey()))
+			{
+				copia.removerVertice(entradaVertice.getValue());
+				iteradorVertices.remove();
+			}
+		}
+
+		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
+		{
+			vertice = grafo.getVertice(i);
+			verticeCopia = copiasVertices.get(vertice);
+
+			if (verticeCopia == null)
+			{
+				verticeCopia = new VerticeElipse(vertice.getCodigo(), vertice.getX(), vertice.getY(), vertice.getLargura(), vertice.getAltura());
+				copiasVertices.put(vertice, verticeCopia);
+				copia.setVertice(verticeCopia);
+			}
+
+			verticeCopia.setX(vertice.getX());
+			verticeCopia.setY(vertice.getY());
+			verticeCopia.setLargura(vertice.getLargura());
+			verticeCopia.setAltura(vertice.getAltura());
+			verticeCopia.setFixo(vertice.getFixo());
+		}
+
+		verticesOriginais = new Vertice[grafo.getNumeroTotalVertices()];
+		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
+			verticesOriginais[copia.getLocalizacaoVertice(copiasVertices.get(grafo.getVertice(i)))] = grafo.getVertice(i);
+
+		arestas = grafo.getTodasArestas();
+		arestasOriginais = new Aresta[grafo.getNumeroTotalArestas()];
+		arestasCopiadas = new Aresta[grafo.getNumeroTotalArestas()];
+		for (i = 0; i < grafo.getNumeroTotalArestas(); i++)
+		{
+			aresta = arestas[i];
+			arestaCopia = copiasArestas.get(aresta);
+
+			if (arestaCopia == null)
+			{
+				arestaCopia = new ArestaSimples(aresta.getCodigo(), copiasVertices.get(aresta.getVerticeOrigem()), copiasVertices.get(aresta.getVerticeDestino()));
+				copiasArestas.put(aresta, arestaCopia);
+				copia.setAresta(arestaCopia);
+			}
+
+			copiarQuebras(aresta, arestaCopia);
+			arestasOriginais[i] = aresta;
+			arestasCopiadas[i] = arestaCopia;
+		}
+	}
+
+	private void copiarQuebras(Aresta origem, Aresta destino)
+	{
+		destino.removerTodasQuebras();
+		if (origem.getNumeroQuebras() > 0)
+		{
+			destino.setNumeroQuebras(origem.getNumeroQuebras());
+			destino.setTodasQuebrasX(origem.getTodasQuebrasX());
+			destino.setTodasQuebrasY(origem.getTodasQuebrasY());
+		}
+	}
+
+	private void atribuirDesenho()
+	{
+		//Executado pela linha de execução de eventos do AWT, então a área de
+		//desenho nunca apresenta um estado intermediário. Os componentes
+		//removidos do grafo durante o desenho são ignorados
+		int i;
+
+		for (i = 0; i < verticesOriginais.length; i++)
+			if (grafo.existeVertice(verticesOriginais[i]))
+			{
+				verticesOriginais[i].setX(copia.getVertice(i).getX());
+				verticesOriginais[i].setY(copia.getVertice(i).getY());
+			}
+
+		for (i = 0; i < arestasOriginais.length; i++)
+			if (grafo.existeAresta(arestasOriginais[i]))
+				copiarQuebras(arestasCopiadas[i], arestasOriginais[i]);
+	}
+
+//Tarefas executadas pela linha de execução de eventos do AWT
+	private class Quadro implements Runnable
+	{
+		private int x[], y[];
+
+		Quadro(int x[], int y[])
+		{
+			this.x = x;
+			this.y = y;
+		}
+
+		public void run()
+		{
+			int i;
+
+			for (i = 0; i < x.length; i++)
+				if (grafo.existeVertice(verticesOriginais[i]))
+				{
+					verticesOriginais[i].setX(x[i]);
+					verticesOriginais[i].setY(y[i]);
+				}
+
+			area.repaint();
+
+			synchronized (DesenhoSegundoPlano.this)
+			{
+				quadroPendente = false;
+			}
+		}
+	}
+
+	private class Conclusao implements Runnable
+	{
+		private boolean concluido;
+
+		Conclusao(boolean concluido)
+		{
+			this.concluido = concluido;
+		}
+
+		public void run()
+		{
+			linha = null;
+
+			if (concluido)
+			{
+				atribuirDesenho();
+
+				if (acaoConclusao != null)
+					acaoConclusao.run();
+			}
+
+			area.repaint();
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package diagram.graphdrawing;
+
+import diagram.Grafo;
+
+/**
+ * A interface AlgoritmoDesenho reúne a configuração comum a todos os
+ * algoritmos de desenho automático do pacote, permitindo que o editor e os
+ * demais usuários troquem de algoritmo sem conhecer a classe que o implementa.
+ * Os algoritmos disponíveis são obtidos pelo nome através da classe
+ * RegistroAlgoritmos, que também escolhe um algoritmo a partir do tamanho e
+ * da densidade do grafo.
+ *
+ * A configuração comum é formada pelo comprimento desejado das arestas, pelo
+ * tempo máximo do desenho, pela semente dos sorteios e pelo número de linhas
+ * de execução. Os vértices marcados com Vertice.setFixo são respeitados
+ * somente pelos algoritmos cujo método getRespeitaVerticesFixos retorna
+ * verdadeiro. Um algoritmo que não realiza sorteios ou que não é executado em
+ * paralelo guarda a semente e o paralelismo sem utilizá-los.<br>
+ * <br>
+ *&nbsp;AlgoritmoDesenho desenho = RegistroAlgoritmos.criar("Camadas", grafo);<br>
+ *&nbsp;desenho.setTempoMaximo(2000);<br>
+ *&nbsp;desenho.desenharGrafo();<br>
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see RegistroAlgoritmos
+ * @see SpringModel
+ */
+public interface AlgoritmoDesenho
+{
+	/**
+	 * Retorna o grafo desenhado pelo algoritmo.
+	 *
+	 * @return o grafo atual
+	 */
+	Grafo getGrafo();
+
+	/**
+	 * Altera o grafo desenhado pelo algoritmo.
+	 *
+	 * @param grafo o novo grafo
+	 */
+	void setGrafo(Grafo grafo);
+
+	/**
+	 * Retorna o comprimento que o algoritmo tentará manter para as arestas.
+	 *
+	 * @return o tamanho ideal das arestas em pixels
+	 */
+	int getTamanhoAresta();
+
+	/**
+	 * Altera o comprimento que o algoritmo tentará manter para as arestas. Nos
+	 * desenhos em camadas e de árvores é a distância entre dois níveis.
+	 *
+	 * @param tamanhoAresta o novo tamanho ideal das arestas, sendo os valores
+	 * menores ou iguais a 0 substituídos pelo padrão do algoritmo
+	 */
+	void setTamanhoAresta(int tamanhoAresta);
+
+	/**
+	 * Retorna o tempo máximo, em milissegundos, do desenho.
+	 *
+	 * @return o tempo máximo, sendo 0 quando não existe limite
+	 */
+	long getTempoMaximo();
+
+	/**
+	 * Altera o tempo máximo, em milissegundos, do desenho. Ao final do tempo o
+	 * algoritmo é interrompido e as posições obtidas até o momento são
+	 * atribuídas aos vértices.
+	 *
+	 * @param tempoMaximo o novo tempo máximo, sendo 0 para não limitar o tempo
+	 */
+	void setTempoMaximo(long tempoMaximo);
+
+	/**
+	 * Retorna a semente dos sorteios feitos pelo algoritmo.
+	 *
+	 * @return a semente atual
+	 */
+	long getSemente();
+
+	/**
+	 * Altera a semente dos sorteios feitos pelo algoritmo. O mesmo grafo com a
+	 * mesma semente sempre produz o mesmo desenho.
+	 *
+	 * @param semente a nova semente
+	 */
+	void setSemente(long semente);
+
+	/**
+	 * Retorna o número de linhas de execução utilizadas pelo algoritmo.
+	 *
+	 * @return o paralelismo do algoritmo
+	 */
+	int getParalelismo();
+
+	/**
+	 * Altera o número de linhas de execução utilizadas pelo algoritmo. O
+	 * desenho obtido não depende do paralelismo.
+	 *
+	 * @param paralelismo o novo número de linhas de execução, sendo os valores
+	 * menores que 1 substituídos por 1
+	 */
+	void setParalelismo(int paralelismo);
+
+	/**
+	 * Informa se os vértices marcados com Vertice.setFixo mantêm as suas
+	 * coordenadas durante o desenho.
+	 *
+	 * @return verdadeiro caso o algoritmo respeite os vértices fixos
+	 */
+	boolean getRespeitaVerticesFixos();
+
+	/**
+	 * Retorna um texto que identifica os parâmetros próprios do algoritmo que
+	 * alteram o desenho, como o número de iterações. O tamanho das arestas e
+	 * a semente ficam fora do texto, pois já fazem parte desta interface, assim
+	 * como o tempo máximo e o paralelismo, que não alteram um desenho completo.
+	 * Dois objetos da mesma classe com o mesmo texto produzem o mesmo desenho
+	 * para o mesmo grafo, o que permite ao CacheDesenho reaproveitá-lo.
+	 *
+	 * @return a configuração atual do algoritmo
+	 */
+	String getConfiguracao();
+
+	/**
+	 * Informa se o último desenho foi interrompido pelo tempo máximo ou pelo
+	 * método cancelar.
+	 *
+	 * @return verdadeiro caso o último desenho tenha sido interrompido
+	 */
+	boolean getInterrompido();
+
+	/**
+	 * Interrompe o desenho em execução por outra linha de execução. As
+	 * posições obtidas até o momento são atribuídas aos vértices normalmente.
+	 * Quando chamado antes do início, o próximo desenho é interrompido logo no
+	 * começo.
+	 */
+	void cancelar();
+
+	/**
+	 * Executa o desenho alterando as coordenadas dos vértices e os pontos de
+	 * quebra das arestas.
+	 */
+	void desenharGrafo();
+}
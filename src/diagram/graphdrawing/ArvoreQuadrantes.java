@@ -0,0 +1,303 @@
+package diagram.graphdrawing;
+
+/**
+ * A classe ArvoreQuadrantes é uma árvore de quadrantes (quadtree) construída
+ * sobre as coordenadas dos vértices e utilizada para aproximar as forças de
+ * repulsão entre todos os pares de vértices pelo método de Barnes e Hut. Cada
+ * nó da árvore guarda o número de vértices e o centro de massa da sua região,
+ * assim um grupo de vértices distante pode ser tratado como um único corpo e o
+ * cálculo das forças sobre um vértice custa O(log V) ao invés de O(V).
+ *
+ * Os nós são armazenados em vetores primitivos reaproveitados a cada nova
+ * construção. Depois de construída, a árvore somente é lida pelo método
+ * calcularRepulsao, que pode ser chamado por várias linhas de execução ao
+ * mesmo tempo.
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see FruchtermanReingold
+ */
+class ArvoreQuadrantes
+{
+	//Profundidade a partir da qual os vértices restantes formam uma única folha
+	private static final int	PROFUNDIDADE_MAXIMA = 48;
+
+	//Distância abaixo da qual dois vértices são considerados sobrepostos
+	private static final double	DISTANCIA_MINIMA = 0.01;
+
+	private double			coordenadaX[],
+							coordenadaY[],
+							centroX[],
+							centroY[],
+							menorX[],
+							menorY[],
+							tamanho[];
+
+	private int				numeroNos,
+							massa[],
+							primeiroFilho[],
+							inicio[],
+							ordem[],
+							auxiliar[];
+
+	//Construtor
+
+	/**
+	 * Cria uma árvore vazia com espaço inicial para o número de vértices
+	 * passado pelo parâmetro.
+	 *
+	 * @param numeroVertices o número de vértices esperado
+	 */
+	ArvoreQuadrantes(int numeroVertices)
+	{
+		alocarNos(Math.max(4, 2 * numeroVertices));
+		ordem = new int[numeroVertices];
+		auxiliar = new int[numeroVertices];
+	}
+
+	/**
+	 * Reconstrói a árvore a partir das coordenadas dos vértices. Os vetores
+	 * são referenciados pela árvore e não devem ser alterados enquanto as
+	 * forças estiverem sendo calculadas.
+	 *
+	 * @param coordenadaX as coordenadas X dos vértices
+	 * @param coordenadaY as coordenadas Y dos vértices
+	 * @param numeroVertices o número de vértices válidos nos vetores
+	 */
+	void construir(double coordenadaX[], double coordenadaY[], int numeroVertices)
+	{
+		int 	i;
+		double	menorX, menorY, maiorX, maiorY;
+
+		this.coordenadaX = coordenadaX;
+		this.coordenadaY = coordenadaY;
+
+		if (ordem.length < numeroVertices)
+		{
+			ordem = new int[numeroVertices];
+			auxiliar = new int[numeroVertices];
+		}
+
+		menorX = Double.MAX_VALUE;
+		menorY = Double.MAX_VALUE;
+		maiorX = - Double.MAX_VALUE;
+		maiorY = - Double.MAX_VALUE;
+		for (i = 0; i < numeroVertices; i++)
+		{
+			ordem[i] = i;
+
+			menorX = Math.min(menorX, coordenadaX[i]);
+			menorY = Math.min(menorY, coordenadaY[i]);
+			maiorX = Math.max(maiorX, coordenadaX[i]);
+			maiorY = Math.max(maiorY, coordenadaY[i]);
+		}
+
+		numeroNos = 1;
+		if (numeroVertices == 0)
+		{
+			massa[0] = 0;
+			return;
+		}
+
+		//A raiz é um quadrado que contém todos os vértices
+		construirNo(0, 0, numeroVertices, menorX, menorY, Math.max(Math.max(maiorX - menorX, maiorY - menorY), DISTANCIA_MINIMA) * 1.0001, 0);
+	}
+
+	/**
+	 * Soma ao vetor forca a repulsão exercida sobre o vértice passado pelo
+	 * parâmetro por todos os demais vértices. Cada vértice a uma distância d
+	 * exerce uma força de intensidade constante / d na direção oposta a ele.
+	 * Uma região é aproximada pelo seu centro de massa quando a razão entre o
+	 * seu tamanho e a distância até o vértice é menor que a precisão.
+	 *
+	 * @param vertice o índice do vértice
+	 * @param precisao o parâmetro theta do método de Barnes e Hut
+	 * @param constante a constante da força de repulsão
+	 * @param forca o vetor de duas posições que acumula a força em X e Y
+	 */
+	void calcularRepulsao(int vertice, double precisao, double constante, double forca[])
+	{
+		if (massa[0] > 0)
+			calcularRepulsao(0, vertice, precisao * precisao, constante, forca);
+	}
+
+//Métodos privados da classe ArvoreQuadrantes
+	private void construirNo(int no, int inicioNo, int fimNo, double menorX, double menorY, double lado, int profundidade)
+	{
+		int 	i, q, filho, contador[], posicao[];
+		double	somaX, somaY, meio;
+
+		somaX = 0.0;
+		somaY = 0.0;
+		for (i = inicioNo; i < fimNo; i++)
+		{
+			somaX += coordenadaX[ordem[i]];
+			somaY += coordenadaY[ordem[i]];
+		}
+
+		massa[no] = fimNo - inicioNo;
+		centroX[no] = somaX / massa[no];
+		centroY[no] = somaY / massa[no];
+		this.menorX[no] = menorX;
+		this.menorY[no] = menorY;
+		tamanho[no] = lado;
+		inicio[no] = inicioNo;
+		primeiroFilho[no] = -1;
+
+		if ((massa[no] == 1) || (profundidade >= PROFUNDIDADE_MAXIMA) || (lado < DISTANCIA_MINIMA))
+			return;
+
+		//Distribui os vértices entre os quatro quadrantes mantendo a ordem
+		meio = lado / 2;
+		contador = new int[4];
+		for (i = inicioNo; i < fimNo; i++)
+			contador[quadrante(ordem[i], menorX + meio, menorY + meio)]++;
+
+		posicao = new int[4];
+		posicao[0] = inicioNo;
+		for (q = 1; q < 4; q++)
+			posicao[q] = posicao[q - 1] + contador[q - 1];
+
+		for (i = inicioNo; i < fimNo; i++)
+		{
+			q = quadrante(ordem[i], menorX + meio, menorY + meio);
+			auxiliar[posicao[q]++] = ordem[i];
+		}
+		System.arraycopy(auxiliar, inicioNo, ordem, inicioNo, fimNo - inicioNo);
+
+		garantirCapacidade(numeroNos + 4);
+		filho = numeroNos;
+		primeiroFilho[no] = filho;
+		numeroNos += 4;
+
+		i = inicioNo;
+		for (q = 0; q < 4; q++)
+		{
+			if (contador[q] == 0)
+				massa[filho + q] = 0;
+			else
+				construirNo(filho + q, i, i + contador[q], menorX + (((q & 1) != 0) ? meio : 0), menorY + (((q & 2) != 0) ? meio : 0), meio, profundidade + 1);
+
+			i += contador[q];
+		}
+	}
+
+	private int quadrante(int vertice, double meioX, double meioY)
+	{
+		int q;
+
+		q = 0;
+		if (coordenadaX[vertice] >= meioX)
+			q += 1;
+
+		if (coordenadaY[vertice] >= meioY)
+			q += 2;
+
+		return q;
+	}
+
+	private void calcularRepulsao(int no, int vertice, double precisaoQuadrado, double constante, double forca[])
+	{
+		int 	i, q, outro;
+		double	diferencaX, diferencaY, distanciaQuadrado;
+
+		diferencaX = coordenadaX[vertice] - centroX[no];
+		diferencaY = coordenadaY[vertice] - centroY[no];
+		distanciaQuadrado = (diferencaX * diferencaX) + (diferencaY * diferencaY);
+
+		//Região distante aproximada pelo centro de massa, desde que não contenha
+		//o próprio vértice
+		if (((tamanho[no] * tamanho[no]) < (precisaoQuadrado * distanciaQuadrado)) && !contem(no, vertice))
+		{
+			somarRepulsao(diferencaX, diferencaY, distanciaQuadrado, constante * massa[no], forca);
+			return;
+		}
+
+		if (primeiroFilho[no] >= 0)
+		{
+			for (q = 0; q < 4; q++)
+				if (massa[primeiroFilho[no] + q] > 0)
+					calcularRepulsao(primeiroFilho[no] + q, vertice, precisaoQuadrado, constante, forca);
+			return;
+		}
+
+		//Folha próxima, os vértices são considerados um a um
+		for (i = inicio[no]; i < inicio[no] + massa[no]; i++)
+		{
+			outro = ordem[i];
+			if (outro == vertice)
+				continue;
+
+			diferencaX = coordenadaX[vertice] - coordenadaX[outro];
+			diferencaY = coordenadaY[vertice] - coordenadaY[outro];
+			distanciaQuadrado = (diferencaX * diferencaX) + (diferencaY * diferencaY);
+
+			//Vértices sobrepostos são afastados em sentidos opostos de uma
+			//direção fixa dada pelos índices
+			if (distanciaQuadrado < DISTANCIA_MINIMA * DISTANCIA_MINIMA)
+			{
+				diferencaX = DISTANCIA_MINIMA * Math.cos(Math.abs(vertice - outro)) * ((vertice > outro) ? 1 : -1);
+				diferencaY = DISTANCIA_MINIMA * Math.sin(Math.abs(vertice - outro)) * ((vertice > outro) ? 1 : -1);
+				distanciaQuadrado = DISTANCIA_MINIMA * DISTANCIA_MINIMA;
+			}
+
+			somarRepulsao(diferencaX, diferencaY, distanciaQuadrado, constante, forca);
+		}
+	}
+
+	private boolean contem(int no, int vertice)
+	{
+		return (coordenadaX[vertice] >= menorX[no]) && (coordenadaX[vertice] <= menorX[no] + tamanho[no]) &&
+				(coordenadaY[vertice] >= menorY[no]) && (coordenadaY[vertice] <= menorY[no] + tamanho[no]);
+	}
+
+	private void somarRepulsao(double diferencaX, double diferencaY, double distanciaQuadrado, double constante, double forca[])
+	{
+		//Intensidade constante / d na direção do vetor diferença de módulo d
+		if (distanciaQuadrado < DISTANCIA_MINIMA * DISTANCIA_MINIMA)
+			return;
+
+		forca[0] += (constante * diferencaX) / distanciaQuadrado;
+		forca[1] += (constante * diferencaY) / distanciaQuadrado;
+	}
+
+	private void garantirCapacidade(int capacidade)
+	{
+		double	antigoCentroX[], antigoCentroY[], antigoMenorX[], antigoMenorY[], antigoTamanho[];
+		int		antigaMassa[], antigoPrimeiroFilho[], antigoInicio[];
+
+		if (capacidade <= massa.length)
+			return;
+
+		antigoCentroX = centroX;
+		antigoCentroY = centroY;
+		antigoMenorX = menorX;
+		antigoMenorY = menorY;
+		antigoTamanho = tamanho;
+		antigaMassa = massa;
+		antigoPrimeiroFilho = primeiroFilho;
+		antigoInicio = inicio;
+
+		alocarNos(Math.max(capacidade, antigaMassa.length * 2));
+
+		System.arraycopy(antigoCentroX, 0, centroX, 0, numeroNos);
+		System.arraycopy(antigoCentroY, 0, centroY, 0, numeroNos);
+		System.arraycopy(antigoMenorX, 0, menorX, 0, numeroNos);
+		System.arraycopy(antigoMenorY, 0, menorY, 0, numeroNos);
+		System.arraycopy(antigoTamanho, 0, tamanho, 0, numeroNos);
+		System.arraycopy(antigaMassa, 0, massa, 0, numeroNos);
+		System.arraycopy(antigoPrimeiroFilho, 0, primeiroFilho, 0, numeroNos);
+		System.arraycopy(antigoInicio, 0, inicio, 0, numeroNos);
+	}
+
+	private void alocarNos(int capacidade)
+	{
+		centroX = new double[capacidade];
+		centroY = new double[capacidade];
+		menorX = new double[capacidade];
+		menorY = new double[capacidade];
+		tamanho = new double[capacidade];
+		massa = new int[capacidade];
+		primeiroFilho = new int[capacidade];
+		inicio = new int[capacidade];
+	}
+}
@@ -0,0 +1,755 @@
+package diagram.graphdrawing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import diagram.Grafo;
+import diagram.GrafoCompacto;
+
+import diagram.componente.Aresta;
+import diagram.componente.Vertice;
+
+/**
+ * A classe CacheDesenho guarda os desenhos obtidos pelos algoritmos de desenho
+ * automático, evitando que o mesmo diagrama seja desenhado novamente a cada
+ * vez que é aberto. Cada desenho é identificado pela estrutura do grafo, na
+ * ordem dos vértices e das arestas, e pelos parâmetros do algoritmo:<br>
+ * - de cada vértice, o código de Componente.getCodigo, a largura, a altura e,
+ * para os vértices fixos, as coordenadas;<br>
+ * - de cada aresta, os índices dos vértices de origem e de destino;<br>
+ * - a classe do algoritmo, a sua configuração retornada por
+ * AlgoritmoDesenho.getConfiguracao, a configuração informada pelo usuário, o
+ * tamanho das arestas e a semente.<br>
+ * <br>
+ * O desenho guardado contém as coordenadas dos vértices e os pontos de quebra
+ * das arestas, que são atribuídos ao grafo sem executar o algoritmo quando a
+ * mesma estrutura é desenhada novamente. Os desenhos ficam na memória até o
+ * limite de getCapacidade, quando o desenho utilizado há mais tempo é
+ * descartado, e são gravados também no diretório informado pelo método
+ * setDiretorio, de onde são lidos quando não estão na memória.
+ *
+ * Quando a estrutura não foi desenhada, o desenho na memória com os mesmos
+ * parâmetros que possui mais vértices com os mesmos códigos serve de ponto de
+ * partida, desde que a fração de vértices em comum seja ao menos
+ * getSimilaridadeMinima. Os vértices em comum recebem as coordenadas
+ * guardadas, os demais o centro dos seus vizinhos em comum, e o algoritmo é
+ * executado normalmente. Somente os algoritmos que partem das posições atuais,
+ * como o SpringModel e o FruchtermanReingold, aproveitam este ponto de partida.
+ * Os vértices com o código CODIGOINICIAL ou com códigos repetidos não são
+ * relacionados.<br>
+ * <br>
+ *&nbsp;AlgoritmoDesenho desenho = RegistroAlgoritmos.criar("Multinível", grafo);<br>
+ *&nbsp;desenho.setTamanhoAresta(130);<br>
+ *&nbsp;CacheDesenho.getCompartilhado().desenhar(desenho, "Multinível");<br>
+ *
+ * Os desenhos interrompidos pelo tempo máximo ou pelo método cancelar não são
+ * guardados. Os métodos da classe podem ser chamados por qualquer linha de
+ * execução, e o algoritmo é executado sem bloquear as demais.
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see AlgoritmoDesenho
+ * @see RegistroAlgoritmos
+ */
+public class CacheDesenho
+{
+	/**
+	 * O resultado de um desenho calculado pelo algoritmo sem ponto de partida.
+	 */
+	public static final int		DESENHO_COMPLETO = 0;
+
+	/**
+	 * O resultado de um desenho atribuído a partir de um desenho guardado, sem
+	 * executar o algoritmo.
+	 */
+	public static final int		DESENHO_RECUPERADO = 1;
+
+	/**
+	 * O resultado de um desenho calculado pelo algoritmo a partir do desenho
+	 * guardado de um grafo semelhante.
+	 */
+	public static final int		DESENHO_APROXIMADO = 2;
+
+	/**
+	 * O número padrão de desenhos mantidos na memória.
+	 */
+	public static final int		CAPACIDADE_PADRAO = 32;
+
+	/**
+	 * A fração padrão de vértices em comum para que um desenho guardado sirva
+	 * de ponto de partida.
+	 */
+	public static final double	SIMILARIDADE_MINIMA_PADRAO = 0.8;
+
+	//Identificação e versão dos arquivos gravados no diretório
+	private static final int	ASSINATURA_ARQUIVO = 0x44455343;
+
+	private static final int	VERSAO_ARQUIVO = 1;
+
+	private static final String	EXTENSAO_ARQUIVO = ".desenho";
+
+	private static CacheDesenho	compartilhado;
+
+	private int					capacidade;
+
+	private double				similaridadeMinima;
+
+	private File				diretorio;
+
+	//Desenhos indexados pela chave, na ordem do último acesso
+	private LinkedHashMap<Long, Entrada>	entradas;
+
+	//Construtores
+
+	/**
+	 * Cria um cache vazio somente na memória com a capacidade padrão.
+	 */
+	public CacheDesenho()
+	{
+		this(CAPACIDADE_PADRAO);
+	}
+
+	/**
+	 * Cria um cache vazio somente na memória com a capacidade passada pelo
+	 * parâmetro.
+	 *
+	 * @param capacidade o número máximo de desenhos mantidos na memória
+	 */
+	public CacheDesenho(int capacidade)
+	{
+		setCapacidade(capacidade);
+		similaridadeMinima = SIMILARIDADE_MINIMA_PADRAO;
+		diretorio = null;
+
+		entradas = new LinkedHashMap<Long, Entrada>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry<Long, Entrada> maisAntiga)
+			{
+				return size() > CacheDesenho.this.capacidade;
+			}
+		};
+	}
+
+	/**
+	 * Retorna o cache compartilhado pelo editor, criado somente na memória com
+	 * a capacidade padrão na primeira chamada.
+	 *
+	 * @return o cache compartilhado
+	 */
+	public static synchronized CacheDesenho getCompartilhado()
+	{
+		if (compartilhado == null)
+			compartilhado = new CacheDesenho();
+
+		return compartilhado;
+	}
+
+//Métodos Get
+
+	/**
+	 * Retorna o número máximo de desenhos mantidos na memória.
+	 *
+	 * @return a capacidade do cache
+	 */
+	public synchronized int getCapacidade()
+	{
+		return capacidade;
+	}
+
+	/**
+	 * Retorna a fração mínima de vértices em comum para que um desenho
+	 * guardado sirva de ponto de partida.
+	 *
+	 * @return a similaridade mínima entre 0 e 1
+	 */
+	public synchronized double getSimilaridadeMinima()
+	{
+		return similaridadeMinima;
+	}
+
+	/**
+	 * Retorna o diretório onde os desenhos são gravados.
+	 *
+	 * @return o diretório ou null quando os desenhos ficam somente na memória
+	 */
+	public synchronized File getDiretorio()
+	{
+		return diretorio;
+	}
+
+	/**
+	 * Retorna o número de desenhos mantidos na memória.
+	 *
+	 * @return o número de desenhos
+	 */
+	public synchronized int getNumeroDesenhos()
+	{
+		return entradas.size();
+	}
+
+//Métodos Set
+
+	/**
+	 * Altera o número máximo de desenhos mantidos na memória, descartando os
+	 * desenhos utilizados há mais tempo que excederem a nova capacidade.
+	 *
+	 * @param capacidade a nova capacidade, sendo os valores menores que 1
+	 * substituídos pela capacidade padrão
+	 */
+	public synchronized void setCapacidade(int capacidade)
+	{
+		Iterator<Long>	iterador;
+
+		if (capacidade > 0)
+			this.capacidade = capacidade;
+		else
+			this.capacidade = CAPACIDADE_PADRAO;
+
+		if (entradas != null)
+		{
+			iterador = entradas.keySet().iterator();
+			while (entradas.size() > this.capacidade)
+			{
+				iterador.next();
+				iterador.remove();
+			}
+		}
+	}
+
+	/**
+	 * Altera a fração mínima de vértices em comum para que um desenho guardado
+	 * sirva de ponto de partida.
+	 *
+	 * @param similaridadeMinima a nova similaridade, maior que 0 e menor ou
+	 * igual a 1, sendo os demais valores substituídos pelo padrão
+	 */
+	public synchronized void setSimilaridadeMinima(double similaridadeMinima)
+	{
+		if ((similaridadeMinima > 0) && (similaridadeMinima <= 1))
+			this.similaridadeMinima = similaridadeMinima;
+		else
+			this.similaridadeMinima = SIMILARIDADE_MINIMA_PADRAO;
+	}
+
+	/**
+	 * Altera o diretório onde os desenhos são gravados. Os desenhos já
+	 * guardados na memória não são gravados no novo diretório. As falhas de
+	 * leitura e de gravação são ignoradas, pois o desenho pode sempre ser
+	 * calculado novamente.
+	 *
+	 * @param diretorio o diretório existente ou null para manter os desenhos
+	 * somente na memória
+	 */
+	public synchronized void setDiretorio(File diretorio)
+	{
+		this.diretorio = diretorio;
+	}
+
+// ** Cache dos desenhos **
+
+	/**
+	 * Descarta todos os desenhos mantidos na memória. Os arquivos gravados no
+	 * diretório não são removidos.
+	 */
+	public synchronized void limpar()
+	{
+		entradas.clear();
+	}
+
+	/**
+	 * Desenha o grafo do algoritmo passado pelo parâmetro utilizando o desenho
+	 * guardado da mesma estrutura, quando existe, ou executando o algoritmo.
+	 *
+	 * @param algoritmo o algoritmo já configurado
+	 * @return DESENHO_COMPLETO, DESENHO_RECUPERADO ou DESENHO_APROXIMADO
+	 */
+	public int desenhar(AlgoritmoDesenho algoritmo)
+	{
+		return desenhar(algoritmo, "");
+	}
+
+	/**
+	 * Desenha o grafo do algoritmo passado pelo parâmetro utilizando o desenho
+	 * guardado da mesma estrutura, quando existe, ou executando o algoritmo.
+	 * A chave do desenho inclui a classe do algoritmo, o tamanho das arestas,
+	 * a semente e o texto retornado por AlgoritmoDesenho.getConfiguracao, de
+	 * modo que os parâmetros próprios de cada algoritmo, como o número de
+	 * iterações, também diferenciam os desenhos guardados. A configuração
+	 * passada pelo parâmetro é acrescentada à chave e normalmente é o nome do
+	 * algoritmo em RegistroAlgoritmos.
+	 *
+	 * @param algoritmo o algoritmo já configurado
+	 * @param configuracao um texto acrescentado à configuração do algoritmo
+	 * @return DESENHO_COMPLETO, DESENHO_RECUPERADO ou DESENHO_APROXIMADO
+	 */
+	public int desenhar(AlgoritmoDesenho algoritmo, String configuracao)
+	{
+		int 			resultado;
+		long			chave;
+		String			parametros;
+		Grafo			grafo;
+		GrafoCompacto	compacto;
+		Entrada			entrada, guardada;
+
+		grafo = algoritmo.getGrafo();
+		compacto = grafo.compactar();
+		parametros = algoritmo.getClass().getName() + "|" + algoritmo.getConfiguracao() + "|" + configuracao + "|" + algoritmo.getTamanhoAresta() + "|" + algoritmo.getSemente();
+
+		entrada = new Entrada(parametros, descrever(compacto));
+		chave = entrada.calcularChave();
+
+		guardada = buscar(chave, entrada);
+		if (guardada != null)
+		{
+			guardada.atribuir(compacto);
+			return DESENHO_RECUPERADO;
+		}
+
+		resultado = DESENHO_COMPLETO;
+		guardada = buscarSemelhante(entrada);
+		if (guardada != null)
+		{
+			partirDe(guardada, entrada, compacto);
+			resultado = DESENHO_APROXIMADO;
+		}
+
+		//Os algoritmos alteram somente as coordenadas, então a estrutura
+		//descrita antes do desenho continua válida
+		algoritmo.desenharGrafo();
+		if (algoritmo.getInterrompido())
+			return resultado;
+
+		entrada.copiar(compacto);
+		guardar(chave, entrada);
+
+		return resultado;
+	}
+
+//Métodos privados da classe CacheDesenho
+	private int[] descrever(GrafoCompacto compacto)
+	{
+		//Os vértices ocupam 4 posições, mais 2 quando são fixos, e as arestas 2
+		int 	i, n, descricao[];
+		Vertice	vertice;
+
+		n = 2;
+		for (i = 0; i < compacto.getNumeroVertices(); i++)
+			n += compacto.getVertice(i).getFixo() ? 6 : 4;
+
+		descricao = new int[n + (2 * compacto.getNumeroArestas())];
+
+		n = 0;
+		descricao[n++] = compacto.getNumeroVertices();
+		for (i = 0; i < compacto.getNumeroVertices(); i++)
+		{
+			vertice = compacto.getVertice(i);
+			descricao[n++] = vertice.getCodigo();
+			descricao[n++] = vertice.getLargura();
+			descricao[n++] = vertice.getAltura();
+			if (vertice.getFixo())
+			{
+				descricao[n++] = 1;
+				descricao[n++] = vertice.getX();
+				descricao[n++] = vertice.getY();
+			}
+			else
+				descricao[n++] = 0;
+		}
+
+		descricao[n++] = compacto.getNumeroArestas();
+		for (i = 0; i < compacto.getNumeroArestas(); i++)
+		{
+			descricao[n++] = compacto.getOrigem(i);
+			descricao[n++] = compacto.getDestino(i);
+		}
+
+		return descricao;
+	}
+
+	private Entrada buscar(long chave, Entrada procurada)
+	{
+		Entrada	entrada;
+		File	arquivo;
+
+		synchronized (this)
+		{
+			entrada = entradas.get(Long.valueOf(chave));
+			arquivo = getArquivo(chave);
+		}
+
+		if ((entrada == null) && (arquivo != null) && arquivo.isFile())
+		{
+			//Os desenhos lidos do diretório passam a ficar também na memória
+			entrada = ler(arquivo);
+			if ((entrada != null) && entrada.equivalente(procurada))
+				synchronized (this)
+				{
+					entradas.put(Long.valueOf(chave), entrada);
+				}
+		}
+
+		//Chaves iguais de estruturas diferentes são tratadas como ausentes
+		if ((entrada != null) && entrada.equivalente(procurada))
+			return entrada;
+
+		return null;
+	}
+
+	private synchronized Entrada buscarSemelhante(Entrada procurada)
+	{
+		//Somente os desenhos na memória são comparados, do utilizado há mais
+		//tempo para o mais recente, que é preferido em caso de empate
+		int 						i, comuns, maiorComuns, codigos[];
+		HashMap<Integer, Integer>	indices;
+		Iterator<Entrada>			iterador;
+		Entrada						entrada, semelhante;
+
+		codigos = procurada.getCodigos();
+		indices = indexarCodigos(codigos);
+		if (indices.size() < similaridadeMinima * codigos.length)
+			return null;
+
+		semelhante = null;
+		maiorComuns = 0;
+		iterador = entradas.values().iterator();
+		while (iterador.hasNext())
+		{
+			entrada = iterador.next();
+			if (!entrada.parametros.equals(procurada.parametros))
+				continue;
+
+			comuns = 0;
+			for (i = 0; i < entrada.indices.length; i++)
+				if (entrada.indices[i] && indices.containsKey(Integer.valueOf(entrada.codigos[i])))
+					comuns++;
+
+			if ((comuns >= similaridadeMinima * Math.max(codigos.length, entrada.codigos.length)) && (comuns >= maiorComuns))
+			{
+				semelhante = entrada;
+				maiorComuns = comuns;
+			}
+		}
+
+		return semelhante;
+	}
+
+	private void partirDe(Entrada semelhante, Entrada procurada, GrafoCompacto compacto)
+	{
+		int 						i, v, relacionado[], somaX[], somaY[], vizinhos[],
+									inicioAdjacentes[], adjacentes[];
+		HashMap<Integer, Integer>	indices;
+		Integer						indice;
+		Vertice						vertice;
+
+		indices = indexarCodigos(semelhante.codigos);
+		relacionado = new int[compacto.getNumeroVertices()];
+		for (v = 0; v < relacionado.length; v++)
+		{
+			relacionado[v] = -1;
+			indice = indices.get(Integer.valueOf(procurada.codigos[v]));
+			if (procurada.indices[v] && (indice != null) && !compacto.getVertice(v).getFixo())
+			{
+				relacionado[v] = indice.intValue();
+				compacto.getVertice(v).setX(semelhante.coordenadaX[relacionado[v]]);
+				compacto.getVertice(v).setY(semelhante.coordenadaY[relacionado[v]]);
+			}
+		}
+
+		//Os vértices novos ficam no centro dos seus vizinhos já posicionados
+		inicioAdjacentes = compacto.getInicioAdjacentes();
+		adjacentes = compacto.getAdjacentes();
+		somaX = new int[relacionado.length];
+		somaY = new int[relacionado.length];
+		vizinhos = new int[relacionado.length];
+		for (v = 0; v < relacionado.length; v++)
+		{
+			if ((relacionado[v] >= 0) || compacto.getVertice(v).getFixo())
+				continue;
+
+			for (i = inicioAdjacentes[v]; i < inicioAdjacentes[v + 1]; i++)
+				if (relacionado[adjacentes[i]] >= 0)
+				{
+					somaX[v] += compacto.getVertice(adjacentes[i]).getX();
+					somaY[v] += compacto.getVertice(adjacentes[i]).getY();
+					vizinhos[v]++;
+				}
+		}
+
+		for (v = 0; v < relacionado.length; v++)
+			if (vizinhos[v] > 0)
+			{
+				vertice = compacto.getVertice(v);
+				vertice.setX(somaX[v] / vizinhos[v]);
+				vertice.setY(somaY[v] / vizinhos[v]);
+			}
+	}
+
+	private static HashMap<Integer, Integer> indexarCodigos(int codigos[])
+	{
+		//Os códigos repetidos e o código inicial não identificam um vértice
+		int 						i;
+		HashMap<Integer, Integer>	indices;
+		Integer						codigo;
+		Iterator<Integer>			iterador;
+
+		indices = new HashMap<Integer, Integer>();
+		for (i = 0; i < codigos.length; i++)
+		{
+			if (codigos[i] == Vertice.CODIGOINICIAL)
+				continue;
+
+			codigo = Integer.valueOf(codigos[i]);
+			if (indices.containsKey(codigo))
+				indices.put(codigo, null);
+			else
+				indices.put(codigo, Integer.valueOf(i));
+		}
+
+		iterador = indices.values().iterator();
+		while (iterador.hasNext())
+			if (iterador.next() == null)
+				iterador.remove();
+
+		return indices;
+	}
+
+	private void guardar(long chave, Entrada entrada)
+	{
+		File	arquivo;
+
+		synchronized (this)
+		{
+			entradas.put(Long.valueOf(chave), entrada);
+			arquivo = getArquivo(chave);
+		}
+
+		if (arquivo != null)
+			gravar(arquivo, entrada);
+	}
+
+	private File getArquivo(long chave)
+	{
+		if (diretorio == null)
+			return null;
+
+		return new File(diretorio, Long.toHexString(chave) + EXTENSAO_ARQUIVO);
+	}
+
+	private Entrada ler(File arquivo)
+	{
+		int 				i, n, descricao[];
+		String				parametros;
+		Entrada				entrada;
+		DataInputStream		entradaDados;
+
+		entradaDados = null;
+		try{
+			entradaDados = new DataInputStream(new BufferedInputStream(new FileInputStream(arquivo)));
+			if ((entradaDados.readInt() != ASSINATURA_ARQUIVO) || (entradaDados.readInt() != VERSAO_ARQUIVO))
+				return null;
+
+			parametros = entradaDados.readUTF();
+			descricao = lerVetor(entradaDados);
+			entrada = new Entrada(parametros, descricao);
+			entrada.coordenadaX = lerVetor(entradaDados);
+			entrada.coordenadaY = lerVetor(entradaDados);
+
+			n = entradaDados.readInt();
+			entrada.quebrasX = new int[n][];
+			entrada.quebrasY = new int[n][];
+			for (i = 0; i < n; i++)
+			{
+				entrada.quebrasX[i] = lerVetor(entradaDados);
+				entrada.quebrasY[i] = lerVetor(entradaDados);
+			}
+
+			return entrada;
+		}catch(IOException e){
+			//Um arquivo ilegível equivale a um desenho não guardado
+			return null;
+		}finally{
+			fechar(entradaDados);
+		}
+	}
+
+	private void gravar(File arquivo, Entrada entrada)
+	{
+		int 				i;
+		DataOutputStream	saida;
+
+		saida = null;
+		try{
+			saida = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(arquivo)));
+			saida.writeInt(ASSINATURA_ARQUIVO);
+			saida.writeInt(VERSAO_ARQUIVO);
+			saida.writeUTF(entrada.parametros);
+			gravarVetor(saida, entrada.descricao);
+			gravarVetor(saida, entrada.coordenadaX);
+			gravarVetor(saida, entrada.coordenadaY);
+
+			saida.writeInt(entrada.quebrasX.length);
+			for (i = 0; i < entrada.quebrasX.length; i++)
+			{
+				gravarVetor(saida, entrada.quebrasX[i]);
+				gravarVetor(saida, entrada.quebrasY[i]);
+			}
+		}catch(IOException e){
+			//O desenho continua guardado na memória
+		}finally{
+			fechar(saida);
+		}
+	}
+
+	private static int[] lerVetor(DataInputStream entradaDados) throws IOException
+	{
+		int i, vetor[];
+
+		vetor = new int[entradaDados.readInt()];
+		for (i = 0; i < vetor.length; i++)
+			vetor[i] = entradaDados.readInt();
+
+		return vetor;
+	}
+
+	private static void gravarVetor(DataOutputStream saida, int vetor[]) throws IOException
+	{
+		int i;
+
+		saida.writeInt(vetor.length);
+		for (i = 0; i < vetor.length; i++)
+			saida.writeInt(vetor[i]);
+	}
+
+	private static void fechar(Closeable fluxo)
+	{
+		try{
+			if (fluxo != null)
+				fluxo.close();
+		}catch(IOException e){
+		}
+	}
+
+//Desenho guardado de uma estrutura
+	private static class Entrada
+	{
+		private String	parametros;
+
+		private int		descricao[],
+						codigos[],
+						coordenadaX[],
+						coordenadaY[],
+						quebrasX[][],
+						quebrasY[][];
+
+		//Vértices cujo código os identifica, único e diferente do inicial
+		private boolean	indices[];
+
+		Entrada(String parametros, int descricao[])
+		{
+			int 						i, n;
+			HashMap<Integer, Integer>	unicos;
+
+			this.parametros = parametros;
+			this.descricao = descricao;
+
+			codigos = new int[descricao[0]];
+			for (i = 0, n = 1; i < codigos.length; i++)
+			{
+				codigos[i] = descricao[n];
+				n += (descricao[n + 3] == 1) ? 6 : 4;
+			}
+
+			unicos = indexarCodigos(codigos);
+			indices = new boolean[codigos.length];
+			for (i = 0; i < codigos.length; i++)
+				indices[i] = unicos.containsKey(Integer.valueOf(codigos[i]));
+		}
+
+		int[] getCodigos()
+		{
+			return codigos;
+		}
+
+		long calcularChave()
+		{
+			//FNV-1a de 64 bits sobre os parâmetros e a descrição da estrutura
+			int 	i;
+			long	chave;
+
+			chave = 0xcbf29ce484222325L;
+			for (i = 0; i < parametros.length(); i++)
+				chave = (chave ^ parametros.charAt(i)) * 0x100000001b3L;
+
+			for (i = 0; i < descricao.length; i++)
+				chave = (chave ^ descricao[i]) * 0x100000001b3L;
+
+			return chave;
+		}
+
+		boolean equivalente(Entrada outra)
+		{
+			return parametros.equals(outra.parametros) && Arrays.equals(descricao, outra.descricao);
+		}
+
+		void copiar(GrafoCompacto compacto)
+		{
+			int 	i;
+			Aresta	aresta;
+
+			coordenadaX = new int[compacto.getNumeroVertices()];
+			coordenadaY = new int[compacto.getNumeroVertices()];
+			for (i = 0; i < coordenadaX.length; i++)
+			{
+				coordenadaX[i] = compacto.getVertice(i).getX();
+				coordenadaY[i] = compacto.getVertice(i).getY();
+			}
+
+			quebrasX = new int[compacto.getNumeroArestas()][];
+			quebrasY = new int[compacto.getNumeroArestas()][];
+			for (i = 0; i < quebrasX.length; i++)
+			{
+				aresta = compacto.getAresta(i);
+				quebrasX[i] = aresta.getTodasQuebrasX();
+				quebrasY[i] = aresta.getTodasQuebrasY();
+			}
+		}
+
+		void atribuir(GrafoCompacto compacto)
+		{
+			int 	i;
+			Aresta	aresta;
+
+			for (i = 0; i < coordenadaX.length; i++)
+			{
+				compacto.getVertice(i).setX(coordenadaX[i]);
+				compacto.getVertice(i).setY(coordenadaY[i]);
+			}
+
+			for (i = 0; i < quebrasX.length; i++)
+			{
+				aresta = compacto.getAresta(i);
+				aresta.removerTodasQuebras();
+				if (quebrasX[i].length > 0)
+				{
+					aresta.setNumeroQuebras(quebrasX[i].length);
+					aresta.setTodasQuebrasX(quebrasX[i]);
+					aresta.setTodasQuebrasY(quebrasY[i]);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,959 @@
+package diagram.graphdrawing;
+
+import java.util.Arrays;
+
+import diagram.Grafo;
+import diagram.GrafoCompacto;
+
+import diagram.componente.Aresta;
+import diagram.componente.Vertice;
+
+/**
+ * A classe DesenhoArvore desenha árvores e florestas, como organogramas e
+ * hierarquias de classes, em tempo linear no número de vértices e arestas.
+ * Grafos que não são árvores são desenhados a partir de uma árvore geradora e
+ * as demais arestas são traçadas como segmentos retos.
+ *
+ * A árvore geradora de cada componente conexa é obtida por um único percurso
+ * em largura, Grafo.percursoLarguraOrientado, iniciado ao mesmo tempo na raiz
+ * de todas as componentes. Quando algum vértice não é alcançado seguindo o
+ * sentido das arestas o percurso é refeito com Grafo.percursoLargura. O pai de
+ * cada vértice é o vizinho visitado primeiro, e os filhos de um mesmo vértice
+ * ocupam posições consecutivas na ordem do percurso, o que dispensa listas de
+ * filhos e permite processar as árvores sem recursão.<br>
+ * <br>
+ * Dois estilos são oferecidos:<br>
+ * - hierárquico: o algoritmo de Reingold e Tilford, na versão de Walker com
+ * as correções de Buchheim, Jünger e Leipert, centraliza cada pai sobre os
+ * seus filhos e aproxima as subárvores vizinhas o máximo possível, O(V);<br>
+ * - radial: a raiz fica no centro e cada nível em uma circunferência, com cada
+ * subárvore em um setor de ângulo proporcional ao seu número de folhas. O raio
+ * de cada nível é o menor que mantém a distância entre os vértices vizinhos,
+ * O(V).<br>
+ * <br>
+ * A raiz de cada componente conexa é o vértice informado pelo método setRaiz,
+ * quando pertence a componente, ou o primeiro vértice sem arestas de entrada.
+ * As componentes são empacotadas como no SpringModel, os pontos de quebra das
+ * arestas são removidos e os vértices fixos não são respeitados.
+ *
+ * Por ser executado em tempo linear, sem sorteios e por uma única linha de
+ * execução, o desenho não é interrompido pelo tempo máximo nem pelo método
+ * cancelar, e a semente e o paralelismo são somente guardados.
+ *
+ * A utilização é a mesma do SpringModel:<br>
+ * <br>
+ *&nbsp;DesenhoArvore desenho = new DesenhoArvore(grafo);<br>
+ *&nbsp;desenho.setEstilo(DesenhoArvore.ESTILO_RADIAL);<br>
+ *&nbsp;desenho.desenharGrafo();<br>
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see SpringModel
+ * @see EmpacotamentoComponentes
+ * @see Grafo#percursoLargura(int[])
+ * @see AlgoritmoDesenho
+ */
+public class DesenhoArvore implements AlgoritmoDesenho
+{
+	/**
+	 * O estilo em que a raiz fica no topo e cada nível em uma linha horizontal.
+	 */
+	public static final int		ESTILO_HIERARQUICO = 0;
+
+	/**
+	 * O estilo em que a raiz fica no centro e cada nível em uma circunferência.
+	 */
+	public static final int		ESTILO_RADIAL = 1;
+
+	/**
+	 * A distância padrão, em pixels, entre dois níveis da árvore.
+	 */
+	public static final int		DISTANCIA_NIVEIS_PADRAO = 80;
+
+	/**
+	 * A distância padrão, em pixels, entre dois vértices irmãos.
+	 */
+	public static final int		DISTANCIA_IRMAOS_PADRAO = 40;
+
+	/**
+	 * A distância padrão, em pixels, entre dois vértices vizinhos de um nível
+	 * que não são irmãos.
+	 */
+	public static final int		DISTANCIA_SUBARVORES_PADRAO = 60;
+
+	/**
+	 * A distância padrão, em pixels, entre as componentes conexas e entre o
+	 * desenho e as bordas do editor.
+	 */
+	public static final int		DIST_COMPONENTE_CONEXA_PADRAO   = 100;
+
+	private Grafo				grafo;
+
+	private Vertice				raiz;
+
+	private int					estilo,
+								distanciaNiveis,
+								distanciaIrmaos,
+								distanciaSubarvores,
+								distEntreComponentesConexas,
+								paralelismo;
+
+	private long				tempoMaximo,
+								semente;
+
+	//Árvore geradora indexada pela posição dos vértices no percurso em largura
+	private int					numeroNos,
+								numeroRaizes,
+								indice[],
+								pai[],
+								inicioFilhos[],
+								numeroFilhos[],
+								nivel[],
+								arvore[];
+
+	private double				largura[],
+								altura[],
+								coordenadaX[],
+								coordenadaY[];
+
+	//Dados do algoritmo de Walker
+	private int					linha[],
+								ancestral[];
+
+	private double				preliminar[],
+								modificador[],
+								deslocamento[],
+								variacao[];
+
+	//Construtor
+
+	/**
+	 * Cria um novo objeto responsável em desenhar o grafo passado pelo parâmetro
+	 * automaticamente como uma árvore.
+	 *
+	 * @param grafo o grafo a ser desenhado automaticamente
+	 */
+	public DesenhoArvore(Grafo grafo)
+	{
+		this.grafo = grafo;
+		raiz = null;
+		estilo = ESTILO_HIERARQUICO;
+		distanciaNiveis = DISTANCIA_NIVEIS_PADRAO;
+		distanciaIrmaos = DISTANCIA_IRMAOS_PADRAO;
+		distanciaSubarvores = DISTANCIA_SUBARVORES_PADRAO;
+		distEntreComponentesConexas = DIST_COMPONENTE_CONEXA_PADRAO;
+		paralelismo = 1;
+		tempoMaximo = 0;
+		semente = 0;
+	}
+
+//Métodos Get
+
+	/**
+	 * Retorna o grafo atual do editor.
+	 *
+	 * @return o grafo atual da classe
+	 */
+	public Grafo getGrafo()
+	{
+		return grafo;
+	}
+
+	/**
+	 * Retorna o vértice escolhido como raiz da sua componente conexa.
+	 *
+	 * @return o vértice raiz ou null caso as raízes sejam escolhidas
+	 * automaticamente
+	 */
+	public Vertice getRaiz()
+	{
+		return raiz;
+	}
+
+	/**
+	 * Retorna o estilo do desenho.
+	 *
+	 * @return ESTILO_HIERARQUICO ou ESTILO_RADIAL
+	 */
+	public int getEstilo()
+	{
+		return estilo;
+	}
+
+	/**
+	 * Retorna a distância entre dois níveis da árvore.
+	 *
+	 * @return a distância em pixels
+	 */
+	public int getDistanciaNiveis()
+	{
+		return distanciaNiveis;
+	}
+
+	/**
+	 * Retorna a distância mínima entre dois vértices irmãos.
+	 *
+	 * @return a distância em pixels
+	 */
+	public int getDistanciaIrmaos()
+	{
+		return distanciaIrmaos;
+	}
+
+	/**
+	 * Retorna a distância mínima entre dois vértices vizinhos de um nível que
+	 * não são irmãos.
+	 *
+	 * @return a distância em pixels
+	 */
+	public int getDistanciaSubarvores()
+	{
+		return distanciaSubarvores;
+	}
+
+	/**
+	 * Retorna a distância que o algoritmo manterá entre as componentes conexas
+	 * e entre o desenho e as bordas do editor.
+	 *
+	 * @return o inteiro que representa a distância
+	 */
+	public int getDistanciaEntreComponentesConexas()
+	{
+		return distEntreComponentesConexas;
+	}
+
+	/**
+	 * Retorna a distância entre dois níveis da árvore, que faz o papel do
+	 * comprimento das arestas nos demais algoritmos.
+	 *
+	 * @return a distância em pixels
+	 * @see DesenhoArvore#getDistanciaNiveis
+	 */
+	public int getTamanhoAresta()
+	{
+		return distanciaNiveis;
+	}
+
+	/**
+	 * Retorna o tempo máximo informado pelo método setTempoMaximo.
+	 *
+	 * @return o tempo máximo, sendo 0 quando não existe limite
+	 */
+	public long getTempoMaximo()
+	{
+		return tempoMaximo;
+	}
+
+	/**
+	 * Retorna a semente informada pelo método setSemente.
+	 *
+	 * @return a semente atual
+	 */
+	public long getSemente()
+	{
+		return semente;
+	}
+
+	/**
+	 * Retorna o paralelismo informado pelo método setParalelismo.
+	 *
+	 * @return o paralelismo informado
+	 */
+	public int getParalelismo()
+	{
+		return paralelismo;
+	}
+
+	/**
+	 * Informa se os vértices marcados com Vertice.setFixo mantêm as suas
+	 * coordenadas durante o desenho, o que nunca ocorre neste algoritmo.
+	 *
+	 * @return falso
+	 */
+	public boolean getRespeitaVerticesFixos()
+	{
+		return false;
+	}
+
+	/**
+	 * Retorna o texto que identifica os parâmetros deste algoritmo que
+	 * alteram o desenho, utilizado pela classe CacheDesenho.
+	 *
+	 * @return a configuração atual do algoritmo
+	 */
+	public String getConfiguracao()
+	{
+		//A raiz é identificada pela sua posição no grafo, sendo -1 quando as
+		//raízes são escolhidas pelo algoritmo
+		return "estilo=" + estilo + ";distanciaNiveis=" + distanciaNiveis + ";distanciaIrmaos=" + distanciaIrmaos
+			+ ";distanciaSubarvores=" + distanciaSubarvores + ";distEntreComponentesConexas=" + distEntreComponentesConexas
+			+ ";raiz=" + ((raiz == null) ? -1 : grafo.getLocalizacaoVertice(raiz));
+	}
+
+	/**
+	 * Informa se o último desenho foi interrompido, o que nunca ocorre neste
+	 * algoritmo.
+	 *
+	 * @return falso
+	 */
+	public boolean getInterrompido()
+	{
+		return false;
+	}
+
+//Métodos Set
+
+	/**
+	 * Altera o grafo a ser desenhado no editor.
+	 *
+	 * @param grafo o novo grafo a ser desenhado
+	 */
+	public void setGrafo(Grafo grafo)
+	{
+		this.grafo = grafo;
+	}
+
+	/**
+	 * Altera o vértice utilizado como raiz da sua componente conexa. As demais
+	 * componentes continuam com as raízes escolhidas automaticamente.
+	 *
+	 * @param raiz o vértice raiz ou null para escolher todas as raízes
+	 * automaticamente
+	 */
+	public void setRaiz(Vertice raiz)
+	{
+		this.raiz = raiz;
+	}
+
+	/**
+	 * Altera o estilo do desenho.
+	 *
+	 * @param estilo ESTILO_HIERARQUICO ou ESTILO_RADIAL
+	 */
+	public void setEstilo(int estilo)
+	{
+		if (estilo == ESTILO_RADIAL)
+			this.estilo = ESTILO_RADIAL;
+		else
+			this.estilo = ESTILO_HIERARQUICO;
+	}
+
+	/**
+	 * Altera a distância entre dois níveis da árvore. No estilo radial é a
+	 * distância mínima entre duas circunferências.
+	 *
+	 * @param distanciaNiveis a nova distância em pixels
+	 */
+	public void setDistanciaNiveis(int distanciaNiveis)
+	{
+		if (distanciaNiveis > 0)
+			this.distanciaNiveis = distanciaNiveis;
+		else
+			this.distanciaNiveis = DISTANCIA_NIVEIS_PADRAO;
+	}
+
+	/**
+	 * Altera a distância mínima entre dois vértices irmãos. No estilo radial é
+	 * a distância mínima entre quaisquer vértices vizinhos de um nível.
+	 *
+	 * @param distanciaIrmaos a nova distância em pixels
+	 */
+	public void setDistanciaIrmaos(int distanciaIrmaos)
+	{
+		if (distanciaIrmaos > 0)
+			this.distanciaIrmaos = distanciaIrmaos;
+		else
+			this.distanciaIrmaos = DISTANCIA_IRMAOS_PADRAO;
+	}
+
+	/**
+	 * Altera a distância mínima entre dois vértices vizinhos de um nível que
+	 * não são irmãos, utilizada somente pelo estilo hierárquico.
+	 *
+	 * @param distanciaSubarvores a nova distância em pixels
+	 */
+	public void setDistanciaSubarvores(int distanciaSubarvores)
+	{
+		if (distanciaSubarvores > 0)
+			this.distanciaSubarvores = distanciaSubarvores;
+		else
+			this.distanciaSubarvores = DISTANCIA_SUBARVORES_PADRAO;
+	}
+
+	/**
+	 * Altera a distância entre as componentes conexas e entre o desenho e as
+	 * bordas do editor.
+	 *
+	 * @param distEntreComponentesConexas a nova distância
+	 */
+	public void setDistanciaEntreComponentesConexas(int distEntreComponentesConexas)
+	{
+		if (distEntreComponentesConexas > 0)
+			this.distEntreComponentesConexas = distEntreComponentesConexas;
+		else
+			this.distEntreComponentesConexas = DIST_COMPONENTE_CONEXA_PADRAO;
+	}
+
+	/**
+	 * Altera a distância entre dois níveis da árvore, que faz o papel do
+	 * comprimento das arestas nos demais algoritmos.
+	 *
+	 * @param tamanhoAresta a nova distância em pixels
+	 * @see DesenhoArvore#setDistanciaNiveis
+	 */
+	public void setTamanhoAresta(int tamanhoAresta)
+	{
+		setDistanciaNiveis(tamanhoAresta);
+	}
+
+	/**
+	 * Altera o tempo máximo, em milissegundos, do desenho. O desenho é
+	 * executado em tempo linear e não é interrompido, então o tempo máximo é
+	 * somente guardado.
+	 *
+	 * @param tempoMaximo o novo tempo máximo, sendo 0 para não limitar o tempo
+	 */
+	public void setTempoMaximo(long tempoMaximo)
+	{
+		if (tempoMaximo >= 0)
+			this.tempoMaximo = tempoMaximo;
+		else
+			this.tempoMaximo = 0;
+	}
+
+	/**
+	 * Altera a semente dos sorteios. O algoritmo não realiza sorteios, então a
+	 * semente é somente guardada.
+	 *
+	 * @param semente a nova semente
+	 */
+	public void setSemente(long semente)
+	{
+		this.semente = semente;
+	}
+
+	/**
+	 * Altera o número de linhas de execução. O algoritmo é executado sempre
+	 * pela linha de execução que chamou o método desenharGrafo, então o
+	 * paralelismo é somente guardado.
+	 *
+	 * @param paralelismo o número de linhas de execução, sendo 1 o padrão
+	 */
+	public void setParalelismo(int paralelismo)
+	{
+		if (paralelismo > 0)
+			this.paralelismo = paralelismo;
+		else
+			this.paralelismo = 1;
+	}
+
+// ** Algoritmo de desenho de árvores **
+
+	/**
+	 * Não tem efeito, pois o desenho é executado em tempo linear e não é
+	 * interrompido.
+	 */
+	public void cancelar()
+	{
+	}
+
+	/**
+	 * Executa o desenho da árvore geradora de cada componente conexa alterando
+	 * as coordenadas dos vértices e removendo os pontos de quebra de todas as
+	 * arestas.
+	 */
+	public void desenharGrafo()
+	{
+		GrafoCompacto	compacto;
+
+		if (grafo.getNumeroTotalVertices() == 0)
+			return;
+
+		compacto = grafo.compactar();
+		construirArvore(compacto);
+
+		if (estilo == ESTILO_RADIAL)
+			posicionarRadial();
+		else
+			posicionarHierarquico();
+
+		posicionarComponentesConexas(compacto);
+		liberarVetores();
+	}
+
+//Métodos privados da classe DesenhoArvore
+	private void construirArvore(GrafoCompacto compacto)
+	{
+		int 		i, e, raizes[], posicao[];
+		boolean		orientado;
+		Vertice		percurso[];
+
+		numeroNos = compacto.getNumeroVertices();
+		raizes = escolherRaizes(compacto);
+		numeroRaizes = raizes.length;
+
+		//Um único percurso a partir das raízes de todas as componentes
+		orientado = true;
+		percurso = grafo.percursoLarguraOrientado(raizes);
+		if (percurso.length < numeroNos)
+		{
+			orientado = false;
+			percurso = grafo.percursoLargura(raizes);
+		}
+
+		indice = new int[numeroNos];
+		posicao = new int[numeroNos];
+		for (i = 0; i < numeroNos; i++)
+		{
+			indice[i] = compacto.getIndice(percurso[i]);
+			posicao[indice[i]] = i;
+		}
+
+		//O pai de cada vértice é o vizinho que o percurso visitou primeiro
+		pai = new int[numeroNos];
+		Arrays.fill(pai, -1);
+		for (e = 0; e < compacto.getNumeroArestas(); e++)
+		{
+			if ((compacto.getOrigem(e) < 0) || (compacto.getDestino(e) < 0))
+				continue;
+
+			ligar(posicao[compacto.getOrigem(e)], posicao[compacto.getDestino(e)]);
+			if (!orientado)
+				ligar(posicao[compacto.getDestino(e)], posicao[compacto.getOrigem(e)]);
+		}
+
+		//Os filhos de cada vértice são consecutivos na ordem do percurso
+		inicioFilhos = new int[numeroNos];
+		numeroFilhos = new int[numeroNos];
+		nivel = new int[numeroNos];
+		arvore = new int[numeroNos];
+		for (i = 0; i < numeroNos; i++)
+		{
+			if (i < numeroRaizes)
+			{
+				arvore[i] = i;
+				continue;
+			}
+
+			if (numeroFilhos[pai[i]] == 0)
+				inicioFilhos[pai[i]] = i;
+
+			numeroFilhos[pai[i]]++;
+			nivel[i] = nivel[pai[i]] + 1;
+			arvore[i] = arvore[pai[i]];
+		}
+
+		largura = new double[numeroNos];
+		altura = new double[numeroNos];
+		coordenadaX = new double[numeroNos];
+		coordenadaY = new double[numeroNos];
+		for (i = 0; i < numeroNos; i++)
+		{
+			largura[i] = compacto.getVertice(indice[i]).getLargura();
+			altura[i] = compacto.getVertice(indice[i]).getAltura();
+		}
+	}
+
+	private void ligar(int origem, int destino)
+	{
+		//As raízes não possuem pai e a posição no percurso do pai é sempre
+		//menor que a do filho
+		if ((destino >= numeroRaizes) && (origem < destino) && ((pai[destino] < 0) || (origem < pai[destino])))
+			pai[destino] = origem;
+	}
+
+	private int[] escolherRaizes(GrafoCompacto compacto)
+	{
+		//Rotula as componentes conexas e escolhe a raiz de cada uma: o vértice
+		//informado, o primeiro vértice sem arestas de entrada ou o primeiro
+		//vértice da componente
+		int 	i, v, e, atual, inicio, fim, numeroComponentes, indiceRaiz, entrada[],
+				componente[], raizes[], fila[], inicioAdjacentes[], adjacentes[];
+
+		inicioAdjacentes = compacto.getInicioAdjacentes();
+		adjacentes = compacto.getAdjacentes();
+		componente = new int[numeroNos];
+		raizes = new int[numeroNos];
+		fila = new int[numeroNos];
+		entrada = new int[numeroNos];
+		Arrays.fill(componente, -1);
+
+		for (e = 0; e < compacto.getNumeroArestas(); e++)
+			if ((compacto.getOrigem(e) >= 0) && (compacto.getDestino(e) >= 0) && (compacto.getOrigem(e) != compacto.getDestino(e)))
+				entrada[compacto.getDestino(e)]++;
+
+		indiceRaiz = (raiz == null) ? -1 : compacto.getIndice(raiz);
+		numeroComponentes = 0;
+		for (v = 0; v < numeroNos; v++)
+		{
+			if (componente[v] >= 0)
+				continue;
+
+			inicio = 0;
+			fim = 0;
+			componente[v] = numeroComponentes;
+			raizes[numeroComponentes] = v;
+			fila[fim++] = v;
+			while (inicio < fim)
+			{
+				atual = fila[inicio++];
+				if (atual == indiceRaiz)
+					raizes[numeroComponentes] = atual;
+				else if ((entrada[atual] == 0) && (entrada[raizes[numeroComponentes]] > 0) && (raizes[numeroComponentes] != indiceRaiz))
+					raizes[numeroComponentes] = atual;
+
+				for (i = inicioAdjacentes[atual]; i < inicioAdjacentes[atual + 1]; i++)
+				{
+					if (componente[adjacentes[i]] < 0)
+					{
+						componente[adjacentes[i]] = numeroComponentes;
+						fila[fim++] = adjacentes[i];
+					}
+				}
+			}
+
+			numeroComponentes++;
+		}
+
+		return Arrays.copyOf(raizes, numeroComponentes);
+	}
+
+	private void posicionarHierarquico()
+	{
+		int 	i, d, numeroNiveis;
+		double	acumulado[], alturaNivel[], topoNivel[];
+
+		linha = new int[numeroNos];
+		ancestral = new int[numeroNos];
+		preliminar = new double[numeroNos];
+		modificador = new double[numeroNos];
+		deslocamento = new double[numeroNos];
+		variacao = new double[numeroNos];
+		for (i = 0; i < numeroNos; i++)
+		{
+			linha[i] = -1;
+			ancestral[i] = i;
+		}
+
+		//Os filhos ocupam posições maiores que as dos pais, então a ordem
+		//inversa do percurso posiciona as subárvores antes das suas raízes
+		for (i = numeroNos - 1; i >= 0; i--)
+			if (numeroFilhos[i] > 0)
+				posicionarFilhos(i);
+
+		for (i = 0; i < numeroRaizes; i++)
+			preliminar[i] = meioFilhos(i);
+
+		//Acumula os modificadores dos ancestrais, do topo para as folhas
+		acumulado = new double[numeroNos];
+		numeroNiveis = 0;
+		for (i = 0; i < numeroNos; i++)
+		{
+			if (i >= numeroRaizes)
+				acumulado[i] = acumulado[pai[i]] + modificador[pai[i]];
+
+			coordenadaX[i] = preliminar[i] + acumulado[i];
+			numeroNiveis = Math.max(numeroNiveis, nivel[i] + 1);
+		}
+
+		//Cada nível é tão alto quanto o seu maior vértice
+		alturaNivel = new double[numeroNiveis];
+		topoNivel = new double[numeroNiveis];
+		for (i = 0; i < numeroNos; i++)
+			alturaNivel[nivel[i]] = Math.max(alturaNivel[nivel[i]], altura[i]);
+
+		for (d = 1; d < numeroNiveis; d++)
+			topoNivel[d] = topoNivel[d - 1] + alturaNivel[d - 1] + distanciaNiveis;
+
+		for (i = 0; i < numeroNos; i++)
+			coordenadaY[i] = topoNivel[nivel[i]] + (alturaNivel[nivel[i]] / 2.0);
+	}
+
+	private void posicionarFilhos(int v)
+	{
+		//Primeira passagem do algoritmo de Walker para um vértice cujas
+		//subárvores dos filhos já foram posicionadas
+		int 	w, primeiro, ultimo, ancestralPadrao;
+		double	meio;
+
+		primeiro = inicioFilhos[v];
+		ultimo = primeiro + numeroFilhos[v] - 1;
+		ancestralPadrao = primeiro;
+
+		for (w = primeiro; w <= ultimo; w++)
+		{
+			meio = meioFilhos(w);
+
+			if (w == primeiro)
+				preliminar[w] = meio;
+			else
+			{
+				preliminar[w] = preliminar[w - 1] + distancia(w - 1, w);
+				modificador[w] = preliminar[w] - meio;
+				ancestralPadrao = aproximarSubarvore(w, ancestralPadrao);
+			}
+		}
+
+		executarDeslocamentos(v);
+	}
+
+	private double meioFilhos(int v)
+	{
+		if (numeroFilhos[v] == 0)
+			return 0.0;
+
+		return (preliminar[inicioFilhos[v]] + preliminar[inicioFilhos[v] + numeroFilhos[v] - 1]) / 2.0;
+	}
+
+	private double distancia(int esquerdo, int direito)
+	{
+		return ((largura[esquerdo] + largura[direito]) / 2.0) + ((pai[esquerdo] == pai[direito]) ? distanciaIrmaos : distanciaSubarvores);
+	}
+
+	private int aproximarSubarvore(int v, int ancestralPadrao)
+	{
+		//Percorre os contornos direitos das subárvores à esquerda e o contorno
+		//esquerdo da subárvore de v, deslocando v quando os contornos se
+		//aproximam demais (apportion)
+		int 	internoDireito, externoDireito, internoEsquerdo, externoEsquerdo;
+		double	somaInternoDireito, somaExternoDireito, somaInternoEsquerdo,
+				somaExternoEsquerdo, avanco;
+
+		internoDireito = v;
+		externoDireito = v;
+		internoEsquerdo = v - 1;
+		externoEsquerdo = inicioFilhos[pai[v]];
+		somaInternoDireito = modificador[internoDireito];
+		somaExternoDireito = modificador[externoDireito];
+		somaInternoEsquerdo = modificador[internoEsquerdo];
+		somaExternoEsquerdo = modificador[externoEsquerdo];
+
+		while ((proximoDireito(internoEsquerdo) >= 0) && (proximoEsquerdo(internoDireito) >= 0))
+		{
+			internoEsquerdo = proximoDireito(internoEsquerdo);
+			internoDireito = proximoEsquerdo(internoDireito);
+			externoEsquerdo = proximoEsquerdo(externoEsquerdo);
+			externoDireito = proximoDireito(externoDireito);
+			ancestral[externoDireito] = v;
+
+			avanco = (preliminar[internoEsquerdo] + somaInternoEsquerdo) - (preliminar[internoDireito] + somaInternoDireito) + distancia(internoEsquerdo, internoDireito);
+			if (avanco > 0)
+			{
+				moverSubarvore(ancestralComum(internoEsquerdo, v, ancestralPadrao), v, avanco);
+				somaInternoDireito += avanco;
+				somaExternoDireito += avanco;
+			}
+
+			somaInternoEsquerdo += modificador[internoEsquerdo];
+			somaInternoDireito += modificador[internoDireito];
+			somaExternoEsquerdo += modificador[externoEsquerdo];
+			somaExternoDireito += modificador[externoDireito];
+		}
+
+		//As linhas ligam o contorno da subárvore mais baixa ao da mais alta
+		if ((proximoDireito(internoEsquerdo) >= 0) && (proximoDireito(externoDireito) < 0))
+		{
+			linha[externoDireito] = proximoDireito(internoEsquerdo);
+			modificador[externoDireito] += somaInternoEsquerdo - somaExternoDireito;
+		}
+
+		if ((proximoEsquerdo(internoDireito) >= 0) && (proximoEsquerdo(externoEsquerdo) < 0))
+		{
+			linha[externoEsquerdo] = proximoEsquerdo(internoDireito);
+			modificador[externoEsquerdo] += somaInternoDireito - somaExternoEsquerdo;
+			ancestralPadrao = v;
+		}
+
+		return ancestralPadrao;
+	}
+
+	private int proximoEsquerdo(int v)
+	{
+		return (numeroFilhos[v] > 0) ? inicioFilhos[v] : linha[v];
+	}
+
+	private int proximoDireito(int v)
+	{
+		return (numeroFilhos[v] > 0) ? inicioFilhos[v] + numeroFilhos[v] - 1 : linha[v];
+	}
+
+	private int ancestralComum(int internoEsquerdo, int v, int ancestralPadrao)
+	{
+		if (pai[ancestral[internoEsquerdo]] == pai[v])
+			return ancestral[internoEsquerdo];
+
+		return ancestralPadrao;
+	}
+
+	private void moverSubarvore(int esquerdo, int direito, double avanco)
+	{
+		//Os irmãos entre as duas subárvores são espaçados igualmente depois,
+		//pelo método executarDeslocamentos
+		double	parcela;
+
+		parcela = avanco / (direito - esquerdo);
+		variacao[direito] -= parcela;
+		deslocamento[direito] += avanco;
+		variacao[esquerdo] += parcela;
+		preliminar[direito] += avanco;
+		modificador[direito] += avanco;
+	}
+
+	private void executarDeslocamentos(int v)
+	{
+		int 	w;
+		double	avanco, mudanca;
+
+		avanco = 0.0;
+		mudanca = 0.0;
+		for (w = inicioFilhos[v] + numeroFilhos[v] - 1; w >= inicioFilhos[v]; w--)
+		{
+			preliminar[w] += avanco;
+			modificador[w] += avanco;
+			mudanca += variacao[w];
+			avanco += deslocamento[w] + mudanca;
+		}
+	}
+
+	private void posicionarRadial()
+	{
+		int 	i, w, t, d, cursor, numeroNiveis, inicioNiveis[];
+		double	angulo, tamanho, folhas[], inicioSetor[], setor[],
+				raio[], tamanhoNivel[], raioMinimo[];
+
+		//Número de folhas de cada subárvore, das folhas para as raízes
+		folhas = new double[numeroNos];
+		for (i = numeroNos - 1; i >= 0; i--)
+		{
+			if (folhas[i] == 0)
+				folhas[i] = 1.0;
+
+			if (i >= numeroRaizes)
+				folhas[pai[i]] += folhas[i];
+		}
+
+		//Cada filho recebe uma parte do setor do pai proporcional às suas folhas
+		inicioSetor = new double[numeroNos];
+		setor = new double[numeroNos];
+		for (i = 0; i < numeroNos; i++)
+		{
+			if (i < numeroRaizes)
+				setor[i] = 2.0 * Math.PI;
+
+			angulo = inicioSetor[i];
+			for (w = inicioFilhos[i]; w < inicioFilhos[i] + numeroFilhos[i]; w++)
+			{
+				inicioSetor[w] = angulo;
+				setor[w] = setor[i] * folhas[w] / folhas[i];
+				angulo += setor[w];
+			}
+		}
+
+		//Os níveis de cada árvore ocupam posições consecutivas dos vetores
+		inicioNiveis = new int[numeroRaizes + 1];
+		for (i = 0; i < numeroNos; i++)
+			inicioNiveis[arvore[i] + 1] = Math.max(inicioNiveis[arvore[i] + 1], nivel[i] + 1);
+
+		for (t = 0; t < numeroRaizes; t++)
+			inicioNiveis[t + 1] += inicioNiveis[t];
+
+		numeroNiveis = inicioNiveis[numeroRaizes];
+		raio = new double[numeroNiveis];
+		tamanhoNivel = new double[numeroNiveis];
+		raioMinimo = new double[numeroNiveis];
+		for (i = 0; i < numeroNos; i++)
+		{
+			cursor = inicioNiveis[arvore[i]] + nivel[i];
+			tamanho = Math.max(largura[i], altura[i]);
+			tamanhoNivel[cursor] = Math.max(tamanhoNivel[cursor], tamanho);
+
+			//O arco do setor deve comportar o vértice e a distância aos vizinhos
+			if (nivel[i] > 0)
+				raioMinimo[cursor] = Math.max(raioMinimo[cursor], (tamanho + distanciaIrmaos) / setor[i]);
+		}
+
+		for (t = 0; t < numeroRaizes; t++)
+		{
+			for (d = inicioNiveis[t] + 1; d < inicioNiveis[t + 1]; d++)
+				raio[d] = Math.max(raio[d - 1] + distanciaNiveis + ((tamanhoNivel[d - 1] + tamanhoNivel[d]) / 2.0), raioMinimo[d]);
+		}
+
+		for (i = 0; i < numeroNos; i++)
+		{
+			angulo = inicioSetor[i] + (setor[i] / 2.0);
+			coordenadaX[i] = raio[inicioNiveis[arvore[i]] + nivel[i]] * Math.cos(angulo);
+			coordenadaY[i] = raio[inicioNiveis[arvore[i]] + nivel[i]] * Math.sin(angulo);
+		}
+	}
+
+	private void posicionarComponentesConexas(GrafoCompacto compacto)
+	{
+		//As coordenadas calculadas são os centros dos vértices, e cada árvore
+		//é uma componente conexa
+		int 	i, e, t, larguraComponente[], alturaComponente[], posicaoX[], posicaoY[];
+		double	menorX[], menorY[], maiorX[], maiorY[];
+		Aresta	aresta;
+
+		menorX = new double[numeroRaizes];
+		menorY = new double[numeroRaizes];
+		maiorX = new double[numeroRaizes];
+		maiorY = new double[numeroRaizes];
+		Arrays.fill(menorX, Double.MAX_VALUE);
+		Arrays.fill(menorY, Double.MAX_VALUE);
+		Arrays.fill(maiorX, -Double.MAX_VALUE);
+		Arrays.fill(maiorY, -Double.MAX_VALUE);
+		for (i = 0; i < numeroNos; i++)
+		{
+			t = arvore[i];
+			menorX[t] = Math.min(menorX[t], coordenadaX[i] - (largura[i] / 2.0));
+			menorY[t] = Math.min(menorY[t], coordenadaY[i] - (altura[i] / 2.0));
+			maiorX[t] = Math.max(maiorX[t], coordenadaX[i] + (largura[i] / 2.0));
+			maiorY[t] = Math.max(maiorY[t], coordenadaY[i] + (altura[i] / 2.0));
+		}
+
+		larguraComponente = new int[numeroRaizes];
+		alturaComponente = new int[numeroRaizes];
+		posicaoX = new int[numeroRaizes];
+		posicaoY = new int[numeroRaizes];
+		for (t = 0; t < numeroRaizes; t++)
+		{
+			larguraComponente[t] = (int) Math.ceil(maiorX[t] - menorX[t]);
+			alturaComponente[t] = (int) Math.ceil(maiorY[t] - menorY[t]);
+		}
+
+		new EmpacotamentoComponentes(distEntreComponentesConexas).empacotar(larguraComponente, alturaComponente, numeroRaizes, posicaoX, posicaoY);
+
+		//Atribuo as novas coordenadas arredondadas aos Vertices
+		for (i = 0; i < numeroNos; i++)
+		{
+			t = arvore[i];
+			compacto.getVertice(indice[i]).setX((int) Math.round(coordenadaX[i] - (largura[i] / 2.0) - menorX[t] + posicaoX[t]));
+			compacto.getVertice(indice[i]).setY((int) Math.round(coordenadaY[i] - (altura[i] / 2.0) - menorY[t] + posicaoY[t]));
+		}
+
+		for (e = 0; e < compacto.getNumeroArestas(); e++)
+		{
+			aresta = compacto.getAresta(e);
+			aresta.removerTodasQuebras();
+		}
+	}
+
+	private void liberarVetores()
+	{
+		indice = null;
+		pai = null;
+		inicioFilhos = null;
+		numeroFilhos = null;
+		nivel = null;
+		arvore = null;
+		largura = null;
+		altura = null;
+		coordenadaX = null;
+		coordenadaY = null;
+		linha = null;
+		ancestral = null;
+		preliminar = null;
+		modificador = null;
+		deslocamento = null;
+		variacao = null;
+	}
+}
@@ -0,0 +1,1204 @@
+package diagram.graphdrawing;
+
+import java.util.Arrays;
+
+import diagram.Grafo;
+import diagram.GrafoCompacto;
+
+import diagram.componente.Aresta;
+import diagram.componente.Vertice;
+
+/**
+ * A classe DesenhoCamadas desenha grafos orientados, como máquinas de estados e
+ * fluxogramas, em camadas horizontais com as arestas apontando de cima para
+ * baixo, seguindo as quatro etapas propostas por Sugiyama, Tagawa e Toda:<br>
+ * - remoção dos ciclos: as arestas de retorno de uma busca em profundidade são
+ * invertidas, O(V + E);<br>
+ * - atribuição das camadas: o caminho mais longo a partir das fontes, com as
+ * fontes puxadas para junto dos seus sucessores, O(V + E);<br>
+ * - redução dos cruzamentos: as arestas longas recebem vértices fictícios em
+ * cada camada atravessada e as camadas são reordenadas pelo baricentro dos
+ * vizinhos em varreduras descendentes e ascendentes, mantendo a ordem com
+ * menos cruzamentos, contados pelo método de Barth, Jünger e Mutzel em
+ * O(E log V);<br>
+ * - atribuição das coordenadas: cada camada é posicionada pela média dos
+ * vizinhos da camada anterior respeitando a ordem e a distância mínima entre
+ * os vértices, um problema de regressão isotônica resolvido exatamente em
+ * tempo linear pelo algoritmo PAV (pool adjacent violators).<br>
+ * <br>
+ * Os vértices fictícios se tornam os pontos de quebra das arestas longas, na
+ * ordem da origem para o destino mesmo nas arestas invertidas. Cada componente
+ * conexa é desenhada separadamente e as componentes são empacotadas como no
+ * SpringModel. Os laços não influenciam o desenho e os vértices fixos não são
+ * respeitados, pois a posição de cada vértice é determinada pela sua camada.
+ *
+ * O tempo máximo e o método cancelar encerram as varreduras da redução de
+ * cruzamentos, mantendo a ordem com menos cruzamentos obtida até o momento, e
+ * as varreduras de posicionamento após a primeira; as demais etapas são sempre
+ * executadas. O algoritmo não realiza sorteios e é executado por uma única
+ * linha de execução.
+ *
+ * A utilização é a mesma do SpringModel:<br>
+ * <br>
+ *&nbsp;DesenhoCamadas desenho = new DesenhoCamadas(grafo);<br>
+ *&nbsp;desenho.setDistanciaCamadas(80);<br>
+ *&nbsp;desenho.desenharGrafo();<br>
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see SpringModel
+ * @see EmpacotamentoComponentes
+ * @see AlgoritmoDesenho
+ */
+public class DesenhoCamadas implements AlgoritmoDesenho
+{
+	/**
+	 * A distância vertical padrão, em pixels, entre duas camadas.
+	 */
+	public static final int		DISTANCIA_CAMADAS_PADRAO = 80;
+
+	/**
+	 * A distância horizontal padrão, em pixels, entre dois vértices vizinhos de
+	 * uma camada.
+	 */
+	public static final int		DISTANCIA_VERTICES_PADRAO = 40;
+
+	/**
+	 * A distância padrão, em pixels, entre as componentes conexas e entre o
+	 * desenho e as bordas do editor.
+	 */
+	public static final int		DIST_COMPONENTE_CONEXA_PADRAO   = 100;
+
+	/**
+	 * O número padrão de varreduras, descendente e ascendente, da redução de
+	 * cruzamentos.
+	 */
+	public static final int		NUMERO_VARREDURAS_PADRAO = 12;
+
+	//Varreduras sem redução dos cruzamentos que encerram a reordenação
+	private static final int	VARREDURAS_SEM_MELHORA = 3;
+
+	//Número de varreduras de posicionamento das camadas
+	private static final int	ITERACOES_COORDENADAS = 8;
+
+	//Peso dos vértices fictícios no posicionamento, que endireita as arestas longas
+	private static final double	PESO_FICTICIO = 4.0;
+
+	//Peso dos vértices sem vizinhos na camada de referência
+	private static final double	PESO_ISOLADO = 0.001;
+
+	//Resolução do baricentro nas chaves de ordenação
+	private static final double	ESCALA_BARICENTRO = 1024.0;
+
+	//Número de bits da posição nas chaves de ordenação
+	private static final int	BITS_POSICAO = 24;
+
+	private Grafo				grafo;
+
+	private int					distanciaCamadas,
+								distanciaVertices,
+								distEntreComponentesConexas,
+								numeroVarreduras,
+								paralelismo;
+
+	private long				numeroCruzamentos,
+								semente;
+
+	private LimiteExecucao		limite;
+
+	//Dados da componente conexa que está sendo desenhada
+	private int					numeroNos,
+								numeroReais,
+								numeroCamadas,
+								camada[],
+								posicao[],
+								ordem[],
+								inicioCamada[],
+								inicioAcima[],
+								acima[],
+								inicioAbaixo[],
+								abaixo[],
+								auxiliar[];
+
+	private double				largura[],
+								altura[],
+								coordenadaX[],
+								topoCamada[],
+								alturaCamada[];
+
+	//Construtor
+
+	/**
+	 * Cria um novo objeto responsável em desenhar o grafo passado pelo parâmetro
+	 * automaticamente em camadas.
+	 *
+	 * @param grafo o grafo a ser desenhado automaticamente
+	 */
+	public DesenhoCamadas(Grafo grafo)
+	{
+		this.grafo = grafo;
+		distanciaCamadas = DISTANCIA_CAMADAS_PADRAO;
+		distanciaVertices = DISTANCIA_VERTICES_PADRAO;
+		distEntreComponentesConexas = DIST_COMPONENTE_CONEXA_PADRAO;
+		numeroVarreduras = NUMERO_VARREDURAS_PADRAO;
+		paralelismo = 1;
+		semente = 0;
+		limite = new LimiteExecucao();
+	}
+
+//Métodos Get
+
+	/**
+	 * Retorna o grafo atual do editor.
+	 *
+	 * @return o grafo atual da classe
+	 */
+	public Grafo getGrafo()
+	{
+		return grafo;
+	}
+
+	/**
+	 * Retorna a distância vertical entre duas camadas.
+	 *
+	 * @return a distância em pixels
+	 */
+	public int getDistanciaCamadas()
+	{
+		return distanciaCamadas;
+	}
+
+	/**
+	 * Retorna a distância horizontal mínima entre dois vértices vizinhos de
+	 * uma camada.
+	 *
+	 * @return a distância em pixels
+	 */
+	public int getDistanciaVertices()
+	{
+		return distanciaVertices;
+	}
+
+	/**
+	 * Retorna a distância que o algoritmo manterá entre as componentes conexas
+	 * e entre o desenho e as bordas do editor.
+	 *
+	 * @return o inteiro que representa a distância
+	 */
+	public int getDistanciaEntreComponentesConexas()
+	{
+		return distEntreComponentesConexas;
+	}
+
+	/**
+	 * Retorna o número máximo de varreduras da redução de cruzamentos.
+	 *
+	 * @return o número de varreduras
+	 */
+	public int getNumeroVarreduras()
+	{
+		return numeroVarreduras;
+	}
+
+	/**
+	 * Retorna o número de cruzamentos entre as arestas, contando os segmentos
+	 * entre os vértices fictícios, do último desenho realizado.
+	 *
+	 * @return o número de cruzamentos
+	 */
+	public long getNumeroCruzamentos()
+	{
+		return numeroCruzamentos;
+	}
+
+	/**
+	 * Retorna a distância vertical entre duas camadas, que faz o papel do
+	 * comprimento das arestas nos demais algoritmos.
+	 *
+	 * @return a distância em pixels
+	 * @see DesenhoCamadas#getDistanciaCamadas
+	 */
+	public int getTamanhoAresta()
+	{
+		return distanciaCamadas;
+	}
+
+	/**
+	 * Retorna o tempo máximo, em milissegundos, do desenho.
+	 *
+	 * @return o tempo máximo, sendo 0 quando não existe limite
+	 */
+	public long getTempoMaximo()
+	{
+		return limite.getTempoMaximo();
+	}
+
+	/**
+	 * Retorna a semente informada pelo método setSemente.
+	 *
+	 * @return a semente atual
+	 */
+	public long getSemente()
+	{
+		return semente;
+	}
+
+	/**
+	 * Retorna o paralelismo informado pelo método setParalelismo.
+	 *
+	 * @return o paralelismo informado
+	 */
+	public int getParalelismo()
+	{
+		return paralelismo;
+	}
+
+	/**
+	 * Informa se os vértices marcados com Vertice.setFixo mantêm as suas
+	 * coordenadas durante o desenho, o que nunca ocorre neste algoritmo.
+	 *
+	 * @return falso
+	 */
+	public boolean getRespeitaVerticesFixos()
+	{
+		return false;
+	}
+
+	/**
+	 * Retorna o texto que identifica os parâmetros deste algoritmo que
+	 * alteram o desenho, utilizado pela classe CacheDesenho.
+	 *
+	 * @return a configuração atual do algoritmo
+	 */
+	public String getConfiguracao()
+	{
+		return "distanciaCamadas=" + distanciaCamadas + ";distanciaVertices=" + distanciaVertices + ";distEntreComponentesConexas=" + distEntreComponentesConexas
+			+ ";numeroVarreduras=" + numeroVarreduras;
+	}
+
+	/**
+	 * Informa se a redução de cruzamentos ou o posicionamento das camadas do
+	 * último desenho foram interrompidos pelo tempo máximo ou pelo método
+	 * cancelar.
+	 *
+	 * @return verdadeiro caso o último desenho tenha sido interrompido
+	 */
+	public boolean getInterrompido()
+	{
+		return limite.getInterrompido();
+	}
+
+//Métodos Set
+
+	/**
+	 * Altera o grafo a ser desenhado no editor.
+	 *
+	 * @param grafo o novo grafo a ser desenhado
+	 */
+	public void setGrafo(Grafo grafo)
+	{
+		this.grafo = grafo;
+	}
+
+	/**
+	 * Altera a distância vertical entre duas camadas.
+	 *
+	 * @param distanciaCamadas a nova distância em pixels
+	 */
+	public void setDistanciaCamadas(int distanciaCamadas)
+	{
+		if (distanciaCamadas > 0)
+			this.distanciaCamadas = distanciaCamadas;
+		else
+			this.distanciaCamadas = DISTANCIA_CAMADAS_PADRAO;
+	}
+
+	/**
+	 * Altera a distância horizontal mínima entre dois vértices vizinhos de uma
+	 * camada.
+	 *
+	 * @param distanciaVertices a nova distância em pixels
+	 */
+	public void setDistanciaVertices(int distanciaVertices)
+	{
+		if (distanciaVertices > 0)
+			this.distanciaVertices = distanciaVertices;
+		else
+			this.distanciaVertices = DISTANCIA_VERTICES_PADRAO;
+	}
+
+	/**
+	 * Altera a distância entre as componentes conexas e entre o desenho e as
+	 * bordas do editor.
+	 *
+	 * @param distEntreComponentesConexas a nova distância
+	 */
+	public void setDistanciaEntreComponentesConexas(int distEntreComponentesConexas)
+	{
+		if (distEntreComponentesConexas > 0)
+			this.distEntreComponentesConexas = distEntreComponentesConexas;
+		else
+			this.distEntreComponentesConexas = DIST_COMPONENTE_CONEXA_PADRAO;
+	}
+
+	/**
+	 * Altera o número máximo de varreduras da redução de cruzamentos. Cada
+	 * varredura reordena todas as camadas de cima para baixo e de baixo para
+	 * cima.
+	 *
+	 * @param numeroVarreduras o novo número de varreduras
+	 */
+	public void setNumeroVarreduras(int numeroVarreduras)
+	{
+		if (numeroVarreduras > 0)
+			this.numeroVarreduras = numeroVarreduras;
+		else
+			this.numeroVarreduras = NUMERO_VARREDURAS_PADRAO;
+	}
+
+	/**
+	 * Altera a distância vertical entre duas camadas, que faz o papel do
+	 * comprimento das arestas nos demais algoritmos.
+	 *
+	 * @param tamanhoAresta a nova distância em pixels
+	 * @see DesenhoCamadas#setDistanciaCamadas
+	 */
+	public void setTamanhoAresta(int tamanhoAresta)
+	{
+		setDistanciaCamadas(tamanhoAresta);
+	}
+
+	/**
+	 * Altera o tempo máximo, em milissegundos, do desenho. Ao final do tempo a
+	 * redução de cruzamentos é encerrada com a melhor ordem obtida, o
+	 * posicionamento das camadas com uma única varredura e as demais etapas
+	 * são executadas normalmente.
+	 *
+	 * @param tempoMaximo o novo tempo máximo, sendo 0 para não limitar o tempo
+	 */
+	public void setTempoMaximo(long tempoMaximo)
+	{
+		limite.setTempoMaximo(tempoMaximo);
+	}
+
+	/**
+	 * Altera a semente dos sorteios. A ordem inicial das camadas é obtida por
+	 * uma busca em profundidade, sem sorteios, então a semente é somente
+	 * guardada.
+	 *
+	 * @param semente a nova semente
+	 */
+	public void setSemente(long semente)
+	{
+		this.semente = semente;
+	}
+
+	/**
+	 * Altera o número de linhas de execução. O algoritmo é executado sempre
+	 * pela linha de execução que chamou o método desenharGrafo, então o
+	 * paralelismo é somente guardado.
+	 *
+	 * @param paralelismo o número de linhas de execução, sendo 1 o padrão
+	 */
+	public void setParalelismo(int paralelismo)
+	{
+		if (paralelismo > 0)
+			this.paralelismo = paralelismo;
+		else
+			this.paralelismo = 1;
+	}
+
+// ** Algoritmo em camadas **
+
+	/**
+	 * Interrompe o desenho em execução por outra linha de execução. A melhor
+	 * ordem obtida até o momento é utilizada nas etapas seguintes.
+	 */
+	public void cancelar()
+	{
+		limite.cancelar();
+	}
+
+	/**
+	 * Executa o desenho em camadas alterando as coordenadas dos vértices e os
+	 * pontos de quebra de todas as arestas.
+	 */
+	public void desenharGrafo()
+	{
+		int 			i, c, e, v, numeroVertices, numeroArestas, numeroComponentes,
+						componente[], inicioVertices[], verticesComponentes[],
+						inicioArestas[], arestasComponentes[], larguraComponente[],
+						alturaComponente[], posicaoX[], posicaoY[], proxima[], quebrasX[], quebrasY[],
+						indiceLocal[];
+		double			posicaoVerticeX[], posicaoVerticeY[], menorX[], quebras[][];
+		GrafoCompacto	compacto;
+		Aresta			aresta;
+
+		numeroCruzamentos = 0;
+		limite.iniciar();
+		try{
+			if (grafo.getNumeroTotalVertices() == 0)
+				return;
+
+			compacto = grafo.compactar();
+			numeroVertices = compacto.getNumeroVertices();
+			numeroArestas = compacto.getNumeroArestas();
+
+			//Separa os vértices e as arestas por componente conexa
+			componente = new int[numeroVertices];
+			numeroComponentes = identificarComponentes(compacto, componente);
+
+			inicioVertices = new int[numeroComponentes + 1];
+			verticesComponentes = new int[numeroVertices];
+			for (v = 0; v < numeroVertices; v++)
+				inicioVertices[componente[v] + 1]++;
+
+			for (c = 0; c < numeroComponentes; c++)
+				inicioVertices[c + 1] += inicioVertices[c];
+
+			proxima = Arrays.copyOf(inicioVertices, numeroComponentes);
+			for (v = 0; v < numeroVertices; v++)
+				verticesComponentes[proxima[componente[v]]++] = v;
+
+			inicioArestas = new int[numeroComponentes + 1];
+			arestasComponentes = new int[numeroArestas];
+			for (e = 0; e < numeroArestas; e++)
+				if ((compacto.getOrigem(e) >= 0) && (compacto.getDestino(e) >= 0))
+					inicioArestas[componente[compacto.getOrigem(e)] + 1]++;
+
+			for (c = 0; c < numeroComponentes; c++)
+				inicioArestas[c + 1] += inicioArestas[c];
+
+			proxima = Arrays.copyOf(inicioArestas, numeroComponentes);
+			for (e = 0; e < numeroArestas; e++)
+				if ((compacto.getOrigem(e) >= 0) && (compacto.getDestino(e) >= 0))
+					arestasComponentes[proxima[componente[compacto.getOrigem(e)]]++] = e;
+
+			//Desenha cada componente com o canto superior esquerdo na origem
+			posicaoVerticeX = new double[numeroVertices];
+			posicaoVerticeY = new double[numeroVertices];
+			quebras = new double[numeroArestas * 2][];
+			menorX = new double[numeroComponentes];
+			larguraComponente = new int[numeroComponentes];
+			alturaComponente = new int[numeroComponentes];
+
+			//Compartilhado pelas componentes, que alteram somente as posições
+			//dos seus próprios vértices
+			indiceLocal = new int[numeroVertices];
+			for (c = 0; c < numeroComponentes; c++)
+				desenharComponente(compacto, verticesComponentes, inicioVertices[c], inicioVertices[c + 1],
+						arestasComponentes, inicioArestas[c], inicioArestas[c + 1], indiceLocal, posicaoVerticeX,
+						posicaoVerticeY, quebras, menorX, larguraComponente, alturaComponente, c);
+
+			liberarVetores();
+
+			posicaoX = new int[numeroComponentes];
+			posicaoY = new int[numeroComponentes];
+			new EmpacotamentoComponentes(distEntreComponentesConexas).empacotar(larguraComponente, alturaComponente, numeroComponentes, posicaoX, posicaoY);
+
+			//Atribuo as novas coordenadas arredondadas aos Vertices
+			for (v = 0; v < numeroVertices; v++)
+			{
+				c = componente[v];
+				compacto.getVertice(v).setX((int) Math.round(posicaoVerticeX[v] - menorX[c] + posicaoX[c]));
+				compacto.getVertice(v).setY((int) Math.round(posicaoVerticeY[v] + posicaoY[c]));
+			}
+
+			//Os vértices fictícios se tornam os pontos de quebra das arestas
+			for (e = 0; e < numeroArestas; e++)
+			{
+				aresta = compacto.getAresta(e);
+				aresta.removerTodasQuebras();
+
+				if (quebras[2 * e] == null)
+					continue;
+
+				c = componente[compacto.getOrigem(e)];
+				quebrasX = new int[quebras[2 * e].length];
+				quebrasY = new int[quebras[2 * e].length];
+				for (i = 0; i < quebrasX.length; i++)
+				{
+					quebrasX[i] = (int) Math.round(quebras[2 * e][i] - menorX[c] + posicaoX[c]);
+					quebrasY[i] = (int) Math.round(quebras[2 * e + 1][i] + posicaoY[c]);
+				}
+
+				aresta.setNumeroQuebras(quebrasX.length);
+				aresta.setTodasQuebrasX(quebrasX);
+				aresta.setTodasQuebrasY(quebrasY);
+			}
+		}finally{
+			limite.concluir();
+		}
+	}
+
+//Métodos privados da classe DesenhoCamadas
+	private int identificarComponentes(GrafoCompacto compacto, int componente[])
+	{
+		int 	i, v, atual, inicio, fim, numeroComponentes, fila[], inicioAdjacentes[], adjacentes[];
+
+		inicioAdjacentes = compacto.getInicioAdjacentes();
+		adjacentes = compacto.getAdjacentes();
+		fila = new int[componente.length];
+		Arrays.fill(componente, -1);
+
+		numeroComponentes = 0;
+		for (v = 0; v < componente.length; v++)
+		{
+			if (componente[v] >= 0)
+				continue;
+
+			inicio = 0;
+			fim = 0;
+			componente[v] = numeroComponentes;
+			fila[fim++] = v;
+			while (inicio < fim)
+			{
+				atual = fila[inicio++];
+				for (i = inicioAdjacentes[atual]; i < inicioAdjacentes[atual + 1]; i++)
+				{
+					if (componente[adjacentes[i]] < 0)
+					{
+						componente[adjacentes[i]] = numeroComponentes;
+						fila[fim++] = adjacentes[i];
+					}
+				}
+			}
+
+			numeroComponentes++;
+		}
+
+		return numeroComponentes;
+	}
+
+	private void desenharComponente(GrafoCompacto compacto, int vertices[], int primeiroVertice,
+			int ultimoVertice, int arestas[], int primeiraAresta, int ultimaAresta, int indiceLocal[],
+			double posicaoVerticeX[], double posicaoVerticeY[], double quebras[][],
+			double menorX[], int larguraComponente[], int alturaComponente[], int c)
+	{
+		int 		i, k, v, n, m, indice, no, span, numeroFicticios,
+					de[], para[], primeiroFicticio[];
+		boolean 	invertida[];
+		double		menor, maior, pontosX[], pontosY[];
+		Vertice		vertice;
+
+		n = ultimoVertice - primeiroVertice;
+		m = ultimaAresta - primeiraAresta;
+
+		//Índices locais dos vértices e das arestas da componente
+		for (i = 0; i < n; i++)
+			indiceLocal[vertices[primeiroVertice + i]] = i;
+
+		de = new int[m];
+		para = new int[m];
+		for (k = 0; k < m; k++)
+		{
+			de[k] = indiceLocal[compacto.getOrigem(arestas[primeiraAresta + k])];
+			para[k] = indiceLocal[compacto.getDestino(arestas[primeiraAresta + k])];
+		}
+
+		invertida = removerCiclos(n, de, para);
+		atribuirCamadas(n, de, para);
+
+		//Cria um vértice fictício em cada camada atravessada por uma aresta longa
+		primeiroFicticio = new int[m];
+		numeroFicticios = 0;
+		for (k = 0; k < m; k++)
+		{
+			primeiroFicticio[k] = n + numeroFicticios;
+			if (de[k] != para[k])
+				numeroFicticios += camada[para[k]] - camada[de[k]] - 1;
+		}
+
+		numeroReais = n;
+		numeroNos = n + numeroFicticios;
+		camada = Arrays.copyOf(camada, numeroNos);
+		largura = new double[numeroNos];
+		altura = new double[numeroNos];
+		for (i = 0; i < n; i++)
+		{
+			vertice = compacto.getVertice(vertices[primeiroVertice + i]);
+			largura[i] = vertice.getLargura();
+			altura[i] = vertice.getAltura();
+		}
+
+		for (k = 0; k < m; k++)
+		{
+			if (de[k] == para[k])
+				continue;
+
+			span = camada[para[k]] - camada[de[k]];
+			for (i = 1; i < span; i++)
+				camada[primeiroFicticio[k] + i - 1] = camada[de[k]] + i;
+		}
+
+		construirSegmentos(m, de, para, primeiroFicticio);
+		ordenarInicialmente();
+		reduzirCruzamentos();
+		atribuirCoordenadas();
+
+		//Posição do canto superior esquerdo de cada vértice real
+		menor = Double.MAX_VALUE;
+		maior = -Double.MAX_VALUE;
+		for (no = 0; no < numeroNos; no++)
+		{
+			menor = Math.min(menor, coordenadaX[no] - largura[no] / 2.0);
+			maior = Math.max(maior, coordenadaX[no] + largura[no] / 2.0);
+		}
+
+		for (i = 0; i < n; i++)
+		{
+			v = vertices[primeiroVertice + i];
+			posicaoVerticeX[v] = coordenadaX[i] - largura[i] / 2.0;
+			posicaoVerticeY[v] = topoCamada[camada[i]] + (alturaCamada[camada[i]] - altura[i]) / 2.0;
+		}
+
+		menorX[c] = menor;
+		larguraComponente[c] = (int) Math.ceil(maior - menor);
+		alturaComponente[c] = (int) Math.ceil(topoCamada[numeroCamadas - 1] + alturaCamada[numeroCamadas - 1]);
+
+		//Pontos de quebra na ordem da origem para o destino da aresta original
+		for (k = 0; k < m; k++)
+		{
+			if (de[k] == para[k])
+				continue;
+
+			span = camada[para[k]] - camada[de[k]] - 1;
+			if (span == 0)
+				continue;
+
+			//O número de quebras de uma aresta é limitado, então as arestas
+			//muito longas recebem uma amostra dos vértices fictícios
+			pontosX = new double[Math.min(span, Aresta.NUMEROMAXIMOQUEBRAS - 1)];
+			pontosY = new double[pontosX.length];
+			for (i = 0; i < pontosX.length; i++)
+			{
+				indice = (pontosX.length == span) ? i : (int) ((long) i * (span - 1) / (pontosX.length - 1));
+				no = primeiroFicticio[k] + (invertida[k] ? span - 1 - indice : indice);
+				pontosX[i] = coordenadaX[no];
+				pontosY[i] = topoCamada[camada[no]] + alturaCamada[camada[no]] / 2.0;
+			}
+
+			indice = arestas[primeiraAresta + k];
+			quebras[2 * indice] = pontosX;
+			quebras[2 * indice + 1] = pontosY;
+		}
+	}
+
+	private boolean[] removerCiclos(int n, int de[], int para[])
+	{
+		//Busca em profundidade iterativa, partindo primeiro das fontes; as
+		//arestas que chegam a um vértice ainda na pilha fecham ciclos e são
+		//invertidas
+		int 	i, k, v, topo, raiz, inicioSaida[], saida[], proxima[], pilha[],
+				estado[], grauEntrada[];
+		boolean	invertida[];
+
+		inicioSaida = new int[n + 1];
+		saida = new int[de.length];
+		grauEntrada = new int[n];
+		for (k = 0; k < de.length; k++)
+		{
+			inicioSaida[de[k] + 1]++;
+			grauEntrada[para[k]]++;
+		}
+
+		for (v = 0; v < n; v++)
+			inicioSaida[v + 1] += inicioSaida[v];
+
+		proxima = Arrays.copyOf(inicioSaida, n);
+		for (k = 0; k < de.length; k++)
+			saida[proxima[de[k]]++] = k;
+
+		System.arraycopy(inicioSaida, 0, proxima, 0, n);
+		invertida = new boolean[de.length];
+		estado = new int[n];
+		pilha = new int[n];
+
+		for (i = 0; i < 2 * n; i++)
+		{
+			raiz = i % n;
+			if ((estado[raiz] != 0) || ((i < n) && (grauEntrada[raiz] > 0)))
+				continue;
+
+			topo = 0;
+			pilha[topo++] = raiz;
+			estado[raiz] = 1;
+			while (topo > 0)
+			{
+				v = pilha[topo - 1];
+				if (proxima[v] == inicioSaida[v + 1])
+				{
+					estado[v] = 2;
+					topo--;
+					continue;
+				}
+
+				k = saida[proxima[v]++];
+				if (de[k] == para[k])
+					continue;
+
+				if (estado[para[k]] == 1)
+					invertida[k] = true;
+				else if (estado[para[k]] == 0)
+				{
+					estado[para[k]] = 1;
+					pilha[topo++] = para[k];
+				}
+			}
+		}
+
+		for (k = 0; k < de.length; k++)
+		{
+			if (invertida[k])
+			{
+				v = de[k];
+				de[k] = para[k];
+				para[k] = v;
+			}
+		}
+
+		return invertida;
+	}
+
+	private void atribuirCamadas(int n, int de[], int para[])
+	{
+		//Caminho mais longo em ordem topológica; em seguida cada fonte desce
+		//para logo acima do seu sucessor mais alto, encurtando as suas arestas
+		int 	i, k, v, inicio, fim, menor, inicioSaida[], saida[], grauEntrada[],
+				restantes[], fila[];
+
+		inicioSaida = new int[n + 1];
+		saida = new int[de.length];
+		grauEntrada = new int[n];
+		for (k = 0; k < de.length; k++)
+		{
+			if (de[k] == para[k])
+				continue;
+
+			inicioSaida[de[k] + 1]++;
+			grauEntrada[para[k]]++;
+		}
+
+		for (v = 0; v < n; v++)
+			inicioSaida[v + 1] += inicioSaida[v];
+
+		restantes = Arrays.copyOf(inicioSaida, n);
+		for (k = 0; k < de.length; k++)
+			if (de[k] != para[k])
+				saida[restantes[de[k]]++] = para[k];
+
+		restantes = Arrays.copyOf(grauEntrada, n);
+		camada = new int[n];
+		fila = new int[n];
+		inicio = 0;
+		fim = 0;
+		for (v = 0; v < n; v++)
+			if (restantes[v] == 0)
+				fila[fim++] = v;
+
+		while (inicio < fim)
+		{
+			v = fila[inicio++];
+			for (i = inicioSaida[v]; i < inicioSaida[v + 1]; i++)
+			{
+				camada[saida[i]] = Math.max(camada[saida[i]], camada[v] + 1);
+				if (--restantes[saida[i]] == 0)
+					fila[fim++] = saida[i];
+			}
+		}
+
+		for (i = n - 1; i >= 0; i--)
+		{
+			v = fila[i];
+			if ((grauEntrada[v] > 0) || (inicioSaida[v] == inicioSaida[v + 1]))
+				continue;
+
+			menor = Integer.MAX_VALUE;
+			for (k = inicioSaida[v]; k < inicioSaida[v + 1]; k++)
+				menor = Math.min(menor, camada[saida[k]]);
+
+			camada[v] = menor - 1;
+		}
+
+		menor = Integer.MAX_VALUE;
+		numeroCamadas = 0;
+		for (v = 0; v < n; v++)
+			menor = Math.min(menor, camada[v]);
+
+		for (v = 0; v < n; v++)
+		{
+			camada[v] -= menor;
+			numeroCamadas = Math.max(numeroCamadas, camada[v] + 1);
+		}
+	}
+
+	private void construirSegmentos(int m, int de[], int para[], int primeiroFicticio[])
+	{
+		//Listas de vizinhos de cada nó nas camadas imediatamente acima e abaixo
+		int 	i, k, no, span, numeroSegmentos, origem[], destino[], proxima[];
+
+		numeroSegmentos = 0;
+		for (k = 0; k < m; k++)
+			if (de[k] != para[k])
+				numeroSegmentos += camada[para[k]] - camada[de[k]];
+
+		origem = new int[numeroSegmentos];
+		destino = new int[numeroSegmentos];
+		numeroSegmentos = 0;
+		for (k = 0; k < m; k++)
+		{
+			if (de[k] == para[k])
+				continue;
+
+			span = camada[para[k]] - camada[de[k]];
+			no = de[k];
+			for (i = 1; i < span; i++)
+			{
+				origem[numeroSegmentos] = no;
+				destino[numeroSegmentos++] = primeiroFicticio[k] + i - 1;
+				no = primeiroFicticio[k] + i - 1;
+			}
+
+			origem[numeroSegmentos] = no;
+			destino[numeroSegmentos++] = para[k];
+		}
+
+		inicioAcima = new int[numeroNos + 1];
+		inicioAbaixo = new int[numeroNos + 1];
+		for (i = 0; i < numeroSegmentos; i++)
+		{
+			inicioAbaixo[origem[i] + 1]++;
+			inicioAcima[destino[i] + 1]++;
+		}
+
+		for (no = 0; no < numeroNos; no++)
+		{
+			inicioAbaixo[no + 1] += inicioAbaixo[no];
+			inicioAcima[no + 1] += inicioAcima[no];
+		}
+
+		acima = new int[numeroSegmentos];
+		abaixo = new int[numeroSegmentos];
+		auxiliar = new int[Math.max(numeroNos, numeroSegmentos)];
+		proxima = Arrays.copyOf(inicioAbaixo, numeroNos);
+		for (i = 0; i < numeroSegmentos; i++)
+			abaixo[proxima[origem[i]]++] = destino[i];
+
+		proxima = Arrays.copyOf(inicioAcima, numeroNos);
+		for (i = 0; i < numeroSegmentos; i++)
+			acima[proxima[destino[i]]++] = origem[i];
+	}
+
+	private void ordenarInicialmente()
+	{
+		//A ordem inicial de cada camada é a ordem de visita de uma busca em
+		//profundidade descendente, que mantém juntos os ramos do grafo
+		int 	i, l, no, v, topo, raiz, proxima[], pilha[], preenchidos[], raizes[];
+		boolean	visitado[];
+
+		inicioCamada = new int[numeroCamadas + 1];
+		for (no = 0; no < numeroNos; no++)
+			inicioCamada[camada[no] + 1]++;
+
+		for (l = 0; l < numeroCamadas; l++)
+			inicioCamada[l + 1] += inicioCamada[l];
+
+		ordem = new int[numeroNos];
+		posicao = new int[numeroNos];
+		preenchidos = Arrays.copyOf(inicioCamada, numeroCamadas);
+		proxima = Arrays.copyOf(inicioAbaixo, numeroNos);
+		visitado = new boolean[numeroNos];
+		pilha = new int[numeroNos];
+
+		//As raízes são visitadas da camada mais alta para a mais baixa,
+		//ordenadas pela camada em tempo linear
+		raizes = new int[numeroNos];
+		for (no = 0; no < numeroNos; no++)
+			raizes[preenchidos[camada[no]]++] = no;
+
+		System.arraycopy(inicioCamada, 0, preenchidos, 0, numeroCamadas);
+		for (i = 0; i < numeroNos; i++)
+		{
+			raiz = raizes[i];
+			l = camada[raiz];
+			if (visitado[raiz])
+				continue;
+
+			topo = 0;
+			pilha[topo++] = raiz;
+			visitado[raiz] = true;
+			posicao[raiz] = preenchidos[l] - inicioCamada[l];
+			ordem[preenchidos[l]++] = raiz;
+			while (topo > 0)
+			{
+				v = pilha[topo - 1];
+				if (proxima[v] == inicioAbaixo[v + 1])
+				{
+					topo--;
+					continue;
+				}
+
+				no = abaixo[proxima[v]++];
+				if (!visitado[no])
+				{
+					visitado[no] = true;
+					posicao[no] = preenchidos[camada[no]] - inicioCamada[camada[no]];
+					ordem[preenchidos[camada[no]]++] = no;
+					pilha[topo++] = no;
+				}
+			}
+		}
+	}
+
+	private void reduzirCruzamentos()
+	{
+		int 	i, l, varredura, semMelhora, melhorOrdem[];
+		long	cruzamentos, menor;
+
+		menor = contarCruzamentos();
+		melhorOrdem = ordem.clone();
+		semMelhora = 0;
+		for (varredura = 0; (varredura < numeroVarreduras) && (menor > 0) && (semMelhora < VARREDURAS_SEM_MELHORA) && !limite.interromper(); varredura++)
+		{
+			for (l = 1; l < numeroCamadas; l++)
+				ordenarCamada(l, inicioAcima, acima);
+
+			for (l = numeroCamadas - 2; l >= 0; l--)
+				ordenarCamada(l, inicioAbaixo, abaixo);
+
+			cruzamentos = contarCruzamentos();
+			if (cruzamentos < menor)
+			{
+				menor = cruzamentos;
+				System.arraycopy(ordem, 0, melhorOrdem, 0, numeroNos);
+				semMelhora = 0;
+			}
+			else
+				semMelhora++;
+		}
+
+		ordem = melhorOrdem;
+		for (l = 0; l < numeroCamadas; l++)
+			for (i = inicioCamada[l]; i < inicioCamada[l + 1]; i++)
+				posicao[ordem[i]] = i - inicioCamada[l];
+
+		numeroCruzamentos += menor;
+	}
+
+	private void ordenarCamada(int l, int inicioVizinhos[], int vizinhos[])
+	{
+		//Ordena a camada pelo baricentro das posições dos vizinhos, mantendo a
+		//posição atual dos nós sem vizinhos e como desempate
+		int 	i, k, no, tamanho;
+		long	chaves[];
+		double	baricentro;
+
+		tamanho = inicioCamada[l + 1] - inicioCamada[l];
+		chaves = new long[tamanho];
+		for (i = 0; i < tamanho; i++)
+		{
+			no = ordem[inicioCamada[l] + i];
+			if (inicioVizinhos[no] == inicioVizinhos[no + 1])
+				baricentro = i;
+			else
+			{
+				baricentro = 0.0;
+				for (k = inicioVizinhos[no]; k < inicioVizinhos[no + 1]; k++)
+					baricentro += posicao[vizinhos[k]];
+
+				baricentro /= inicioVizinhos[no + 1] - inicioVizinhos[no];
+			}
+
+			chaves[i] = (Math.round(baricentro * ESCALA_BARICENTRO) << BITS_POSICAO) | i;
+		}
+
+		Arrays.sort(chaves);
+		for (i = 0; i < tamanho; i++)
+			auxiliar[i] = ordem[inicioCamada[l] + (int) (chaves[i] & ((1L << BITS_POSICAO) - 1))];
+
+		for (i = 0; i < tamanho; i++)
+		{
+			ordem[inicioCamada[l] + i] = auxiliar[i];
+			posicao[auxiliar[i]] = i;
+		}
+	}
+
+	private long contarCruzamentos()
+	{
+		//Os segmentos entre duas camadas, ordenados pela posição da ponta
+		//superior e depois da inferior, cruzam quando as posições inferiores
+		//formam uma inversão; as inversões são contadas com uma árvore de
+		//Fenwick sobre as posições da camada inferior
+		int 	i, j, k, l, no, numero, tamanho, arvore[];
+		long	cruzamentos;
+
+		cruzamentos = 0;
+		for (l = 0; l < numeroCamadas - 1; l++)
+		{
+			numero = 0;
+			for (i = inicioCamada[l]; i < inicioCamada[l + 1]; i++)
+			{
+				no = ordem[i];
+				for (k = inicioAbaixo[no]; k < inicioAbaixo[no + 1]; k++)
+					auxiliar[numero + k - inicioAbaixo[no]] = posicao[abaixo[k]];
+
+				Arrays.sort(auxiliar, numero, numero + inicioAbaixo[no + 1] - inicioAbaixo[no]);
+				numero += inicioAbaixo[no + 1] - inicioAbaixo[no];
+			}
+
+			tamanho = inicioCamada[l + 2] - inicioCamada[l + 1];
+			arvore = new int[tamanho + 1];
+			for (i = 0; i < numero; i++)
+			{
+				//Segmentos já inseridos com ponta inferior à direita desta
+				for (j = auxiliar[i] + 1; j > 0; j -= j & -j)
+					cruzamentos -= arvore[j];
+
+				cruzamentos += i;
+				for (j = auxiliar[i] + 1; j <= tamanho; j += j & -j)
+					arvore[j]++;
+			}
+		}
+
+		return cruzamentos;
+	}
+
+	private void atribuirCoordenadas()
+	{
+		int 	i, l, iteracao, no;
+
+		//Coordenadas iniciais lado a lado com a distância mínima
+		coordenadaX = new double[numeroNos];
+		for (l = 0; l < numeroCamadas; l++)
+			for (i = inicioCamada[l] + 1; i < inicioCamada[l + 1]; i++)
+				coordenadaX[ordem[i]] = coordenadaX[ordem[i - 1]] + separacao(ordem[i - 1], ordem[i]);
+
+		//A primeira varredura é executada mesmo com o desenho interrompido
+		for (iteracao = 0; (iteracao < ITERACOES_COORDENADAS) && ((iteracao == 0) || !limite.interromper()); iteracao++)
+		{
+			for (l = 1; l < numeroCamadas; l++)
+				posicionarCamada(l, true, false);
+
+			for (l = numeroCamadas - 2; l >= 0; l--)
+				posicionarCamada(l, false, true);
+		}
+
+		for (l = 0; l < numeroCamadas; l++)
+			posicionarCamada(l, true, true);
+
+		//Altura de cada camada é a do seu vértice mais alto
+		topoCamada = new double[numeroCamadas];
+		alturaCamada = new double[numeroCamadas];
+		for (no = 0; no < numeroNos; no++)
+			alturaCamada[camada[no]] = Math.max(alturaCamada[camada[no]], altura[no]);
+
+		for (l = 1; l < numeroCamadas; l++)
+			topoCamada[l] = topoCamada[l - 1] + alturaCamada[l - 1] + distanciaCamadas;
+	}
+
+	private void posicionarCamada(int l, boolean usarAcima, boolean usarAbaixo)
+	{
+		//Minimiza a soma ponderada dos quadrados das distâncias entre cada nó e
+		//a média dos seus vizinhos, com x[i + 1] >= x[i] + separação. Com
+		//y[i] = x[i] - deslocamento[i] a restrição vira y não decrescente e o
+		//problema é resolvido pelo PAV, unindo blocos vizinhos fora de ordem
+		int 	i, k, no, vizinhos, tamanho, blocos, numeroBloco[];
+		double	soma, peso, deslocamento[], alvo[], pesos[], valorBloco[], pesoBloco[];
+
+		tamanho = inicioCamada[l + 1] - inicioCamada[l];
+		if (tamanho == 0)
+			return;
+
+		deslocamento = new double[tamanho];
+		alvo = new double[tamanho];
+		pesos = new double[tamanho];
+		for (i = 0; i < tamanho; i++)
+		{
+			no = ordem[inicioCamada[l] + i];
+			if (i > 0)
+				deslocamento[i] = deslocamento[i - 1] + separacao(ordem[inicioCamada[l] + i - 1], no);
+
+			soma = 0.0;
+			vizinhos = 0;
+			if (usarAcima)
+			{
+				for (k = inicioAcima[no]; k < inicioAcima[no + 1]; k++)
+					soma += coordenadaX[acima[k]];
+
+				vizinhos += inicioAcima[no + 1] - inicioAcima[no];
+			}
+
+			if (usarAbaixo)
+			{
+				for (k = inicioAbaixo[no]; k < inicioAbaixo[no + 1]; k++)
+					soma += coordenadaX[abaixo[k]];
+
+				vizinhos += inicioAbaixo[no + 1] - inicioAbaixo[no];
+			}
+
+			if (vizinhos == 0)
+			{
+				alvo[i] = coordenadaX[no] - deslocamento[i];
+				pesos[i] = PESO_ISOLADO;
+			}
+			else
+			{
+				peso = (no < numeroReais) ? 1.0 : PESO_FICTICIO;
+				alvo[i] = soma / vizinhos - deslocamento[i];
+				pesos[i] = peso * vizinhos;
+			}
+		}
+
+		valorBloco = new double[tamanho];
+		pesoBloco = new double[tamanho];
+		numeroBloco = new int[tamanho];
+		blocos = 0;
+		for (i = 0; i < tamanho; i++)
+		{
+			valorBloco[blocos] = alvo[i];
+			pesoBloco[blocos] = pesos[i];
+			numeroBloco[blocos] = 1;
+			blocos++;
+
+			while ((blocos > 1) && (valorBloco[blocos - 2] > valorBloco[blocos - 1]))
+			{
+				peso = pesoBloco[blocos - 2] + pesoBloco[blocos - 1];
+				valorBloco[blocos - 2] = (valorBloco[blocos - 2] * pesoBloco[blocos - 2] + valorBloco[blocos - 1] * pesoBloco[blocos - 1]) / peso;
+				pesoBloco[blocos - 2] = peso;
+				numeroBloco[blocos - 2] += numeroBloco[blocos - 1];
+				blocos--;
+			}
+		}
+
+		i = 0;
+		for (k = 0; k < blocos; k++)
+			for (vizinhos = 0; vizinhos < numeroBloco[k]; vizinhos++, i++)
+				coordenadaX[ordem[inicioCamada[l] + i]] = valorBloco[k] + deslocamento[i];
+	}
+
+	private double separacao(int esquerdo, int direito)
+	{
+		//Os vértices fictícios vizinhos ficam mais próximos entre si
+		if ((esquerdo >= numeroReais) && (direito >= numeroReais))
+			return distanciaVertices / 2.0;
+
+		return (largura[esquerdo] + largura[direito]) / 2.0 + distanciaVertices;
+	}
+
+	private void liberarVetores()
+	{
+		camada = null;
+		posicao = null;
+		ordem = null;
+		inicioCamada = null;
+		inicioAcima = null;
+		acima = null;
+		inicioAbaixo = null;
+		abaixo = null;
+		auxiliar = null;
+		largura = null;
+		altura = null;
+		coordenadaX = null;
+		topoCamada = null;
+		alturaCamada = null;
+	}
+}
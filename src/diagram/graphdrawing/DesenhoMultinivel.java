@@ -0,0 +1,742 @@
+package diagram.graphdrawing;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import diagram.Grafo;
+import diagram.GrafoCompacto;
+
+import diagram.componente.Aresta;
+import diagram.componente.ArestaSimples;
+import diagram.componente.Vertice;
+import diagram.componente.VerticeElipse;
+
+/**
+ * A classe DesenhoMultinivel desenha grafos grandes automaticamente através
+ * de uma hierarquia de grafos cada vez menores. A cada nível os vértices são
+ * agrupados dois a dois por um emparelhamento das arestas e, quando o
+ * emparelhamento não reduz o grafo o suficiente, como nas estrelas, os vértices
+ * restantes são absorvidos pelo grupo de um vizinho.
+ *
+ * O grafo mais grosseiro é desenhado pelo SpringModel, que obtém uma boa
+ * estrutura global para poucos vértices. As posições são então projetadas de
+ * volta nível a nível, cada vértice partindo da posição do seu grupo, e
+ * refinadas por algumas iterações do FruchtermanReingold com uma temperatura
+ * baixa. O custo total é próximo de linear no tamanho do grafo e o resultado
+ * não depende das posições aleatórias iniciais dos vértices.
+ *
+ * O emparelhamento percorre os vértices em uma ordem sorteada a partir da
+ * semente informada pelo método setSemente. Ao final do tempo máximo, ou após
+ * o método cancelar, os níveis restantes são somente projetados, sem
+ * refinamento, até o grafo original.
+ *
+ * A utilização é a mesma do SpringModel:<br>
+ * <br>
+ *&nbsp;DesenhoMultinivel desenho = new DesenhoMultinivel(grafo);<br>
+ *&nbsp;desenho.setTamanhoAresta(130);<br>
+ *&nbsp;desenho.desenharGrafo();<br>
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see SpringModel
+ * @see FruchtermanReingold
+ * @see AlgoritmoDesenho
+ */
+public class DesenhoMultinivel implements AlgoritmoDesenho
+{
+	/**
+	 * Tamanho padrão na qual a aresta ficará após o desenho automático.
+	 */
+	public static final int		TAMANHO_DESEJAVEL_ARESTA_PADRAO = 100;
+
+	/**
+	 * A distância padrão, em pixels, entre o desenho e as bordas do editor.
+	 */
+	public static final int		DIST_COMPONENTE_CONEXA_PADRAO   = 100;
+
+	/**
+	 * O número padrão de iterações de refinamento em cada nível.
+	 */
+	public static final int		NUMERO_ITERACOES_PADRAO = 50;
+
+	/**
+	 * O número de vértices a partir do qual o desenho multinível é preferível
+	 * ao SpringModel aplicado diretamente sobre o grafo.
+	 */
+	public static final int		MINIMO_VERTICES = 300;
+
+	/**
+	 * A semente padrão do embaralhamento utilizado no emparelhamento dos
+	 * vértices.
+	 */
+	public static final long	SEMENTE_PADRAO = 1;
+
+	//O agrupamento termina quando o grafo possui até este número de vértices
+	private static final int	VERTICES_NIVEL_GROSSEIRO = 50;
+
+	//Maior grafo grosseiro desenhado pelo SpringModel
+	private static final int	MAXIMO_VERTICES_SPRING = 500;
+
+	//Razão mínima de redução de um nível para o próximo
+	private static final double	REDUCAO_MINIMA = 0.75;
+
+	//Razão entre o tamanho da aresta de um nível e o do nível mais refinado
+	private static final double	FATOR_TAMANHO_ARESTA = Math.sqrt(7.0 / 4.0);
+
+	private Grafo				grafo;
+
+	private int					tamanhoAresta,
+								distEntreComponentesConexas,
+								numeroIteracoes,
+								paralelismo;
+
+	private long				semente;
+
+	private LimiteExecucao		limite;
+
+	//SpringModel em execução sobre o nível mais grosseiro, que também é
+	//interrompido pelo método cancelar
+	private volatile SpringModel	springModelGrosseiro;
+
+	//Construtor
+
+	/**
+	 * Cria um novo objeto responsável em desenhar o grafo passado pelo parâmetro
+	 * automaticamente seguindo as caractériticas dos atributos da classe.
+	 *
+	 * @param grafo o grafo a ser desenhado automaticamente
+	 */
+	public DesenhoMultinivel(Grafo grafo)
+	{
+		this.grafo = grafo;
+		tamanhoAresta = TAMANHO_DESEJAVEL_ARESTA_PADRAO;
+		distEntreComponentesConexas = DIST_COMPONENTE_CONEXA_PADRAO;
+		numeroIteracoes = NUMERO_ITERACOES_PADRAO;
+		paralelismo = 1;
+		semente = SEMENTE_PADRAO;
+		limite = new LimiteExecucao();
+	}
+
+//Métodos Get
+
+	/**
+	 * Retorna o grafo atual do editor.
+	 *
+	 * @return o grafo atual da classe
+	 */
+	public Grafo getGrafo()
+	{
+		return grafo;
+	}
+
+	/**
+	 * Retorna o comprimento que o algoritmo tentará manter para as arestas
+	 * após o desenho automatico do grafo.
+	 *
+	 * @return o inteiro que representa o tamanho ideal das arestas
+	 */
+	public int getTamanhoAresta()
+	{
+		return tamanhoAresta;
+	}
+
+	/**
+	 * Retorna a distância que o algoritmo manterá entre o desenho e as bordas
+	 * do editor.
+	 *
+	 * @return o inteiro que representa a distância
+	 */
+	public int getDistanciaEntreComponentesConexas()
+	{
+		return distEntreComponentesConexas;
+	}
+
+	/**
+	 * Retorna o número de iterações de refinamento executadas em cada nível.
+	 *
+	 * @return o número de iterações
+	 */
+	public int getNumeroIteracoes()
+	{
+		return numeroIteracoes;
+	}
+
+	/**
+	 * Retorna o número de linhas de execução utilizadas no refinamento.
+	 *
+	 * @return o paralelismo do algoritmo
+	 */
+	public int getParalelismo()
+	{
+		return paralelismo;
+	}
+
+	/**
+	 * Retorna o tempo máximo, em milissegundos, do desenho.
+	 *
+	 * @return o tempo máximo, sendo 0 quando não existe limite
+	 */
+	public long getTempoMaximo()
+	{
+		return limite.getTempoMaximo();
+	}
+
+	/**
+	 * Retorna a semente do embaralhamento utilizado no emparelhamento dos
+	 * vértices.
+	 *
+	 * @return a semente atual
+	 */
+	public long getSemente()
+	{
+		return semente;
+	}
+
+	/**
+	 * Informa se os vértices marcados com Vertice.setFixo mantêm as suas
+	 * coordenadas. Os grupos de vértices dos níveis grosseiros misturam
+	 * vértices fixos e livres, então os vértices fixos não são respeitados.
+	 *
+	 * @return falso
+	 */
+	public boolean getRespeitaVerticesFixos()
+	{
+		return false;
+	}
+
+	/**
+	 * Retorna o texto que identifica os parâmetros deste algoritmo que
+	 * alteram o desenho, utilizado pela classe CacheDesenho.
+	 *
+	 * @return a configuração atual do algoritmo
+	 */
+	public String getConfiguracao()
+	{
+		return "distEntreComponentesConexas=" + distEntreComponentesConexas + ";numeroIteracoes=" + numeroIteracoes;
+	}
+
+	/**
+	 * Informa se o refinamento do último desenho foi interrompido pelo tempo
+	 * máximo ou pelo método cancelar.
+	 *
+	 * @return verdadeiro caso o último desenho tenha sido interrompido
+	 */
+	public boolean getInterrompido()
+	{
+		return limite.getInterrompido();
+	}
+
+//Métodos Set
+
+	/**
+	 * Altera o grafo a ser desenhado no editor.
+	 *
+	 * @param grafo o novo grafo a ser desenhado
+	 */
+	public void setGrafo(Grafo grafo)
+	{
+		this.grafo = grafo;
+	}
+
+	/**
+	 * Altera o comprimento que o algoritmo tentará manter para as arestas
+	 * após o desenho automático do grafo.
+	 *
+	 * @param tamanhoAresta o inteiro que representa o tamanho ideal das arestas
+	 */
+	public void setTamanhoAresta(int tamanhoAresta)
+	{
+		if (tamanhoAresta > 0)
+			this.tamanhoAresta = tamanhoAresta;
+		else
+			this.tamanhoAresta = TAMANHO_DESEJAVEL_ARESTA_PADRAO;
+	}
+
+	/**
+	 * Altera a distância entre o desenho e as bordas do editor.
+	 *
+	 * @param distEntreComponentesConexas a nova distância
+	 */
+	public void setDistanciaEntreComponentesConexas(int distEntreComponentesConexas)
+	{
+		if (distEntreComponentesConexas > 0)
+			this.distEntreComponentesConexas = distEntreComponentesConexas;
+		else
+			this.distEntreComponentesConexas = DIST_COMPONENTE_CONEXA_PADRAO;
+	}
+
+	/**
+	 * Altera o número de iterações de refinamento executadas em cada nível.
+	 *
+	 * @param numeroIteracoes o novo número de iterações
+	 */
+	public void setNumeroIteracoes(int numeroIteracoes)
+	{
+		if (numeroIteracoes > 0)
+			this.numeroIteracoes = numeroIteracoes;
+		else
+			this.numeroIteracoes = NUMERO_ITERACOES_PADRAO;
+	}
+
+	/**
+	 * Altera o número de linhas de execução utilizadas no refinamento de cada
+	 * nível.
+	 *
+	 * @param paralelismo o número de linhas de execução, sendo 1 o padrão
+	 * @see FruchtermanReingold#setParalelismo
+	 */
+	public void setParalelismo(int paralelismo)
+	{
+		if (paralelismo > 0)
+			this.paralelismo = paralelismo;
+		else
+			this.paralelismo = 1;
+	}
+
+	/**
+	 * Altera o tempo máximo, em milissegundos, do desenho. O agrupamento e a
+	 * projeção das posições entre os níveis são sempre executados, somente o
+	 * desenho do nível mais grosseiro e os refinamentos são encerrados.
+	 *
+	 * @param tempoMaximo o novo tempo máximo, sendo 0 para não limitar o tempo
+	 */
+	public void setTempoMaximo(long tempoMaximo)
+	{
+		limite.setTempoMaximo(tempoMaximo);
+	}
+
+	/**
+	 * Altera a semente do embaralhamento utilizado no emparelhamento dos
+	 * vértices. O mesmo grafo com a mesma semente sempre produz o mesmo
+	 * desenho.
+	 *
+	 * @param semente a nova semente
+	 */
+	public void setSemente(long semente)
+	{
+		this.semente = semente;
+	}
+
+// ** Algoritmo multinível **
+
+	/**
+	 * Interrompe o desenho em execução por outra linha de execução. Os níveis
+	 * restantes são projetados sem refinamento e as posições são atribuídas
+	 * aos vértices normalmente.
+	 */
+	public void cancelar()
+	{
+		SpringModel	springModel;
+
+		limite.cancelar();
+
+		springModel = springModelGrosseiro;
+		if (springModel != null)
+			springModel.cancelar();
+	}
+
+	/**
+	 * Executa o desenho multinível alterando as coordenadas dos vértices. Os
+	 * pontos de quebra das arestas são removidos.
+	 */
+	public void desenharGrafo()
+	{
+		int 			i, l, numeroNiveis;
+		double			tamanhos[], menorCoordenadaX, menorCoordenadaY;
+		GrafoCompacto	compacto;
+		Nivel			niveis[], nivel;
+
+		limite.iniciar();
+		try{
+			if (grafo.getNumeroTotalVertices() == 0)
+				return;
+
+			compacto = grafo.compactar();
+			removerQuebraArestas();
+
+			//Agrupa os vértices até obter um grafo pequeno ou sem redução suficiente
+			niveis = new Nivel[8];
+			niveis[0] = criarNivelInicial(compacto);
+			numeroNiveis = 1;
+			while (niveis[numeroNiveis - 1].numeroVertices > VERTICES_NIVEL_GROSSEIRO)
+			{
+				nivel = agrupar(niveis[numeroNiveis - 1]);
+
+				if (nivel == null)
+					break;
+
+				if (numeroNiveis == niveis.length)
+					niveis = Arrays.copyOf(niveis, niveis.length * 2);
+
+				niveis[numeroNiveis++] = nivel;
+			}
+
+			tamanhos = new double[numeroNiveis];
+			tamanhos[0] = tamanhoAresta;
+			for (l = 1; l < numeroNiveis; l++)
+				tamanhos[l] = tamanhos[l - 1] * FATOR_TAMANHO_ARESTA;
+
+			desenharNivelGrosseiro(niveis[numeroNiveis - 1], tamanhos[numeroNiveis - 1]);
+
+			//Projeta e refina as posições até o grafo original
+			for (l = numeroNiveis - 2; l >= 0; l--)
+			{
+				projetar(niveis[l + 1], niveis[l], tamanhos[l]);
+				refinar(niveis[l], tamanhos[l], tamanhos[l]);
+			}
+
+			nivel = niveis[0];
+
+			//Identificar a coordenada menor (X, Y)
+			menorCoordenadaX = Double.MAX_VALUE;
+			menorCoordenadaY = Double.MAX_VALUE;
+			for (i = 0; i < nivel.numeroVertices; i++)
+			{
+				if (nivel.coordenadaX[i] < menorCoordenadaX)
+					menorCoordenadaX = nivel.coordenadaX[i];
+
+				if (nivel.coordenadaY[i] < menorCoordenadaY)
+					menorCoordenadaY = nivel.coordenadaY[i];
+			}
+
+			//Atribuo os novas coordendas arredondadas aos Vertices
+			for (i = 0; i < nivel.numeroVertices; i++)
+			{
+				compacto.getVertice(i).setX((int) Math.round(nivel.coordenadaX[i] - menorCoordenadaX + distEntreComponentesConexas));
+				compacto.getVertice(i).setY((int) Math.round(nivel.coordenadaY[i] - menorCoordenadaY + distEntreComponentesConexas));
+			}
+		}finally{
+			limite.concluir();
+		}
+	}
+
+//Métodos privados da classe DesenhoMultinivel
+	private Nivel criarNivelInicial(GrafoCompacto compacto)
+	{
+		int 	i, numeroArestas, origens[], destinos[];
+		Nivel	nivel;
+
+		origens = new int[compacto.getNumeroArestas()];
+		destinos = new int[compacto.getNumeroArestas()];
+		numeroArestas = 0;
+		for (i = 0; i < compacto.getNumeroArestas(); i++)
+		{
+			if ((compacto.getOrigem(i) < 0) || (compacto.getDestino(i) < 0))
+				continue;
+
+			origens[numeroArestas] = compacto.getOrigem(i);
+			destinos[numeroArestas] = compacto.getDestino(i);
+			numeroArestas++;
+		}
+
+		nivel = new Nivel(compacto.getNumeroVertices(), origens, destinos, numeroArestas);
+		for (i = 0; i < nivel.numeroVertices; i++)
+		{
+			nivel.peso[i] = 1;
+			nivel.coordenadaX[i] = compacto.getVertice(i).getX();
+			nivel.coordenadaY[i] = compacto.getVertice(i).getY();
+		}
+
+		return nivel;
+	}
+
+	private Nivel agrupar(Nivel fino)
+	{
+		int 	i, k, v, vizinho, escolhido, numeroGrupos, ordem[], grupo[],
+				tamanhoGrupo[], origens[], destinos[];
+		Nivel	grosso;
+
+		grupo = new int[fino.numeroVertices];
+		Arrays.fill(grupo, -1);
+
+		//Emparelha os vértices em uma ordem embaralhada, cada um com o vizinho
+		//livre que representa menos vértices do grafo original. Uma ordem fixa,
+		//como a dos índices ou dos graus, agrupa sempre na mesma direção e
+		//produz níveis alongados que se dobram durante o refinamento
+		ordem = embaralharVertices(fino.numeroVertices);
+		numeroGrupos = 0;
+		for (k = 0; k < ordem.length; k++)
+		{
+			v = ordem[k];
+			if (grupo[v] >= 0)
+				continue;
+
+			escolhido = -1;
+			for (i = fino.inicioAdjacentes[v]; i < fino.inicioAdjacentes[v + 1]; i++)
+			{
+				vizinho = fino.adjacentes[i];
+				if ((vizinho != v) && (grupo[vizinho] < 0) && ((escolhido < 0) || (fino.peso[vizinho] < fino.peso[escolhido]) || ((fino.peso[vizinho] == fino.peso[escolhido]) && (fino.grau(vizinho) < fino.grau(escolhido)))))
+					escolhido = vizinho;
+			}
+
+			grupo[v] = numeroGrupos;
+			if (escolhido >= 0)
+				grupo[escolhido] = numeroGrupos;
+
+			numeroGrupos++;
+		}
+
+		//Quando o emparelhamento não reduz o suficiente, os vértices que ficaram
+		//sozinhos são absorvidos pelo grupo do primeiro vizinho
+		if (numeroGrupos > fino.numeroVertices * REDUCAO_MINIMA)
+		{
+			tamanhoGrupo = new int[numeroGrupos];
+			for (v = 0; v < fino.numeroVertices; v++)
+				tamanhoGrupo[grupo[v]]++;
+
+			for (v = 0; v < fino.numeroVertices; v++)
+			{
+				if ((tamanhoGrupo[grupo[v]] != 1) || (fino.grau(v) == 0))
+					continue;
+
+				vizinho = fino.adjacentes[fino.inicioAdjacentes[v]];
+				if (vizinho == v)
+					continue;
+
+				tamanhoGrupo[grupo[v]]--;
+				grupo[v] = grupo[vizinho];
+				tamanhoGrupo[grupo[v]]++;
+			}
+
+			numeroGrupos = renumerarGrupos(grupo, tamanhoGrupo);
+		}
+
+		if (numeroGrupos > fino.numeroVertices * REDUCAO_MINIMA)
+			return null;
+
+		//As arestas entre grupos diferentes formam o grafo do próximo nível
+		origens = new int[fino.numeroArestas];
+		destinos = new int[fino.numeroArestas];
+		k = removerArestasRepetidas(fino, grupo, numeroGrupos, origens, destinos);
+
+		grosso = new Nivel(numeroGrupos, origens, destinos, k);
+		tamanhoGrupo = new int[numeroGrupos];
+		for (v = 0; v < fino.numeroVertices; v++)
+		{
+			grosso.coordenadaX[grupo[v]] += fino.coordenadaX[v];
+			grosso.coordenadaY[grupo[v]] += fino.coordenadaY[v];
+			grosso.peso[grupo[v]] += fino.peso[v];
+			tamanhoGrupo[grupo[v]]++;
+		}
+
+		for (i = 0; i < numeroGrupos; i++)
+		{
+			grosso.coordenadaX[i] /= tamanhoGrupo[i];
+			grosso.coordenadaY[i] /= tamanhoGrupo[i];
+		}
+
+		fino.grupo = grupo;
+
+		return grosso;
+	}
+
+	private int[] embaralharVertices(int numeroVertices)
+	{
+		//A semente informada faz o desenho ser sempre o mesmo
+		int 	i, j, temp, ordem[];
+		Random	aleatorio;
+
+		ordem = new int[numeroVertices];
+		for (i = 0; i < numeroVertices; i++)
+			ordem[i] = i;
+
+		aleatorio = new Random(semente);
+		for (i = numeroVertices - 1; i > 0; i--)
+		{
+			j = aleatorio.nextInt(i + 1);
+			temp = ordem[i];
+			ordem[i] = ordem[j];
+			ordem[j] = temp;
+		}
+
+		return ordem;
+	}
+
+	private int renumerarGrupos(int grupo[], int tamanhoGrupo[])
+	{
+		int 	i, v, numeroGrupos, novoIndice[];
+
+		novoIndice = new int[tamanhoGrupo.length];
+		numeroGrupos = 0;
+		for (i = 0; i < tamanhoGrupo.length; i++)
+			novoIndice[i] = (tamanhoGrupo[i] > 0) ? numeroGrupos++ : -1;
+
+		for (v = 0; v < grupo.length; v++)
+			grupo[v] = novoIndice[grupo[v]];
+
+		return numeroGrupos;
+	}
+
+	private int removerArestasRepetidas(Nivel fino, int grupo[], int numeroGrupos, int origens[], int destinos[])
+	{
+		int 	e, a, b, numeroChaves, numeroArestas;
+		long	chaves[];
+
+		chaves = new long[fino.numeroArestas];
+		numeroChaves = 0;
+		for (e = 0; e < fino.numeroArestas; e++)
+		{
+			a = grupo[fino.origens[e]];
+			b = grupo[fino.destinos[e]];
+
+			if (a != b)
+				chaves[numeroChaves++] = ((long) Math.min(a, b) * numeroGrupos) + Math.max(a, b);
+		}
+
+		Arrays.sort(chaves, 0, numeroChaves);
+
+		numeroArestas = 0;
+		for (e = 0; e < numeroChaves; e++)
+		{
+			if ((e > 0) && (chaves[e] == chaves[e - 1]))
+				continue;
+
+			origens[numeroArestas] = (int) (chaves[e] / numeroGrupos);
+			destinos[numeroArestas] = (int) (chaves[e] % numeroGrupos);
+			numeroArestas++;
+		}
+
+		return numeroArestas;
+	}
+
+	private void desenharNivelGrosseiro(Nivel nivel, double tamanho)
+	{
+		int 			i;
+		Grafo			grafoTemp;
+		Vertice			vertices[];
+		SpringModel		springModel;
+
+		if (nivel.numeroVertices > MAXIMO_VERTICES_SPRING)
+		{
+			//Grafos que não puderam ser reduzidos, como os formados por muitos
+			//vértices isolados, são desenhados somente pelo FruchtermanReingold
+			refinar(nivel, tamanho, Double.MAX_VALUE);
+			return;
+		}
+
+		if (limite.interromper())
+			return;
+
+		//O SpringModel trabalha sobre um grafo auxiliar com um vértice por grupo
+		vertices = new Vertice[nivel.numeroVertices];
+		for (i = 0; i < vertices.length; i++)
+			vertices[i] = new VerticeElipse((int) Math.round(nivel.coordenadaX[i]), (int) Math.round(nivel.coordenadaY[i]));
+
+		grafoTemp = new Grafo();
+		grafoTemp.setVertices(vertices);
+		for (i = 0; i < nivel.numeroArestas; i++)
+			grafoTemp.setAresta(new ArestaSimples(vertices[nivel.origens[i]], vertices[nivel.destinos[i]]));
+
+		springModel = new SpringModel(grafoTemp);
+		springModel.setTamanhoAresta((int) Math.round(tamanho));
+		springModel.setDeltaMIncremental(true);
+		springModel.setTempoMaximo(limite.getTempoRestante());
+
+		//Um cancelamento recebido antes da atribuição é repassado ao Spring Model
+		springModelGrosseiro = springModel;
+		if (limite.interromper())
+			springModel.cancelar();
+		try{
+			springModel.desenharGrafo();
+		}finally{
+			springModelGrosseiro = null;
+		}
+
+		for (i = 0; i < vertices.length; i++)
+		{
+			nivel.coordenadaX[i] = vertices[i].getX();
+			nivel.coordenadaY[i] = vertices[i].getY();
+		}
+	}
+
+	private void projetar(Nivel grosso, Nivel fino, double tamanho)
+	{
+		//Cada vértice parte da posição do seu grupo, deslocado em uma direção
+		//fixa para que os vértices do mesmo grupo não fiquem sobrepostos
+		int 	v;
+		double	raio;
+
+		raio = tamanho / 4;
+		for (v = 0; v < fino.numeroVertices; v++)
+		{
+			fino.coordenadaX[v] = grosso.coordenadaX[fino.grupo[v]] + (raio * Math.cos(v));
+			fino.coordenadaY[v] = grosso.coordenadaY[fino.grupo[v]] + (raio * Math.sin(v));
+		}
+	}
+
+	private void refinar(Nivel nivel, double tamanho, double temperatura)
+	{
+		FruchtermanReingold	refinamento;
+
+		refinamento = new FruchtermanReingold(grafo);
+		refinamento.setTamanhoAresta((int) Math.round(tamanho));
+		refinamento.setNumeroIteracoes(numeroIteracoes);
+		refinamento.setParalelismo(paralelismo);
+
+		if (temperatura == Double.MAX_VALUE)
+			temperatura = tamanho * Math.sqrt(nivel.numeroVertices) / 10;
+
+		refinamento.refinar(nivel.coordenadaX, nivel.coordenadaY, Arrays.copyOf(nivel.origens, nivel.numeroArestas), Arrays.copyOf(nivel.destinos, nivel.numeroArestas), temperatura, limite);
+	}
+
+	private void removerQuebraArestas()
+	{
+		Aresta	arestas[];
+		int 	i;
+
+		arestas = grafo.getTodasArestas();
+		for (i = 0; i < grafo.getNumeroTotalArestas(); i++)
+			arestas[i].removerTodasQuebras();
+	}
+
+	//Grafo de um nível da hierarquia com as adjacências no formato CSR
+	private static class Nivel
+	{
+		int 	numeroVertices,
+				numeroArestas,
+				origens[],
+				destinos[],
+				inicioAdjacentes[],
+				adjacentes[],
+				peso[],
+				grupo[];
+
+		double	coordenadaX[],
+				coordenadaY[];
+
+		Nivel(int numeroVertices, int origens[], int destinos[], int numeroArestas)
+		{
+			int 	e, v, posicao[];
+
+			this.numeroVertices = numeroVertices;
+			this.origens = origens;
+			this.destinos = destinos;
+			this.numeroArestas = numeroArestas;
+			coordenadaX = new double[numeroVertices];
+			coordenadaY = new double[numeroVertices];
+			peso = new int[numeroVertices];
+
+			inicioAdjacentes = new int[numeroVertices + 1];
+			for (e = 0; e < numeroArestas; e++)
+			{
+				inicioAdjacentes[origens[e] + 1]++;
+				inicioAdjacentes[destinos[e] + 1]++;
+			}
+
+			for (v = 0; v < numeroVertices; v++)
+				inicioAdjacentes[v + 1] += inicioAdjacentes[v];
+
+			adjacentes = new int[inicioAdjacentes[numeroVertices]];
+			posicao = Arrays.copyOf(inicioAdjacentes, numeroVertices);
+			for (e = 0; e < numeroArestas; e++)
+			{
+				adjacentes[posicao[origens[e]]++] = destinos[e];
+				adjacentes[posicao[destinos[e]]++] = origens[e];
+			}
+		}
+
+		int grau(int vertice)
+		{
+			return inicioAdjacentes[vertice + 1] - inicioAdjacentes[vertice];
+		}
+	}
+}
@@ -0,0 +1,353 @@
+package diagram.graphdrawing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import diagram.GrafoCompacto;
+
+/**
+ * A classe DistanciasMenorCaminho calcula a distância do menor caminho entre
+ * todos os pares de vértices de um grafo, considerando cada aresta com custo
+ * unitário e sem considerar o sentido das arestas. O resultado é o mesmo do
+ * método Grafo.distanciaMenorCaminho chamado para cada par de vértices, ou
+ * seja, o valor 0 indica que não existe um caminho entre os vértices.
+ *
+ * É executado somente um percurso em largura a partir de cada vértice sobre a
+ * fotografia compacta do grafo. Como as distâncias são simétricas, o percurso
+ * a partir do vértice i preenche a linha e a coluna i da matriz e termina assim
+ * que todos os vértices de índice maior que i da mesma componente conexa forem
+ * alcançados. Os vértices de origem são distribuídos entre várias linhas de
+ * execução de acordo com o paralelismo definido.
+ *
+ * As distâncias são armazenadas em uma MatrizDistancias dimensionada a partir
+ * do tamanho da maior componente conexa, que limita o diâmetro do grafo.
+ * Também é possível calcular somente as distâncias entre os vértices de uma
+ * componente conexa, em uma matriz do tamanho da componente, ou somente as
+ * linhas de alguns vértices da componente.
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see diagram.Grafo#distanciaMenorCaminho
+ * @see MatrizDistancias
+ * @see SpringModel
+ */
+public class DistanciasMenorCaminho
+{
+	/**
+	 * O número mínimo de vértices para que o cálculo seja dividido entre
+	 * várias linhas de execução.
+	 */
+	public static final int		MINIMO_VERTICES_PARALELO = 256;
+
+	private GrafoCompacto		grafo;
+
+	private int					paralelismo,
+								maiorComponente,
+								restantes[];
+
+	private AtomicInteger		proximaOrigem;
+
+	//Vértices da componente e índice de cada vértice na componente, ou null
+	//quando as distâncias são calculadas para o grafo inteiro
+	private int					vertices[],
+								indiceLocal[];
+
+	//Vértices de origem de cada linha de uma matriz retangular, ou null
+	private int					origens[];
+
+	//Construtor
+
+	/**
+	 * Cria um novo objeto responsável em calcular as distâncias entre todos os
+	 * vértices da fotografia compacta passada pelo parâmetro. O paralelismo
+	 * padrão é o número de processadores disponíveis.
+	 *
+	 * @param grafo a fotografia compacta do grafo
+	 */
+	public DistanciasMenorCaminho(GrafoCompacto grafo)
+	{
+		this.grafo = grafo;
+		paralelismo = Runtime.getRuntime().availableProcessors();
+	}
+
+//Métodos Get
+
+	/**
+	 * Retorna o número máximo de linhas de execução utilizadas no cálculo.
+	 *
+	 * @return o paralelismo do cálculo
+	 */
+	public int getParalelismo()
+	{
+		return paralelismo;
+	}
+
+//Métodos Set
+
+	/**
+	 * Altera o número máximo de linhas de execução utilizadas no cálculo. O
+	 * valor 1 faz com que o cálculo seja executado somente na linha de execução
+	 * que chamou o método calcular.
+	 *
+	 * @param paralelismo o novo paralelismo do cálculo
+	 */
+	public void setParalelismo(int paralelismo)
+	{
+		if (paralelismo > 0)
+			this.paralelismo = paralelismo;
+		else
+			this.paralelismo = Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Retorna a matriz com a distância do menor caminho entre todos os pares 
+	 * de vértices do grafo.
+	 *
+	 * @return a matriz de distâncias
+	 */
+	public MatrizDistancias calcular()
+	{
+		vertices = null;
+		indiceLocal = null;
+		calcularRestantes();
+
+		//Nenhuma distância é maior que o número de vértices da maior componente
+		return calcular(new MatrizDistancias(grafo.getNumeroVertices(), maiorComponente - 1));
+	}
+
+	/**
+	 * Retorna a matriz com a distância do menor caminho entre os vértices de
+	 * uma componente conexa. A linha e a coluna i da matriz correspondem ao
+	 * vértice vertices[i] da fotografia.
+	 *
+	 * @param vertices os índices dos vértices de uma mesma componente conexa
+	 * @param indiceLocal o vetor, do tamanho do número de vértices do grafo,
+	 * que contém a posição de cada vértice da componente no vetor vertices
+	 * @return a matriz de distâncias da componente
+	 */
+	public MatrizDistancias calcular(int vertices[], int indiceLocal[])
+	{
+		int i;
+
+		this.vertices = vertices;
+		this.indiceLocal = indiceLocal;
+
+		//Todos os vértices pertencem a mesma componente
+		restantes = new int[vertices.length];
+		for (i = 0; i < vertices.length; i++)
+			restantes[i] = vertices.length - 1 - i;
+
+		try{
+			return calcular(new MatrizDistancias(vertices.length, vertices.length - 1));
+		}finally{
+			this.vertices = null;
+			this.indiceLocal = null;
+		}
+	}
+
+	/**
+	 * Retorna a matriz retangular com a distância do menor caminho entre alguns
+	 * vértices de uma componente conexa e todos os vértices da componente. A
+	 * linha i da matriz corresponde ao vértice vertices[origens[i]] e a coluna
+	 * j ao vértice vertices[j]. Cada linha custa um único percurso em largura.
+	 *
+	 * @param vertices os índices dos vértices de uma mesma componente conexa
+	 * @param indiceLocal o vetor, do tamanho do número de vértices do grafo,
+	 * que contém a posição de cada vértice da componente no vetor vertices
+	 * @param origens as posições, no vetor vertices, dos vértices de cada linha
+	 * @return a matriz de distâncias com uma linha por origem
+	 */
+	public MatrizDistancias calcular(int vertices[], int indiceLocal[], int origens[])
+	{
+		this.vertices = vertices;
+		this.indiceLocal = indiceLocal;
+		this.origens = origens;
+
+		try{
+			return calcular(new MatrizDistancias(origens.length, vertices.length, vertices.length - 1));
+		}finally{
+			this.vertices = null;
+			this.indiceLocal = null;
+			this.origens = null;
+		}
+	}
+
+	private MatrizDistancias calcular(MatrizDistancias dij)
+	{
+		int 				i, numeroLinhas;
+		Thread				linhas[];
+		boolean				interrompido;
+
+		proximaOrigem = new AtomicInteger(0);
+
+		if (dij.getNumeroLinhas() == 0)
+			return dij;
+
+		numeroLinhas = paralelismo;
+		if (dij.getNumeroLinhas() < MINIMO_VERTICES_PARALELO)
+			numeroLinhas = 1;
+
+		if (numeroLinhas == 1)
+		{
+			new Percurso(dij).run();
+			return dij;
+		}
+
+		linhas = new Thread[numeroLinhas - 1];
+		for (i = 0; i < linhas.length; i++)
+		{
+			linhas[i] = new Thread(new Percurso(dij), "DistanciasMenorCaminho-" + i);
+			linhas[i].setDaemon(true);
+			linhas[i].start();
+		}
+
+		//A linha de execução atual também participa do cálculo
+		new Percurso(dij).run();
+
+		interrompido = false;
+		for (i = 0; i < linhas.length; i++)
+		{
+			while (linhas[i].isAlive())
+			{
+				try{
+					linhas[i].join();
+				}catch (InterruptedException e){
+					interrompido = true;
+				}
+			}
+		}
+
+		if (interrompido)
+			Thread.currentThread().interrupt();
+
+		return dij;
+	}
+
+//Métodos privados da classe DistanciasMenorCaminho
+	private void calcularRestantes()
+	{
+		//Para cada vértice i conta os vértices de índice maior que i
+		//pertencentes a mesma componente conexa
+		int 	i, numeroVertices, componente[], contador[], fila[], distancias[],
+				numeroComponentes, alcancados, k;
+
+		numeroVertices = grafo.getNumeroVertices();
+		componente = new int[numeroVertices];
+		fila = new int[numeroVertices];
+		distancias = new int[numeroVertices];
+		restantes = new int[numeroVertices];
+
+		for (i = 0; i < numeroVertices; i++)
+			componente[i] = -1;
+
+		numeroComponentes = 0;
+		for (i = 0; i < numeroVertices; i++)
+		{
+			if (componente[i] < 0)
+			{
+				alcancados = grafo.calcularDistancias(i, distancias, fila);
+
+				for (k = 0; k < alcancados; k++)
+					componente[fila[k]] = numeroComponentes;
+
+				numeroComponentes++;
+			}
+		}
+
+		contador = new int[numeroComponentes];
+		for (i = numeroVertices - 1; i >= 0; i--)
+		{
+			restantes[i] = contador[componente[i]];
+			contador[componente[i]]++;
+		}
+
+		maiorComponente = 0;
+		for (i = 0; i < numeroComponentes; i++)
+		{
+			if (contador[i] > maiorComponente)
+				maiorComponente = contador[i];
+		}
+	}
+
+	private class Percurso implements Runnable
+	{
+		//Os vetores e a matriz utilizam os índices da componente quando as
+		//distâncias são calculadas para uma única componente
+		private MatrizDistancias	dij;
+
+		private int					distancias[],
+									fila[];
+
+		Percurso(MatrizDistancias dij)
+		{
+			int i;
+
+			this.dij = dij;
+			distancias = new int[dij.getNumeroVertices()];
+			fila = new int[dij.getNumeroVertices()];
+
+			for (i = 0; i < distancias.length; i++)
+				distancias[i] = -1;
+		}
+
+		public void run()
+		{
+			int linha;
+
+			linha = proximaOrigem.getAndIncrement();
+			while (linha < dij.getNumeroLinhas())
+			{
+				if ((origens != null) || (restantes[linha] > 0))
+					percorrer(linha);
+
+				linha = proximaOrigem.getAndIncrement();
+			}
+		}
+
+		private void percorrer(int linha)
+		{
+			int 	i, origem, atual, global, vizinho, inicio, fim, encontrados,
+					inicioAdjacentes[], adjacentes[];
+
+			inicioAdjacentes = grafo.getInicioAdjacentes();
+			adjacentes = grafo.getAdjacentes();
+
+			origem = (origens == null) ? linha : origens[linha];
+			inicio = 0;
+			fim = 0;
+			encontrados = 0;
+			distancias[origem] = 0;
+			fila[fim++] = origem;
+
+			//Percurso em largura até alcançar todos os vértices de índice maior,
+			//ou todos os vértices da componente em uma matriz retangular
+			while ((inicio < fim) && ((origens != null) || (encontrados < restantes[origem])))
+			{
+				atual = fila[inicio++];
+				global = (vertices == null) ? atual : vertices[atual];
+
+				for (i = inicioAdjacentes[global]; i < inicioAdjacentes[global + 1]; i++)
+				{
+					vizinho = (vertices == null) ? adjacentes[i] : indiceLocal[adjacentes[i]];
+
+					if (distancias[vizinho] < 0)
+					{
+						distancias[vizinho] = distancias[atual] + 1;
+						fila[fim++] = vizinho;
+
+						if (origens != null)
+							dij.setDistancia(linha, vizinho, distancias[vizinho]);
+						else if (vizinho > origem)
+						{
+							dij.setDistancia(origem, vizinho, distancias[vizinho]);
+							dij.setDistancia(vizinho, origem, distancias[vizinho]);
+							encontrados++;
+						}
+					}
+				}
+			}
+
+			//Desmarca somente os vértices visitados
+			for (i = 0; i < fim; i++)
+				distancias[fila[i]] = -1;
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package diagram.graphdrawing;
+
+import java.util.Arrays;
+
+/**
+ * A classe EmpacotamentoComponentes posiciona os retângulos que envolvem as
+ * componentes conexas de um desenho em prateleiras, de forma que a área
+ * ocupada fique próxima de uma razão de aspecto desejada ao invés de uma única
+ * linha horizontal.
+ *
+ * Os retângulos são ordenados pela altura, da maior para a menor, e colocados
+ * da esquerda para a direita na prateleira atual até que a largura alvo seja
+ * atingida, quando uma nova prateleira é aberta abaixo da anterior. A largura
+ * alvo é calculada a partir da área total dos retângulos, então o custo do
+ * empacotamento é dominado pela ordenação, O(C log C) para C componentes.
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see SpringModel
+ * @see MajorizacaoTensao
+ */
+class EmpacotamentoComponentes
+{
+	/**
+	 * A razão padrão entre a largura e a altura da área ocupada pelo desenho.
+	 */
+	static final double		RAZAO_ASPECTO_PADRAO = 4.0 / 3.0;
+
+	private int				distancia;
+
+	private double			razaoAspecto;
+
+	//Construtor
+
+	/**
+	 * Cria um empacotamento que mantém a distância passada pelo parâmetro entre
+	 * os retângulos e entre os retângulos e a origem.
+	 *
+	 * @param distancia a distância, em pixels, entre as componentes conexas
+	 */
+	EmpacotamentoComponentes(int distancia)
+	{
+		this.distancia = distancia;
+		razaoAspecto = RAZAO_ASPECTO_PADRAO;
+	}
+
+	/**
+	 * Altera a razão entre a largura e a altura da área ocupada pelo desenho
+	 * que o empacotamento tentará manter.
+	 *
+	 * @param razaoAspecto a nova razão de aspecto
+	 */
+	void setRazaoAspecto(double razaoAspecto)
+	{
+		if (razaoAspecto > 0)
+			this.razaoAspecto = razaoAspecto;
+		else
+			this.razaoAspecto = RAZAO_ASPECTO_PADRAO;
+	}
+
+	/**
+	 * Calcula a posição do canto superior esquerdo de cada retângulo. Os
+	 * retângulos de mesma altura mantêm a ordem em que foram passados.
+	 *
+	 * @param largura as larguras dos retângulos
+	 * @param altura as alturas dos retângulos
+	 * @param numero o número de retângulos válidos nos vetores
+	 * @param posicaoX o vetor que recebe a coordenada X de cada retângulo
+	 * @param posicaoY o vetor que recebe a coordenada Y de cada retângulo
+	 */
+	void empacotar(int largura[], int altura[], int numero, int posicaoX[], int posicaoY[])
+	{
+		int 	i, r, x, y, alturaPrateleira;
+		long	ordem[];
+		double	area, larguraAlvo;
+
+		if (numero == 0)
+			return;
+
+		//Ordena pela altura decrescente com o índice como desempate
+		ordem = new long[numero];
+		area = 0.0;
+		larguraAlvo = 0.0;
+		for (i = 0; i < numero; i++)
+		{
+			ordem[i] = (((long) (Integer.MAX_VALUE - altura[i])) << 32) | i;
+			area += ((double) largura[i] + distancia) * ((double) altura[i] + distancia);
+			larguraAlvo = Math.max(larguraAlvo, largura[i]);
+		}
+		Arrays.sort(ordem);
+
+		//Uma área de largura L e altura L / razaoAspecto comporta todos os retângulos
+		larguraAlvo = Math.max(larguraAlvo, Math.sqrt(area * razaoAspecto));
+
+		x = distancia;
+		y = distancia;
+		alturaPrateleira = 0;
+		for (i = 0; i < numero; i++)
+		{
+			r = (int) ordem[i];
+
+			//Abre uma nova prateleira quando o retângulo ultrapassa a largura alvo
+			if ((x > distancia) && ((x - distancia + largura[r]) > larguraAlvo))
+			{
+				x = distancia;
+				y += alturaPrateleira + distancia;
+				alturaPrateleira = 0;
+			}
+
+			posicaoX[r] = x;
+			posicaoY[r] = y;
+
+			x += largura[r] + distancia;
+			alturaPrateleira = Math.max(alturaPrateleira, altura[r]);
+		}
+	}
+}
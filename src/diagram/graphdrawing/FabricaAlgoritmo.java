@@ -0,0 +1,30 @@
+package diagram.graphdrawing;
+
+import diagram.Grafo;
+
+/**
+ * A interface FabricaAlgoritmo cria um algoritmo de desenho configurado para o
+ * grafo informado. Cada algoritmo registrado na classe RegistroAlgoritmos
+ * possui a sua fábrica, normalmente uma classe anônima:<br>
+ * <br>
+ *&nbsp;RegistroAlgoritmos.registrar("Meu desenho", new FabricaAlgoritmo()<br>
+ *&nbsp;{<br>
+ *&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;public AlgoritmoDesenho criar(Grafo grafo)<br>
+ *&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;{<br>
+ *&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;return new MeuDesenho(grafo);<br>
+ *&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;}<br>
+ *&nbsp;});<br>
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see RegistroAlgoritmos#registrar
+ */
+public interface FabricaAlgoritmo
+{
+	/**
+	 * Cria um novo algoritmo de desenho para o grafo passado pelo parâmetro.
+	 *
+	 * @param grafo o grafo a ser desenhado
+	 * @return o algoritmo criado
+	 */
+	AlgoritmoDesenho criar(Grafo grafo);
+}
@@ -0,0 +1,904 @@
+package diagram.graphdrawing;
+
+import java.util.Arrays;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import diagram.Grafo;
+import diagram.GrafoCompacto;
+
+import diagram.componente.Aresta;
+import diagram.componente.Vertice;
+
+/**
+ * A classe FruchtermanReingold desenha grafos automaticamente utilizando o
+ * modelo de molas e cargas elétricas proposto por Thomas Fruchterman e Edward
+ * Reingold. As arestas atraem os seus vértices com uma força proporcional ao
+ * quadrado da distância entre eles e todos os pares de vértices se repelem com
+ * uma força inversamente proporcional a distância. A cada iteração os vértices
+ * são deslocados na direção da força resultante, limitados por uma temperatura
+ * que diminui até o final do algoritmo.
+ *
+ * A repulsão entre todos os pares é aproximada pelo método de Barnes e Hut
+ * através de uma ArvoreQuadrantes, portanto cada iteração custa
+ * O((V + E) log V) e a memória utilizada é O(V + E). Diferente do SpringModel,
+ * nenhuma matriz de distâncias é criada, o que permite desenhar grafos com
+ * dezenas de milhares de vértices.
+ *
+ * Cada componente conexa é desenhada separadamente e as componentes são
+ * empacotadas como no SpringModel, pois a repulsão afastaria indefinidamente
+ * as partes desconexas do grafo. Os vértices marcados com Vertice.setFixo não
+ * são deslocados, mas continuam repelindo e atraindo os demais, e as
+ * componentes que possuem vértices fixos mantêm as suas coordenadas, ficando
+ * as demais empacotadas abaixo delas. Quando existe algum vértice fixo o
+ * desenho só é transladado se algum vértice livre ficar com coordenadas
+ * negativas.
+ *
+ * O tempo máximo e o método cancelar encerram o resfriamento antes da última
+ * iteração, mantendo as posições da iteração anterior. O algoritmo não realiza
+ * sorteios, portanto o mesmo ponto de partida sempre produz o mesmo desenho.
+ *
+ * A utilização é a mesma do SpringModel, sendo necessária a chamada explícita ao
+ * método desenharGrafo:<br>
+ * <br>
+ *&nbsp;FruchtermanReingold desenho = new FruchtermanReingold(grafo);<br>
+ *&nbsp;desenho.setTamanhoAresta(130);<br>
+ *&nbsp;desenho.desenharGrafo();<br>
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see SpringModel
+ * @see Grafo
+ * @see AlgoritmoDesenho
+ */
+public class FruchtermanReingold implements AlgoritmoDesenho
+{
+	/**
+	 * Tamanho padrão na qual a aresta ficará após o desenho automático.
+	 */
+	public static final int		TAMANHO_DESEJAVEL_ARESTA_PADRAO = 100;
+
+	/**
+	 * A distância padrão, em pixels, entre as componentes conexas e entre o
+	 * desenho e as bordas do editor.
+	 */
+	public static final int		DIST_COMPONENTE_CONEXA_PADRAO   = 100;
+
+	/**
+	 * O número padrão de iterações executadas pelo algoritmo.
+	 */
+	public static final int		NUMERO_ITERACOES_PADRAO = 300;
+
+	/**
+	 * A precisão padrão da aproximação de Barnes e Hut. Valores menores são
+	 * mais precisos e mais lentos, sendo que 0 calcula a repulsão exata.
+	 */
+	public static final double	PRECISAO_PADRAO = 1.0;
+
+	//Temperatura, em pixels, ao final do algoritmo
+	private static final double	TEMPERATURA_FINAL = 0.5;
+
+	//Número mínimo de vértices processados por uma tarefa paralela
+	private static final int	TAMANHO_TAREFA = 256;
+
+	private Grafo				grafo;
+
+	private int					tamanhoAresta,
+								distEntreComponentesConexas,
+								numeroIteracoes,
+								paralelismo;
+
+	private double				precisao;
+
+	private long				semente;
+
+	private LimiteExecucao		limite;
+
+	//Variáveis internas do algoritmo
+	private GrafoCompacto		compacto;
+
+	private ArvoreQuadrantes	arvore;
+
+	private double				coordenadaX[],
+								coordenadaY[],
+								deslocamentoX[],
+								deslocamentoY[];
+
+	private int					origens[],
+								destinos[];
+
+	private boolean				fixos[];
+
+	private ForkJoinPool		tarefas;
+
+	//Construtor
+
+	/**
+	 * Cria um novo objeto responsável em desenhar o grafo passado pelo parâmetro
+	 * automaticamente seguindo as caractériticas dos atributos da classe.
+	 *
+	 * @param grafo o grafo a ser desenhado automaticamente
+	 */
+	public FruchtermanReingold(Grafo grafo)
+	{
+		this.grafo = grafo;
+		tamanhoAresta = TAMANHO_DESEJAVEL_ARESTA_PADRAO;
+		distEntreComponentesConexas = DIST_COMPONENTE_CONEXA_PADRAO;
+		numeroIteracoes = NUMERO_ITERACOES_PADRAO;
+		precisao = PRECISAO_PADRAO;
+		paralelismo = 1;
+		semente = 0;
+		limite = new LimiteExecucao();
+	}
+
+//Métodos Get
+
+	/**
+	 * Retorna o grafo atual do editor.
+	 *
+	 * @return o grafo atual da classe
+	 */
+	public Grafo getGrafo()
+	{
+		return grafo;
+	}
+
+	/**
+	 * Retorna o comprimento que o algoritmo tentará manter para as arestas
+	 * após o desenho automatico do grafo.
+	 *
+	 * @return o inteiro que representa o tamanho ideal das arestas
+	 */
+	public int getTamanhoAresta()
+	{
+		return tamanhoAresta;
+	}
+
+	/**
+	 * Retorna a distância que o algoritmo manterá entre o desenho e as bordas
+	 * do editor.
+	 *
+	 * @return o inteiro que representa a distância
+	 */
+	public int getDistanciaEntreComponentesConexas()
+	{
+		return distEntreComponentesConexas;
+	}
+
+	/**
+	 * Retorna o número de iterações executadas pelo algoritmo.
+	 *
+	 * @return o número de iterações
+	 */
+	public int getNumeroIteracoes()
+	{
+		return numeroIteracoes;
+	}
+
+	/**
+	 * Retorna a precisão da aproximação de Barnes e Hut.
+	 *
+	 * @return a precisão utilizada no cálculo da repulsão
+	 */
+	public double getPrecisao()
+	{
+		return precisao;
+	}
+
+	/**
+	 * Retorna o número de linhas de execução utilizadas pelo algoritmo.
+	 *
+	 * @return o paralelismo do algoritmo
+	 */
+	public int getParalelismo()
+	{
+		return paralelismo;
+	}
+
+	/**
+	 * Retorna o tempo máximo, em milissegundos, do desenho.
+	 *
+	 * @return o tempo máximo, sendo 0 quando não existe limite
+	 */
+	public long getTempoMaximo()
+	{
+		return limite.getTempoMaximo();
+	}
+
+	/**
+	 * Retorna a semente informada pelo método setSemente.
+	 *
+	 * @return a semente atual
+	 */
+	public long getSemente()
+	{
+		return semente;
+	}
+
+	/**
+	 * Informa se os vértices marcados com Vertice.setFixo mantêm as suas
+	 * coordenadas durante o desenho, o que sempre ocorre neste algoritmo.
+	 *
+	 * @return verdadeiro
+	 */
+	public boolean getRespeitaVerticesFixos()
+	{
+		return true;
+	}
+
+	/**
+	 * Retorna o texto que identifica os parâmetros deste algoritmo que
+	 * alteram o desenho, utilizado pela classe CacheDesenho.
+	 *
+	 * @return a configuração atual do algoritmo
+	 */
+	public String getConfiguracao()
+	{
+		return "distEntreComponentesConexas=" + distEntreComponentesConexas + ";numeroIteracoes=" + numeroIteracoes + ";precisao=" + precisao;
+	}
+
+	/**
+	 * Informa se o último desenho foi interrompido pelo tempo máximo ou pelo
+	 * método cancelar antes da última iteração.
+	 *
+	 * @return verdadeiro caso o último desenho tenha sido interrompido
+	 */
+	public boolean getInterrompido()
+	{
+		return limite.getInterrompido();
+	}
+
+//Métodos Set
+
+	/**
+	 * Altera o grafo a ser desenhado no editor.
+	 *
+	 * @param grafo o novo grafo a ser desenhado
+	 */
+	public void setGrafo(Grafo grafo)
+	{
+		this.grafo = grafo;
+	}
+
+	/**
+	 * Altera o comprimento que o algoritmo tentará manter para as arestas
+	 * após o desenho automático do grafo.
+	 *
+	 * @param tamanhoAresta o inteiro que representa o tamanho ideal das arestas
+	 */
+	public void setTamanhoAresta(int tamanhoAresta)
+	{
+		if (tamanhoAresta > 0)
+			this.tamanhoAresta = tamanhoAresta;
+		else
+			this.tamanhoAresta = TAMANHO_DESEJAVEL_ARESTA_PADRAO;
+	}
+
+	/**
+	 * Altera a distância entre o desenho e as bordas do editor.
+	 *
+	 * @param distEntreComponentesConexas a nova distância
+	 */
+	public void setDistanciaEntreComponentesConexas(int distEntreComponentesConexas)
+	{
+		if (distEntreComponentesConexas > 0)
+			this.distEntreComponentesConexas = distEntreComponentesConexas;
+		else
+			this.distEntreComponentesConexas = DIST_COMPONENTE_CONEXA_PADRAO;
+	}
+
+	/**
+	 * Altera o número de iterações executadas pelo algoritmo. A temperatura é
+	 * reduzida gradualmente ao longo das iterações, portanto mais iterações
+	 * produzem um resfriamento mais lento.
+	 *
+	 * @param numeroIteracoes o novo número de iterações
+	 */
+	public void setNumeroIteracoes(int numeroIteracoes)
+	{
+		if (numeroIteracoes > 0)
+			this.numeroIteracoes = numeroIteracoes;
+		else
+			this.numeroIteracoes = NUMERO_ITERACOES_PADRAO;
+	}
+
+	/**
+	 * Altera a precisão da aproximação de Barnes e Hut. Uma região da árvore de
+	 * quadrantes é tratada como um único corpo quando a razão entre o seu
+	 * tamanho e a distância até o vértice é menor que a precisão.
+	 *
+	 * @param precisao a nova precisão, maior ou igual a 0
+	 */
+	public void setPrecisao(double precisao)
+	{
+		if (precisao >= 0)
+			this.precisao = precisao;
+		else
+			this.precisao = PRECISAO_PADRAO;
+	}
+
+	/**
+	 * Altera o número de linhas de execução utilizadas pelo algoritmo. Quando
+	 * o paralelismo é maior que 1, o cálculo da repulsão sobre os vértices é
+	 * dividido entre as linhas de execução de um ForkJoinPool. A força sobre
+	 * cada vértice é calculada sempre da mesma forma, então o desenho final é
+	 * o mesmo para qualquer paralelismo.
+	 *
+	 * @param paralelismo o número de linhas de execução, sendo 1 o padrão
+	 */
+	public void setParalelismo(int paralelismo)
+	{
+		if (paralelismo > 0)
+			this.paralelismo = paralelismo;
+		else
+			this.paralelismo = 1;
+	}
+
+	/**
+	 * Altera o tempo máximo, em milissegundos, do desenho. Ao final do tempo o
+	 * resfriamento é encerrado e as posições da última iteração concluída são
+	 * atribuídas aos vértices.
+	 *
+	 * @param tempoMaximo o novo tempo máximo, sendo 0 para não limitar o tempo
+	 */
+	public void setTempoMaximo(long tempoMaximo)
+	{
+		limite.setTempoMaximo(tempoMaximo);
+	}
+
+	/**
+	 * Altera a semente dos sorteios. O algoritmo parte das posições atuais dos
+	 * vértices e não realiza sorteios, então a semente é somente guardada.
+	 *
+	 * @param semente a nova semente
+	 */
+	public void setSemente(long semente)
+	{
+		this.semente = semente;
+	}
+
+// ** Algoritmo de Fruchterman e Reingold **
+
+	/**
+	 * Interrompe o desenho em execução por outra linha de execução. As
+	 * posições da última iteração concluída são atribuídas aos vértices.
+	 */
+	public void cancelar()
+	{
+		limite.cancelar();
+	}
+
+	/**
+	 * Executa o algoritmo de Fruchterman e Reingold alterando as coordenadas
+	 * dos vértices. As posições atuais dos vértices são utilizadas como ponto de
+	 * partida e os pontos de quebra das arestas são removidos, exceto os das
+	 * arestas entre dois vértices fixos.
+	 */
+	public void desenharGrafo()
+	{
+		int 	inicioComponentes[], verticesComponentes[];
+		boolean	ancoradas[];
+
+		limite.iniciar();
+		try{
+			if (grafo.getNumeroTotalVertices() != 0)
+			{
+				inicializarVetores();
+				removerQuebraArestas();
+
+				//Os vértices de cada componente ficam consecutivos em verticesComponentes
+				inicioComponentes = new int[coordenadaX.length + 1];
+				verticesComponentes = new int[coordenadaX.length];
+				ancoradas = separarComponentesConexas(inicioComponentes, verticesComponentes);
+
+				if (paralelismo > 1)
+					tarefas = new ForkJoinPool(paralelismo);
+
+				try{
+					desenharComponentes(inicioComponentes, verticesComponentes, ancoradas.length);
+				}finally{
+					if (tarefas != null)
+					{
+						tarefas.shutdown();
+						tarefas = null;
+					}
+				}
+
+				posicionarComponentesConexas(inicioComponentes, verticesComponentes, ancoradas);
+
+				compacto = null;
+				liberarVetores();
+			}
+		}finally{
+			limite.concluir();
+		}
+	}
+
+	/**
+	 * Executa o algoritmo sobre coordenadas e arestas já numeradas, sem
+	 * alterar os vértices do grafo. É utilizado pelo DesenhoMultinivel para
+	 * refinar o desenho de cada nível a partir das posições herdadas do nível
+	 * mais grosseiro, por isso a temperatura inicial é informada pelo
+	 * parâmetro e deve ser pequena para preservar a estrutura já obtida.
+	 *
+	 * @param coordenadaX as coordenadas X dos vértices, alteradas pelo método
+	 * @param coordenadaY as coordenadas Y dos vértices, alteradas pelo método
+	 * @param origens o índice do vértice de origem de cada aresta
+	 * @param destinos o índice do vértice de destino de cada aresta
+	 * @param temperatura o maior deslocamento permitido na primeira iteração
+	 * @param limite o limite já iniciado do desenho que utiliza o refinamento
+	 * @see DesenhoMultinivel
+	 */
+	void refinar(double coordenadaX[], double coordenadaY[], int origens[], int destinos[], double temperatura, LimiteExecucao limite)
+	{
+		if (coordenadaX.length == 0)
+			return;
+
+		this.limite = limite;
+		this.coordenadaX = coordenadaX;
+		this.coordenadaY = coordenadaY;
+		this.origens = origens;
+		this.destinos = destinos;
+		alocarVetores(coordenadaX.length);
+
+		try{
+			executar(Math.max(temperatura, TEMPERATURA_FINAL));
+		}finally{
+			liberarVetores();
+			this.coordenadaX = null;
+			this.coordenadaY = null;
+		}
+	}
+
+//Métodos privados da classe FruchtermanReingold
+	private void executar(double temperatura)
+	{
+		if (paralelismo > 1)
+			tarefas = new ForkJoinPool(paralelismo);
+
+		try{
+			posicionarVertices(temperatura);
+		}finally{
+			if (tarefas != null)
+			{
+				tarefas.shutdown();
+				tarefas = null;
+			}
+		}
+	}
+
+	private boolean[] separarComponentesConexas(int inicioComponentes[], int verticesComponentes[])
+	{
+		//Percurso em largura a partir de cada vértice ainda não alcançado, que
+		//deixa os vértices de cada componente consecutivos. Retorna se cada
+		//componente possui algum vértice fixo
+		int 		i, v, atual, fim, numeroComponentes, inicioAdjacentes[], adjacentes[];
+		boolean		visitados[], ancoradas[];
+
+		inicioAdjacentes = compacto.getInicioAdjacentes();
+		adjacentes = compacto.getAdjacentes();
+		visitados = new boolean[coordenadaX.length];
+		ancoradas = new boolean[coordenadaX.length];
+
+		numeroComponentes = 0;
+		fim = 0;
+		for (v = 0; v < coordenadaX.length; v++)
+		{
+			if (visitados[v])
+				continue;
+
+			inicioComponentes[numeroComponentes] = fim;
+			visitados[v] = true;
+			verticesComponentes[fim++] = v;
+			for (atual = inicioComponentes[numeroComponentes]; atual < fim; atual++)
+			{
+				if ((fixos != null) && fixos[verticesComponentes[atual]])
+					ancoradas[numeroComponentes] = true;
+
+				for (i = inicioAdjacentes[verticesComponentes[atual]]; i < inicioAdjacentes[verticesComponentes[atual] + 1]; i++)
+				{
+					if (!visitados[adjacentes[i]])
+					{
+						visitados[adjacentes[i]] = true;
+						verticesComponentes[fim++] = adjacentes[i];
+					}
+				}
+			}
+
+			numeroComponentes++;
+		}
+
+		inicioComponentes[numeroComponentes] = fim;
+		return Arrays.copyOf(ancoradas, numeroComponentes);
+	}
+
+	private void desenharComponentes(int inicioComponentes[], int verticesComponentes[], int numeroComponentes)
+	{
+		//Cada componente é desenhada sobre vetores locais, reaproveitando a
+		//árvore de quadrantes e os deslocamentos alocados para o grafo inteiro
+		int 		c, e, k, v, n, local[], componente[], inicioArestas[], preenchidas[],
+					arestas[], todasOrigens[], todosDestinos[];
+		double		todasX[], todasY[];
+		boolean		todosFixos[];
+
+		todasX = coordenadaX;
+		todasY = coordenadaY;
+		todasOrigens = origens;
+		todosDestinos = destinos;
+		todosFixos = fixos;
+
+		local = new int[todasX.length];
+		componente = new int[todasX.length];
+		for (c = 0; c < numeroComponentes; c++)
+			for (k = inicioComponentes[c]; k < inicioComponentes[c + 1]; k++)
+			{
+				componente[verticesComponentes[k]] = c;
+				local[verticesComponentes[k]] = k - inicioComponentes[c];
+			}
+
+		//As arestas com os dois extremos ficam agrupadas por componente
+		inicioArestas = new int[numeroComponentes + 1];
+		for (e = 0; e < todasOrigens.length; e++)
+			if ((todasOrigens[e] >= 0) && (todosDestinos[e] >= 0))
+				inicioArestas[componente[todasOrigens[e]] + 1]++;
+
+		for (c = 0; c < numeroComponentes; c++)
+			inicioArestas[c + 1] += inicioArestas[c];
+
+		arestas = new int[inicioArestas[numeroComponentes]];
+		preenchidas = Arrays.copyOf(inicioArestas, numeroComponentes);
+		for (e = 0; e < todasOrigens.length; e++)
+			if ((todasOrigens[e] >= 0) && (todosDestinos[e] >= 0))
+				arestas[preenchidas[componente[todasOrigens[e]]]++] = e;
+
+		try{
+			for (c = 0; (c < numeroComponentes) && !limite.interromper(); c++)
+			{
+				//Um vértice isolado não sofre nenhuma força
+				n = inicioComponentes[c + 1] - inicioComponentes[c];
+				if (n < 2)
+					continue;
+
+				coordenadaX = new double[n];
+				coordenadaY = new double[n];
+				fixos = null;
+				for (k = 0; k < n; k++)
+				{
+					v = verticesComponentes[inicioComponentes[c] + k];
+					coordenadaX[k] = todasX[v];
+					coordenadaY[k] = todasY[v];
+
+					if ((todosFixos != null) && todosFixos[v])
+					{
+						if (fixos == null)
+							fixos = new boolean[n];
+						fixos[k] = true;
+					}
+				}
+
+				origens = new int[inicioArestas[c + 1] - inicioArestas[c]];
+				destinos = new int[origens.length];
+				for (k = 0; k < origens.length; k++)
+				{
+					e = arestas[inicioArestas[c] + k];
+					origens[k] = local[todasOrigens[e]];
+					destinos[k] = local[todosDestinos[e]];
+				}
+
+				posicionarVertices(calcularTemperaturaInicial());
+
+				for (k = 0; k < n; k++)
+				{
+					v = verticesComponentes[inicioComponentes[c] + k];
+					todasX[v] = coordenadaX[k];
+					todasY[v] = coordenadaY[k];
+				}
+			}
+		}finally{
+			coordenadaX = todasX;
+			coordenadaY = todasY;
+			origens = todasOrigens;
+			destinos = todosDestinos;
+			fixos = todosFixos;
+		}
+	}
+
+	private void posicionarComponentesConexas(int inicioComponentes[], int verticesComponentes[], boolean ancoradas[])
+	{
+		//O retângulo de cada componente inclui as dimensões dos vértices. As
+		//componentes ancoradas mantêm as coordenadas absolutas e as demais são
+		//empacotadas abaixo delas
+		int 		c, k, v, numeroEmpacotadas, deslocamentoX, deslocamentoY,
+					menorXDesenho, menorYDesenho, largura[], altura[], posicaoX[], posicaoY[];
+		double		menorX[], menorY[], maiorX, maiorY, maiorYAncoradas;
+		Vertice		vertice;
+
+		largura = new int[ancoradas.length];
+		altura = new int[ancoradas.length];
+		menorX = new double[ancoradas.length];
+		menorY = new double[ancoradas.length];
+		maiorYAncoradas = 0.0;
+		numeroEmpacotadas = 0;
+		for (c = 0; c < ancoradas.length; c++)
+		{
+			menorX[c] = Double.MAX_VALUE;
+			menorY[c] = Double.MAX_VALUE;
+			maiorX = - Double.MAX_VALUE;
+			maiorY = - Double.MAX_VALUE;
+			for (k = inicioComponentes[c]; k < inicioComponentes[c + 1]; k++)
+			{
+				v = verticesComponentes[k];
+				vertice = compacto.getVertice(v);
+				menorX[c] = Math.min(menorX[c], coordenadaX[v]);
+				menorY[c] = Math.min(menorY[c], coordenadaY[v]);
+				maiorX = Math.max(maiorX, coordenadaX[v] + vertice.getLargura());
+				maiorY = Math.max(maiorY, coordenadaY[v] + vertice.getAltura());
+			}
+
+			if (ancoradas[c])
+			{
+				maiorYAncoradas = Math.max(maiorYAncoradas, maiorY);
+				menorX[c] = 0.0;
+				menorY[c] = 0.0;
+			}
+			else
+			{
+				largura[numeroEmpacotadas] = (int) Math.ceil(maiorX - menorX[c]);
+				altura[numeroEmpacotadas] = (int) Math.ceil(maiorY - menorY[c]);
+				numeroEmpacotadas++;
+			}
+		}
+
+		posicaoX = new int[numeroEmpacotadas];
+		posicaoY = new int[numeroEmpacotadas];
+		new EmpacotamentoComponentes(distEntreComponentesConexas).empacotar(largura, altura, numeroEmpacotadas, posicaoX, posicaoY);
+
+		numeroEmpacotadas = 0;
+		for (c = 0; c < ancoradas.length; c++)
+			if (!ancoradas[c])
+			{
+				menorX[c] -= posicaoX[numeroEmpacotadas];
+				menorY[c] -= posicaoY[numeroEmpacotadas] + Math.ceil(maiorYAncoradas);
+				numeroEmpacotadas++;
+			}
+
+		for (c = 0; c < ancoradas.length; c++)
+			for (k = inicioComponentes[c]; k < inicioComponentes[c + 1]; k++)
+			{
+				coordenadaX[verticesComponentes[k]] -= menorX[c];
+				coordenadaY[verticesComponentes[k]] -= menorY[c];
+			}
+
+		//Um vértice livre de uma componente ancorada pode ter ficado fora da
+		//área de desenho, então o desenho inteiro é transladado
+		deslocamentoX = 0;
+		deslocamentoY = 0;
+		if (fixos != null)
+		{
+			menorXDesenho = Integer.MAX_VALUE;
+			menorYDesenho = Integer.MAX_VALUE;
+			for (v = 0; v < coordenadaX.length; v++)
+			{
+				menorXDesenho = Math.min(menorXDesenho, (int) Math.round(coordenadaX[v]));
+				menorYDesenho = Math.min(menorYDesenho, (int) Math.round(coordenadaY[v]));
+			}
+
+			deslocamentoX = (menorXDesenho < 1) ? distEntreComponentesConexas - menorXDesenho : 0;
+			deslocamentoY = (menorYDesenho < 1) ? distEntreComponentesConexas - menorYDesenho : 0;
+		}
+
+		for (v = 0; v < coordenadaX.length; v++)
+		{
+			compacto.getVertice(v).setX((int) Math.round(coordenadaX[v]) + deslocamentoX);
+			compacto.getVertice(v).setY((int) Math.round(coordenadaY[v]) + deslocamentoY);
+		}
+	}
+
+	private double calcularTemperaturaInicial()
+	{
+		int 	i;
+		double	temperatura, menorX, menorY, maiorX, maiorY;
+
+		menorX = Double.MAX_VALUE;
+		menorY = Double.MAX_VALUE;
+		maiorX = - Double.MAX_VALUE;
+		maiorY = - Double.MAX_VALUE;
+		for (i = 0; i < coordenadaX.length; i++)
+		{
+			menorX = Math.min(menorX, coordenadaX[i]);
+			menorY = Math.min(menorY, coordenadaY[i]);
+			maiorX = Math.max(maiorX, coordenadaX[i]);
+			maiorY = Math.max(maiorY, coordenadaY[i]);
+		}
+
+		//A temperatura inicial permite atravessar uma fração do maior entre o
+		//desenho atual e o desenho esperado
+		temperatura = Math.max(Math.max(maiorX - menorX, maiorY - menorY), tamanhoAresta * Math.sqrt(coordenadaX.length)) / 10;
+
+		return Math.max(temperatura, TEMPERATURA_FINAL);
+	}
+
+	private void posicionarVertices(double temperatura)
+	{
+		int 	iteracao;
+		double	fatorResfriamento;
+
+		fatorResfriamento = Math.pow(TEMPERATURA_FINAL / temperatura, 1.0 / numeroIteracoes);
+
+		for (iteracao = 0; (iteracao < numeroIteracoes) && !limite.interromper(); iteracao++)
+		{
+			arvore.construir(coordenadaX, coordenadaY, coordenadaX.length);
+
+			if (tarefas != null)
+				tarefas.invoke(new TarefaRepulsao(0, coordenadaX.length));
+			else
+				calcularRepulsao(0, coordenadaX.length);
+
+			calcularAtracao();
+			deslocarVertices(temperatura);
+
+			temperatura *= fatorResfriamento;
+		}
+	}
+
+	private void calcularRepulsao(int inicio, int fim)
+	{
+		//Repulsão de intensidade k² / d entre todos os pares de vértices
+		int 	i;
+		double	constante, forca[];
+
+		constante = (double) tamanhoAresta * tamanhoAresta;
+		forca = new double[2];
+
+		for (i = inicio; i < fim; i++)
+		{
+			if ((fixos != null) && fixos[i])
+				continue;
+
+			forca[0] = 0.0;
+			forca[1] = 0.0;
+			arvore.calcularRepulsao(i, precisao, constante, forca);
+
+			deslocamentoX[i] = forca[0];
+			deslocamentoY[i] = forca[1];
+		}
+	}
+
+	private void calcularAtracao()
+	{
+		//Atração de intensidade d² / k entre os vértices de cada aresta
+		int 	e, origem, destino;
+		double	diferencaX, diferencaY, fator;
+
+		for (e = 0; e < origens.length; e++)
+		{
+			origem = origens[e];
+			destino = destinos[e];
+
+			if ((origem < 0) || (destino < 0) || (origem == destino))
+				continue;
+
+			diferencaX = coordenadaX[origem] - coordenadaX[destino];
+			diferencaY = coordenadaY[origem] - coordenadaY[destino];
+			fator = Math.sqrt((diferencaX * diferencaX) + (diferencaY * diferencaY)) / tamanhoAresta;
+
+			deslocamentoX[origem] -= diferencaX * fator;
+			deslocamentoY[origem] -= diferencaY * fator;
+			deslocamentoX[destino] += diferencaX * fator;
+			deslocamentoY[destino] += diferencaY * fator;
+		}
+	}
+
+	private void deslocarVertices(double temperatura)
+	{
+		//O deslocamento de cada vértice é limitado pela temperatura
+		int 	i;
+		double	modulo, fator;
+
+		for (i = 0; i < coordenadaX.length; i++)
+		{
+			if ((fixos != null) && fixos[i])
+				continue;
+
+			modulo = Math.sqrt((deslocamentoX[i] * deslocamentoX[i]) + (deslocamentoY[i] * deslocamentoY[i]));
+
+			if (modulo > 0)
+			{
+				fator = Math.min(modulo, temperatura) / modulo;
+				coordenadaX[i] += deslocamentoX[i] * fator;
+				coordenadaY[i] += deslocamentoY[i] * fator;
+			}
+		}
+	}
+
+	private void inicializarVetores()
+	{
+		int 	i, numeroVertices;
+		Vertice	verticeTemp;
+
+		compacto = grafo.compactar();
+		numeroVertices = compacto.getNumeroVertices();
+
+		coordenadaX = new double[numeroVertices];
+		coordenadaY = new double[numeroVertices];
+		alocarVetores(numeroVertices);
+
+		for (i = 0; i < numeroVertices; i++)
+		{
+			verticeTemp = compacto.getVertice(i);
+			coordenadaX[i] = verticeTemp.getX();
+			coordenadaY[i] = verticeTemp.getY();
+
+			if (verticeTemp.getFixo())
+			{
+				if (fixos == null)
+					fixos = new boolean[numeroVertices];
+				fixos[i] = true;
+			}
+		}
+
+		origens = new int[compacto.getNumeroArestas()];
+		destinos = new int[compacto.getNumeroArestas()];
+		for (i = 0; i < origens.length; i++)
+		{
+			origens[i] = compacto.getOrigem(i);
+			destinos[i] = compacto.getDestino(i);
+		}
+	}
+
+	private void alocarVetores(int numeroVertices)
+	{
+		deslocamentoX = new double[numeroVertices];
+		deslocamentoY = new double[numeroVertices];
+		arvore = new ArvoreQuadrantes(numeroVertices);
+	}
+
+	private void liberarVetores()
+	{
+		deslocamentoX = null;
+		deslocamentoY = null;
+		origens = null;
+		destinos = null;
+		fixos = null;
+		arvore = null;
+	}
+
+	private void removerQuebraArestas()
+	{
+		Aresta	arestas[];
+		int 	i;
+
+		//As arestas entre dois vértices fixos mantêm os seus pontos de quebra
+		arestas = grafo.getTodasArestas();
+		for (i = 0; i < grafo.getNumeroTotalArestas(); i++)
+			if (!(arestas[i].getVerticeOrigem().getFixo() && arestas[i].getVerticeDestino().getFixo()))
+				arestas[i].removerTodasQuebras();
+	}
+
+//Tarefa executada em paralelo pelo ForkJoinPool
+	private class TarefaRepulsao extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private int inicio, fim;
+
+		TarefaRepulsao(int inicio, int fim)
+		{
+			this.inicio = inicio;
+			this.fim = fim;
+		}
+
+		protected void compute()
+		{
+			int meio;
+
+			if (fim - inicio <= TAMANHO_TAREFA)
+				calcularRepulsao(inicio, fim);
+			else
+			{
+				meio = (inicio + fim) >>> 1;
+				invokeAll(new TarefaRepulsao(inicio, meio), new TarefaRepulsao(meio, fim));
+			}
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package diagram.graphdrawing;
+
+/**
+ * A classe LimiteExecucao controla o tempo máximo e o cancelamento de um
+ * desenho automático. O algoritmo chama o método iniciar no começo do desenho
+ * e consulta o método interromper entre as suas iterações, encerrando o
+ * desenho com as melhores posições obtidas até o momento quando o tempo
+ * máximo termina ou quando outra linha de execução chama o método cancelar.
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see AlgoritmoDesenho
+ */
+class LimiteExecucao
+{
+	private long				tempoMaximo,
+								prazo;
+
+	private volatile boolean	cancelado,
+								interrompido;
+
+	//Construtor
+
+	/**
+	 * Cria um limite sem tempo máximo.
+	 */
+	LimiteExecucao()
+	{
+		tempoMaximo = 0;
+	}
+
+	/**
+	 * Retorna o tempo máximo, em milissegundos, do desenho.
+	 *
+	 * @return o tempo máximo, sendo 0 quando não existe limite
+	 */
+	long getTempoMaximo()
+	{
+		return tempoMaximo;
+	}
+
+	/**
+	 * Informa se o último desenho foi interrompido pelo tempo máximo ou pelo
+	 * método cancelar.
+	 *
+	 * @return verdadeiro caso o último desenho tenha sido interrompido
+	 */
+	boolean getInterrompido()
+	{
+		return interrompido;
+	}
+
+	/**
+	 * Altera o tempo máximo, em milissegundos, do desenho.
+	 *
+	 * @param tempoMaximo o novo tempo máximo, sendo 0 para não limitar o tempo
+	 */
+	void setTempoMaximo(long tempoMaximo)
+	{
+		if (tempoMaximo >= 0)
+			this.tempoMaximo = tempoMaximo;
+		else
+			this.tempoMaximo = 0;
+	}
+
+	/**
+	 * Marca o início de um novo desenho, contando o tempo máximo a partir
+	 * deste momento. Um cancelamento solicitado antes do início é mantido e
+	 * interrompe o desenho logo na primeira consulta.
+	 */
+	void iniciar()
+	{
+		interrompido = false;
+		prazo = System.nanoTime() + (tempoMaximo * 1000000L);
+	}
+
+	/**
+	 * Solicita a interrupção do desenho em execução ou, quando nenhum desenho
+	 * está em execução, do próximo desenho iniciado.
+	 */
+	void cancelar()
+	{
+		cancelado = true;
+	}
+
+	/**
+	 * Marca o desenho como interrompido por um limite próprio do algoritmo,
+	 * como o número máximo de iterações. O método interromper passa a
+	 * retornar verdadeiro até o próximo início.
+	 */
+	void marcarInterrompido()
+	{
+		interrompido = true;
+	}
+
+	/**
+	 * Marca o fim do desenho, descartando o cancelamento já atendido.
+	 */
+	void concluir()
+	{
+		cancelado = false;
+	}
+
+	/**
+	 * Informa se o desenho deve ser interrompido. Depois de retornar
+	 * verdadeiro o método continua retornando verdadeiro até o próximo início.
+	 *
+	 * @return verdadeiro caso o tempo tenha terminado ou o desenho cancelado
+	 */
+	boolean interromper()
+	{
+		if (cancelado || ((tempoMaximo > 0) && (System.nanoTime() - prazo > 0)))
+			interrompido = true;
+
+		return interrompido;
+	}
+
+	/**
+	 * Retorna o tempo restante, em milissegundos, até o fim do prazo.
+	 *
+	 * @return o tempo restante, ao menos 1, ou 0 quando não existe limite
+	 */
+	long getTempoRestante()
+	{
+		if (tempoMaximo == 0)
+			return 0;
+
+		return Math.max(1, (prazo - System.nanoTime()) / 1000000L);
+	}
+}
@@ -0,0 +1,1006 @@
+package diagram.graphdrawing;
+
+import java.util.Arrays;
+
+import diagram.Grafo;
+import diagram.GrafoCompacto;
+
+import diagram.componente.Aresta;
+
+/**
+ * A classe MajorizacaoTensao desenha grafos automaticamente minimizando a
+ * mesma energia do SpringModel, a tensão (stress) entre as distâncias no
+ * desenho e as distâncias do menor caminho no grafo, através do método de
+ * majorização. Ao invés de deslocar um vértice por vez com o método de Newton
+ * Raphson, todas as posições são atualizadas a cada iteração.
+ *
+ * Para não depender da matriz com as distâncias entre todos os pares de
+ * vértices, somente um pequeno conjunto de vértices pivôs, escolhidos um a um
+ * como o vértice mais distante dos pivôs anteriores, tem as suas distâncias
+ * calculadas. O desenho inicial é obtido pelo método PivotMDS a partir destas
+ * distâncias e a tensão é aproximada pelo modelo esparso de Ortmann, Klimenta
+ * e Brandes: cada vértice considera os seus vizinhos, até k vértices a
+ * distância 2 e os pivôs, sendo cada pivô ponderado pelo número de vértices
+ * mais próximos dele. Com k pivôs, cada iteração custa O(k V + E) e a memória
+ * utilizada é O(k V).
+ *
+ * As componentes conexas são desenhadas separadamente e empacotadas em
+ * prateleiras, assim como no SpringModel. Uma componente com vértices marcados
+ * com Vertice.setFixo parte das coordenadas atuais ao invés do PivotMDS, não
+ * desloca os vértices fixos e não é movida pelo empacotamento.
+ *
+ * O tempo máximo e o método cancelar encerram as iterações de majorização, e
+ * as componentes ainda não desenhadas recebem somente o desenho do PivotMDS.
+ * A escolha dos pivôs e o PivotMDS não realizam sorteios e as iterações são
+ * executadas por uma única linha de execução.
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see SpringModel
+ * @see AlgoritmoDesenho
+ */
+public class MajorizacaoTensao implements AlgoritmoDesenho
+{
+	/**
+	 * Tamanho padrão na qual a aresta ficará após o desenho automático.
+	 */
+	public static final int		TAMANHO_DESEJAVEL_ARESTA_PADRAO = 100;
+
+	/**
+	 * A distância padrão, em pixels, entre as componentes conexas.
+	 */
+	public static final int		DIST_COMPONENTE_CONEXA_PADRAO   = 100;
+
+	/**
+	 * O número padrão de vértices pivôs de cada componente conexa.
+	 */
+	public static final int		NUMERO_PIVOS_PADRAO = 50;
+
+	/**
+	 * O número máximo padrão de iterações executadas pelo algoritmo.
+	 */
+	public static final int		NUMERO_ITERACOES_PADRAO = 200;
+
+	/**
+	 * O deslocamento médio padrão, em pixels, abaixo do qual o algoritmo
+	 * considera que o desenho convergiu.
+	 */
+	public static final double	TOLERANCIA_PADRAO = 0.1;
+
+	//Distância abaixo da qual dois vértices são considerados sobrepostos
+	private static final double	DISTANCIA_MINIMA = 0.01;
+
+	//Número de iterações do método das potências no PivotMDS
+	private static final int	ITERACOES_POTENCIA = 100;
+
+	private Grafo				grafo;
+
+	private int					tamanhoAresta,
+								distEntreComponentesConexas,
+								numeroPivos,
+								numeroIteracoes,
+								paralelismo;
+
+	private double				tolerancia;
+
+	private long				semente;
+
+	private LimiteExecucao		limite;
+
+	//Variáveis internas do algoritmo
+	private GrafoCompacto		compacto;
+
+	private int					distanciasPivos[][],
+								pivos[],
+								pesoPivos[],
+								fila[];
+
+	private double				coordenadaX[],
+								coordenadaY[];
+
+	private boolean				fixos[];
+
+	//Construtor
+
+	/**
+	 * Cria um novo objeto responsável em desenhar o grafo passado pelo parâmetro
+	 * automaticamente seguindo as caractériticas dos atributos da classe.
+	 *
+	 * @param grafo o grafo a ser desenhado automaticamente
+	 */
+	public MajorizacaoTensao(Grafo grafo)
+	{
+		this.grafo = grafo;
+		tamanhoAresta = TAMANHO_DESEJAVEL_ARESTA_PADRAO;
+		distEntreComponentesConexas = DIST_COMPONENTE_CONEXA_PADRAO;
+		numeroPivos = NUMERO_PIVOS_PADRAO;
+		numeroIteracoes = NUMERO_ITERACOES_PADRAO;
+		tolerancia = TOLERANCIA_PADRAO;
+		paralelismo = 1;
+		semente = 0;
+		limite = new LimiteExecucao();
+	}
+
+//Métodos Get
+
+	/**
+	 * Retorna o grafo atual do editor.
+	 *
+	 * @return o grafo atual da classe
+	 */
+	public Grafo getGrafo()
+	{
+		return grafo;
+	}
+
+	/**
+	 * Retorna o comprimento que o algoritmo tentará manter para as arestas
+	 * após o desenho automatico do grafo.
+	 *
+	 * @return o inteiro que representa o tamanho ideal das arestas
+	 */
+	public int getTamanhoAresta()
+	{
+		return tamanhoAresta;
+	}
+
+	/**
+	 * Retorna a distância que o algoritmo manterá entre as componentes conexas
+	 * após desenha-lo.
+	 *
+	 * @return o inteiro que representa a distância entre as componentes conexas
+	 */
+	public int getDistanciaEntreComponentesConexas()
+	{
+		return distEntreComponentesConexas;
+	}
+
+	/**
+	 * Retorna o número de vértices pivôs utilizados em cada componente conexa.
+	 *
+	 * @return o número de pivôs
+	 */
+	public int getNumeroPivos()
+	{
+		return numeroPivos;
+	}
+
+	/**
+	 * Retorna o número máximo de iterações executadas pelo algoritmo.
+	 *
+	 * @return o número de iterações
+	 */
+	public int getNumeroIteracoes()
+	{
+		return numeroIteracoes;
+	}
+
+	/**
+	 * Retorna o deslocamento médio dos vértices abaixo do qual o algoritmo é
+	 * encerrado.
+	 *
+	 * @return a tolerância em pixels
+	 */
+	public double getTolerancia()
+	{
+		return tolerancia;
+	}
+
+	/**
+	 * Retorna o tempo máximo, em milissegundos, do desenho.
+	 *
+	 * @return o tempo máximo, sendo 0 quando não existe limite
+	 */
+	public long getTempoMaximo()
+	{
+		return limite.getTempoMaximo();
+	}
+
+	/**
+	 * Retorna a semente informada pelo método setSemente.
+	 *
+	 * @return a semente atual
+	 */
+	public long getSemente()
+	{
+		return semente;
+	}
+
+	/**
+	 * Retorna o paralelismo informado pelo método setParalelismo.
+	 *
+	 * @return o paralelismo informado
+	 */
+	public int getParalelismo()
+	{
+		return paralelismo;
+	}
+
+	/**
+	 * Informa se os vértices marcados com Vertice.setFixo mantêm as suas
+	 * coordenadas durante o desenho, o que sempre ocorre neste algoritmo.
+	 *
+	 * @return verdadeiro
+	 */
+	public boolean getRespeitaVerticesFixos()
+	{
+		return true;
+	}
+
+	/**
+	 * Retorna o texto que identifica os parâmetros deste algoritmo que
+	 * alteram o desenho, utilizado pela classe CacheDesenho.
+	 *
+	 * @return a configuração atual do algoritmo
+	 */
+	public String getConfiguracao()
+	{
+		return "distEntreComponentesConexas=" + distEntreComponentesConexas + ";numeroPivos=" + numeroPivos + ";numeroIteracoes=" + numeroIteracoes
+			+ ";tolerancia=" + tolerancia;
+	}
+
+	/**
+	 * Informa se as iterações de majorização do último desenho foram
+	 * interrompidas pelo tempo máximo ou pelo método cancelar.
+	 *
+	 * @return verdadeiro caso o último desenho tenha sido interrompido
+	 */
+	public boolean getInterrompido()
+	{
+		return limite.getInterrompido();
+	}
+
+//Métodos Set
+
+	/**
+	 * Altera o grafo a ser desenhado no editor.
+	 *
+	 * @param grafo o novo grafo a ser desenhado
+	 */
+	public void setGrafo(Grafo grafo)
+	{
+		this.grafo = grafo;
+	}
+
+	/**
+	 * Altera o comprimento que o algoritmo tentará manter para as arestas
+	 * após o desenho automático do grafo.
+	 *
+	 * @param tamanhoAresta o inteiro que representa o tamanho ideal das arestas
+	 */
+	public void setTamanhoAresta(int tamanhoAresta)
+	{
+		if (tamanhoAresta > 0)
+			this.tamanhoAresta = tamanhoAresta;
+		else
+			this.tamanhoAresta = TAMANHO_DESEJAVEL_ARESTA_PADRAO;
+	}
+
+	/**
+	 * Altera a distância entre as componentes conexas após o algoritmo desenhar
+	 * o grafo automaticamente.
+	 *
+	 * @param distEntreComponentesConexas a nova distância entre as componentes
+	 * conexas
+	 */
+	public void setDistanciaEntreComponentesConexas(int distEntreComponentesConexas)
+	{
+		if (distEntreComponentesConexas > 0)
+			this.distEntreComponentesConexas = distEntreComponentesConexas;
+		else
+			this.distEntreComponentesConexas = DIST_COMPONENTE_CONEXA_PADRAO;
+	}
+
+	/**
+	 * Altera o número de vértices pivôs de cada componente conexa. Mais pivôs
+	 * aproximam melhor a tensão completa ao custo de mais tempo e memória.
+	 *
+	 * @param numeroPivos o novo número de pivôs
+	 */
+	public void setNumeroPivos(int numeroPivos)
+	{
+		if (numeroPivos > 0)
+			this.numeroPivos = numeroPivos;
+		else
+			this.numeroPivos = NUMERO_PIVOS_PADRAO;
+	}
+
+	/**
+	 * Altera o número máximo de iterações executadas pelo algoritmo.
+	 *
+	 * @param numeroIteracoes o novo número de iterações
+	 */
+	public void setNumeroIteracoes(int numeroIteracoes)
+	{
+		if (numeroIteracoes > 0)
+			this.numeroIteracoes = numeroIteracoes;
+		else
+			this.numeroIteracoes = NUMERO_ITERACOES_PADRAO;
+	}
+
+	/**
+	 * Altera o deslocamento médio dos vértices, em pixels, abaixo do qual o
+	 * algoritmo considera que o desenho convergiu.
+	 *
+	 * @param tolerancia a nova tolerância
+	 */
+	public void setTolerancia(double tolerancia)
+	{
+		if (tolerancia > 0)
+			this.tolerancia = tolerancia;
+		else
+			this.tolerancia = TOLERANCIA_PADRAO;
+	}
+
+	/**
+	 * Altera o tempo máximo, em milissegundos, do desenho. As distâncias aos
+	 * pivôs e o PivotMDS são sempre calculados, somente as iterações de
+	 * majorização são encerradas ao final do tempo.
+	 *
+	 * @param tempoMaximo o novo tempo máximo, sendo 0 para não limitar o tempo
+	 */
+	public void setTempoMaximo(long tempoMaximo)
+	{
+		limite.setTempoMaximo(tempoMaximo);
+	}
+
+	/**
+	 * Altera a semente dos sorteios. Os pivôs são escolhidos pela maior
+	 * distância aos anteriores, sem sorteios, então a semente é somente
+	 * guardada.
+	 *
+	 * @param semente a nova semente
+	 */
+	public void setSemente(long semente)
+	{
+		this.semente = semente;
+	}
+
+	/**
+	 * Altera o número de linhas de execução. O algoritmo é executado sempre
+	 * pela linha de execução que chamou o método desenharGrafo, então o
+	 * paralelismo é somente guardado.
+	 *
+	 * @param paralelismo o número de linhas de execução, sendo 1 o padrão
+	 */
+	public void setParalelismo(int paralelismo)
+	{
+		if (paralelismo > 0)
+			this.paralelismo = paralelismo;
+		else
+			this.paralelismo = 1;
+	}
+
+// ** Majorização da tensão **
+
+	/**
+	 * Interrompe o desenho em execução por outra linha de execução. As
+	 * posições obtidas até o momento são atribuídas aos vértices normalmente.
+	 */
+	public void cancelar()
+	{
+		limite.cancelar();
+	}
+
+	/**
+	 * Executa o algoritmo alterando as coordenadas dos vértices. As posições
+	 * atuais dos vértices não são utilizadas e os pontos de quebra das arestas
+	 * são removidos.
+	 */
+	public void desenharGrafo()
+	{
+		int 	i, k, numeroVertices, alcancados, numeroComponentes, numeroEmpacotadas,
+				menorXDesenho, menorYDesenho, deslocamentoX, deslocamentoY,
+				componente[], indiceComponente[], largura[], altura[], posicaoX[], posicaoY[];
+		double	menorX[], menorY[], maiorX, maiorY, maiorYAncoradas;
+		boolean	ancorada[];
+
+		limite.iniciar();
+		try{
+			if (grafo.getNumeroTotalVertices() == 0)
+				return;
+
+			compacto = grafo.compactar();
+			numeroVertices = compacto.getNumeroVertices();
+			removerQuebraArestas();
+
+			coordenadaX = new double[numeroVertices];
+			coordenadaY = new double[numeroVertices];
+			distanciasPivos = new int[Math.min(numeroPivos, numeroVertices)][];
+			pivos = new int[distanciasPivos.length];
+			pesoPivos = new int[distanciasPivos.length];
+			fila = new int[numeroVertices];
+			componente = new int[numeroVertices];
+
+			for (i = 0; i < numeroVertices; i++)
+			{
+				componente[i] = -1;
+
+				if (compacto.getVertice(i).getFixo())
+				{
+					if (fixos == null)
+						fixos = new boolean[numeroVertices];
+					fixos[i] = true;
+				}
+			}
+
+			//Cada componente conexa é desenhada e tem o seu retângulo medido,
+			//incluindo as dimensões dos vértices
+			indiceComponente = new int[numeroVertices];
+			largura = new int[numeroVertices];
+			altura = new int[numeroVertices];
+			menorX = new double[numeroVertices];
+			menorY = new double[numeroVertices];
+			ancorada = new boolean[numeroVertices];
+			maiorYAncoradas = 0.0;
+			numeroComponentes = 0;
+			for (i = 0; i < numeroVertices; i++)
+			{
+				if (componente[i] >= 0)
+					continue;
+
+				alcancados = percorrer(i, componente, i);
+				ancorada[numeroComponentes] = desenharComponente(alcancados);
+
+				menorX[numeroComponentes] = Double.MAX_VALUE;
+				menorY[numeroComponentes] = Double.MAX_VALUE;
+				maiorX = - Double.MAX_VALUE;
+				maiorY = - Double.MAX_VALUE;
+				for (k = 0; k < alcancados; k++)
+				{
+					menorX[numeroComponentes] = Math.min(menorX[numeroComponentes], coordenadaX[fila[k]]);
+					menorY[numeroComponentes] = Math.min(menorY[numeroComponentes], coordenadaY[fila[k]]);
+					maiorX = Math.max(maiorX, coordenadaX[fila[k]] + compacto.getVertice(fila[k]).getLargura());
+					maiorY = Math.max(maiorY, coordenadaY[fila[k]] + compacto.getVertice(fila[k]).getAltura());
+				}
+
+				if (ancorada[numeroComponentes])
+				{
+					//As componentes ancoradas mantêm as coordenadas absolutas
+					maiorYAncoradas = Math.max(maiorYAncoradas, maiorY);
+					menorX[numeroComponentes] = 0.0;
+					menorY[numeroComponentes] = 0.0;
+				}
+				else
+				{
+					largura[numeroComponentes] = (int) Math.ceil(maiorX - menorX[numeroComponentes]);
+					altura[numeroComponentes] = (int) Math.ceil(maiorY - menorY[numeroComponentes]);
+				}
+				indiceComponente[i] = numeroComponentes++;
+			}
+
+			//Somente as componentes sem vértices fixos são empacotadas, abaixo das ancoradas
+			numeroEmpacotadas = 0;
+			for (k = 0; k < numeroComponentes; k++)
+				if (!ancorada[k])
+				{
+					largura[numeroEmpacotadas] = largura[k];
+					altura[numeroEmpacotadas] = altura[k];
+					numeroEmpacotadas++;
+				}
+
+			posicaoX = new int[numeroEmpacotadas];
+			posicaoY = new int[numeroEmpacotadas];
+			new EmpacotamentoComponentes(distEntreComponentesConexas).empacotar(largura, altura, numeroEmpacotadas, posicaoX, posicaoY);
+
+			numeroEmpacotadas = 0;
+			for (k = 0; k < numeroComponentes; k++)
+				if (!ancorada[k])
+				{
+					menorX[k] -= posicaoX[numeroEmpacotadas];
+					menorY[k] -= posicaoY[numeroEmpacotadas] + Math.ceil(maiorYAncoradas);
+					numeroEmpacotadas++;
+				}
+
+			//Os vértices são marcados com o índice do primeiro vértice da componente
+			for (i = 0; i < numeroVertices; i++)
+			{
+				k = indiceComponente[componente[i]];
+				coordenadaX[i] -= menorX[k];
+				coordenadaY[i] -= menorY[k];
+			}
+
+			//Um vértice livre de uma componente ancorada pode ter ficado fora da
+			//área de desenho, então o desenho inteiro é transladado
+			deslocamentoX = 0;
+			deslocamentoY = 0;
+			if (fixos != null)
+			{
+				menorXDesenho = Integer.MAX_VALUE;
+				menorYDesenho = Integer.MAX_VALUE;
+				for (i = 0; i < numeroVertices; i++)
+				{
+					menorXDesenho = Math.min(menorXDesenho, (int) Math.round(coordenadaX[i]));
+					menorYDesenho = Math.min(menorYDesenho, (int) Math.round(coordenadaY[i]));
+				}
+
+				deslocamentoX = (menorXDesenho < 1) ? distEntreComponentesConexas - menorXDesenho : 0;
+				deslocamentoY = (menorYDesenho < 1) ? distEntreComponentesConexas - menorYDesenho : 0;
+			}
+
+			for (i = 0; i < numeroVertices; i++)
+			{
+				compacto.getVertice(i).setX((int) Math.round(coordenadaX[i]) + deslocamentoX);
+				compacto.getVertice(i).setY((int) Math.round(coordenadaY[i]) + deslocamentoY);
+			}
+
+			compacto = null;
+			distanciasPivos = null;
+			coordenadaX = null;
+			coordenadaY = null;
+			fixos = null;
+		}finally{
+			limite.concluir();
+		}
+	}
+
+//Métodos privados da classe MajorizacaoTensao
+	private int percorrer(int origem, int marcas[], int marca)
+	{
+		//Percurso em largura que marca os vértices alcançados e deixa em fila os
+		//vértices da componente conexa na ordem de visita
+		int 	i, atual, vizinho, inicio, fim, inicioAdjacentes[], adjacentes[];
+
+		inicioAdjacentes = compacto.getInicioAdjacentes();
+		adjacentes = compacto.getAdjacentes();
+
+		inicio = 0;
+		fim = 0;
+		marcas[origem] = marca;
+		fila[fim++] = origem;
+
+		while (inicio < fim)
+		{
+			atual = fila[inicio++];
+
+			for (i = inicioAdjacentes[atual]; i < inicioAdjacentes[atual + 1]; i++)
+			{
+				vizinho = adjacentes[i];
+
+				if (marcas[vizinho] != marca)
+				{
+					marcas[vizinho] = marca;
+					fila[fim++] = vizinho;
+				}
+			}
+		}
+
+		return fim;
+	}
+
+	private boolean desenharComponente(int numeroVertices)
+	{
+		int 	i, vertices[], numeroPivosComponente;
+		boolean	ancorada;
+
+		//A fila é reaproveitada pelos percursos a partir dos pivôs
+		vertices = new int[numeroVertices];
+		System.arraycopy(fila, 0, vertices, 0, numeroVertices);
+
+		ancorada = false;
+		if (fixos != null)
+			for (i = 0; (i < numeroVertices) && !ancorada; i++)
+				ancorada = fixos[vertices[i]];
+
+		if (ancorada)
+		{
+			//O desenho parte das coordenadas atuais para respeitar os vértices fixos
+			for (i = 0; i < numeroVertices; i++)
+			{
+				coordenadaX[vertices[i]] = compacto.getVertice(vertices[i]).getX();
+				coordenadaY[vertices[i]] = compacto.getVertice(vertices[i]).getY();
+			}
+
+			if (numeroVertices == 2)
+			{
+				i = fixos[vertices[0]] ? 0 : 1;
+				if (!fixos[vertices[1 - i]])
+				{
+					coordenadaX[vertices[1 - i]] = coordenadaX[vertices[i]] + tamanhoAresta;
+					coordenadaY[vertices[1 - i]] = coordenadaY[vertices[i]];
+				}
+			}
+		}
+		else if (numeroVertices <= 2)
+		{
+			for (i = 0; i < numeroVertices; i++)
+			{
+				coordenadaX[vertices[i]] = i * tamanhoAresta;
+				coordenadaY[vertices[i]] = 0;
+			}
+		}
+
+		if (numeroVertices <= 2)
+			return ancorada;
+
+		numeroPivosComponente = escolherPivos(vertices);
+		if (!ancorada)
+			posicionarPivotMDS(vertices, numeroPivosComponente);
+		majorizar(vertices, numeroPivosComponente);
+
+		System.arraycopy(vertices, 0, fila, 0, numeroVertices);
+
+		return ancorada;
+	}
+
+	private int escolherPivos(int vertices[])
+	{
+		//Cada novo pivô é o vértice mais distante de todos os pivôs anteriores
+		int 	i, p, v, numero, maisDistante, menorDistancia[], pivoMaisProximo[];
+
+		numero = Math.min(distanciasPivos.length, vertices.length);
+		menorDistancia = new int[vertices.length];
+		pivoMaisProximo = new int[vertices.length];
+
+		for (i = 0; i < vertices.length; i++)
+			menorDistancia[i] = Integer.MAX_VALUE;
+
+		maisDistante = 0;
+		for (p = 0; p < numero; p++)
+		{
+			pivos[p] = vertices[maisDistante];
+			calcularDistancias(p, vertices);
+
+			maisDistante = 0;
+			for (i = 0; i < vertices.length; i++)
+			{
+				v = vertices[i];
+				if (distanciasPivos[p][v] < menorDistancia[i])
+				{
+					menorDistancia[i] = distanciasPivos[p][v];
+					pivoMaisProximo[i] = p;
+				}
+
+				if (menorDistancia[i] > menorDistancia[maisDistante])
+					maisDistante = i;
+			}
+		}
+
+		//O peso de cada pivô é o número de vértices mais próximos dele
+		for (p = 0; p < numero; p++)
+			pesoPivos[p] = 0;
+
+		for (i = 0; i < vertices.length; i++)
+			pesoPivos[pivoMaisProximo[i]]++;
+
+		return numero;
+	}
+
+	private void calcularDistancias(int pivo, int vertices[])
+	{
+		int 	i, atual, vizinho, inicio, fim, distancias[], inicioAdjacentes[], adjacentes[];
+
+		if (distanciasPivos[pivo] == null)
+			distanciasPivos[pivo] = new int[compacto.getNumeroVertices()];
+
+		distancias = distanciasPivos[pivo];
+		inicioAdjacentes = compacto.getInicioAdjacentes();
+		adjacentes = compacto.getAdjacentes();
+
+		//Somente os vértices da componente são percorridos
+		for (i = 0; i < vertices.length; i++)
+			distancias[vertices[i]] = -1;
+
+		inicio = 0;
+		fim = 0;
+		distancias[pivos[pivo]] = 0;
+		fila[fim++] = pivos[pivo];
+
+		while (inicio < fim)
+		{
+			atual = fila[inicio++];
+
+			for (i = inicioAdjacentes[atual]; i < inicioAdjacentes[atual + 1]; i++)
+			{
+				vizinho = adjacentes[i];
+
+				if (distancias[vizinho] < 0)
+				{
+					distancias[vizinho] = distancias[atual] + 1;
+					fila[fim++] = vizinho;
+				}
+			}
+		}
+	}
+
+	private void posicionarPivotMDS(int vertices[], int numero)
+	{
+		//Centraliza duplamente os quadrados das distâncias aos pivôs e projeta
+		//os vértices nos dois principais autovetores de C^T C
+		int 	i, p, q, v;
+		double	c[][], mediaLinha[], mediaColuna[], mediaTotal, d, b[][],
+				autovetor1[], autovetor2[], autovalor1, escala, comprimento, soma;
+
+		c = new double[vertices.length][numero];
+		mediaLinha = new double[vertices.length];
+		mediaColuna = new double[numero];
+		mediaTotal = 0.0;
+
+		for (i = 0; i < vertices.length; i++)
+		{
+			for (p = 0; p < numero; p++)
+			{
+				d = distanciasPivos[p][vertices[i]];
+				c[i][p] = d * d;
+				mediaLinha[i] += c[i][p] / numero;
+				mediaColuna[p] += c[i][p] / vertices.length;
+				mediaTotal += c[i][p] / ((double) numero * vertices.length);
+			}
+		}
+
+		for (i = 0; i < vertices.length; i++)
+			for (p = 0; p < numero; p++)
+				c[i][p] = -0.5 * (c[i][p] - mediaLinha[i] - mediaColuna[p] + mediaTotal);
+
+		b = new double[numero][numero];
+		for (i = 0; i < vertices.length; i++)
+			for (p = 0; p < numero; p++)
+				for (q = p; q < numero; q++)
+					b[p][q] += c[i][p] * c[i][q];
+
+		for (p = 0; p < numero; p++)
+			for (q = 0; q < p; q++)
+				b[p][q] = b[q][p];
+
+		autovetor1 = new double[numero];
+		autovetor2 = new double[numero];
+		autovalor1 = calcularAutovetor(b, autovetor1, null, 0);
+		calcularAutovetor(b, autovetor2, autovetor1, autovalor1);
+
+		for (i = 0; i < vertices.length; i++)
+		{
+			v = vertices[i];
+			coordenadaX[v] = 0.0;
+			coordenadaY[v] = 0.0;
+
+			for (p = 0; p < numero; p++)
+			{
+				coordenadaX[v] += c[i][p] * autovetor1[p];
+				coordenadaY[v] += c[i][p] * autovetor2[p];
+			}
+		}
+
+		//Ajusta a escala para que as arestas tenham em média o tamanho desejado
+		soma = 0.0;
+		comprimento = 0;
+		for (i = 0; i < vertices.length; i++)
+		{
+			v = vertices[i];
+			for (p = compacto.getInicioAdjacentes()[v]; p < compacto.getInicioAdjacentes()[v + 1]; p++)
+			{
+				q = compacto.getAdjacentes()[p];
+				soma += Math.sqrt(((coordenadaX[v] - coordenadaX[q]) * (coordenadaX[v] - coordenadaX[q])) + ((coordenadaY[v] - coordenadaY[q]) * (coordenadaY[v] - coordenadaY[q])));
+				comprimento++;
+			}
+		}
+
+		escala = ((comprimento > 0) && (soma > 0)) ? (tamanhoAresta * comprimento) / soma : 1.0;
+
+		//Uma pequena perturbação fixa evita que grafos como os caminhos fiquem
+		//presos em uma reta, pois a majorização não sai da dimensão inicial
+		for (i = 0; i < vertices.length; i++)
+		{
+			v = vertices[i];
+			coordenadaX[v] = (coordenadaX[v] * escala) + (0.01 * tamanhoAresta * Math.cos(i));
+			coordenadaY[v] = (coordenadaY[v] * escala) + (0.01 * tamanhoAresta * Math.sin(i));
+		}
+	}
+
+	private double calcularAutovetor(double b[][], double autovetor[], double anterior[], double autovalorAnterior)
+	{
+		//Método das potências, removendo a componente do autovetor anterior
+		int 	i, p, q;
+		double	produto[], norma, projecao;
+
+		produto = new double[autovetor.length];
+		for (p = 0; p < autovetor.length; p++)
+			autovetor[p] = Math.cos(p + ((anterior == null) ? 0 : 1));
+
+		norma = 0.0;
+		for (i = 0; i < ITERACOES_POTENCIA; i++)
+		{
+			if (anterior != null)
+			{
+				projecao = 0.0;
+				for (p = 0; p < autovetor.length; p++)
+					projecao += autovetor[p] * anterior[p];
+
+				for (p = 0; p < autovetor.length; p++)
+					autovetor[p] -= projecao * anterior[p];
+			}
+
+			for (p = 0; p < autovetor.length; p++)
+			{
+				produto[p] = 0.0;
+				for (q = 0; q < autovetor.length; q++)
+					produto[p] += b[p][q] * autovetor[q];
+			}
+
+			norma = 0.0;
+			for (p = 0; p < autovetor.length; p++)
+				norma += produto[p] * produto[p];
+
+			norma = Math.sqrt(norma);
+			if (norma == 0)
+				return 0;
+
+			for (p = 0; p < autovetor.length; p++)
+				autovetor[p] = produto[p] / norma;
+		}
+
+		return norma;
+	}
+
+	private void majorizar(int vertices[], int numero)
+	{
+		//Cada vértice é movido para a média ponderada das posições indicadas
+		//pelos seus vizinhos, pelos vértices a distância 2 e pelos pivôs, com
+		//peso 1 / d² multiplicado pelo número de vértices representados por
+		//cada pivô
+		int 	i, k, p, v, vizinho, iteracao, inicioAdjacentes[], adjacentes[],
+				inicioDistancia2[], distancia2[];
+		double	somaX, somaY, somaPesos, peso, ideal,
+				diferencaX, diferencaY, novaX, novaY, deslocamento, direcao[];
+
+		inicioAdjacentes = compacto.getInicioAdjacentes();
+		adjacentes = compacto.getAdjacentes();
+		direcao = new double[2];
+
+		inicioDistancia2 = new int[vertices.length + 1];
+		distancia2 = calcularDistancia2(vertices, inicioDistancia2);
+
+		for (iteracao = 0; (iteracao < numeroIteracoes) && !limite.interromper(); iteracao++)
+		{
+			deslocamento = 0.0;
+
+			for (i = 0; i < vertices.length; i++)
+			{
+				v = vertices[i];
+				if ((fixos != null) && fixos[v])
+					continue;
+
+				somaX = 0.0;
+				somaY = 0.0;
+				somaPesos = 0.0;
+
+				for (k = inicioAdjacentes[v]; k < inicioAdjacentes[v + 1]; k++)
+				{
+					vizinho = adjacentes[k];
+					if (vizinho == v)
+						continue;
+
+					ideal = tamanhoAresta;
+					peso = 1.0 / (ideal * ideal);
+					calcularDirecao(v, vizinho, direcao);
+
+					somaX += peso * (coordenadaX[vizinho] + (ideal * direcao[0]));
+					somaY += peso * (coordenadaY[vizinho] + (ideal * direcao[1]));
+					somaPesos += peso;
+				}
+
+				//Sem estes termos os vértices com os mesmos vizinhos, como as
+				//folhas de uma árvore, ficariam sobrepostos
+				for (k = inicioDistancia2[i]; k < inicioDistancia2[i + 1]; k++)
+				{
+					ideal = 2.0 * tamanhoAresta;
+					peso = 1.0 / (ideal * ideal);
+					calcularDirecao(v, distancia2[k], direcao);
+
+					somaX += peso * (coordenadaX[distancia2[k]] + (ideal * direcao[0]));
+					somaY += peso * (coordenadaY[distancia2[k]] + (ideal * direcao[1]));
+					somaPesos += peso;
+				}
+
+				for (p = 0; p < numero; p++)
+				{
+					if ((pivos[p] == v) || (distanciasPivos[p][v] <= 1))
+						continue;
+
+					ideal = (double) tamanhoAresta * distanciasPivos[p][v];
+					peso = pesoPivos[p] / (ideal * ideal);
+					calcularDirecao(v, pivos[p], direcao);
+
+					somaX += peso * (coordenadaX[pivos[p]] + (ideal * direcao[0]));
+					somaY += peso * (coordenadaY[pivos[p]] + (ideal * direcao[1]));
+					somaPesos += peso;
+				}
+
+				if (somaPesos == 0)
+					continue;
+
+				novaX = somaX / somaPesos;
+				novaY = somaY / somaPesos;
+
+				diferencaX = novaX - coordenadaX[v];
+				diferencaY = novaY - coordenadaY[v];
+				deslocamento += Math.sqrt((diferencaX * diferencaX) + (diferencaY * diferencaY));
+
+				coordenadaX[v] = novaX;
+				coordenadaY[v] = novaY;
+			}
+
+			if ((deslocamento / vertices.length) < tolerancia)
+				break;
+		}
+	}
+
+	private int[] calcularDistancia2(int vertices[], int inicioDistancia2[])
+	{
+		//Seleciona para cada vértice até numeroPivos vértices a distância 2.
+		//Quando o vizinho intermediário possui muitos vizinhos, cada vértice
+		//utiliza um trecho diferente da lista dele, assim as folhas de uma
+		//estrela se afastam umas das outras sem um custo quadrático
+		int 	i, k, t, v, vizinho, outro, grau, numero, marcas[], resultado[];
+
+		marcas = new int[compacto.getNumeroVertices()];
+		resultado = new int[Math.max(1, vertices.length * Math.min(numeroPivos, 8))];
+		numero = 0;
+
+		for (i = 0; i < vertices.length; i++)
+		{
+			v = vertices[i];
+			inicioDistancia2[i] = numero;
+
+			//Os vizinhos diretos e o próprio vértice são marcados para serem ignorados
+			marcas[v] = (2 * i) + 1;
+			for (k = compacto.getInicioAdjacentes()[v]; k < compacto.getInicioAdjacentes()[v + 1]; k++)
+				marcas[compacto.getAdjacentes()[k]] = (2 * i) + 1;
+
+			for (k = compacto.getInicioAdjacentes()[v]; (k < compacto.getInicioAdjacentes()[v + 1]) && (numero - inicioDistancia2[i] < numeroPivos); k++)
+			{
+				vizinho = compacto.getAdjacentes()[k];
+				grau = compacto.getGrau(vizinho);
+
+				for (t = 0; (t < grau) && (t < numeroPivos) && (numero - inicioDistancia2[i] < numeroPivos); t++)
+				{
+					outro = compacto.getAdjacentes()[compacto.getInicioAdjacentes()[vizinho] + ((t + (i * numeroPivos)) % grau)];
+
+					if (marcas[outro] >= (2 * i) + 1)
+						continue;
+
+					marcas[outro] = (2 * i) + 2;
+
+					if (numero == resultado.length)
+						resultado = Arrays.copyOf(resultado, resultado.length * 2);
+
+					resultado[numero++] = outro;
+				}
+			}
+		}
+
+		inicioDistancia2[vertices.length] = numero;
+
+		return resultado;
+	}
+
+	private void calcularDirecao(int v, int outro, double direcao[])
+	{
+		//Vetor unitário de outro para v, ou uma direção fixa caso estejam sobrepostos
+		double	diferencaX, diferencaY, distancia;
+
+		diferencaX = coordenadaX[v] - coordenadaX[outro];
+		diferencaY = coordenadaY[v] - coordenadaY[outro];
+		distancia = Math.sqrt((diferencaX * diferencaX) + (diferencaY * diferencaY));
+
+		if (distancia < DISTANCIA_MINIMA)
+		{
+			direcao[0] = Math.cos(Math.abs(v - outro)) * ((v > outro) ? 1 : -1);
+			direcao[1] = Math.sin(Math.abs(v - outro)) * ((v > outro) ? 1 : -1);
+			return;
+		}
+
+		direcao[0] = diferencaX / distancia;
+		direcao[1] = diferencaY / distancia;
+	}
+
+	private void removerQuebraArestas()
+	{
+		Aresta	arestas[];
+		int 	i;
+
+		//As arestas entre dois vértices fixos mantêm os seus pontos de quebra
+		arestas = grafo.getTodasArestas();
+		for (i = 0; i < grafo.getNumeroTotalArestas(); i++)
+			if (!(arestas[i].getVerticeOrigem().getFixo() && arestas[i].getVerticeDestino().getFixo()))
+				arestas[i].removerTodasQuebras();
+	}
+}
@@ -0,0 +1,141 @@
+package diagram.graphdrawing;
+
+/**
+ * A classe MatrizDistancias armazena a distância do menor caminho entre todos
+ * os pares de vértices em um único vetor primitivo organizado linha a linha.
+ * O tipo do vetor é escolhido a partir da maior distância possível no grafo:
+ * byte quando ela não ultrapassa 127, short quando não ultrapassa 32767 e int
+ * nos demais casos. Desta forma um grafo com 10000 vértices ocupa cerca de
+ * 100MB ao invés dos 400MB de uma matriz de inteiros e as três matrizes de
+ * ponto flutuante utilizadas anteriormente pelo SpringModel não são mais
+ * necessárias, pois o comprimento e a força da mola são derivados da distância.
+ *
+ * A matriz também pode ser retangular, guardando somente as linhas de alguns
+ * vértices, quando apenas as distâncias a partir deles são necessárias.
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see DistanciasMenorCaminho
+ * @see SpringModel
+ */
+public class MatrizDistancias
+{
+	private int			numeroLinhas,
+						numeroVertices,
+						distanciaMaxima,
+						distanciasInt[];
+
+	private short		distanciasShort[];
+
+	private byte		distanciasByte[];
+
+	//Construtor
+
+	/**
+	 * Cria uma matriz quadrada preenchida com zeros capaz de armazenar
+	 * distâncias até o valor máximo passado pelo parâmetro.
+	 *
+	 * @param numeroVertices o número de linhas e colunas da matriz
+	 * @param distanciaMaxima a maior distância que será armazenada
+	 */
+	public MatrizDistancias(int numeroVertices, int distanciaMaxima)
+	{
+		this(numeroVertices, numeroVertices, distanciaMaxima);
+	}
+
+	/**
+	 * Cria uma matriz com o número de linhas passado pelo parâmetro e uma
+	 * coluna por vértice, preenchida com zeros.
+	 *
+	 * @param numeroLinhas o número de linhas da matriz
+	 * @param numeroVertices o número de colunas da matriz
+	 * @param distanciaMaxima a maior distância que será armazenada
+	 */
+	public MatrizDistancias(int numeroLinhas, int numeroVertices, int distanciaMaxima)
+	{
+		int tamanho;
+
+		this.numeroLinhas = numeroLinhas;
+		this.numeroVertices = numeroVertices;
+		this.distanciaMaxima = distanciaMaxima;
+		tamanho = numeroLinhas * numeroVertices;
+
+		if (distanciaMaxima <= Byte.MAX_VALUE)
+			distanciasByte = new byte[tamanho];
+		else if (distanciaMaxima <= Short.MAX_VALUE)
+			distanciasShort = new short[tamanho];
+		else
+			distanciasInt = new int[tamanho];
+	}
+
+//Métodos Get
+
+	/**
+	 * Retorna o número de colunas da matriz, que é também o número de linhas
+	 * de uma matriz quadrada.
+	 *
+	 * @return o número de vértices
+	 */
+	public int getNumeroVertices()
+	{
+		return numeroVertices;
+	}
+
+	/**
+	 * Retorna o número de linhas da matriz.
+	 *
+	 * @return o número de linhas
+	 */
+	public int getNumeroLinhas()
+	{
+		return numeroLinhas;
+	}
+
+	/**
+	 * Retorna a maior distância que a matriz é capaz de armazenar.
+	 *
+	 * @return a distância máxima
+	 */
+	public int getDistanciaMaxima()
+	{
+		return distanciaMaxima;
+	}
+
+	/**
+	 * Retorna a distância do menor caminho entre os vértices i e j. Em uma
+	 * matriz retangular i é o número da linha.
+	 *
+	 * @param i o índice do primeiro vértice
+	 * @param j o índice do segundo vértice
+	 * @return a distância entre os vértices ou 0 caso não exista caminho
+	 */
+	public int getDistancia(int i, int j)
+	{
+		if (distanciasByte != null)
+			return distanciasByte[(i * numeroVertices) + j];
+
+		if (distanciasShort != null)
+			return distanciasShort[(i * numeroVertices) + j];
+
+		return distanciasInt[(i * numeroVertices) + j];
+	}
+
+//Métodos Set
+
+	/**
+	 * Altera a distância do menor caminho entre os vértices i e j. Somente a
+	 * posição (i, j) é alterada.
+	 *
+	 * @param i o índice do primeiro vértice
+	 * @param j o índice do segundo vértice
+	 * @param distancia a nova distância
+	 */
+	public void setDistancia(int i, int j, int distancia)
+	{
+		if (distanciasByte != null)
+			distanciasByte[(i * numeroVertices) + j] = (byte) distancia;
+		else if (distanciasShort != null)
+			distanciasShort[(i * numeroVertices) + j] = (short) distancia;
+		else
+			distanciasInt[(i * numeroVertices) + j] = distancia;
+	}
+}
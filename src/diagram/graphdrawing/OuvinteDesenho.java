@@ -0,0 +1,32 @@
+package diagram.graphdrawing;
+
+/**
+ * A interface OuvinteDesenho recebe o progresso do SpringModel durante o
+ * desenho automático. Após cada deslocamento de vértice feito pelo método de
+ * Newton Raphson o ouvinte recebe a energia atual e o maior deltaM da
+ * componente conexa que está sendo desenhada, permitindo acompanhar a
+ * convergência, mostrar as posições parciais através do método
+ * SpringModel.copiarCoordenadas ou interromper o desenho através do método
+ * SpringModel.cancelar.
+ *
+ * O método é chamado pela linha de execução que executa o desenho, e por mais
+ * de uma ao mesmo tempo quando o paralelismo é maior que 1, então deve ser
+ * rápido e não deve alterar o grafo.
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see SpringModel#setOuvinte
+ */
+public interface OuvinteDesenho
+{
+	/**
+	 * Informa que mais uma iteração do algoritmo foi concluída.
+	 *
+	 * @param desenho o objeto que está executando o desenho
+	 * @param componente a posição da componente conexa desenhada, na ordem
+	 * do primeiro vértice de cada componente no grafo
+	 * @param iteracao o número de iterações já concluídas nesta componente
+	 * @param energia a energia atual da componente conexa
+	 * @param maiorDeltaM o maior deltaM dos vértices livres da componente
+	 */
+	void iteracaoRealizada(SpringModel desenho, int componente, int iteracao, double energia, double maiorDeltaM);
+}
@@ -0,0 +1,313 @@
+package diagram.graphdrawing;
+
+import java.util.Random;
+
+import diagram.GrafoCompacto;
+
+/**
+ * A classe PosicionamentoInicial calcula as posições de partida dos vértices de
+ * uma componente conexa antes da minimização da energia. Posições iniciais
+ * próximas do desenho final reduzem o número de iterações do método de Newton
+ * Raphson e, como os sorteios utilizam uma semente, o mesmo grafo sempre
+ * produz o mesmo desenho.
+ *
+ * Três estratégias são oferecidas:<br>
+ * - camadas: um percurso em largura a partir de um vértice periférico coloca
+ * cada nível em uma linha horizontal, O(V + E);<br>
+ * - grade: os vértices ocupam uma grade quadrada na ordem do percurso em
+ * largura, percorrendo as linhas em zigue-zague para que vértices próximos no
+ * percurso fiquem próximos na grade, O(V + E);<br>
+ * - espectral: os dois primeiros autovetores não triviais da matriz de
+ * transição D<sup>-1</sup>A, obtidos pelo método das potências com
+ * D-ortogonalização como proposto por Yehuda Koren, O(k (V + E)) para k
+ * iterações.<br>
+ * <br>
+ * Em todas as estratégias uma pequena perturbação sorteada evita vértices
+ * sobrepostos ou alinhados, que deixariam as derivadas do SpringModel nulas.
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see SpringModel#setPosicaoInicial
+ */
+class PosicionamentoInicial
+{
+	//Número máximo de iterações do método das potências
+	private static final int	ITERACOES_POTENCIA = 200;
+
+	//Variação abaixo da qual o autovetor é considerado convergido
+	private static final double	TOLERANCIA_POTENCIA = 1e-7;
+
+	//Fração do tamanho da aresta utilizada pela perturbação das posições
+	private static final double	PERTURBACAO = 0.1;
+
+	private GrafoCompacto		compacto;
+
+	private int					tamanhoAresta,
+								marcas[],
+								distancias[],
+								fila[],
+								indiceLocal[],
+								marcaAtual;
+
+	private Random				sorteio;
+
+	//Construtor
+
+	/**
+	 * Cria um posicionamento para as componentes conexas da fotografia do
+	 * grafo passada pelo parâmetro.
+	 *
+	 * @param compacto a fotografia do grafo
+	 * @param tamanhoAresta o comprimento desejado das arestas
+	 * @param semente a semente dos sorteios
+	 */
+	PosicionamentoInicial(GrafoCompacto compacto, int tamanhoAresta, long semente)
+	{
+		this.compacto = compacto;
+		this.tamanhoAresta = tamanhoAresta;
+		sorteio = new Random(semente);
+
+		marcas = new int[compacto.getNumeroVertices()];
+		distancias = new int[compacto.getNumeroVertices()];
+		fila = new int[compacto.getNumeroVertices()];
+		indiceLocal = new int[compacto.getNumeroVertices()];
+		marcaAtual = 0;
+	}
+
+	/**
+	 * Calcula as posições dos vértices de uma componente conexa. As coordenadas
+	 * são escritas nos vetores indexados pelos índices dos vértices na
+	 * fotografia do grafo.
+	 *
+	 * @param estrategia uma das constantes POSICAO_* do SpringModel
+	 * @param vertices os índices dos vértices da componente conexa
+	 * @param coordenadaX o vetor que recebe as coordenadas X
+	 * @param coordenadaY o vetor que recebe as coordenadas Y
+	 */
+	void posicionar(int estrategia, int vertices[], double coordenadaX[], double coordenadaY[])
+	{
+		int i, alcancados;
+
+		if (vertices.length < 2)
+			return;
+
+		//O segundo percurso parte do vértice mais distante do primeiro, que
+		//fica em uma extremidade da componente
+		alcancados = percorrer(vertices[0]);
+		alcancados = percorrer(fila[alcancados - 1]);
+
+		if (estrategia == SpringModel.POSICAO_CAMADAS)
+			posicionarCamadas(alcancados, coordenadaX, coordenadaY);
+		else if (estrategia == SpringModel.POSICAO_GRADE)
+			posicionarGrade(alcancados, coordenadaX, coordenadaY);
+		else if (estrategia == SpringModel.POSICAO_ESPECTRAL)
+			posicionarEspectral(alcancados, coordenadaX, coordenadaY);
+		else
+			return;
+
+		for (i = 0; i < alcancados; i++)
+		{
+			coordenadaX[fila[i]] += (sorteio.nextDouble() - 0.5) * PERTURBACAO * tamanhoAresta;
+			coordenadaY[fila[i]] += (sorteio.nextDouble() - 0.5) * PERTURBACAO * tamanhoAresta;
+		}
+	}
+
+//Métodos privados da classe PosicionamentoInicial
+	private int percorrer(int origem)
+	{
+		//Percurso em largura limitado à componente, com marcas renovadas a cada
+		//percurso para não limpar os vetores
+		int 	i, atual, vizinho, inicio, fim, inicioAdjacentes[], adjacentes[];
+
+		inicioAdjacentes = compacto.getInicioAdjacentes();
+		adjacentes = compacto.getAdjacentes();
+		marcaAtual++;
+
+		inicio = 0;
+		fim = 0;
+		marcas[origem] = marcaAtual;
+		distancias[origem] = 0;
+		fila[fim++] = origem;
+
+		while (inicio < fim)
+		{
+			atual = fila[inicio++];
+
+			for (i = inicioAdjacentes[atual]; i < inicioAdjacentes[atual + 1]; i++)
+			{
+				vizinho = adjacentes[i];
+
+				if (marcas[vizinho] != marcaAtual)
+				{
+					marcas[vizinho] = marcaAtual;
+					distancias[vizinho] = distancias[atual] + 1;
+					fila[fim++] = vizinho;
+				}
+			}
+		}
+
+		return fim;
+	}
+
+	private void posicionarCamadas(int numero, double coordenadaX[], double coordenadaY[])
+	{
+		//A fila do percurso já está ordenada por nível, e dentro de cada nível
+		//os vértices seguem a ordem dos seus pais
+		int i, inicio, fim;
+
+		inicio = 0;
+		while (inicio < numero)
+		{
+			fim = inicio;
+			while ((fim < numero) && (distancias[fila[fim]] == distancias[fila[inicio]]))
+				fim++;
+
+			for (i = inicio; i < fim; i++)
+			{
+				coordenadaX[fila[i]] = (i - inicio - ((fim - inicio - 1) / 2.0)) * tamanhoAresta;
+				coordenadaY[fila[i]] = (double) distancias[fila[i]] * tamanhoAresta;
+			}
+
+			inicio = fim;
+		}
+	}
+
+	private void posicionarGrade(int numero, double coordenadaX[], double coordenadaY[])
+	{
+		int i, linha, coluna, colunas;
+
+		colunas = (int) Math.ceil(Math.sqrt(numero));
+		for (i = 0; i < numero; i++)
+		{
+			linha = i / colunas;
+			coluna = i % colunas;
+
+			//As linhas ímpares são percorridas da direita para a esquerda
+			if ((linha % 2) == 1)
+				coluna = colunas - 1 - coluna;
+
+			coordenadaX[fila[i]] = (double) coluna * tamanhoAresta;
+			coordenadaY[fila[i]] = (double) linha * tamanhoAresta;
+		}
+	}
+
+	private void posicionarEspectral(int numero, double coordenadaX[], double coordenadaY[])
+	{
+		int 	i, k, v, inicioAdjacentes[], adjacentes[];
+		double	grau[], primeiro[], segundo[], comprimento, escala;
+
+		inicioAdjacentes = compacto.getInicioAdjacentes();
+		adjacentes = compacto.getAdjacentes();
+
+		grau = new double[numero];
+		for (i = 0; i < numero; i++)
+		{
+			indiceLocal[fila[i]] = i;
+			grau[i] = Math.max(1, inicioAdjacentes[fila[i] + 1] - inicioAdjacentes[fila[i]]);
+		}
+
+		primeiro = calcularAutovetor(numero, grau, null);
+		segundo = calcularAutovetor(numero, grau, primeiro);
+
+		//A escala faz o comprimento médio das arestas igual ao desejado
+		comprimento = 0.0;
+		k = 0;
+		for (i = 0; i < numero; i++)
+		{
+			for (v = inicioAdjacentes[fila[i]]; v < inicioAdjacentes[fila[i] + 1]; v++)
+			{
+				comprimento += Math.sqrt(quadrado(primeiro[i] - primeiro[indiceLocal[adjacentes[v]]]) + quadrado(segundo[i] - segundo[indiceLocal[adjacentes[v]]]));
+				k++;
+			}
+		}
+
+		escala = ((k > 0) && (comprimento > 0)) ? (tamanhoAresta * k) / comprimento : tamanhoAresta;
+		for (i = 0; i < numero; i++)
+		{
+			coordenadaX[fila[i]] = primeiro[i] * escala;
+			coordenadaY[fila[i]] = segundo[i] * escala;
+		}
+	}
+
+	private double[] calcularAutovetor(int numero, double grau[], double anterior[])
+	{
+		//Método das potências sobre (I + D^-1 A) / 2, removendo a cada iteração
+		//as direções do vetor constante e do autovetor anterior
+		int 	i, k, iteracao, inicioAdjacentes[], adjacentes[];
+		double	atual[], proximo[], soma, variacao;
+
+		inicioAdjacentes = compacto.getInicioAdjacentes();
+		adjacentes = compacto.getAdjacentes();
+
+		atual = new double[numero];
+		proximo = new double[numero];
+		for (i = 0; i < numero; i++)
+			atual[i] = sorteio.nextDouble() - 0.5;
+
+		ortogonalizar(atual, grau, anterior);
+		for (iteracao = 0; iteracao < ITERACOES_POTENCIA; iteracao++)
+		{
+			for (i = 0; i < numero; i++)
+			{
+				soma = 0.0;
+				for (k = inicioAdjacentes[fila[i]]; k < inicioAdjacentes[fila[i] + 1]; k++)
+					soma += atual[indiceLocal[adjacentes[k]]];
+
+				proximo[i] = 0.5 * (atual[i] + (soma / grau[i]));
+			}
+
+			ortogonalizar(proximo, grau, anterior);
+
+			variacao = 0.0;
+			for (i = 0; i < numero; i++)
+				variacao += grau[i] * atual[i] * proximo[i];
+
+			System.arraycopy(proximo, 0, atual, 0, numero);
+			if (1.0 - Math.abs(variacao) < TOLERANCIA_POTENCIA)
+				break;
+		}
+
+		return atual;
+	}
+
+	private void ortogonalizar(double vetor[], double grau[], double anterior[])
+	{
+		//Remove as componentes D-ortogonais e normaliza na norma de D
+		int 	i;
+		double	produto, norma;
+
+		produto = 0.0;
+		norma = 0.0;
+		for (i = 0; i < vetor.length; i++)
+		{
+			produto += grau[i] * vetor[i];
+			norma += grau[i];
+		}
+
+		for (i = 0; i < vetor.length; i++)
+			vetor[i] -= produto / norma;
+
+		if (anterior != null)
+		{
+			produto = 0.0;
+			for (i = 0; i < vetor.length; i++)
+				produto += grau[i] * vetor[i] * anterior[i];
+
+			for (i = 0; i < vetor.length; i++)
+				vetor[i] -= produto * anterior[i];
+		}
+
+		norma = 0.0;
+		for (i = 0; i < vetor.length; i++)
+			norma += grau[i] * vetor[i] * vetor[i];
+
+		norma = Math.sqrt(norma);
+		if (norma > 0)
+			for (i = 0; i < vetor.length; i++)
+				vetor[i] /= norma;
+	}
+
+	private double quadrado(double valor)
+	{
+		return valor * valor;
+	}
+}
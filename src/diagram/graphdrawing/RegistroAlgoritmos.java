@@ -0,0 +1,336 @@
+package diagram.graphdrawing;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.MissingResourceException;
+
+import diagram.Grafo;
+import diagram.GrafoCompacto;
+
+/**
+ * A classe RegistroAlgoritmos associa um nome a cada algoritmo de desenho
+ * automático, permitindo que os menus do editor e os demais usuários criem um
+ * algoritmo pelo nome. Os algoritmos do pacote são registrados com os nomes
+ * das constantes ALGORITMO_* e novos algoritmos podem ser acrescentados pelo
+ * método registrar, na ordem em que são apresentados nos menus.
+ *
+ * O método escolher seleciona um algoritmo a partir do tamanho e da densidade
+ * do grafo:<br>
+ * - grafos com menos de DesenhoMultinivel.MINIMO_VERTICES vértices são
+ * desenhados pelo SpringModel;<br>
+ * - florestas, grafos sem ciclos, são desenhadas pelo DesenhoArvore em tempo
+ * linear;<br>
+ * - grafos com vértices fixos ou com mais de DENSIDADE_MAXIMA_MULTINIVEL
+ * arestas por vértice são desenhados pela MajorizacaoTensao, que respeita os
+ * vértices fixos e não depende do agrupamento dos vértices;<br>
+ * - os demais grafos são desenhados pelo DesenhoMultinivel.<br>
+ * <br>
+ *&nbsp;AlgoritmoDesenho desenho = RegistroAlgoritmos.criar(grafo);<br>
+ *&nbsp;desenho.setTamanhoAresta(130);<br>
+ *&nbsp;desenho.desenharGrafo();<br>
+ *
+ * Os métodos da classe podem ser chamados por qualquer linha de execução.
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see AlgoritmoDesenho
+ * @see FabricaAlgoritmo
+ */
+public final class RegistroAlgoritmos
+{
+	/**
+	 * O nome do algoritmo SpringModel.
+	 */
+	public static final String	ALGORITMO_SPRING_MODEL = "Spring Model";
+
+	/**
+	 * O nome do algoritmo FruchtermanReingold.
+	 */
+	public static final String	ALGORITMO_FRUCHTERMAN_REINGOLD = "Fruchterman e Reingold";
+
+	/**
+	 * O nome do algoritmo MajorizacaoTensao.
+	 */
+	public static final String	ALGORITMO_MAJORIZACAO_TENSAO = "Majorização da tensão";
+
+	/**
+	 * O nome do algoritmo DesenhoMultinivel.
+	 */
+	public static final String	ALGORITMO_MULTINIVEL = "Multinível";
+
+	/**
+	 * O nome do algoritmo DesenhoCamadas.
+	 */
+	public static final String	ALGORITMO_CAMADAS = "Camadas";
+
+	/**
+	 * O nome do algoritmo DesenhoArvore no estilo hierárquico.
+	 */
+	public static final String	ALGORITMO_ARVORE = "Árvore";
+
+	/**
+	 * O nome do algoritmo DesenhoArvore no estilo radial.
+	 */
+	public static final String	ALGORITMO_ARVORE_RADIAL = "Árvore radial";
+
+	/**
+	 * O número médio de arestas por vértice acima do qual a escolha automática
+	 * prefere a MajorizacaoTensao ao DesenhoMultinivel.
+	 */
+	public static final double	DENSIDADE_MAXIMA_MULTINIVEL = 4.0;
+
+	//Fábricas indexadas pelo nome, na ordem de registro
+	private static LinkedHashMap<String, FabricaAlgoritmo>	fabricas;
+
+	static
+	{
+		fabricas = new LinkedHashMap<String, FabricaAlgoritmo>();
+
+		registrar(ALGORITMO_SPRING_MODEL, new FabricaAlgoritmo()
+		{
+			public AlgoritmoDesenho criar(Grafo grafo)
+			{
+				return new SpringModel(grafo);
+			}
+		});
+
+		registrar(ALGORITMO_FRUCHTERMAN_REINGOLD, new FabricaAlgoritmo()
+		{
+			public AlgoritmoDesenho criar(Grafo grafo)
+			{
+				return new FruchtermanReingold(grafo);
+			}
+		});
+
+		registrar(ALGORITMO_MAJORIZACAO_TENSAO, new FabricaAlgoritmo()
+		{
+			public AlgoritmoDesenho criar(Grafo grafo)
+			{
+				return new MajorizacaoTensao(grafo);
+			}
+		});
+
+		registrar(ALGORITMO_MULTINIVEL, new FabricaAlgoritmo()
+		{
+			public AlgoritmoDesenho criar(Grafo grafo)
+			{
+				return new DesenhoMultinivel(grafo);
+			}
+		});
+
+		registrar(ALGORITMO_CAMADAS, new FabricaAlgoritmo()
+		{
+			public AlgoritmoDesenho criar(Grafo grafo)
+			{
+				return new DesenhoCamadas(grafo);
+			}
+		});
+
+		registrar(ALGORITMO_ARVORE, new FabricaAlgoritmo()
+		{
+			public AlgoritmoDesenho criar(Grafo grafo)
+			{
+				return new DesenhoArvore(grafo);
+			}
+		});
+
+		registrar(ALGORITMO_ARVORE_RADIAL, new FabricaAlgoritmo()
+		{
+			public AlgoritmoDesenho criar(Grafo grafo)
+			{
+				DesenhoArvore desenho;
+
+				desenho = new DesenhoArvore(grafo);
+				desenho.setEstilo(DesenhoArvore.ESTILO_RADIAL);
+				return desenho;
+			}
+		});
+	}
+
+	//Construtor
+
+	private RegistroAlgoritmos()
+	{
+	}
+
+//Métodos de registro
+
+	/**
+	 * Registra um algoritmo de desenho com o nome passado pelo parâmetro. Um
+	 * algoritmo já registrado com o mesmo nome é substituído, mantendo a sua
+	 * posição na lista de nomes.
+	 *
+	 * @param nome o nome do algoritmo, apresentado nos menus do editor
+	 * @param fabrica a fábrica que cria o algoritmo
+	 * @throws NullPointerException caso o nome ou a fábrica sejam nulos
+	 */
+	public static synchronized void registrar(String nome, FabricaAlgoritmo fabrica) throws NullPointerException
+	{
+		if ((nome == null) || (fabrica == null))
+			throw new NullPointerException("O nome e a fábrica do algoritmo são obrigatórios");
+
+		fabricas.put(nome, fabrica);
+	}
+
+	/**
+	 * Remove o algoritmo registrado com o nome passado pelo parâmetro.
+	 *
+	 * @param nome o nome do algoritmo
+	 * @return verdadeiro caso o algoritmo estivesse registrado
+	 */
+	public static synchronized boolean remover(String nome)
+	{
+		return fabricas.remove(nome) != null;
+	}
+
+	/**
+	 * Retorna os nomes de todos os algoritmos registrados, na ordem de
+	 * registro.
+	 *
+	 * @return o vetor com os nomes
+	 */
+	public static synchronized String[] getNomes()
+	{
+		int 				i;
+		String				nomes[];
+		Iterator<String>	iterador;
+
+		nomes = new String[fabricas.size()];
+		iterador = fabricas.keySet().iterator();
+		for (i = 0; iterador.hasNext(); i++)
+			nomes[i] = iterador.next();
+
+		return nomes;
+	}
+
+	/**
+	 * Informa se existe um algoritmo registrado com o nome passado pelo
+	 * parâmetro.
+	 *
+	 * @param nome o nome do algoritmo
+	 * @return verdadeiro caso o algoritmo esteja registrado
+	 */
+	public static synchronized boolean existe(String nome)
+	{
+		return fabricas.containsKey(nome);
+	}
+
+//Métodos de criação
+
+	/**
+	 * Cria o algoritmo registrado com o nome passado pelo parâmetro para o
+	 * grafo informado.
+	 *
+	 * @param nome o nome do algoritmo
+	 * @param grafo o grafo a ser desenhado
+	 * @return o algoritmo criado
+	 * @throws MissingResourceException caso não exista um algoritmo com o nome
+	 */
+	public static AlgoritmoDesenho criar(String nome, Grafo grafo) throws MissingResourceException
+	{
+		FabricaAlgoritmo	fabrica;
+
+		synchronized (RegistroAlgoritmos.class)
+		{
+			fabrica = fabricas.get(nome);
+		}
+
+		if (fabrica == null)
+			throw new MissingResourceException("Algoritmo de desenho não registrado: " + nome, RegistroAlgoritmos.class.getName(), String.valueOf(nome));
+
+		return fabrica.criar(grafo);
+	}
+
+	/**
+	 * Cria o algoritmo escolhido automaticamente para o grafo passado pelo
+	 * parâmetro.
+	 *
+	 * @param grafo o grafo a ser desenhado
+	 * @return o algoritmo criado
+	 * @see RegistroAlgoritmos#escolher
+	 */
+	public static AlgoritmoDesenho criar(Grafo grafo)
+	{
+		return criar(escolher(grafo), grafo);
+	}
+
+	/**
+	 * Escolhe o algoritmo mais adequado ao grafo a partir do número de
+	 * vértices, do número de arestas por vértice, da existência de ciclos e
+	 * de vértices fixos. A escolha custa O(V + E).
+	 *
+	 * @param grafo o grafo a ser desenhado
+	 * @return o nome de um dos algoritmos do pacote
+	 */
+	public static String escolher(Grafo grafo)
+	{
+		int 			i, numeroVertices, numeroArestas, numeroComponentes;
+		boolean			fixos;
+		GrafoCompacto	compacto;
+
+		numeroVertices = grafo.getNumeroTotalVertices();
+		if (numeroVertices < DesenhoMultinivel.MINIMO_VERTICES)
+			return ALGORITMO_SPRING_MODEL;
+
+		compacto = grafo.compactar();
+		fixos = false;
+		for (i = 0; (i < numeroVertices) && !fixos; i++)
+			fixos = compacto.getVertice(i).getFixo();
+
+		//Os laços não formam ciclos que impeçam o desenho como árvore
+		numeroArestas = 0;
+		for (i = 0; i < compacto.getNumeroArestas(); i++)
+			if ((compacto.getOrigem(i) >= 0) && (compacto.getDestino(i) >= 0) && (compacto.getOrigem(i) != compacto.getDestino(i)))
+				numeroArestas++;
+
+		//Uma floresta possui uma aresta a menos que vértices em cada componente
+		numeroComponentes = contarComponentes(compacto);
+		if (!fixos && (numeroArestas == numeroVertices - numeroComponentes))
+			return ALGORITMO_ARVORE;
+
+		if (fixos || (numeroArestas > DENSIDADE_MAXIMA_MULTINIVEL * numeroVertices))
+			return ALGORITMO_MAJORIZACAO_TENSAO;
+
+		return ALGORITMO_MULTINIVEL;
+	}
+
+//Métodos privados da classe RegistroAlgoritmos
+	private static int contarComponentes(GrafoCompacto compacto)
+	{
+		int 		i, v, atual, inicio, fim, numeroComponentes, fila[],
+					inicioAdjacentes[], adjacentes[];
+		boolean		visitados[];
+
+		inicioAdjacentes = compacto.getInicioAdjacentes();
+		adjacentes = compacto.getAdjacentes();
+		visitados = new boolean[compacto.getNumeroVertices()];
+		fila = new int[compacto.getNumeroVertices()];
+
+		numeroComponentes = 0;
+		for (v = 0; v < visitados.length; v++)
+		{
+			if (visitados[v])
+				continue;
+
+			inicio = 0;
+			fim = 0;
+			visitados[v] = true;
+			fila[fim++] = v;
+			while (inicio < fim)
+			{
+				atual = fila[inicio++];
+				for (i = inicioAdjacentes[atual]; i < inicioAdjacentes[atual + 1]; i++)
+				{
+					if (!visitados[adjacentes[i]])
+					{
+						visitados[adjacentes[i]] = true;
+						fila[fim++] = adjacentes[i];
+					}
+				}
+			}
+
+			numeroComponentes++;
+		}
+
+		return numeroComponentes;
+	}
+}
@@ -0,0 +1,907 @@
+package diagram.graphdrawing;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import diagram.Grafo;
+import diagram.GrafoCompacto;
+
+import diagram.componente.Aresta;
+import diagram.componente.Vertice;
+
+/**
+ * A classe RoteamentoOrtogonal calcula, após o desenho do grafo, rotas formadas
+ * somente por segmentos horizontais e verticais para as arestas, contornando os
+ * retângulos dos vértices, e grava os cantos das rotas como os pontos de
+ * quebra das arestas.
+ *
+ * As rotas seguem o grafo de visibilidade ortogonal esparso proposto por
+ * Wybrow, Marriott e Stuckey: as únicas linhas percorridas são as bordas dos
+ * retângulos dos vértices, afastadas por uma margem, e as linhas que passam
+ * pelos centros dos extremos da aresta. O grafo não é construído
+ * explicitamente; cada aresta é roteada por uma busca A* sobre os cruzamentos
+ * das linhas dos vértices próximos a ela, com o custo igual ao comprimento da
+ * rota mais uma penalidade por curva e a distância de Manhattan, com um
+ * pequeno peso que troca a rota mais barata por uma busca bem mais rápida,
+ * como heurística. A janela de vértices considerados começa no retângulo entre os
+ * extremos e só é ampliada quando a aresta não encontra saída, então o custo
+ * de cada aresta depende da vizinhança dela e não do tamanho do grafo.
+ *
+ * Os obstáculos são consultados através de uma grade uniforme de células
+ * construída uma única vez para todas as arestas, e as arestas podem ser
+ * roteadas em paralelo. A margem de um vértice pode ser atravessada com um
+ * custo maior, para que margens sobrepostas não fechem as passagens entre
+ * vértices próximos.
+ *
+ * As rotas partem do centro do vértice de origem e chegam ao centro do vértice
+ * de destino, como as arestas são desenhadas pelo editor. As arestas sem rota
+ * ou com mais quebras do que o permitido por Aresta.NUMEROMAXIMOQUEBRAS e os
+ * laços ficam sem pontos de quebra. Rotas paralelas podem se sobrepor, pois não
+ * é feito o afastamento entre os segmentos que compartilham uma linha.
+ *
+ *&nbsp;SpringModel desenho = new SpringModel(grafo);<br>
+ *&nbsp;desenho.desenharGrafo();<br>
+ *&nbsp;new RoteamentoOrtogonal(grafo).rotearArestas();<br>
+ *
+ * @author Luis Henrique Castilho da Silva
+ * @see SpringModel#setRotearArestas
+ */
+public class RoteamentoOrtogonal
+{
+	/**
+	 * A distância padrão, em pixels, entre as rotas e os vértices contornados.
+	 */
+	public static final int		MARGEM_PADRAO = 10;
+
+	/**
+	 * O custo padrão de cada curva, em pixels de comprimento equivalente.
+	 */
+	public static final int		PENALIDADE_CURVA_PADRAO = 40;
+
+	/**
+	 * O número padrão de estados visitados pela busca de uma aresta antes que
+	 * ela seja considerada sem rota.
+	 */
+	public static final int		LIMITE_EXPANSOES_PADRAO = 100000;
+
+	//Número de arestas abaixo do qual uma tarefa não é mais dividida
+	private static final int	TAMANHO_TAREFA = 64;
+
+	//Folga inicial da janela ao redor dos extremos, em tamanhos de célula
+	private static final double	FOLGA_INICIAL = 1.0;
+
+	//Fator de ampliação da folga quando a aresta não encontra saída
+	private static final double	AMPLIACAO_FOLGA = 4.0;
+
+	//Peso da heurística; acima de 1 a busca visita muito menos estados e as
+	//rotas custam no máximo este fator vezes o custo da melhor rota
+	private static final double	PESO_HEURISTICA = 1.2;
+
+	//Multiplicador do comprimento dos segmentos que atravessam margens
+	private static final double	FATOR_MARGEM = 1.5;
+
+	//Situação de um segmento em relação aos vértices
+	private static final int	LIVRE = 0;
+	private static final int	MARGEM = 1;
+	private static final int	BLOQUEADO = 2;
+
+	//Direções dos movimentos: +X, -X, +Y, -Y e o estado inicial sem direção
+	private static final int	DIRECOES = 5;
+	private static final int	SEM_DIRECAO = 4;
+
+	private static final int	DESLOCAMENTO_X[] = {1, -1, 0, 0};
+	private static final int	DESLOCAMENTO_Y[] = {0, 0, 1, -1};
+
+	private Grafo				grafo;
+
+	private int					margem,
+								penalidadeCurva,
+								limiteExpansoes,
+								paralelismo,
+								numeroArestasSemRota;
+
+	//Dados compartilhados pelas buscas de um roteamento
+	private GrafoCompacto		compacto;
+
+	private int					centroX[],
+								centroY[],
+								esquerda[],
+								direita[],
+								topo[],
+								base[],
+								inicioCelula[],
+								celulas[],
+								quebrasX[][],
+								quebrasY[][],
+								numeroCelulasX,
+								numeroCelulasY,
+								menorX,
+								menorY,
+								maiorX,
+								maiorY;
+
+	private double				tamanhoCelula;
+
+	//Construtor
+
+	/**
+	 * Cria um novo objeto responsável em rotear as arestas do grafo passado
+	 * pelo parâmetro.
+	 *
+	 * @param grafo o grafo cujas arestas serão roteadas
+	 */
+	public RoteamentoOrtogonal(Grafo grafo)
+	{
+		this.grafo = grafo;
+		margem = MARGEM_PADRAO;
+		penalidadeCurva = PENALIDADE_CURVA_PADRAO;
+		limiteExpansoes = LIMITE_EXPANSOES_PADRAO;
+		paralelismo = 1;
+	}
+
+//Métodos Get
+
+	/**
+	 * Retorna o grafo atual do roteamento.
+	 *
+	 * @return o grafo atual da classe
+	 */
+	public Grafo getGrafo()
+	{
+		return grafo;
+	}
+
+	/**
+	 * Retorna a distância mantida entre as rotas e os vértices contornados.
+	 *
+	 * @return a margem em pixels
+	 */
+	public int getMargem()
+	{
+		return margem;
+	}
+
+	/**
+	 * Retorna o custo de cada curva das rotas.
+	 *
+	 * @return a penalidade em pixels de comprimento equivalente
+	 */
+	public int getPenalidadeCurva()
+	{
+		return penalidadeCurva;
+	}
+
+	/**
+	 * Retorna o número máximo de estados visitados pela busca de uma aresta.
+	 *
+	 * @return o limite de expansões
+	 */
+	public int getLimiteExpansoes()
+	{
+		return limiteExpansoes;
+	}
+
+	/**
+	 * Retorna o número de linhas de execução utilizadas no roteamento.
+	 *
+	 * @return o paralelismo do algoritmo
+	 */
+	public int getParalelismo()
+	{
+		return paralelismo;
+	}
+
+	/**
+	 * Retorna o número de arestas, sem contar os laços, que ficaram sem rota
+	 * no último roteamento.
+	 *
+	 * @return o número de arestas desenhadas como segmentos diretos
+	 */
+	public int getNumeroArestasSemRota()
+	{
+		return numeroArestasSemRota;
+	}
+
+//Métodos Set
+
+	/**
+	 * Altera o grafo cujas arestas serão roteadas.
+	 *
+	 * @param grafo o novo grafo
+	 */
+	public void setGrafo(Grafo grafo)
+	{
+		this.grafo = grafo;
+	}
+
+	/**
+	 * Altera a distância mantida entre as rotas e os vértices contornados.
+	 *
+	 * @param margem a nova margem em pixels
+	 */
+	public void setMargem(int margem)
+	{
+		if (margem > 0)
+			this.margem = margem;
+		else
+			this.margem = MARGEM_PADRAO;
+	}
+
+	/**
+	 * Altera o custo de cada curva das rotas. Penalidades maiores produzem
+	 * rotas com menos curvas e mais longas.
+	 *
+	 * @param penalidadeCurva a nova penalidade em pixels de comprimento
+	 */
+	public void setPenalidadeCurva(int penalidadeCurva)
+	{
+		if (penalidadeCurva >= 0)
+			this.penalidadeCurva = penalidadeCurva;
+		else
+			this.penalidadeCurva = PENALIDADE_CURVA_PADRAO;
+	}
+
+	/**
+	 * Altera o número máximo de estados visitados pela busca de uma aresta
+	 * antes que ela seja desenhada como um segmento direto.
+	 *
+	 * @param limiteExpansoes o novo limite de expansões
+	 */
+	public void setLimiteExpansoes(int limiteExpansoes)
+	{
+		if (limiteExpansoes > 0)
+			this.limiteExpansoes = limiteExpansoes;
+		else
+			this.limiteExpansoes = LIMITE_EXPANSOES_PADRAO;
+	}
+
+	/**
+	 * Altera o número de linhas de execução utilizadas no roteamento. As
+	 * rotas não dependem umas das outras, então o resultado é o mesmo para
+	 * qualquer paralelismo.
+	 *
+	 * @param paralelismo o número de linhas de execução, sendo 1 o padrão
+	 */
+	public void setParalelismo(int paralelismo)
+	{
+		if (paralelismo > 0)
+			this.paralelismo = paralelismo;
+		else
+			this.paralelismo = 1;
+	}
+
+// ** Roteamento **
+
+	/**
+	 * Calcula as rotas ortogonais de todas as arestas a partir das coordenadas
+	 * atuais dos vértices, substituindo os pontos de quebra existentes.
+	 */
+	public void rotearArestas()
+	{
+		int 			e, numeroArestas;
+		ForkJoinPool	tarefas;
+		Aresta			aresta;
+
+		numeroArestasSemRota = 0;
+		compacto = grafo.compactar();
+		numeroArestas = compacto.getNumeroArestas();
+		if (numeroArestas == 0)
+			return;
+
+		prepararObstaculos();
+		quebrasX = new int[numeroArestas][];
+		quebrasY = new int[numeroArestas][];
+
+		try{
+			if ((paralelismo > 1) && (numeroArestas > TAMANHO_TAREFA))
+			{
+				tarefas = new ForkJoinPool(paralelismo);
+				try{
+					tarefas.invoke(new TarefaRoteamento(0, numeroArestas));
+				}finally{
+					tarefas.shutdown();
+				}
+			}
+			else
+				rotear(new Busca(), 0, numeroArestas);
+
+			//As arestas somente são alteradas pela linha de execução que chamou o método
+			for (e = 0; e < numeroArestas; e++)
+			{
+				aresta = compacto.getAresta(e);
+				aresta.removerTodasQuebras();
+
+				if (quebrasX[e] == null)
+				{
+					if ((compacto.getOrigem(e) >= 0) && (compacto.getDestino(e) >= 0) && (compacto.getOrigem(e) != compacto.getDestino(e)))
+						numeroArestasSemRota++;
+
+					continue;
+				}
+
+				if (quebrasX[e].length == 0)
+					continue;
+
+				aresta.setNumeroQuebras(quebrasX[e].length);
+				aresta.setTodasQuebrasX(quebrasX[e]);
+				aresta.setTodasQuebrasY(quebrasY[e]);
+			}
+		}finally{
+			liberarVetores();
+		}
+	}
+
+//Métodos privados da classe RoteamentoOrtogonal
+	private void prepararObstaculos()
+	{
+		int 	v, n, cx, cy, proxima[];
+		Vertice	vertice;
+
+		n = compacto.getNumeroVertices();
+		esquerda = new int[n];
+		direita = new int[n];
+		topo = new int[n];
+		base = new int[n];
+		centroX = new int[n];
+		centroY = new int[n];
+
+		menorX = Integer.MAX_VALUE;
+		menorY = Integer.MAX_VALUE;
+		maiorX = Integer.MIN_VALUE;
+		maiorY = Integer.MIN_VALUE;
+		for (v = 0; v < n; v++)
+		{
+			//O centro é calculado como no desenho das arestas
+			vertice = compacto.getVertice(v);
+			centroX[v] = vertice.getX() + vertice.getLargura() / 2;
+			centroY[v] = vertice.getY() + vertice.getAltura() / 2;
+			esquerda[v] = vertice.getX() - margem;
+			direita[v] = vertice.getX() + vertice.getLargura() + margem;
+			topo[v] = vertice.getY() - margem;
+			base[v] = vertice.getY() + vertice.getAltura() + margem;
+
+			menorX = Math.min(menorX, esquerda[v]);
+			menorY = Math.min(menorY, topo[v]);
+			maiorX = Math.max(maiorX, direita[v]);
+			maiorY = Math.max(maiorY, base[v]);
+		}
+
+		//Grade uniforme com aproximadamente uma célula por vértice
+		tamanhoCelula = Math.max(1.0, Math.sqrt((double) (maiorX - menorX) * (maiorY - menorY) / n));
+		numeroCelulasX = (int) ((maiorX - menorX) / tamanhoCelula) + 1;
+		numeroCelulasY = (int) ((maiorY - menorY) / tamanhoCelula) + 1;
+
+		inicioCelula = new int[numeroCelulasX * numeroCelulasY + 1];
+		for (v = 0; v < n; v++)
+			for (cy = celulaY(topo[v]); cy <= celulaY(base[v]); cy++)
+				for (cx = celulaX(esquerda[v]); cx <= celulaX(direita[v]); cx++)
+					inicioCelula[cy * numeroCelulasX + cx + 1]++;
+
+		for (v = 0; v < numeroCelulasX * numeroCelulasY; v++)
+			inicioCelula[v + 1] += inicioCelula[v];
+
+		celulas = new int[inicioCelula[numeroCelulasX * numeroCelulasY]];
+		proxima = Arrays.copyOf(inicioCelula, numeroCelulasX * numeroCelulasY);
+		for (v = 0; v < n; v++)
+			for (cy = celulaY(topo[v]); cy <= celulaY(base[v]); cy++)
+				for (cx = celulaX(esquerda[v]); cx <= celulaX(direita[v]); cx++)
+					celulas[proxima[cy * numeroCelulasX + cx]++] = v;
+	}
+
+	private int celulaX(double x)
+	{
+		return Math.max(0, Math.min(numeroCelulasX - 1, (int) ((x - menorX) / tamanhoCelula)));
+	}
+
+	private int celulaY(double y)
+	{
+		return Math.max(0, Math.min(numeroCelulasY - 1, (int) ((y - menorY) / tamanhoCelula)));
+	}
+
+	private int verificarObstaculos(double x, double y, int origem, int destino)
+	{
+		//Todas as bordas dos obstáculos próximos são linhas percorridas, então
+		//um segmento entre duas linhas vizinhas atravessa um obstáculo somente
+		//se o seu ponto médio estiver no interior dele. Os vértices que cobrem
+		//o centro de um dos extremos não bloqueiam a aresta, senão ela ficaria
+		//sem saída
+		int i, v, celula, resultado;
+
+		resultado = LIVRE;
+		celula = celulaY(y) * numeroCelulasX + celulaX(x);
+		for (i = inicioCelula[celula]; i < inicioCelula[celula + 1]; i++)
+		{
+			v = celulas[i];
+			if ((v == origem) || (v == destino) || !contem(v, x, y, margem))
+				continue;
+
+			if (!contem(v, x, y, 0))
+				resultado = MARGEM;
+			else if (!contem(v, centroX[origem], centroY[origem], 0) && !contem(v, centroX[destino], centroY[destino], 0))
+				return BLOQUEADO;
+		}
+
+		return resultado;
+	}
+
+	private boolean contem(int v, double x, double y, int folga)
+	{
+		return (x > esquerda[v] + margem - folga) && (x < direita[v] - margem + folga) && (y > topo[v] + margem - folga) && (y < base[v] - margem + folga);
+	}
+
+	private void rotear(Busca busca, int inicio, int fim)
+	{
+		int e, origem, destino;
+
+		for (e = inicio; e < fim; e++)
+		{
+			origem = compacto.getOrigem(e);
+			destino = compacto.getDestino(e);
+			if ((origem < 0) || (destino < 0) || (origem == destino))
+				continue;
+
+			if (busca.buscar(origem, destino))
+			{
+				quebrasX[e] = Arrays.copyOf(busca.pontosX, busca.numeroPontos);
+				quebrasY[e] = Arrays.copyOf(busca.pontosY, busca.numeroPontos);
+			}
+		}
+	}
+
+	private void liberarVetores()
+	{
+		compacto = null;
+		centroX = null;
+		centroY = null;
+		esquerda = null;
+		direita = null;
+		topo = null;
+		base = null;
+		inicioCelula = null;
+		celulas = null;
+		quebrasX = null;
+		quebrasY = null;
+	}
+
+	//Estado de uma busca A*, reaproveitado entre as arestas de uma mesma linha
+	//de execução. Os estados visitados são guardados em uma tabela de dispersão,
+	//pois a janela de uma aresta longa pode ter muitos cruzamentos de linhas
+	private class Busca
+	{
+		long 	chaves[],
+				estados[];
+
+		int 	linhasX[],
+				linhasY[],
+				marcas[],
+				posicoes[],
+				usados[],
+				pais[],
+				heap[],
+				pontosX[],
+				pontosY[],
+				numeroLinhasX,
+				numeroLinhasY,
+				marcaAtual,
+				numeroUsados,
+				numeroEstados,
+				tamanhoHeap,
+				numeroPontos;
+
+		double	custos[],
+				prioridades[];
+
+		boolean	descartados[];
+
+		Busca()
+		{
+			linhasX = new int[64];
+			linhasY = new int[64];
+			marcas = new int[centroX.length];
+			chaves = new long[1024];
+			posicoes = new int[1024];
+			Arrays.fill(posicoes, -1);
+			usados = new int[512];
+			estados = new long[512];
+			pais = new int[512];
+			custos = new double[512];
+			descartados = new boolean[512];
+			heap = new int[512];
+			prioridades = new double[512];
+			pontosX = new int[Aresta.NUMEROMAXIMOQUEBRAS];
+			pontosY = new int[Aresta.NUMEROMAXIMOQUEBRAS];
+		}
+
+		boolean buscar(int origem, int destino)
+		{
+			//Procura a rota em janelas cada vez maiores até encontrá-la ou até
+			//que a janela cubra todo o desenho
+			int 	resultado;
+			double	folga;
+			boolean	desenhoCoberto;
+
+			folga = FOLGA_INICIAL * tamanhoCelula + margem;
+			do
+			{
+				desenhoCoberto = montarLinhas(origem, destino, folga);
+				resultado = procurar(origem, destino);
+				folga *= AMPLIACAO_FOLGA;
+			}
+			while ((resultado < 0) && !desenhoCoberto);
+
+			return resultado > 0;
+		}
+
+		private boolean montarLinhas(int origem, int destino, double folga)
+		{
+			//As linhas da janela são as suas bordas, os centros dos extremos e
+			//as bordas dos obstáculos que a interceptam; as quebras das arestas
+			//não admitem coordenadas menores que 1
+			int i, v, cx, cy, esquerdaJanela, direitaJanela, topoJanela, baseJanela;
+
+			esquerdaJanela = (int) Math.floor(Math.min(centroX[origem], centroX[destino]) - folga);
+			direitaJanela = (int) Math.ceil(Math.max(centroX[origem], centroX[destino]) + folga);
+			topoJanela = (int) Math.floor(Math.min(centroY[origem], centroY[destino]) - folga);
+			baseJanela = (int) Math.ceil(Math.max(centroY[origem], centroY[destino]) + folga);
+
+			numeroLinhasX = 0;
+			numeroLinhasY = 0;
+			adicionarLinhaX(Math.max(1, esquerdaJanela));
+			adicionarLinhaX(direitaJanela);
+			adicionarLinhaX(centroX[origem]);
+			adicionarLinhaX(centroX[destino]);
+			adicionarLinhaY(Math.max(1, topoJanela));
+			adicionarLinhaY(baseJanela);
+			adicionarLinhaY(centroY[origem]);
+			adicionarLinhaY(centroY[destino]);
+
+			marcaAtual++;
+			for (cy = celulaY(topoJanela); cy <= celulaY(baseJanela); cy++)
+			{
+				for (cx = celulaX(esquerdaJanela); cx <= celulaX(direitaJanela); cx++)
+				{
+					for (i = inicioCelula[cy * numeroCelulasX + cx]; i < inicioCelula[cy * numeroCelulasX + cx + 1]; i++)
+					{
+						v = celulas[i];
+						if (marcas[v] == marcaAtual)
+							continue;
+
+						marcas[v] = marcaAtual;
+						if ((esquerda[v] > esquerdaJanela) && (esquerda[v] < direitaJanela))
+							adicionarLinhaX(Math.max(1, esquerda[v]));
+
+						if ((direita[v] > esquerdaJanela) && (direita[v] < direitaJanela))
+							adicionarLinhaX(direita[v]);
+
+						if ((topo[v] > topoJanela) && (topo[v] < baseJanela))
+							adicionarLinhaY(Math.max(1, topo[v]));
+
+						if ((base[v] > topoJanela) && (base[v] < baseJanela))
+							adicionarLinhaY(base[v]);
+					}
+				}
+			}
+
+			numeroLinhasX = removerRepetidos(linhasX, numeroLinhasX);
+			numeroLinhasY = removerRepetidos(linhasY, numeroLinhasY);
+
+			return (esquerdaJanela <= menorX) && (direitaJanela >= maiorX) && (topoJanela <= menorY) && (baseJanela >= maiorY);
+		}
+
+		private void adicionarLinhaX(int linha)
+		{
+			linhasX = adicionar(linhasX, numeroLinhasX++, linha);
+		}
+
+		private void adicionarLinhaY(int linha)
+		{
+			linhasY = adicionar(linhasY, numeroLinhasY++, linha);
+		}
+
+		private int removerRepetidos(int valores[], int numero)
+		{
+			int i, k;
+
+			Arrays.sort(valores, 0, numero);
+			k = 0;
+			for (i = 0; i < numero; i++)
+				if ((k == 0) || (valores[i] != valores[k - 1]))
+					valores[k++] = valores[i];
+
+			return k;
+		}
+
+		private int procurar(int origem, int destino)
+		{
+			//Retorna 1 quando a rota foi encontrada, 0 quando foi abandonada
+			//pelo limite de expansões ou pelo número de quebras e -1 quando a
+			//janela não possui caminho entre os extremos
+			int 	i, d, nd, x, y, nx, ny, atual, alvoX, alvoY, expansoes, obstaculo;
+			long	estado;
+			double	custo, comprimento;
+
+			limpar();
+			alvoX = Arrays.binarySearch(linhasX, 0, numeroLinhasX, centroX[destino]);
+			alvoY = Arrays.binarySearch(linhasY, 0, numeroLinhasY, centroY[destino]);
+			x = Arrays.binarySearch(linhasX, 0, numeroLinhasX, centroX[origem]);
+			y = Arrays.binarySearch(linhasY, 0, numeroLinhasY, centroY[origem]);
+			inserir(codificar(x, y, SEM_DIRECAO), -1, 0.0, PESO_HEURISTICA * heuristica(x, y, alvoX, alvoY));
+
+			expansoes = 0;
+			while (true)
+			{
+				if (tamanhoHeap == 0)
+					return -1;
+
+				if (expansoes == limiteExpansoes)
+					return 0;
+
+				atual = remover();
+				if (atual < 0)
+					continue;
+
+				estado = estados[atual];
+				d = (int) (estado % DIRECOES);
+				x = (int) ((estado / DIRECOES) % numeroLinhasX);
+				y = (int) ((estado / DIRECOES) / numeroLinhasX);
+				if ((x == alvoX) && (y == alvoY))
+					break;
+
+				expansoes++;
+				for (nd = 0; nd < 4; nd++)
+				{
+					//Voltar pelo mesmo segmento nunca encurta a rota
+					if ((d != SEM_DIRECAO) && (nd == (d ^ 1)))
+						continue;
+
+					nx = x + DESLOCAMENTO_X[nd];
+					ny = y + DESLOCAMENTO_Y[nd];
+					if ((nx < 0) || (ny < 0) || (nx >= numeroLinhasX) || (ny >= numeroLinhasY))
+						continue;
+
+					obstaculo = verificarObstaculos((linhasX[x] + linhasX[nx]) / 2.0, (linhasY[y] + linhasY[ny]) / 2.0, origem, destino);
+					if (obstaculo == BLOQUEADO)
+						continue;
+
+					comprimento = Math.abs(linhasX[nx] - linhasX[x]) + Math.abs(linhasY[ny] - linhasY[y]);
+					if (obstaculo == MARGEM)
+						comprimento *= FATOR_MARGEM;
+
+					custo = custos[atual] + comprimento;
+					if ((d != SEM_DIRECAO) && (nd != d))
+						custo += penalidadeCurva;
+
+					inserir(codificar(nx, ny, nd), atual, custo, custo + PESO_HEURISTICA * heuristica(nx, ny, alvoX, alvoY));
+				}
+			}
+
+			//Os cantos são os estados cuja direção difere da do estado seguinte
+			numeroPontos = 0;
+			for (i = atual; pais[i] >= 0; i = pais[i])
+			{
+				if ((estados[pais[i]] % DIRECOES != SEM_DIRECAO) && (estados[pais[i]] % DIRECOES != estados[i] % DIRECOES))
+				{
+					if (numeroPontos == Aresta.NUMEROMAXIMOQUEBRAS - 1)
+						return 0;
+
+					estado = estados[pais[i]] / DIRECOES;
+					pontosX[numeroPontos] = linhasX[(int) (estado % numeroLinhasX)];
+					pontosY[numeroPontos] = linhasY[(int) (estado / numeroLinhasX)];
+					numeroPontos++;
+				}
+			}
+
+			//Os cantos foram encontrados do destino para a origem
+			for (i = 0; i < numeroPontos / 2; i++)
+			{
+				nx = pontosX[i];
+				pontosX[i] = pontosX[numeroPontos - 1 - i];
+				pontosX[numeroPontos - 1 - i] = nx;
+				ny = pontosY[i];
+				pontosY[i] = pontosY[numeroPontos - 1 - i];
+				pontosY[numeroPontos - 1 - i] = ny;
+			}
+
+			return 1;
+		}
+
+		private long codificar(int x, int y, int direcao)
+		{
+			return ((long) y * numeroLinhasX + x) * DIRECOES + direcao;
+		}
+
+		private double heuristica(int x, int y, int alvoX, int alvoY)
+		{
+			//Fora das linhas do alvo ainda resta ao menos uma curva
+			double distancia;
+
+			distancia = Math.abs(linhasX[alvoX] - linhasX[x]) + Math.abs(linhasY[alvoY] - linhasY[y]);
+			if ((x != alvoX) && (y != alvoY))
+				distancia += penalidadeCurva;
+
+			return distancia;
+		}
+
+		private void inserir(long estado, int pai, double custo, double prioridade)
+		{
+			int i;
+
+			i = localizar(estado);
+			if (posicoes[i] >= 0)
+			{
+				if (custos[posicoes[i]] <= custo)
+					return;
+
+				//Um caminho mais barato cria uma nova entrada; a antiga é
+				//ignorada ao ser retirada do heap
+				descartados[posicoes[i]] = true;
+			}
+
+			if (numeroEstados == estados.length)
+			{
+				estados = Arrays.copyOf(estados, estados.length * 2);
+				pais = Arrays.copyOf(pais, pais.length * 2);
+				custos = Arrays.copyOf(custos, custos.length * 2);
+				descartados = Arrays.copyOf(descartados, descartados.length * 2);
+			}
+
+			if (posicoes[i] < 0)
+				usados = adicionar(usados, numeroUsados++, i);
+
+			posicoes[i] = numeroEstados;
+			estados[numeroEstados] = estado;
+			pais[numeroEstados] = pai;
+			custos[numeroEstados] = custo;
+			descartados[numeroEstados] = false;
+			empilhar(numeroEstados++, prioridade);
+
+			if (numeroUsados * 2 > chaves.length)
+				redimensionar();
+		}
+
+		private int localizar(long estado)
+		{
+			int i;
+
+			i = (int) ((estado * 0x9E3779B97F4A7C15L) >>> 32) & (chaves.length - 1);
+			while ((posicoes[i] >= 0) && (chaves[i] != estado))
+				i = (i + 1) & (chaves.length - 1);
+
+			chaves[i] = estado;
+			return i;
+		}
+
+		private void redimensionar()
+		{
+			int i, k;
+
+			chaves = new long[chaves.length * 2];
+			posicoes = new int[chaves.length];
+			Arrays.fill(posicoes, -1);
+			numeroUsados = 0;
+			for (k = 0; k < numeroEstados; k++)
+			{
+				//Somente a entrada mais recente de cada estado é mantida
+				if (descartados[k])
+					continue;
+
+				i = localizar(estados[k]);
+				posicoes[i] = k;
+				usados = adicionar(usados, numeroUsados++, i);
+			}
+		}
+
+		private int[] adicionar(int vetor[], int indice, int valor)
+		{
+			if (indice == vetor.length)
+				vetor = Arrays.copyOf(vetor, vetor.length * 2);
+
+			vetor[indice] = valor;
+			return vetor;
+		}
+
+		private void limpar()
+		{
+			int i;
+
+			for (i = 0; i < numeroUsados; i++)
+				posicoes[usados[i]] = -1;
+
+			numeroUsados = 0;
+			numeroEstados = 0;
+			tamanhoHeap = 0;
+		}
+
+		private void empilhar(int indice, double prioridade)
+		{
+			int i, pai;
+
+			if (tamanhoHeap == heap.length)
+			{
+				heap = Arrays.copyOf(heap, heap.length * 2);
+				prioridades = Arrays.copyOf(prioridades, prioridades.length * 2);
+			}
+
+			i = tamanhoHeap++;
+			while (i > 0)
+			{
+				pai = (i - 1) >> 1;
+				if (!precede(prioridade, indice, prioridades[pai], heap[pai]))
+					break;
+
+				heap[i] = heap[pai];
+				prioridades[i] = prioridades[pai];
+				i = pai;
+			}
+
+			heap[i] = indice;
+			prioridades[i] = prioridade;
+		}
+
+		private int remover()
+		{
+			//Retorna -1 quando a entrada retirada foi substituída por outra
+			int 	i, filho, topo, ultimo;
+			double	prioridade;
+
+			topo = heap[0];
+			ultimo = heap[--tamanhoHeap];
+			prioridade = prioridades[tamanhoHeap];
+			i = 0;
+			while ((filho = 2 * i + 1) < tamanhoHeap)
+			{
+				if ((filho + 1 < tamanhoHeap) && precede(prioridades[filho + 1], heap[filho + 1], prioridades[filho], heap[filho]))
+					filho++;
+
+				if (!precede(prioridades[filho], heap[filho], prioridade, ultimo))
+					break;
+
+				heap[i] = heap[filho];
+				prioridades[i] = prioridades[filho];
+				i = filho;
+			}
+
+			heap[i] = ultimo;
+			prioridades[i] = prioridade;
+
+			return descartados[topo] ? -1 : topo;
+		}
+
+		private boolean precede(double prioridade, int indice, double outraPrioridade, int outroIndice)
+		{
+			//Nos empates o estado mais caro, mais próximo do alvo, vem primeiro
+			if (prioridade != outraPrioridade)
+				return prioridade < outraPrioridade;
+
+			return custos[indice] > custos[outroIndice];
+		}
+	}
+
+//Tarefa executada em paralelo pelo ForkJoinPool
+	private class TarefaRoteamento extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private int inicio, fim;
+
+		TarefaRoteamento(int inicio, int fim)
+		{
+			this.inicio = inicio;
+			this.fim = fim;
+		}
+
+		protected void compute()
+		{
+			int meio;
+
+			if (fim - inicio <= TAMANHO_TAREFA)
+				rotear(new Busca(), inicio, fim);
+			else
+			{
+				meio = (inicio + fim) >>> 1;
+				invokeAll(new TarefaRoteamento(inicio, meio), new TarefaRoteamento(meio, fim));
+			}
+		}
+	}
+}
@@ -1,6 +1,15 @@
 package diagram.graphdrawing;
 
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
 import diagram.Grafo;
+import diagram.GrafoCompacto;
 
 import diagram.componente.Aresta;
 import diagram.componente.Vertice;
@@ -17,7 +26,37 @@ import diagram.componente.Vertice;
  *
  * Um exemplo de como utilizar o algoritmo dentro do GEDE é mostrado abaixo. Observe a 
  * necessidade da chamada explícita ao método desenharGrafo para que o algoritmo de
- * Spring Model inicialize a sua execução.<br>
+ * Spring Model inicialize a sua execução. Cada componente conexa do grafo é 
+ * desenhada de forma independente, com a sua própria matriz de distâncias, e
+ * as componentes são empacotadas em prateleiras ao final.<br>
+ * <br>
+ * Após pequenas alterações no grafo, o método desenharGrafoIncremental desloca 
+ * somente os vértices próximos aos vértices e arestas inseridos ou removidos 
+ * desde o último desenho, mantendo os demais vértices e os pontos de quebra das
+ * suas arestas nas posições atuais.<br>
+ * <br>
+ * Os vértices marcados com Vertice.setFixo mantêm as suas coordenadas em 
+ * ambos os modos e continuam exercendo forças sobre os demais. O trabalho do 
+ * algoritmo é proporcional ao número de vértices livres, pois somente as suas
+ * linhas da matriz de distâncias são calculadas. As componentes conexas com 
+ * vértices fixos não são deslocadas pelo empacotamento.<br>
+ * <br>
+ * O desenho pode ser limitado por um tempo máximo ou por um número máximo de
+ * iterações e interrompido a qualquer momento pelo método cancelar. Em todos 
+ * os casos as melhores posições obtidas até a interrupção são atribuídas aos
+ * vértices. Um OuvinteDesenho recebe a energia e o maior deltaM a cada 
+ * iteração, permitindo executar o desenho fora da linha de execução da 
+ * interface e mostrar as posições parciais.<br>
+ * <br>
+ * As posições de partida podem ser as coordenadas atuais dos vértices ou ser
+ * calculadas em tempo quase linear por camadas de um percurso em largura, por
+ * uma grade ou pelo desenho espectral. Os sorteios utilizam a semente 
+ * informada pelo método setSemente, então o mesmo grafo sempre produz o mesmo
+ * desenho.<br>
+ * <br>
+ * Através do método setRotearArestas as arestas recebem, ao final do desenho,
+ * rotas ortogonais que contornam os vértices, calculadas pelo 
+ * RoteamentoOrtogonal.<br>
  * <br>
  *&nbsp;import diagram.graphdrawing.*;<br>
  *&nbsp;import diagram.*;<br>
@@ -64,7 +103,7 @@ import diagram.componente.Vertice;
  * @author Luis Henrique Castilho da Silva
  * @see Grafo
  */
-public class SpringModel
+public class SpringModel implements AlgoritmoDesenho
 {
 	/**
 	 * Tamanho padrão na qual a aresta ficará após o desenho automático.
@@ -91,25 +130,103 @@ public class SpringModel
 	 */
 	public static final double	TOLERANCIA_ERRO_PADRAO = 1.0;
 	
+	/**
+	 * O número padrão de arestas a partir de uma alteração que delimita os 
+	 * vértices deslocados pelo desenho incremental.
+	 */
+	public static final int		RAIO_VIZINHANCA_PADRAO = 2;
+	
+	/**
+	 * O tempo máximo padrão, em milissegundos, do desenho. O valor 0 indica que
+	 * o desenho não possui limite de tempo.
+	 */
+	public static final long	TEMPO_MAXIMO_PADRAO = 0;
+	
+	/**
+	 * O número máximo padrão de iterações do desenho. O valor 0 indica que 
+	 * somente os limites internos do algoritmo são utilizados.
+	 */
+	public static final int		NUMERO_MAXIMO_ITERACOES_PADRAO = 0;
+	
+	/**
+	 * O desenho parte das coordenadas atuais dos vértices. Os vértices com a 
+	 * mesma coordenada X ou Y de outro vértice recebem uma coordenada sorteada.
+	 */
+	public static final int		POSICAO_ATUAL = 0;
+	
+	/**
+	 * O desenho parte das camadas de um percurso em largura iniciado em um 
+	 * vértice periférico de cada componente conexa.
+	 */
+	public static final int		POSICAO_CAMADAS = 1;
+	
+	/**
+	 * O desenho parte de uma grade quadrada preenchida na ordem de um percurso
+	 * em largura.
+	 */
+	public static final int		POSICAO_GRADE = 2;
+	
+	/**
+	 * O desenho parte do desenho espectral de cada componente conexa.
+	 */
+	public static final int		POSICAO_ESPECTRAL = 3;
+	
+	/**
+	 * A semente padrão dos sorteios feitos pelo algoritmo.
+	 */
+	public static final long	SEMENTE_PADRAO = 0;
+	
 	private static int			CONTADOR = 50;
 	
+	//Fração dos vértices acima da qual o desenho incremental refaz o desenho completo
+	private static final double	FRACAO_MAXIMA_VIZINHANCA = 0.5;
+	
+	//Número de vértices somados em sequência antes de combinar as somas parciais
+	private static final int	TAMANHO_BLOCO = 1024;
+	
+	//Número mínimo de vértices processados por uma tarefa paralela
+	private static final int	TAMANHO_TAREFA = 64;
+	
 	private Grafo				grafo;
 	
 	private int					tamanhoAresta,
-								distEntreComponentesConexas;	
+								distEntreComponentesConexas,
+								paralelismo,
+								raioVizinhanca,
+								numeroMaximoIteracoes,
+								posicaoInicial;	
+	
+	private long				semente;
 	
 	private double				forcaMola,
 								energiaMinima;
 	
-	//Variáveis internas fixas do algoritmo
-	private int					dij[][],
-								coordenadaX[],
+	private boolean				deltaMIncremental,
+								rotearArestas;
+	
+	private OuvinteDesenho		ouvinte;
+	
+	//Tempo máximo e cancelamento, consultados entre as iterações
+	private LimiteExecucao		limite;
+	
+	//As coordenadas são mantidas em ponto flutuante durante o algoritmo e 
+	//arredondadas somente ao serem atribuídas aos vértices
+	private double				coordenadaX[],
 								coordenadaY[];
 	
-	private double				lij[][],
-								kij[][],
-								restoX[],
-								restoY[]; 
+	private GrafoCompacto		compacto;
+	
+	//Posição de cada vértice dentro da sua componente conexa
+	private int					indiceLocal[];
+	
+	private ForkJoinPool		tarefas;
+	
+	//Fotografia do grafo no último desenho, comparada pelo desenho incremental
+	private GrafoCompacto		fotografiaAnterior;
+	
+	//Número de vértices livres de todas as componentes, que dividem entre si 
+	//o número máximo de iterações
+	private int					totalLivres;
 
 	//Construtor
 	
@@ -126,6 +243,15 @@ public class SpringModel
 		forcaMola = FORCA_MOLA_PADRAO;
 		energiaMinima = TOLERANCIA_ERRO_PADRAO;
 		distEntreComponentesConexas = DIST_COMPONENTE_CONEXA_PADRAO;
+		deltaMIncremental = false;
+		rotearArestas = false;
+		paralelismo = 1;
+		raioVizinhanca = RAIO_VIZINHANCA_PADRAO;
+		numeroMaximoIteracoes = NUMERO_MAXIMO_ITERACOES_PADRAO;
+		posicaoInicial = POSICAO_ATUAL;
+		semente = SEMENTE_PADRAO;
+		limite = new LimiteExecucao();
+		limite.setTempoMaximo(TEMPO_MAXIMO_PADRAO);
 	}
 
 //Métodos Get
@@ -183,6 +309,141 @@ public class SpringModel
 		return distEntreComponentesConexas;
 	}
 	
+	/**
+	 * Retorna se o deltaM dos vértices é atualizado de forma incremental após
+	 * o deslocamento de cada vértice.
+	 *
+	 * @return verdadeiro caso o modo incremental esteja ativo
+	 * @see SpringModel#setDeltaMIncremental
+	 */
+	public boolean getDeltaMIncremental()
+	{
+		return deltaMIncremental;
+	}
+	
+	/**
+	 * Retorna se as arestas recebem rotas ortogonais ao final do desenho.
+	 *
+	 * @return verdadeiro caso as arestas sejam roteadas
+	 * @see SpringModel#setRotearArestas
+	 */
+	public boolean getRotearArestas()
+	{
+		return rotearArestas;
+	}
+	
+	/**
+	 * Retorna o número de linhas de execução utilizadas pelo algoritmo.
+	 *
+	 * @return o paralelismo do algoritmo
+	 * @see SpringModel#setParalelismo
+	 */
+	public int getParalelismo()
+	{
+		return paralelismo;
+	}
+	
+	/**
+	 * Retorna o número de arestas a partir de uma alteração que delimita os
+	 * vértices deslocados pelo desenho incremental.
+	 *
+	 * @return o raio da vizinhança
+	 * @see SpringModel#desenharGrafoIncremental
+	 */
+	public int getRaioVizinhanca()
+	{
+		return raioVizinhanca;
+	}
+	
+	/**
+	 * Retorna o tempo máximo, em milissegundos, do desenho.
+	 *
+	 * @return o tempo máximo, sendo 0 quando não existe limite
+	 * @see SpringModel#setTempoMaximo
+	 */
+	public long getTempoMaximo()
+	{
+		return limite.getTempoMaximo();
+	}
+	
+	/**
+	 * Retorna o número máximo de iterações do desenho.
+	 *
+	 * @return o número máximo de iterações, sendo 0 quando não existe limite
+	 * @see SpringModel#setNumeroMaximoIteracoes
+	 */
+	public int getNumeroMaximoIteracoes()
+	{
+		return numeroMaximoIteracoes;
+	}
+	
+	/**
+	 * Retorna a estratégia utilizada para as posições de partida do desenho.
+	 *
+	 * @return uma das constantes POSICAO_*
+	 * @see SpringModel#setPosicaoInicial
+	 */
+	public int getPosicaoInicial()
+	{
+		return posicaoInicial;
+	}
+	
+	/**
+	 * Retorna a semente dos sorteios feitos pelo algoritmo.
+	 *
+	 * @return a semente atual
+	 */
+	public long getSemente()
+	{
+		return semente;
+	}
+	
+	/**
+	 * Retorna o objeto que recebe o progresso do desenho.
+	 *
+	 * @return o ouvinte atual ou null caso não exista
+	 */
+	public OuvinteDesenho getOuvinte()
+	{
+		return ouvinte;
+	}
+	
+	/**
+	 * Informa se o último desenho foi interrompido pelo tempo máximo, pelo 
+	 * número máximo de iterações ou pelo método cancelar antes de atingir a
+	 * energia mínima.
+	 *
+	 * @return verdadeiro caso o último desenho tenha sido interrompido
+	 */
+	public boolean getInterrompido()
+	{
+		return limite.getInterrompido();
+	}
+	
+	/**
+	 * Informa se os vértices marcados com Vertice.setFixo mantêm as suas
+	 * coordenadas durante o desenho, o que sempre ocorre no SpringModel.
+	 *
+	 * @return verdadeiro
+	 */
+	public boolean getRespeitaVerticesFixos()
+	{
+		return true;
+	}
+
+	/**
+	 * Retorna o texto que identifica os parâmetros deste algoritmo que
+	 * alteram o desenho, utilizado pela classe CacheDesenho.
+	 *
+	 * @return a configuração atual do algoritmo
+	 */
+	public String getConfiguracao()
+	{
+		return "forcaMola=" + forcaMola + ";energiaMinima=" + energiaMinima + ";distEntreComponentesConexas=" + distEntreComponentesConexas
+			+ ";deltaMIncremental=" + deltaMIncremental + ";rotearArestas=" + rotearArestas + ";raioVizinhanca=" + raioVizinhanca
+			+ ";numeroMaximoIteracoes=" + numeroMaximoIteracoes + ";posicaoInicial=" + posicaoInicial;
+	}
+	
 //Métodos Set das variáveis
 
 	/**
@@ -193,6 +454,7 @@ public class SpringModel
 	public void setGrafo(Grafo grafo)
 	{
 		this.grafo = grafo;
+		fotografiaAnterior = null;
 	}
 	
 	/**
@@ -251,11 +513,155 @@ public class SpringModel
 			this.distEntreComponentesConexas = DIST_COMPONENTE_CONEXA_PADRAO;	
 	}
 	
+	/**
+	 * Altera a forma como o deltaM dos vértices é recalculado após o método de
+	 * Newton Raphson deslocar um vértice. No modo incremental as resultantes
+	 * de todos os vértices são mantidas em memória e somente a parcela 
+	 * referente ao vértice deslocado é substituída, o que reduz o custo de cada
+	 * iteração de O(V²) para O(V). Quando o maior deltaM atinge a energia 
+	 * mínima, as resultantes são recalculadas por completo para descartar o 
+	 * erro acumulado antes de encerrar o algoritmo. O resultado pode diferir
+	 * ligeiramente do modo padrão devido aos arredondamentos.
+	 *
+	 * @param deltaMIncremental verdadeiro para ativar o modo incremental
+	 */
+	public void setDeltaMIncremental(boolean deltaMIncremental)
+	{
+		this.deltaMIncremental = deltaMIncremental;
+	}
+	
+	/**
+	 * Altera se as arestas recebem rotas ortogonais, que contornam os 
+	 * vértices, ao final de cada desenho completo ou incremental. As rotas são
+	 * gravadas como os pontos de quebra das arestas pelo RoteamentoOrtogonal,
+	 * com o mesmo paralelismo do desenho; caso contrário as arestas ficam sem
+	 * pontos de quebra.
+	 *
+	 * @param rotearArestas verdadeiro para rotear as arestas
+	 * @see RoteamentoOrtogonal
+	 */
+	public void setRotearArestas(boolean rotearArestas)
+	{
+		this.rotearArestas = rotearArestas;
+	}
+	
+	/**
+	 * Altera o número de linhas de execução utilizadas pelo algoritmo. Quando
+	 * o paralelismo é maior que 1, as componentes conexas são desenhadas ao 
+	 * mesmo tempo e, dentro de cada componente, o cálculo do deltaM de todos 
+	 * os vértices e as somas das forças sobre o vértice deslocado são 
+	 * divididos entre as linhas de execução de um ForkJoinPool. Os percursos
+	 * em largura das distâncias utilizam as mesmas linhas somente quando 
+	 * existe uma única componente, nunca ultrapassando o paralelismo. As somas são 
+	 * sempre feitas em blocos de vértices de tamanho fixo e combinadas na mesma
+	 * ordem, então o desenho final é o mesmo para qualquer paralelismo.
+	 *
+	 * @param paralelismo o número de linhas de execução, sendo 1 o padrão
+	 */
+	public void setParalelismo(int paralelismo)
+	{
+		if (paralelismo > 0)
+			this.paralelismo = paralelismo;
+		else
+			this.paralelismo = 1;
+	}
+	
+	/**
+	 * Altera o número de arestas a partir de uma alteração que delimita os
+	 * vértices deslocados pelo desenho incremental. Com raio 0 somente os 
+	 * vértices inseridos e os extremos das arestas inseridas ou removidas são 
+	 * deslocados.
+	 *
+	 * @param raioVizinhanca o novo raio da vizinhança
+	 * @see SpringModel#desenharGrafoIncremental
+	 */
+	public void setRaioVizinhanca(int raioVizinhanca)
+	{
+		if (raioVizinhanca >= 0)
+			this.raioVizinhanca = raioVizinhanca;
+		else
+			this.raioVizinhanca = RAIO_VIZINHANCA_PADRAO;
+	}
+	
+	/**
+	 * Altera o tempo máximo, em milissegundos, dos métodos desenharGrafo e 
+	 * desenharGrafoIncremental. Ao final do tempo as iterações são 
+	 * interrompidas e as posições obtidas até o momento são atribuídas aos 
+	 * vértices. O cálculo das distâncias de uma componente conexa já iniciado
+	 * não é interrompido.
+	 *
+	 * @param tempoMaximo o novo tempo máximo, sendo 0 para não limitar o tempo
+	 */
+	public void setTempoMaximo(long tempoMaximo)
+	{
+		if (tempoMaximo >= 0)
+			limite.setTempoMaximo(tempoMaximo);
+		else
+			limite.setTempoMaximo(TEMPO_MAXIMO_PADRAO);
+	}
+	
+	/**
+	 * Altera o número máximo de deslocamentos de vértices feitos pelo método
+	 * de Newton Raphson em cada desenho. O número é dividido entre as 
+	 * componentes conexas proporcionalmente ao número de vértices livres de 
+	 * cada uma.
+	 *
+	 * @param numeroMaximoIteracoes o novo número máximo de iterações, sendo 0
+	 * para utilizar somente os limites internos do algoritmo
+	 */
+	public void setNumeroMaximoIteracoes(int numeroMaximoIteracoes)
+	{
+		if (numeroMaximoIteracoes >= 0)
+			this.numeroMaximoIteracoes = numeroMaximoIteracoes;
+		else
+			this.numeroMaximoIteracoes = NUMERO_MAXIMO_ITERACOES_PADRAO;
+	}
+	
+	/**
+	 * Altera a estratégia utilizada pelo método desenharGrafo para as posições
+	 * de partida dos vértices. As componentes conexas com vértices fixos e o 
+	 * desenho incremental sempre partem das coordenadas atuais.
+	 *
+	 * @param posicaoInicial POSICAO_ATUAL, POSICAO_CAMADAS, POSICAO_GRADE ou
+	 * POSICAO_ESPECTRAL
+	 */
+	public void setPosicaoInicial(int posicaoInicial)
+	{
+		if ((posicaoInicial >= POSICAO_ATUAL) && (posicaoInicial <= POSICAO_ESPECTRAL))
+			this.posicaoInicial = posicaoInicial;
+		else
+			this.posicaoInicial = POSICAO_ATUAL;
+	}
+	
+	/**
+	 * Altera a semente dos sorteios feitos pelo algoritmo, utilizados pelas 
+	 * posições de partida, pela separação dos vértices com coordenadas iguais
+	 * e pelo método setCoordenadaAleatoria.
+	 *
+	 * @param semente a nova semente
+	 */
+	public void setSemente(long semente)
+	{
+		this.semente = semente;
+	}
+	
+	/**
+	 * Altera o objeto que recebe o progresso do desenho a cada iteração. A 
+	 * energia de cada componente só é calculada quando existe um ouvinte.
+	 *
+	 * @param ouvinte o novo ouvinte ou null para removê-lo
+	 */
+	public void setOuvinte(OuvinteDesenho ouvinte)
+	{
+		this.ouvinte = ouvinte;
+	}
+	
 //Métodos Set...
 
 	/**
 	 * Altera as coordenadas dos vértice do grafo a ser desenhado. As novas 
-	 * coordenadas são modificadas com valores aleatórios.
+	 * coordenadas são modificadas com valores sorteados a partir da semente,
+	 * mantendo os vértices fixos nas suas posições.
 	 */
 	public void setCoordenadaAleatoria()
 	{
@@ -267,19 +673,23 @@ public class SpringModel
 					maxValueX,
 					maxValueY;
 		Vertice		verticeTemp;
+		Random		sorteio;
 		
 		maxValueX = (grafo.getNumeroTotalVertices() * Vertice.LARGURAMAXIMA) / 2;
 		maxValueY = (grafo.getNumeroTotalVertices() * Vertice.ALTURAMAXIMA) / 2;
 		minX = maxValueX;
 		minY = maxValueY;
+		sorteio = new Random(semente);
 		
 		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
 		{
 			verticeTemp = grafo.getVertice(i);
+			if (verticeTemp.getFixo())
+				continue;
 			
 			//Gera os números aleatórios
-			posX = 1 + (int) (Math.random() * maxValueX);
-			posY = 1 + (int) (Math.random() * maxValueY);
+			posX = 1 + sorteio.nextInt(maxValueX);
+			posY = 1 + sorteio.nextInt(maxValueY);
 			
 			//Altero as posições do vértice
 			verticeTemp.setX(posX);
@@ -298,6 +708,8 @@ public class SpringModel
 		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
 		{
 			verticeTemp = grafo.getVertice(i);
+			if (verticeTemp.getFixo())
+				continue;
 			
 			verticeTemp.setX(verticeTemp.getX() - minX);
 			verticeTemp.setY(verticeTemp.getY() - minY);
@@ -306,6 +718,44 @@ public class SpringModel
 	
 // ** Algoritmo de Kamada e Kawai **
 
+	/**
+	 * Interrompe o desenho em execução por outra linha de execução. As 
+	 * posições obtidas até o momento são atribuídas aos vértices normalmente
+	 * e o método getInterrompido passa a retornar verdadeiro. Quando chamado
+	 * antes do início do desenho, o próximo desenho é interrompido logo no
+	 * começo.
+	 */
+	public void cancelar()
+	{
+		limite.cancelar();
+	}
+	
+	/**
+	 * Copia as coordenadas atuais dos vértices durante o desenho, na ordem dos
+	 * vértices do grafo. Pode ser chamado por um OuvinteDesenho ou por outra 
+	 * linha de execução para mostrar as posições parciais, que ainda não foram
+	 * transladadas pelo empacotamento das componentes conexas.
+	 *
+	 * @param x o vetor que recebe as coordenadas X arredondadas
+	 * @param y o vetor que recebe as coordenadas Y arredondadas
+	 */
+	public void copiarCoordenadas(int x[], int y[])
+	{
+		int 	i;
+		double	atualX[], atualY[];
+		
+		atualX = coordenadaX;
+		atualY = coordenadaY;
+		if ((atualX == null) || (atualY == null))
+			return;
+		
+		for (i = 0; (i < atualX.length) && (i < x.length) && (i < y.length); i++)
+		{
+			x[i] = (int) Math.round(atualX[i]);
+			y[i] = (int) Math.round(atualY[i]);
+		}
+	}
+
 	/**
 	 * Executa o algoritmo de Spring Model alterando as coordenadas dos vértices.
 	 * É importante dizer que este algoritmo simplesmente troca estas coordendas 
@@ -313,589 +763,1216 @@ public class SpringModel
 	 */
 	public void desenharGrafo()
 	{
-		int 	i,
-				localMaiorDeltaM,
-				adicaoX, adicaoY, 
-				menorCoordenadaX, menorCoordenadaY,
-				contador, contadorExterno;
-		double	deltaM[], 
-				maiorDeltaM;
+		int 				i;
+		boolean				livre[];
+		ComponenteConexa	componentes[];
 		
-		if (grafo.getNumeroTotalVertices() != 0)
-		{
-			inicializarVetores();   //Inicializo as posições das coordenadas em um vetor...
-			inicializarVariaveis(); //Inicializa dij, lij e kij
-			removerQuebraArestas(); //Remove os pontos que interconectam os segmentos da aresta
-			
-			deltaM = new double[grafo.getNumeroTotalVertices()];
-			
-			//Identificar o maior deltaM
-			localMaiorDeltaM = 0;
-			maiorDeltaM = 0.0;
-			for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
-			{
-				deltaM[i] = calcularDeltaM(i);
-
-				if (deltaM[i] > maiorDeltaM)
-				{
-					maiorDeltaM = deltaM[i];
-					localMaiorDeltaM = i;
-				}	
-			}
-			
-			//Coração do algoritmo
-			contadorExterno = grafo.getNumeroTotalVertices() * CONTADOR;
-			while ((deltaM[localMaiorDeltaM] > energiaMinima) && (contadorExterno > 0))
-			{
-				//Método de Newton Raphson
-				contador = CONTADOR;
-				while ((deltaM[localMaiorDeltaM] > energiaMinima) && (contador > 0))
-				{
-					adicaoY = calcularAdicaoY(localMaiorDeltaM);
-					adicaoX = calcularAdicaoX(localMaiorDeltaM, adicaoY);
-					
-					coordenadaY[localMaiorDeltaM] += adicaoY;
-					coordenadaX[localMaiorDeltaM] += adicaoX;
-					
-					deltaM[localMaiorDeltaM] = calcularDeltaM(localMaiorDeltaM);
-					
-					contador--;
-				}
-				
-				//Identificar o maior deltaM
-				localMaiorDeltaM = 0;
-				maiorDeltaM = 0.0;
-				for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
-				{
-					deltaM[i] = calcularDeltaM(i);
-
-					if (deltaM[i] > maiorDeltaM)
-					{
-						maiorDeltaM = deltaM[i];
-						localMaiorDeltaM = i;
-					}	
-				}
-				
-				contadorExterno--;
-			}
-			
-			//Identificar a coordenada menor (X, Y)
-			menorCoordenadaX = 999999999;
-			menorCoordenadaY = 999999999;
-			for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
+		limite.iniciar();
+		try{
+			if (grafo.getNumeroTotalVertices() != 0)
 			{
-				if (coordenadaX[i] < menorCoordenadaX)
-					menorCoordenadaX = coordenadaX[i];
-				
-				if (coordenadaY[i] < menorCoordenadaY)
-					menorCoordenadaY = coordenadaY[i];
-			}
+				inicializarVetores();   //Inicializo as posições das coordenadas em um vetor...
+				removerQuebraArestas(); //Remove os pontos que interconectam os segmentos da aresta
+				componentes = separarComponentesConexas();
+				fotografiaAnterior = compacto;
 			
-			//Incrementar para posições acima de 10 pixel
-			//Retirar o problema de coordenadas menores que 1
-			if (menorCoordenadaX <= 0)
-				for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
-					coordenadaX[i] = coordenadaX[i] - menorCoordenadaX + distEntreComponentesConexas;
-			else
-			{
-				menorCoordenadaX = distEntreComponentesConexas - menorCoordenadaX;
-				for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
-					coordenadaX[i] = coordenadaX[i] + menorCoordenadaX;
-			}
+				//Os vértices fixos permanecem nas suas coordenadas atuais
+				livre = new boolean[grafo.getNumeroTotalVertices()];
+				for (i = 0; i < livre.length; i++)
+					livre[i] = !grafo.getVertice(i).getFixo();
 			
-			if (menorCoordenadaY <= 0)
-				for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
-					coordenadaY[i] = coordenadaY[i] - menorCoordenadaY + distEntreComponentesConexas;
-			else
-			{
-				menorCoordenadaY = distEntreComponentesConexas - menorCoordenadaY;
-				for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
-					coordenadaY[i] = coordenadaY[i] + menorCoordenadaY;
-			}
+				definirVerticesLivres(componentes, livre);
+				posicionarVerticesInicialmente(componentes);
 			
-			//Atribuo os novas coordendas aos Vertices
-			for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
-			{
-				grafo.getVertice(i).setX(coordenadaX[i]);
-				grafo.getVertice(i).setY(coordenadaY[i]);
-			}
+				//Coração do algoritmo, executado para cada componente conexa
+				desenharComponentes(componentes);
 			
-			//Define as posições para as componentes conexas
-			posicionarComponentesConexas();
+				//Atribuo as novas coordenadas arredondadas aos vértices, com as 
+				//componentes conexas empacotadas a partir da distância mínima
+				posicionarComponentesConexas(componentes);
+				rotearArestasOrtogonais();
 			
-		} //Fim do if caso não existe vértice
+			} //Fim do if caso não existe vértice
+		}finally{
+			limite.concluir();
+		}
 	}// Fim do método desenharGrafo
-
-//Metodo privado auxiliar
-	private void inicializarVisitas()
-	{
-		int i;
-		
-		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
-			grafo.getVertice(i).setVisitado(false);
-	}
 	
-	private void posicionarComponentesConexas()
+	/**
+	 * Executa o algoritmo de Spring Model somente na vizinhança das alterações
+	 * feitas no grafo desde o último desenho realizado por este objeto. Os 
+	 * vértices inseridos e os extremos das arestas inseridas ou removidas, 
+	 * juntamente com os vértices a até getRaioVizinhanca arestas deles, são 
+	 * deslocados a partir das suas posições atuais. Os demais vértices 
+	 * permanecem fixos, mas continuam exercendo forças sobre os vértices 
+	 * deslocados, e somente as arestas com um extremo deslocado perdem os seus 
+	 * pontos de quebra. Somente as linhas da matriz de distâncias referentes 
+	 * aos vértices deslocados são calculadas.
+	 *
+	 * Caso o grafo ainda não tenha sido desenhado, não tenha sido alterado ou 
+	 * a vizinhança das alterações contenha mais da metade dos vértices, nada é
+	 * alterado e o método retorna falso, indicando que um desenho completo 
+	 * deve ser feito.
+	 *
+	 * @return verdadeiro caso o desenho incremental tenha sido realizado
+	 * @see SpringModel#registrarDesenho
+	 */
+	public boolean desenharGrafoIncremental()
 	{
-		int 		i,
-					maiorPosX, menorPosX, posX, menorPosY, posY,
-					indiceVertice;
-		Vertice		vertices[], verticeTemp;
-		boolean		visitado;
-		
-		inicializarVisitas();
-		indiceVertice = 0;
-		maiorPosX = 0;
-				
-		while (indiceVertice < grafo.getNumeroTotalVertices())
-		{	
-			visitado = grafo.getVertice(indiceVertice).getVisitado();
-			while ((visitado) && (indiceVertice != grafo.getNumeroTotalVertices()))
+		int 				i, numeroLivres;
+		boolean				livre[];
+		GrafoCompacto		atual;
+		ComponenteConexa	componentes[];
+		
+		limite.iniciar();
+		try{
+			atual = grafo.compactar();
+			if ((fotografiaAnterior == null) || (fotografiaAnterior == atual) || (atual.getNumeroVertices() == 0))
+				return false;
+		
+			livre = marcarVizinhancaAlteracoes(atual);
+			numeroLivres = 0;
+			for (i = 0; i < livre.length; i++)
 			{
-				indiceVertice++;
-				
-				if (indiceVertice >= grafo.getNumeroTotalVertices())
-					return;
-					
-				visitado = grafo.getVertice(indiceVertice).getVisitado();
+				livre[i] = livre[i] && !atual.getVertice(i).getFixo();
+				if (livre[i])
+					numeroLivres++;
 			}
-
-			//Faz o percurso em largura para descobrir as componentes conexas
-			vertices = grafo.percursoLargura(indiceVertice);
-			
-			//Determina a menor posicao em X e Y
-			menorPosX = 999999999;
-			menorPosY = 999999999;
-			for (i = 0; i < vertices.length; i++)
+		
+			if (numeroLivres > livre.length * FRACAO_MAXIMA_VIZINHANCA)
+				return false;
+		
+			fotografiaAnterior = atual;
+			if (numeroLivres == 0)
+				return true;
+		
+			//As posições atuais são mantidas, separando somente os vértices sobrepostos
+			coordenadaX = new double[livre.length];
+			coordenadaY = new double[livre.length];
+			for (i = 0; i < livre.length; i++)
 			{
-				if (vertices[i].getX() < menorPosX)
-				{
-					menorPosX = vertices[i].getX();
-				}
-				
-				if (vertices[i].getY() < menorPosY)
-				{
-					menorPosY = vertices[i].getY();
-				}
+				coordenadaX[i] = atual.getVertice(i).getX();
+				coordenadaY[i] = atual.getVertice(i).getY();
 			}
-			
-			//Setar a posição no eixoX e eixoY para as componentes conexas
-			for (i = 0; i < vertices.length; i++)
+			separarVerticesSobrepostos(livre);
+		
+			//As arestas com um extremo fora do grafo são ignoradas
+			for (i = 0; i < atual.getNumeroArestas(); i++)
+				if ((atual.getOrigem(i) >= 0) && (atual.getDestino(i) >= 0) && (livre[atual.getOrigem(i)] || livre[atual.getDestino(i)]))
+					atual.getAresta(i).removerTodasQuebras();
+		
+			//Cada componente recebe as suas posições locais dos vértices livres
+			componentes = separarComponentesConexas();
+			definirVerticesLivres(componentes, livre);
+			desenharComponentes(componentes);
+		
+			atribuirCoordenadasPositivas(livre);
+			rotearArestasOrtogonais();
+			return true;
+		}finally{
+			limite.concluir();
+		}
+	}
+	
+	/**
+	 * Guarda a estrutura atual do grafo como referência para o próximo desenho
+	 * incremental. Deve ser chamado quando o grafo for desenhado por outro 
+	 * algoritmo, pois o método desenharGrafo já guarda a estrutura desenhada.
+	 *
+	 * @see SpringModel#desenharGrafoIncremental
+	 */
+	public void registrarDesenho()
+	{
+		fotografiaAnterior = grafo.compactar();
+	}
+
+//Metodo privado auxiliar
+	private void posicionarComponentesConexas(ComponenteConexa componentes[])
+	{
+		//O retângulo de cada componente inclui as dimensões dos vértices. As 
+		//componentes com vértices fixos mantêm as suas coordenadas e as demais
+		//são empacotadas abaixo delas
+		int 		i, k, numero, largura[], altura[], posicaoX[], posicaoY[], indice[];
+		double		menorX[], menorY[], maiorX, maiorY, maiorYAncoradas;
+		Vertice		verticeTemp;
+		
+		largura = new int[componentes.length];
+		altura = new int[componentes.length];
+		posicaoX = new int[componentes.length];
+		posicaoY = new int[componentes.length];
+		menorX = new double[componentes.length];
+		menorY = new double[componentes.length];
+		indice = new int[componentes.length];
+		
+		numero = 0;
+		maiorYAncoradas = 0;
+		for (i = 0; i < componentes.length; i++)
+		{
+			menorX[i] = Double.MAX_VALUE;
+			menorY[i] = Double.MAX_VALUE;
+			maiorX = - Double.MAX_VALUE;
+			maiorY = - Double.MAX_VALUE;
+			for (k = 0; k < componentes[i].vertices.length; k++)
 			{
-				posX = distEntreComponentesConexas + maiorPosX + vertices[i].getX() - menorPosX;	
-				vertices[i].setX(posX);
+				verticeTemp = grafo.getVertice(componentes[i].vertices[k]);
 				
-				posY = distEntreComponentesConexas + vertices[i].getY() - menorPosY;
-				vertices[i].setY(posY);
+				menorX[i] = Math.min(menorX[i], coordenadaX[componentes[i].vertices[k]]);
+				menorY[i] = Math.min(menorY[i], coordenadaY[componentes[i].vertices[k]]);
+				maiorX = Math.max(maiorX, coordenadaX[componentes[i].vertices[k]] + verticeTemp.getLargura());
+				maiorY = Math.max(maiorY, coordenadaY[componentes[i].vertices[k]] + verticeTemp.getAltura());
 			}
 			
-			//Determinar a maior posição em X
-			maiorPosX = 0;
-			for (i = 0; i < vertices.length; i++)
-			{			
-				if (vertices[i].getX() > maiorPosX)
-					maiorPosX = vertices[i].getX();
-				
-				vertices[i].setVisitado(true);
+			if (componentes[i].ancorada)
+				maiorYAncoradas = Math.max(maiorYAncoradas, maiorY);
+			else
+			{
+				largura[numero] = (int) Math.ceil(maiorX - menorX[i]);
+				altura[numero] = (int) Math.ceil(maiorY - menorY[i]);
+				indice[numero++] = i;
 			}
-			
-			indiceVertice++;
 		}
 		
-		menorPosX = 999999999;
-		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
+		new EmpacotamentoComponentes(distEntreComponentesConexas).empacotar(largura, altura, numero, posicaoX, posicaoY);
+		
+		for (k = 0; k < numero; k++)
 		{
-			if (grafo.getVertice(i).getX() < menorPosX)
-				menorPosX = grafo.getVertice(i).getX();
+			i = indice[k];
+			menorX[i] -= posicaoX[k];
+			menorY[i] -= posicaoY[k] + (int) Math.ceil(maiorYAncoradas);
 		}
 		
-		posX = distEntreComponentesConexas - menorPosX;
-		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
+		for (i = 0; i < componentes.length; i++)
 		{
-			grafo.getVertice(i).setX(grafo.getVertice(i).getX() + posX);
+			if (componentes[i].ancorada)
+			{
+				menorX[i] = 0;
+				menorY[i] = 0;
+			}
+			
+			for (k = 0; k < componentes[i].vertices.length; k++)
+			{
+				verticeTemp = grafo.getVertice(componentes[i].vertices[k]);
+				
+				verticeTemp.setX((int) Math.round(coordenadaX[componentes[i].vertices[k]] - menorX[i]));
+				verticeTemp.setY((int) Math.round(coordenadaY[componentes[i].vertices[k]] - menorY[i]));
+			}
 		}
 	}
 	
 //Métodos privados da classe Spring Model
-	private int calcularAdicaoX(int posicaoVertice, int adicaoY)
+	private void posicionarVerticesInicialmente(ComponenteConexa componentes[])
 	{
-		/*formula do sigmaX
-		 * 
-		 * adicaoX = d1 - (b * adicaoY)
-		 * 		       -------------
-		 *					 a
-		 */
-		double 	resultX, coeficienteA, coeficienteB, sigmaX, resto;
-		Double	adicaoX;
-		int		inteiro;
-		
-		resultX = - calcularResultanteX(posicaoVertice);
+		//As componentes com vértices fixos mantêm as coordenadas atuais
+		int 					i;
+		PosicionamentoInicial	posicionamento;
 		
-		coeficienteA = calcularCoeficienteA(posicaoVertice);
-		coeficienteB = calcularCoeficienteB(posicaoVertice);
+		if (posicaoInicial == POSICAO_ATUAL)
+			return;
 		
-		sigmaX = (resultX - (coeficienteB * adicaoY)) / coeficienteA;
+		posicionamento = new PosicionamentoInicial(compacto, tamanhoAresta, semente);
+		for (i = 0; i < componentes.length; i++)
+			if (!componentes[i].ancorada)
+				posicionamento.posicionar(posicaoInicial, componentes[i].vertices, coordenadaX, coordenadaY);
+	}
+	
+	private void desenharComponentes(ComponenteConexa componentes[])
+	{
+		int i;
 		
-		adicaoX = new Double(sigmaX);
-		inteiro = adicaoX.intValue();
-		resto = sigmaX - inteiro;
+		totalLivres = 0;
+		for (i = 0; i < componentes.length; i++)
+			totalLivres += (componentes[i].livres == null) ? componentes[i].numeroVertices : componentes[i].livres.length;
 		
-		//Armazenar do vetor de resto, o resto do trucamento de um inteiro		
-		restoX[posicaoVertice] += resto;
+		if (paralelismo > 1)
+			tarefas = new ForkJoinPool(paralelismo);
 		
-		if (restoX[posicaoVertice] >= 1.0)
-		{
-			inteiro++;
-			restoX[posicaoVertice] -= 1.0; 
-		}
-		else if (restoX[posicaoVertice] <= -1.0)
-		{
-			inteiro--;
-			restoX[posicaoVertice] += 1.0;	
+		//As componentes desenhadas ao mesmo tempo calculam as distâncias em
+		//uma única linha de execução, evitando mais linhas que o paralelismo
+		try{
+			if ((tarefas != null) && (componentes.length > 1))
+				tarefas.invoke(new TarefaComponentes(componentes, 0, componentes.length));
+			else
+				for (i = 0; i < componentes.length; i++)
+					componentes[i].desenhar(paralelismo);
+		}finally{
+			if (tarefas != null)
+			{
+				tarefas.shutdown();
+				tarefas = null;
+			}
+			
+			compacto = null;
+			indiceLocal = null;
 		}
-
-		return inteiro;
 	}
 	
-	private int calcularAdicaoY(int posicaoVertice)
+	private boolean[] marcarVizinhancaAlteracoes(GrafoCompacto atual)
 	{
-		/*formula do calculo
-		 *
-		 *	adicaoY = (a * d2) - (b * d1)
-		 *			 	---------------
-		 * 			   (a * c) - (b * b)
-		 */
-		double		resultX, resultY, coeficienteA, coeficienteB, coeficienteC,
-					sigmaY, resto;
-		int			inteiro;			
-		Double		adicaoY;
+		//Marca os vértices inseridos e os extremos das arestas inseridas, 
+		//removidas ou com extremos alterados, e depois os vértices a até 
+		//raioVizinhanca arestas deles
+		int 								i, e, inicio, fim, origem, destino, distancias[], fila[],
+											inicioAdjacentes[], adjacentes[];
+		boolean								livre[];
+		Integer								anterior;
+		Iterator<Integer>					restantes;
+		IdentityHashMap<Aresta, Integer>	arestasAnteriores;
 		
-		resultX = - calcularResultanteX(posicaoVertice);
-		resultY = - calcularResultanteY(posicaoVertice);
+		livre = new boolean[atual.getNumeroVertices()];
+		for (i = 0; i < atual.getNumeroVertices(); i++)
+			if (fotografiaAnterior.getIndice(atual.getVertice(i)) < 0)
+				livre[i] = true;
 		
-		coeficienteA = calcularCoeficienteA(posicaoVertice);
-		coeficienteB = calcularCoeficienteB(posicaoVertice);
-		coeficienteC = calcularCoeficienteC(posicaoVertice);
+		arestasAnteriores = new IdentityHashMap<Aresta, Integer>(fotografiaAnterior.getNumeroArestas());
+		for (e = 0; e < fotografiaAnterior.getNumeroArestas(); e++)
+			arestasAnteriores.put(fotografiaAnterior.getAresta(e), Integer.valueOf(e));
 		
-		sigmaY = ((coeficienteA * resultY) - (coeficienteB * resultX)) / ((coeficienteA * coeficienteC) - (coeficienteB * coeficienteB));
+		for (e = 0; e < atual.getNumeroArestas(); e++)
+		{
+			anterior = arestasAnteriores.remove(atual.getAresta(e));
+			origem = atual.getOrigem(e);
+			destino = atual.getDestino(e);
+			
+			//As arestas com um extremo fora do grafo são ignoradas
+			if ((origem < 0) || (destino < 0))
+				continue;
+			
+			if ((anterior == null) || 
+				(fotografiaAnterior.getOrigem(anterior.intValue()) < 0) ||
+				(fotografiaAnterior.getDestino(anterior.intValue()) < 0) ||
+				(fotografiaAnterior.getVertice(fotografiaAnterior.getOrigem(anterior.intValue())) != atual.getVertice(origem)) ||
+				(fotografiaAnterior.getVertice(fotografiaAnterior.getDestino(anterior.intValue())) != atual.getVertice(destino)))
+			{
+				livre[origem] = true;
+				livre[destino] = true;
+			}
+		}
 		
-		adicaoY = new Double(sigmaY);
-		inteiro = adicaoY.intValue();
-		resto = sigmaY - inteiro;
-
-		//Armazenar do vetor de resto, o resto do trucamento de um inteiro		
-		restoY[posicaoVertice] += resto;
+		//Arestas removidas, incluindo as arestas dos vértices removidos
+		restantes = arestasAnteriores.values().iterator();
+		while (restantes.hasNext())
+		{
+			e = restantes.next().intValue();
+			if ((fotografiaAnterior.getOrigem(e) < 0) || (fotografiaAnterior.getDestino(e) < 0))
+				continue;
+			
+			origem = atual.getIndice(fotografiaAnterior.getVertice(fotografiaAnterior.getOrigem(e)));
+			destino = atual.getIndice(fotografiaAnterior.getVertice(fotografiaAnterior.getDestino(e)));
+			
+			if (origem >= 0)
+				livre[origem] = true;
+			
+			if (destino >= 0)
+				livre[destino] = true;
+		}
 		
-		if (restoY[posicaoVertice] >= 1.0)
+		//Percurso em largura a partir de todos os vértices marcados
+		distancias = new int[livre.length];
+		fila = new int[livre.length];
+		inicio = 0;
+		fim = 0;
+		for (i = 0; i < livre.length; i++)
 		{
-			inteiro++;
-			restoY[posicaoVertice] -= 1.0; 
+			distancias[i] = -1;
+			if (livre[i])
+			{
+				distancias[i] = 0;
+				fila[fim++] = i;
+			}
 		}
-		else if (restoY[posicaoVertice] <= -1.0)
+		
+		inicioAdjacentes = atual.getInicioAdjacentes();
+		adjacentes = atual.getAdjacentes();
+		while (inicio < fim)
 		{
-			inteiro--;
-			restoY[posicaoVertice] += 1.0;
+			origem = fila[inicio++];
+			if (distancias[origem] >= raioVizinhanca)
+				continue;
+			
+			for (i = inicioAdjacentes[origem]; i < inicioAdjacentes[origem + 1]; i++)
+			{
+				destino = adjacentes[i];
+				if (distancias[destino] < 0)
+				{
+					distancias[destino] = distancias[origem] + 1;
+					livre[destino] = true;
+					fila[fim++] = destino;
+				}
+			}
 		}
 		
-		return inteiro;
+		return livre;
 	}
 	
-	private double calcularCoeficienteA(int posicaoVertice)
+	private void separarVerticesSobrepostos(boolean livre[])
 	{
-		//Calcula o resultado da formula (13)
-		int 		i, diferencaX, diferencaY;
-		double		lmi, kmi, denom, aux, coeficienteA;
+		//Um vértice livre na mesma posição de outro vértice anularia o 
+		//denominador das forças, então ele é deslocado até uma posição vaga
+		int 			i;
+		HashSet<Long>	ocupadas;
 		
-		coeficienteA = 0.0;
+		ocupadas = new HashSet<Long>(livre.length * 2);
+		for (i = 0; i < livre.length; i++)
+			if (!livre[i])
+				ocupadas.add(Long.valueOf(chavePosicao(coordenadaX[i], coordenadaY[i])));
 		
-		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
+		for (i = 0; i < livre.length; i++)
 		{
-			if (i != posicaoVertice)
+			if (livre[i])
 			{
-				lmi = lij[posicaoVertice][i];
-				kmi = kij[posicaoVertice][i];
-				
-				diferencaX = coordenadaX[posicaoVertice] - coordenadaX[i];
-				diferencaY = coordenadaY[posicaoVertice] - coordenadaY[i];
-				
-				denom = (diferencaX * diferencaX) + (diferencaY * diferencaY);
-				denom = Math.sqrt(denom);
-				denom = denom * denom * denom;
-				
-				aux = (1 - ((lmi * diferencaY * diferencaY)/denom)) * kmi;
-				
-				coeficienteA += aux;
-			}	
+				while (!ocupadas.add(Long.valueOf(chavePosicao(coordenadaX[i], coordenadaY[i]))))
+				{
+					coordenadaX[i] += 1 + (i % 5);
+					coordenadaY[i] += 1 + (i % 3);
+				}
+			}
+		}
+	}
+	
+	private long chavePosicao(double x, double y)
+	{
+		return (((long) x) << 32) ^ (((long) y) & 0xffffffffL);
+	}
+	
+	private void atribuirCoordenadasPositivas(boolean livre[])
+	{
+		//Os vértices livres deslocados para coordenadas menores que 1 ficariam
+		//fora da área de desenho, então o desenho inteiro é transladado
+		int 	i, menorX, menorY, deslocamentoX, deslocamentoY;
+		
+		menorX = Integer.MAX_VALUE;
+		menorY = Integer.MAX_VALUE;
+		for (i = 0; i < livre.length; i++)
+		{
+			menorX = Math.min(menorX, livre[i] ? (int) Math.round(coordenadaX[i]) : grafo.getVertice(i).getX());
+			menorY = Math.min(menorY, livre[i] ? (int) Math.round(coordenadaY[i]) : grafo.getVertice(i).getY());
+		}
+		
+		deslocamentoX = (menorX < 1) ? distEntreComponentesConexas - menorX : 0;
+		deslocamentoY = (menorY < 1) ? distEntreComponentesConexas - menorY : 0;
+		
+		for (i = 0; i < livre.length; i++)
+		{
+			if (livre[i])
+			{
+				grafo.getVertice(i).setX((int) Math.round(coordenadaX[i]) + deslocamentoX);
+				grafo.getVertice(i).setY((int) Math.round(coordenadaY[i]) + deslocamentoY);
+			}
+			else if ((deslocamentoX != 0) || (deslocamentoY != 0))
+			{
+				grafo.getVertice(i).setX(grafo.getVertice(i).getX() + deslocamentoX);
+				grafo.getVertice(i).setY(grafo.getVertice(i).getY() + deslocamentoY);
+			}
 		}
+	}
+	
+	private void definirVerticesLivres(ComponenteConexa componentes[], boolean livre[])
+	{
+		//Cada componente recebe as posições locais dos seus vértices livres, ou
+		//nenhum vetor quando todos os seus vértices são livres
+		int i, k, contador, posicoes[];
 		
-		return coeficienteA;
+		for (i = 0; i < componentes.length; i++)
+		{
+			contador = 0;
+			for (k = 0; k < componentes[i].vertices.length; k++)
+				if (livre[componentes[i].vertices[k]])
+					contador++;
+			
+			if (contador == componentes[i].vertices.length)
+				continue;
+			
+			posicoes = new int[contador];
+			contador = 0;
+			for (k = 0; k < componentes[i].vertices.length; k++)
+				if (livre[componentes[i].vertices[k]])
+					posicoes[contador++] = k;
+			
+			componentes[i].livres = posicoes;
+			componentes[i].ancorada = true;
+		}
 	}
 	
-	private double calcularCoeficienteB(int posicaoVertice)
+	private ComponenteConexa[] separarComponentesConexas()
 	{
-		//Calcula o resultado da formula (13)
-		int 		i, diferencaX, diferencaY;
-		double		lmi, kmi, denom, aux, coeficienteB;
+		//Rotula cada vértice com a sua componente conexa e distribui os 
+		//vértices entre as componentes mantendo a ordem dos índices
+		int 				i, k, numeroVertices, numeroComponentes, alcancados,
+							componente[], tamanho[], distancias[], fila[];
+		ComponenteConexa	componentes[];
 		
-		coeficienteB = 0.0;
+		compacto = grafo.compactar();
+		numeroVertices = compacto.getNumeroVertices();
+		componente = new int[numeroVertices];
+		distancias = new int[numeroVertices];
+		fila = new int[numeroVertices];
+		tamanho = new int[numeroVertices];
 		
-		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
+		for (i = 0; i < numeroVertices; i++)
+			componente[i] = -1;
+		
+		numeroComponentes = 0;
+		for (i = 0; i < numeroVertices; i++)
 		{
-			if (i != posicaoVertice)
+			if (componente[i] < 0)
 			{
-				lmi = lij[posicaoVertice][i];
-				kmi = kij[posicaoVertice][i];
+				alcancados = compacto.calcularDistancias(i, distancias, fila);
 				
-				diferencaX = coordenadaX[posicaoVertice] - coordenadaX[i];
-				diferencaY = coordenadaY[posicaoVertice] - coordenadaY[i];
+				for (k = 0; k < alcancados; k++)
+					componente[fila[k]] = numeroComponentes;
 				
-				denom = (diferencaX * diferencaX) + (diferencaY * diferencaY);
-				denom = Math.sqrt(denom);
-				denom = denom * denom * denom;
-				
-				aux = ((lmi * diferencaX * diferencaY)/denom) * kmi;
-				
-				coeficienteB += aux;
-			}	
+				tamanho[numeroComponentes] = alcancados;
+				numeroComponentes++;
+			}
 		}
 		
-		return coeficienteB;
+		componentes = new ComponenteConexa[numeroComponentes];
+		for (i = 0; i < numeroComponentes; i++)
+		{
+			componentes[i] = new ComponenteConexa(i, new int[tamanho[i]]);
+			tamanho[i] = 0;
+		}
+		
+		indiceLocal = new int[numeroVertices];
+		for (i = 0; i < numeroVertices; i++)
+		{
+			indiceLocal[i] = tamanho[componente[i]]++;
+			componentes[componente[i]].vertices[indiceLocal[i]] = i;
+		}
+		
+		return componentes;
 	}
 	
-	private double calcularCoeficienteC(int posicaoVertice)
+	private void inicializarVetores()
 	{
-		//Calcula o resultado da formula (13)
-		int 		i, diferencaX, diferencaY;
-		double		lmi, kmi, denom, aux, coeficienteC;
+		//Um vértice livre com a mesma coordenada X ou Y de um vértice anterior
+		//ou de um vértice fixo recebe uma nova coordenada sorteada. As 
+		//coordenadas utilizadas são consultadas em tabelas de dispersão
+		int 				i, numeroVertices;
+		HashSet<Integer>	utilizadasX, utilizadasY;
+		Random				sorteio;
+		Vertice				verticeTemp;
 		
-		coeficienteC = 0.0;
+		numeroVertices = grafo.getNumeroTotalVertices();
+		utilizadasX = new HashSet<Integer>();
+		utilizadasY = new HashSet<Integer>();
+		sorteio = new Random(semente);
 		
-		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
+		coordenadaX = new double[numeroVertices];
+		coordenadaY = new double[numeroVertices];
+		
+		//Os vértices fixos nunca são alterados
+		for (i = 0; i < numeroVertices; i++)
 		{
-			if (i != posicaoVertice)
+			verticeTemp = grafo.getVertice(i);
+			if (verticeTemp.getFixo())
 			{
-				lmi = lij[posicaoVertice][i];
-				kmi = kij[posicaoVertice][i];
-				
-				diferencaX = coordenadaX[posicaoVertice] - coordenadaX[i];
-				diferencaY = coordenadaY[posicaoVertice] - coordenadaY[i];
-				
-				denom = (diferencaX * diferencaX) + (diferencaY * diferencaY);
-				denom = Math.sqrt(denom);
-				denom = denom * denom * denom;
-				
-				aux = (1 - ((lmi * diferencaX * diferencaX)/denom)) * kmi;
-				
-				coeficienteC += aux;
-			}	
+				utilizadasX.add(Integer.valueOf(verticeTemp.getX()));
+				utilizadasY.add(Integer.valueOf(verticeTemp.getY()));
+			}
 		}
 		
-		return coeficienteC;
+		for (i = 0; i < numeroVertices; i++)
+		{
+			verticeTemp = grafo.getVertice(i);
+			if (verticeTemp.getFixo())
+				continue;
+			
+			//Modifica para X
+			while (!utilizadasX.add(Integer.valueOf(verticeTemp.getX())))
+				verticeTemp.setX(1 + sorteio.nextInt(numeroVertices * Vertice.LARGURAMAXIMA));
+			
+			//Modifica para Y
+			while (!utilizadasY.add(Integer.valueOf(verticeTemp.getY())))
+				verticeTemp.setY(1 + sorteio.nextInt(numeroVertices * Vertice.ALTURAMAXIMA));
+		}
+		
+		//Atribuo as novas posições para os vertices
+		for (i = 0; i < numeroVertices; i++)
+		{
+			coordenadaX[i] = grafo.getVertice(i).getX();
+			coordenadaY[i] = grafo.getVertice(i).getY();
+		}
+	}
+	
+	private void rotearArestasOrtogonais()
+	{
+		//Os vértices deslocados podem bloquear as rotas das demais arestas,
+		//então todas são roteadas novamente
+		RoteamentoOrtogonal roteamento;
+		
+		if (!rotearArestas)
+			return;
+		
+		roteamento = new RoteamentoOrtogonal(grafo);
+		roteamento.setParalelismo(paralelismo);
+		roteamento.rotearArestas();
+	}
+	
+	private void removerQuebraArestas()
+	{
+		Aresta	arestas[];
+		int 	i;
+		
+		//As arestas entre dois vértices fixos mantêm os seus pontos de quebra
+		arestas = grafo.getTodasArestas();
+		for (i = 0; i < grafo.getNumeroTotalArestas(); i++)
+			if (!(arestas[i].getVerticeOrigem().getFixo() && arestas[i].getVerticeDestino().getFixo()))
+				arestas[i].removerTodasQuebras();
 	}
 	
-	private double calcularDeltaM(int posicaoVertice)
+//Tarefas executadas em paralelo pelo ForkJoinPool
+	private class TarefaComponentes extends RecursiveAction
 	{
-		//Calcula o deltaM (9)
-		double resultX, resultY, soma;
+		private static final long serialVersionUID = 1L;
 		
-		resultX = calcularResultanteX(posicaoVertice);
-		resultX *= resultX;
+		private ComponenteConexa	componentes[];
 		
-		resultY = calcularResultanteY(posicaoVertice);
-		resultY *= resultY;
+		private int					inicio, fim;
 		
-		soma = resultX + resultY;
+		TarefaComponentes(ComponenteConexa componentes[], int inicio, int fim)
+		{
+			this.componentes = componentes;
+			this.inicio = inicio;
+			this.fim = fim;
+		}
 		
-		return Math.sqrt(soma);
+		protected void compute()
+		{
+			int meio;
+			
+			if (fim - inicio == 1)
+				componentes[inicio].desenhar(1);
+			else if (fim > inicio)
+			{
+				meio = (inicio + fim) >>> 1;
+				invokeAll(new TarefaComponentes(componentes, inicio, meio), new TarefaComponentes(componentes, meio, fim));
+			}
+		}
 	}
 	
-	private double calcularResultanteX(int posicaoVertice)
+//Desenho de uma única componente conexa
+	private class ComponenteConexa
 	{
-		//Calcula a resultante em X (Formula 7 do artigo)
-		int			i, diferencaX, diferencaY;
-		double		lmi, kmi, denom, aux, somaEnergia;
+		//Índices dos vértices da componente na fotografia do grafo
+		private int					vertices[],
+									numeroVertices,
+									indice;
 		
-		somaEnergia = 0;
+		//Posições dos vértices deslocados pelo algoritmo, os demais vértices
+		//permanecem fixos mas continuam exercendo forças
+		private int					livres[];
 		
-		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
+		//Componente com vértices fixos, que não é deslocada pelo empacotamento
+		private boolean				ancorada;
+		
+		//Linha de cada vértice livre na matriz de distâncias, ou null quando a
+		//matriz é quadrada
+		private int					linhas[];
+		
+		//Variáveis internas fixas do algoritmo
+		private MatrizDistancias	dij;
+		
+		//Coordenadas indexadas pela posição do vértice dentro da componente
+		private double				coordenadaX[],
+									coordenadaY[],
+									lij[],
+									kij[],
+									somaResultanteX[],
+									somaResultanteY[]; 
+		
+		//Somas parciais de cada bloco de vértices
+		private double				parciais[];
+		
+		//Derivadas parciais do vértice atual calculadas em um único laço
+		private double				resultanteX,
+									resultanteY,
+									coeficienteA,
+									coeficienteB,
+									coeficienteC;
+		
+		ComponenteConexa(int indice, int vertices[])
+		{
+			this.indice = indice;
+			this.vertices = vertices;
+			numeroVertices = vertices.length;
+		}
+		
+		void desenhar(int paralelismoDistancias)
 		{
-			if (i != posicaoVertice)
+			//Quando as posições livres não foram definidas todos os vértices 
+			//são deslocados, caso contrário somente as linhas da matriz de 
+			//distâncias referentes aos vértices livres são calculadas
+			int 					i;
+			DistanciasMenorCaminho	distancias;
+			
+			//Um vértice isolado não possui forças a serem minimizadas
+			if ((numeroVertices < 2) || ((livres != null) && (livres.length == 0)) || limite.interromper())
+				return;
+			
+			distancias = new DistanciasMenorCaminho(compacto);
+			distancias.setParalelismo(paralelismoDistancias);
+			
+			if (livres == null)
 			{
-				lmi = lij[posicaoVertice][i];
-				kmi = kij[posicaoVertice][i];
-				
-				diferencaX = coordenadaX[posicaoVertice] - coordenadaX[i];
-				diferencaY = coordenadaY[posicaoVertice] - coordenadaY[i];
+				livres = new int[numeroVertices];
+				for (i = 0; i < numeroVertices; i++)
+					livres[i] = i;
 				
-				denom = (diferencaX * diferencaX) + (diferencaY * diferencaY);
-				denom = Math.sqrt(denom);
+				//Calculo do Dij com um percurso em largura por vértice
+				linhas = null;
+				dij = distancias.calcular(vertices, indiceLocal);
+			}
+			else
+			{
+				linhas = new int[numeroVertices];
+				for (i = 0; i < numeroVertices; i++)
+					linhas[i] = -1;
 				
-				aux = (diferencaX - ((lmi * diferencaX) / denom)) * kmi;
+				for (i = 0; i < livres.length; i++)
+					linhas[livres[i]] = i;
 				
-				somaEnergia += aux;
+				dij = distancias.calcular(vertices, indiceLocal, livres);
 			}
-		}	
-		
-		return somaEnergia;
-	}
-	
-	private double calcularResultanteY(int posicaoVertice)
-	{
-		//Calcula a resultante em Y (Formula 8 do artigo)
-		int			i, diferencaX, diferencaY;
-		double		lmi, kmi, denom, aux, somaEnergia;
+			
+			otimizar();
+		}
 		
-		somaEnergia = 0;
+		private void otimizar()
+		{
+			int i;
+			
+			coordenadaX = new double[numeroVertices];
+			coordenadaY = new double[numeroVertices];
+			for (i = 0; i < numeroVertices; i++)
+			{
+				coordenadaX[i] = SpringModel.this.coordenadaX[vertices[i]];
+				coordenadaY[i] = SpringModel.this.coordenadaY[vertices[i]];
+			}
+			
+			if (deltaMIncremental)
+			{
+				somaResultanteX = new double[numeroVertices];
+				somaResultanteY = new double[numeroVertices];
+			}
+			
+			parciais = new double[((numeroVertices + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO) * 5];
+			
+			inicializarVariaveis(); //Inicializa lij e kij
+			minimizarEnergia();
+			
+			//Cada componente escreve somente as posições dos seus vértices livres
+			for (i = 0; i < livres.length; i++)
+			{
+				SpringModel.this.coordenadaX[vertices[livres[i]]] = coordenadaX[livres[i]];
+				SpringModel.this.coordenadaY[vertices[livres[i]]] = coordenadaY[livres[i]];
+			}
+			
+			//Libera a matriz antes que as próximas componentes sejam desenhadas
+			livres = null;
+			linhas = null;
+			dij = null;
+			coordenadaX = null;
+			coordenadaY = null;
+			somaResultanteX = null;
+			somaResultanteY = null;
+			parciais = null;
+		}
 		
-		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
+		private void executar(RecursiveAction tarefa)
 		{
-			if (i != posicaoVertice)
+			//As componentes desenhadas em paralelo já estão dentro do ForkJoinPool
+			if (ForkJoinTask.inForkJoinPool())
+				tarefa.invoke();
+			else
+				tarefas.invoke(tarefa);
+		}
+			
+		private void minimizarEnergia()
+		{
+			int 	localMaiorDeltaM,
+					contador, contadorExterno, iteracao, iteracoesComponente;
+			double	adicaoX, adicaoY, 
+					antigaX, antigaY,
+					energia, energiaAntiga,
+					deltaM[];
+			boolean	limitado;
+			
+			deltaM = new double[numeroVertices];
+			
+			//Identificar o maior deltaM
+			localMaiorDeltaM = calcularTodosDeltaM(deltaM);
+			
+			//O número máximo de iterações é dividido entre as componentes
+			contadorExterno = livres.length * CONTADOR;
+			limitado = false;
+			if (numeroMaximoIteracoes > 0)
 			{
-				lmi = lij[posicaoVertice][i];
-				kmi = kij[posicaoVertice][i];
+				iteracoesComponente = Math.max(1, (int) Math.ceil(((double) numeroMaximoIteracoes * livres.length) / totalLivres));
+				limitado = iteracoesComponente < contadorExterno;
+				contadorExterno = Math.min(contadorExterno, iteracoesComponente);
+			}
+			
+			energia = (ouvinte != null) ? calcularEnergia() : 0.0;
+			energiaAntiga = 0.0;
+			iteracao = 0;
+			
+			while ((deltaM[localMaiorDeltaM] > energiaMinima) && (contadorExterno > 0) && !limite.interromper())
+			{
+				//Método de Newton Raphson
+				//As derivadas de cada passo são reaproveitadas pelo cálculo do deltaM
+				contador = CONTADOR;
+				antigaX = coordenadaX[localMaiorDeltaM];
+				antigaY = coordenadaY[localMaiorDeltaM];
+				if (ouvinte != null)
+					energiaAntiga = calcularEnergiaVertice(localMaiorDeltaM);
+				
+				calcularDerivadas(localMaiorDeltaM);
+				while ((deltaM[localMaiorDeltaM] > energiaMinima) && (contador > 0))
+				{
+					adicaoY = calcularAdicaoY(localMaiorDeltaM);
+					adicaoX = calcularAdicaoX(localMaiorDeltaM, adicaoY);
+					
+					coordenadaY[localMaiorDeltaM] += adicaoY;
+					coordenadaX[localMaiorDeltaM] += adicaoX;
+					
+					calcularDerivadas(localMaiorDeltaM);
+					deltaM[localMaiorDeltaM] = Math.sqrt((resultanteX * resultanteX) + (resultanteY * resultanteY));
+					
+					contador--;
+				}
+				
+				//As posições parciais ficam disponíveis para copiarCoordenadas
+				SpringModel.this.coordenadaX[vertices[localMaiorDeltaM]] = coordenadaX[localMaiorDeltaM];
+				SpringModel.this.coordenadaY[vertices[localMaiorDeltaM]] = coordenadaY[localMaiorDeltaM];
 				
-				diferencaX = coordenadaX[posicaoVertice] - coordenadaX[i];
-				diferencaY = coordenadaY[posicaoVertice] - coordenadaY[i];
+				if (ouvinte != null)
+					energia += calcularEnergiaVertice(localMaiorDeltaM) - energiaAntiga;
 				
-				denom = (diferencaX * diferencaX) + (diferencaY * diferencaY);
-				denom = Math.sqrt(denom);
+				//Identificar o maior deltaM
+				if (deltaMIncremental)
+				{
+					localMaiorDeltaM = atualizarDeltaM(localMaiorDeltaM, antigaX, antigaY, deltaM);
+					
+					//Confirma a convergência descartando o erro acumulado
+					if (deltaM[localMaiorDeltaM] <= energiaMinima)
+						localMaiorDeltaM = calcularTodosDeltaM(deltaM);
+				}
+				else
+					localMaiorDeltaM = calcularTodosDeltaM(deltaM);
 				
-				aux = (diferencaY - ((lmi * diferencaY) / denom)) * kmi;
+				contadorExterno--;
+				iteracao++;
 				
-				somaEnergia += aux;
+				if (ouvinte != null)
+					ouvinte.iteracaoRealizada(SpringModel.this, indice, iteracao, energia, deltaM[localMaiorDeltaM]);
 			}
-		}	
+			
+			//O número máximo de iterações esgotado antes da energia mínima 
+			//também interrompe o desenho, encerrando as demais componentes
+			if (limitado && (contadorExterno == 0) && (deltaM[localMaiorDeltaM] > energiaMinima))
+				limite.marcarInterrompido();
+		}
 		
-		return somaEnergia;
-	}
-	
-	private void inicializarVetores()
-	{
-		int i, j, 
-			novaPosicao, 
-			coordenadasUtilizadasX[],
-			coordenadasUtilizadasY[];
+		private double calcularEnergia()
+		{
+			//Soma a energia de cada par com ao menos um vértice livre uma única 
+			//vez, os pares de vértices fixos não se alteram
+			int 	i, j, m;
+			double	energia;
+			
+			energia = 0.0;
+			for (j = 0; j < livres.length; j++)
+			{
+				m = livres[j];
+				for (i = 0; i < numeroVertices; i++)
+					if ((i != m) && ((i > m) || ((linhas != null) && (linhas[i] < 0))))
+						energia += calcularEnergiaPar(m, i);
+			}
+			
+			return energia;
+		}
 		
-		coordenadasUtilizadasX = new int[grafo.getNumeroTotalVertices()];
-		coordenadasUtilizadasY = new int[grafo.getNumeroTotalVertices()];
+		private double calcularEnergiaVertice(int posicaoVertice)
+		{
+			int 	i;
+			double	energia;
+			
+			energia = 0.0;
+			for (i = 0; i < numeroVertices; i++)
+				if (i != posicaoVertice)
+					energia += calcularEnergiaPar(posicaoVertice, i);
+			
+			return energia;
+		}
 		
-		coordenadaX = new int[grafo.getNumeroTotalVertices()];
-		coordenadaY = new int[grafo.getNumeroTotalVertices()];
-				
-		restoX = new double[grafo.getNumeroTotalVertices()];
-		restoY = new double[grafo.getNumeroTotalVertices()];
+		private double calcularEnergiaPar(int posicaoVertice, int i)
+		{
+			//Energia da mola entre os dois vértices (Formula 2 do artigo)
+			int 	dmi;
+			double	diferencaX, diferencaY, diferenca;
+			
+			dmi = dij.getDistancia((linhas == null) ? posicaoVertice : linhas[posicaoVertice], i);
+			diferencaX = coordenadaX[posicaoVertice] - coordenadaX[i];
+			diferencaY = coordenadaY[posicaoVertice] - coordenadaY[i];
+			diferenca = Math.sqrt((diferencaX * diferencaX) + (diferencaY * diferencaY)) - lij[dmi];
+			
+			return kij[dmi] * diferenca * diferenca / 2;
+		}
 		
-		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
+		private double calcularAdicaoX(int posicaoVertice, double adicaoY)
 		{
-			coordenadasUtilizadasX[i] = 0;
-			coordenadasUtilizadasY[i] = 0;
+			/*formula do sigmaX
+			 * 
+			 * adicaoX = d1 - (b * adicaoY)
+			 * 		       -------------
+			 *					 a
+			 */
+			double 	resultX;
 			
-			restoX[i] = 0.0;
-			restoY[i] = 0.0;
+			//Utiliza as derivadas calculadas pelo método calcularDerivadas
+			resultX = - resultanteX;
+			
+			return (resultX - (coeficienteB * adicaoY)) / coeficienteA;
 		}
 		
-		//Modificar localizações com coordenadas iguais
-		for (i = 0; i < grafo.getNumeroTotalVertices() - 1; i++)
+		private double calcularAdicaoY(int posicaoVertice)
 		{
-			coordenadasUtilizadasX[i] = grafo.getVertice(i).getX();
-			coordenadasUtilizadasY[i] = grafo.getVertice(i).getY();
+			/*formula do calculo
+			 *
+			 *	adicaoY = (a * d2) - (b * d1)
+			 *			 	---------------
+			 * 			   (a * c) - (b * b)
+			 */
+			double		resultX, resultY;
+			
+			//Utiliza as derivadas calculadas pelo método calcularDerivadas
+			resultX = - resultanteX;
+			resultY = - resultanteY;
 			
-			for (j = i + 1; j < grafo.getNumeroTotalVertices(); j++)
+			return ((coeficienteA * resultY) - (coeficienteB * resultX)) / ((coeficienteA * coeficienteC) - (coeficienteB * coeficienteB));
+		}
+		
+		private void calcularDerivadas(int posicaoVertice)
+		{
+			//Calcula as resultantes em X e Y (Formulas 7 e 8 do artigo) e os 
+			//coeficientes A, B e C da formula (13) somando cada bloco de vértices 
+			//em um único laço e combinando os blocos em ordem
+			int 	b, numeroBlocos;
+			
+			numeroBlocos = parciais.length / 5;
+			
+			if ((tarefas != null) && (numeroBlocos > 1))
+				executar(new TarefaDerivadas(posicaoVertice, 0, numeroBlocos));
+			else
+				for (b = 0; b < numeroBlocos; b++)
+					somarBloco(posicaoVertice, b, true, parciais, b * 5);
+			
+			resultanteX = parciais[0];
+			resultanteY = parciais[1];
+			coeficienteA = parciais[2];
+			coeficienteB = parciais[3];
+			coeficienteC = parciais[4];
+			
+			for (b = 1; b < numeroBlocos; b++)
 			{
-				//Modifica para X
-				while (grafo.getVertice(i).getX() == grafo.getVertice(j).getX())
+				resultanteX += parciais[(b * 5)];
+				resultanteY += parciais[(b * 5) + 1];
+				coeficienteA += parciais[(b * 5) + 2];
+				coeficienteB += parciais[(b * 5) + 3];
+				coeficienteC += parciais[(b * 5) + 4];
+			}
+		}
+		
+		private void calcularResultantes(int posicaoVertice, double resultantes[])
+		{
+			//Calcula as resultantes em X e Y (Formulas 7 e 8 do artigo) somente com
+			//variáveis locais, permitindo a execução em paralelo para vários vértices
+			int 	b, numeroBlocos;
+			double	somaX, somaY;
+			
+			numeroBlocos = parciais.length / 5;
+			somaX = 0.0;
+			somaY = 0.0;
+			
+			for (b = 0; b < numeroBlocos; b++)
+			{
+				somarBloco(posicaoVertice, b, false, resultantes, 0);
+				
+				if (b == 0)
 				{
-					novaPosicao = 1 + (int) (Math.random() * grafo.getNumeroTotalVertices() * Vertice.LARGURAMAXIMA);
-					if (!coordenadaUtilizada(coordenadasUtilizadasX, novaPosicao))
-						grafo.getVertice(j).setX(novaPosicao);
-					
+					somaX = resultantes[0];
+					somaY = resultantes[1];
+				}
+				else
+				{
+					somaX += resultantes[0];
+					somaY += resultantes[1];
 				}
-								
-				//Modifica para Y
-				while (grafo.getVertice(i).getY() == grafo.getVertice(j).getY())
+			}
+			
+			resultantes[0] = somaX;
+			resultantes[1] = somaY;
+		}
+		
+		private void somarBloco(int posicaoVertice, int bloco, boolean coeficientes, double somas[], int deslocamento)
+		{
+			//Soma as parcelas dos vértices do bloco, e também os coeficientes A, B e C
+			//quando solicitado, compartilhando a raiz quadrada
+			int 		i, fim, dmi, linha;
+			double		diferencaX, diferencaY, lmi, kmi, denom, denomCubo,
+						somaX, somaY, somaA, somaB, somaC;
+			
+			linha = (linhas == null) ? posicaoVertice : linhas[posicaoVertice];
+			somaX = 0.0;
+			somaY = 0.0;
+			somaA = 0.0;
+			somaB = 0.0;
+			somaC = 0.0;
+			
+			fim = Math.min((bloco + 1) * TAMANHO_BLOCO, numeroVertices);
+			for (i = bloco * TAMANHO_BLOCO; i < fim; i++)
+			{
+				if (i != posicaoVertice)
 				{
-					novaPosicao = 1 + (int) (Math.random() * grafo.getNumeroTotalVertices() * Vertice.ALTURAMAXIMA);
-					if (!coordenadaUtilizada(coordenadasUtilizadasY, novaPosicao))
-						grafo.getVertice(j).setY(novaPosicao);
+					dmi = dij.getDistancia(linha, i);
+					lmi = lij[dmi];
+					kmi = kij[dmi];
+					
+					diferencaX = coordenadaX[posicaoVertice] - coordenadaX[i];
+					diferencaY = coordenadaY[posicaoVertice] - coordenadaY[i];
 					
+					denom = (diferencaX * diferencaX) + (diferencaY * diferencaY);
+					denom = Math.sqrt(denom);
+					
+					somaX += (diferencaX - ((lmi * diferencaX) / denom)) * kmi;
+					somaY += (diferencaY - ((lmi * diferencaY) / denom)) * kmi;
+					
+					if (coeficientes)
+					{
+						denomCubo = denom * denom * denom;
+						
+						somaA += (1 - ((lmi * diferencaY * diferencaY)/denomCubo)) * kmi;
+						somaB += ((lmi * diferencaX * diferencaY)/denomCubo) * kmi;
+						somaC += (1 - ((lmi * diferencaX * diferencaX)/denomCubo)) * kmi;
+					}
+				}	
+			}
+			
+			somas[deslocamento] = somaX;
+			somas[deslocamento + 1] = somaY;
+			
+			if (coeficientes)
+			{
+				somas[deslocamento + 2] = somaA;
+				somas[deslocamento + 3] = somaB;
+				somas[deslocamento + 4] = somaC;
+			}
+		}
+		
+		private int calcularTodosDeltaM(double deltaM[])
+		{
+			//Calcula o deltaM (9) de todos os vértices livres e retorna a posição
+			//do maior, os vértices fixos permanecem com deltaM igual a zero
+			if (tarefas != null)
+				executar(new TarefaDeltaM(-1, 0, 0, deltaM, 0, livres.length));
+			else
+				calcularDeltaM(deltaM, 0, livres.length);
+			
+			return localizarMaiorDeltaM(deltaM);
+		}
+		
+		private void calcularDeltaM(double deltaM[], int inicio, int fim)
+		{
+			int 	i, j;
+			double	resultantes[];
+			
+			resultantes = new double[2];
+			for (j = inicio; j < fim; j++)
+			{
+				i = livres[j];
+				calcularResultantes(i, resultantes);
+				deltaM[i] = Math.sqrt((resultantes[0] * resultantes[0]) + (resultantes[1] * resultantes[1]));
+				
+				if (deltaMIncremental)
+				{
+					somaResultanteX[i] = resultantes[0];
+					somaResultanteY[i] = resultantes[1];
 				}
-			}	
+			}
 		}
 		
-		//Atribuo as novas posições para os vertices
-		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
+		private int atualizarDeltaM(int posicaoVertice, double antigaX, double antigaY, double deltaM[])
 		{
-			coordenadaX[i] = grafo.getVertice(i).getX();
-			coordenadaY[i] = grafo.getVertice(i).getY();
+			//Substitui nas resultantes dos demais vértices a parcela referente ao 
+			//vértice deslocado e retorna a posição do maior deltaM
+			
+			//As derivadas do vértice deslocado já foram calculadas pelo último passo
+			somaResultanteX[posicaoVertice] = resultanteX;
+			somaResultanteY[posicaoVertice] = resultanteY;
+			
+			if (tarefas != null)
+				executar(new TarefaDeltaM(posicaoVertice, antigaX, antigaY, deltaM, 0, livres.length));
+			else
+				atualizarDeltaM(posicaoVertice, antigaX, antigaY, deltaM, 0, livres.length);
+			
+			return localizarMaiorDeltaM(deltaM);
 		}
-	}
-	
-	private void removerQuebraArestas()
-	{
-		Aresta	arestas[];
-		int 	i;
 		
-		arestas = grafo.getTodasArestas();
-		for (i = 0; i < grafo.getNumeroTotalArestas(); i++)
-			arestas[i].removerTodasQuebras();
-	}
-	
-	private boolean coordenadaUtilizada(int coordenadasUtilizadas[], int novaCoordenada)
-	{
-		int i;
+		private void atualizarDeltaM(int posicaoVertice, double antigaX, double antigaY, double deltaM[], int inicio, int fim)
+		{
+			int 	i, j, dmi;
+			double	diferencaX, diferencaY, antigaDiferencaX, antigaDiferencaY,
+					lmi, kmi, denom, antigoDenom;
+			
+			for (j = inicio; j < fim; j++)
+			{
+				i = livres[j];
+				if (i != posicaoVertice)
+				{
+					dmi = dij.getDistancia((linhas == null) ? i : linhas[i], posicaoVertice);
+					lmi = lij[dmi];
+					kmi = kij[dmi];
+					
+					diferencaX = coordenadaX[i] - coordenadaX[posicaoVertice];
+					diferencaY = coordenadaY[i] - coordenadaY[posicaoVertice];
+					antigaDiferencaX = coordenadaX[i] - antigaX;
+					antigaDiferencaY = coordenadaY[i] - antigaY;
+					
+					denom = Math.sqrt((diferencaX * diferencaX) + (diferencaY * diferencaY));
+					antigoDenom = Math.sqrt((antigaDiferencaX * antigaDiferencaX) + (antigaDiferencaY * antigaDiferencaY));
+					
+					somaResultanteX[i] += ((diferencaX - ((lmi * diferencaX) / denom)) - (antigaDiferencaX - ((lmi * antigaDiferencaX) / antigoDenom))) * kmi;
+					somaResultanteY[i] += ((diferencaY - ((lmi * diferencaY) / denom)) - (antigaDiferencaY - ((lmi * antigaDiferencaY) / antigoDenom))) * kmi;
+				}
+				
+				deltaM[i] = Math.sqrt((somaResultanteX[i] * somaResultanteX[i]) + (somaResultanteY[i] * somaResultanteY[i]));
+			}
+		}
 		
-		for (i = 0; i < coordenadasUtilizadas.length; i++)
-			if (coordenadasUtilizadas[i] == novaCoordenada)
-				return true;
-		return false;
-	}
-	
-	private void inicializarVariaveis()
-	{
-		int i, j;
+		private int localizarMaiorDeltaM(double deltaM[])
+		{
+			int 	i, localMaiorDeltaM;
+			double	maiorDeltaM;
+			
+			localMaiorDeltaM = 0;
+			maiorDeltaM = 0.0;
+			for (i = 0; i < deltaM.length; i++)
+			{
+				if (deltaM[i] > maiorDeltaM)
+				{
+					maiorDeltaM = deltaM[i];
+					localMaiorDeltaM = i;
+				}	
+			}
+			
+			return localMaiorDeltaM;
+		}
 		
-		dij = new int[grafo.getNumeroTotalVertices()][grafo.getNumeroTotalVertices()];
-		lij = new double[grafo.getNumeroTotalVertices()][grafo.getNumeroTotalVertices()];
-		kij = new double[grafo.getNumeroTotalVertices()][grafo.getNumeroTotalVertices()];
 		
-		for (i = 0; i < grafo.getNumeroTotalVertices(); i++)
+		private void inicializarVariaveis()
 		{
-			for (j = 0; j < grafo.getNumeroTotalVertices(); j++)
+			int i;
+			
+			//Lij e Kij dependem somente de dij, então são tabelados por distância
+			lij = new double[dij.getDistanciaMaxima() + 1];
+			kij = new double[dij.getDistanciaMaxima() + 1];
+			
+			for (i = 0; i < lij.length; i++)
 			{
-				dij[i][j] = calcularMenorCaminho(grafo.getVertice(i), grafo.getVertice(j));
-				lij[i][j] = calcularDistancia(dij[i][j]);
-				kij[i][j] = calcularForca(dij[i][j]);
+				lij[i] = calcularDistancia(i);
+				kij[i] = calcularForca(i);
 			}
 		}
-	}
-	
-	private int calcularMenorCaminho(Vertice origem, Vertice destino)
-	{
-		//Calculo do Dij
-		return grafo.distanciaMenorCaminho(origem, destino);
-	}
-	
-	private int calcularDistancia(int dij)
-	{
-		//Calcular Lij do algoritmo através da formula
-		// Lij = L * dij
-		int distVert;
 		
-		return tamanhoAresta * dij;
-	}
-	
-	private double calcularForca(int dij)
-	{
-		//Calcula a força da mola atraves da formula
-		// Kij = K / (dij * dij)
-		double 	forca, menorCaminho;
+		private int calcularDistancia(int dij)
+		{
+			//Calcular Lij do algoritmo através da formula
+			// Lij = L * dij
+			int distVert;
+			
+			return tamanhoAresta * dij;
+		}
 		
-		if (dij == 0)
-			return 0;
+		private double calcularForca(int dij)
+		{
+			//Calcula a força da mola atraves da formula
+			// Kij = K / (dij * dij)
+			double 	forca, menorCaminho;
+			
+			if (dij == 0)
+				return 0;
+				
+			menorCaminho = dij;
+			forca = forcaMola / (menorCaminho * menorCaminho);
 			
-		menorCaminho = dij;
-		forca = forcaMola / (menorCaminho * menorCaminho);
+			return forca;  
+		}
 		
-		return forca;  
+		private class TarefaDerivadas extends RecursiveAction
+		{
+			private static final long serialVersionUID = 1L;
+			
+			private int posicaoVertice, inicio, fim;
+			
+			TarefaDerivadas(int posicaoVertice, int inicio, int fim)
+			{
+				this.posicaoVertice = posicaoVertice;
+				this.inicio = inicio;
+				this.fim = fim;
+			}
+			
+			protected void compute()
+			{
+				int meio;
+				
+				if (fim - inicio == 1)
+					somarBloco(posicaoVertice, inicio, true, parciais, inicio * 5);
+				else
+				{
+					meio = (inicio + fim) >>> 1;
+					invokeAll(new TarefaDerivadas(posicaoVertice, inicio, meio), new TarefaDerivadas(posicaoVertice, meio, fim));
+				}
+			}
+		}
+		
+		private class TarefaDeltaM extends RecursiveAction
+		{
+			private static final long serialVersionUID = 1L;
+			
+			//Com posicaoVertice igual a -1 recalcula o deltaM por completo, caso 
+			//contrário atualiza o deltaM após o deslocamento do vértice
+			private int 	posicaoVertice, inicio, fim;
+			
+			private double	antigaX, antigaY, deltaM[];
+			
+			TarefaDeltaM(int posicaoVertice, double antigaX, double antigaY, double deltaM[], int inicio, int fim)
+			{
+				this.posicaoVertice = posicaoVertice;
+				this.antigaX = antigaX;
+				this.antigaY = antigaY;
+				this.deltaM = deltaM;
+				this.inicio = inicio;
+				this.fim = fim;
+			}
+			
+			protected void compute()
+			{
+				int meio;
+				
+				if (fim - inicio <= TAMANHO_TAREFA)
+				{
+					if (posicaoVertice < 0)
+						calcularDeltaM(deltaM, inicio, fim);
+					else
+						atualizarDeltaM(posicaoVertice, antigaX, antigaY, deltaM, inicio, fim);
+				}
+				else
+				{
+					meio = (inicio + fim) >>> 1;
+					invokeAll(new TarefaDeltaM(posicaoVertice, antigaX, antigaY, deltaM, inicio, meio), new TarefaDeltaM(posicaoVertice, antigaX, antigaY, deltaM, meio, fim));
+				}
+			}
+		}
 	}
-}
\ No newline at end of file
+}
@@ -12,10 +12,12 @@ import diagram.Grafo;
 import diagram.componente.Aresta;
 
 import diagram.editor.AreaAplicativo;
+import diagram.editor.DesenhoSegundoPlano;
 import diagram.editor.EditorAplicativoGrafo;
 import diagram.editor.EditorAppletGrafo;
 
-import diagram.graphdrawing.SpringModel;
+import diagram.graphdrawing.RegistroAlgoritmos;
+
 
 /**
  * A classe JMenuMouseArea utiliza as classes do pacote swing para exibir um menu
@@ -58,6 +60,10 @@ import diagram.graphdrawing.SpringModel;
  */
 public class JMenuMouseArea extends JMenuMouse
 {
+	//Organiza o diagrama fora da linha de execução de eventos, guardando a 
+	//estrutura do último desenho para reorganizar somente as alterações
+	private DesenhoSegundoPlano	desenhoSegundoPlano;
+	
 	/**
 	 * Cria um novo menu popup utilizado quando o usuário clicar no editor
 	 * e fora da área dos componentes do grafo.
@@ -168,12 +174,19 @@ public class JMenuMouseArea extends JMenuMouse
 		else if (e.getSource() == menuTemp[1])
 			desbloquearDiagrama();
 		else if (e.getSource() == menuTemp[3])
-			organizarDiagrama();
+			organizarDiagrama(null);
 		else
 		{
-			//Para os submenus no menu selecionar
+			//Para os submenus no menu organizar diagrama com
 			menuAux = (JMenu) menuTemp[4];
 			
+			for (i = 0; i < menuAux.getItemCount(); i++)
+				if (e.getSource() == menuAux.getItem(i))
+					organizarDiagrama(menuAux.getItem(i).getText());
+			
+			//Para os submenus no menu selecionar
+			menuAux = (JMenu) menuTemp[5];
+			
 			menuItemSelecionar = new JMenuItem[menuAux.getItemCount()];
 			for (i = 0; i < menuAux.getItemCount(); i++)
 				menuItemSelecionar[i] = menuAux.getItem(i);
@@ -310,11 +323,15 @@ public class JMenuMouseArea extends JMenuMouse
 	private void criarMenuPadrao()
 	{
 		//Define os titulos dos menus
-		String titulosMenus[] = new String[4];
+		String titulosMenus[] = new String[5];
 		titulosMenus[0] = new String("Bloquear diagrama");
 		titulosMenus[1] = new String("Desbloquear diagrama");
 		titulosMenus[2] = new String("Organizar diagrama automaticamente");
-		titulosMenus[3] = new String("Selecionar diagrama");
+		titulosMenus[3] = new String("Organizar diagrama com");
+		titulosMenus[4] = new String("Selecionar diagrama");
+		
+		//Os subtitulos do titulo organizar com são os algoritmos registrados
+		String subTituloMenuOrganizar[] = RegistroAlgoritmos.getNomes();
 		
 		//Define os subtitulos do titulo selecionar
 		String subTituloMenuSelecionar[] = new String[5];
@@ -330,7 +347,12 @@ public class JMenuMouseArea extends JMenuMouse
 		menus[1] = new JMenuItem(titulosMenus[1]);
 		menus[2] = new JMenuItem(titulosMenus[2]);
 				
-		JMenu menuSelecionar = new JMenu(titulosMenus[3]);
+		JMenu menuOrganizar = new JMenu(titulosMenus[3]);
+		JMenu menuSelecionar = new JMenu(titulosMenus[4]);
+		
+		//Cria os submenus do menu organizar com
+		for (int i = 0; i < subTituloMenuOrganizar.length; i++)
+			menuOrganizar.add(new JMenuItem(subTituloMenuOrganizar[i]));
 				
 		//Cria os submenus do menu selecionar
 		JMenuItem subMenus[] = new JMenuItem[5];
@@ -352,6 +374,7 @@ public class JMenuMouseArea extends JMenuMouse
 		addNovoMenu(menus[1]);
 		addSeparadorMenu();
 		addNovoMenu(menus[2]);
+		addNovoMenu(menuOrganizar);
 		addNovoMenu(menuSelecionar);
 	}
 	
@@ -381,22 +404,44 @@ public class JMenuMouseArea extends JMenuMouse
 			editorAppletGrafo.setEditar(EditorAppletGrafo.EDITAR);
 	}
 	
-	private void organizarDiagrama()
+	private void organizarDiagrama(String algoritmo)
 	{
-		EditorAplicativoGrafo editorGrafo = getAreaAplicativo().getEditorAplicativoGrafo();
-		EditorAppletGrafo editorAppletGrafo = getAreaAplicativo().getEditorAppletGrafo();
+		final EditorAplicativoGrafo editorGrafo = getAreaAplicativo().getEditorAplicativoGrafo();
+		final EditorAppletGrafo editorAppletGrafo = getAreaAplicativo().getEditorAppletGrafo();
 
-		SpringModel organizarDiagrama = new SpringModel(getAreaAplicativo().getGrafo());
-		organizarDiagrama.setTamanhoAresta(130);
-		organizarDiagrama.desenharGrafo();
-		getAreaAplicativo().repaint();
+		Grafo grafo = getAreaAplicativo().getGrafo();
 		
-		if (editorGrafo != null)
-			//Aplicativo
-			editorGrafo.setBarrasRolagem();
-		else if (editorAppletGrafo != null)
-			//Applet
-			editorAppletGrafo.setBarrasRolagem();
+		//O desenho é refeito quando o editor passa a apresentar outro grafo
+		if ((desenhoSegundoPlano == null) || (desenhoSegundoPlano.getGrafo() != grafo))
+		{
+			if (desenhoSegundoPlano != null)
+				desenhoSegundoPlano.cancelar();
+			
+			desenhoSegundoPlano = new DesenhoSegundoPlano(grafo, getAreaAplicativo());
+			desenhoSegundoPlano.setTamanhoAresta(130);
+			desenhoSegundoPlano.setAcaoConclusao(new Runnable()
+			{
+				public void run()
+				{
+					if (editorGrafo != null)
+						//Aplicativo
+						editorGrafo.setBarrasRolagem();
+					else if (editorAppletGrafo != null)
+						//Applet
+						editorAppletGrafo.setBarrasRolagem();
+				}
+			});
+		}
+		
+		//Enquanto um desenho está em execução o novo pedido é ignorado e o 
+		//usuário é avisado para aguardar
+		if (!desenhoSegundoPlano.getExecutando())
+		{
+			desenhoSegundoPlano.setAlgoritmo(algoritmo);
+			desenhoSegundoPlano.iniciar();
+		}
+		else
+			JOptionPane.showMessageDialog(getAreaAplicativo(), "Aguarde um momento.", "Caixa de Dialogo", JOptionPane.INFORMATION_MESSAGE);
 	}
 	
 	private void selecionarArestas()
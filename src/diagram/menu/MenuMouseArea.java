@@ -15,9 +15,11 @@ import diagram.componente.Aresta;
 import diagram.componente.Vertice;
 
 import diagram.editor.AreaApplet;
+import diagram.editor.DesenhoSegundoPlano;
 import diagram.editor.EditorAppletGrafo;
 
-import diagram.graphdrawing.SpringModel;
+import diagram.graphdrawing.RegistroAlgoritmos;
+
 
 /**
  * A classe MenuMouseArea utiliza as classes do pacote awt para exibir um menu
@@ -58,6 +60,13 @@ import diagram.graphdrawing.SpringModel;
  */
 public class MenuMouseArea extends MenuMouse
 {
+	//Organiza o diagrama fora da linha de execução de eventos, guardando a 
+	//estrutura do último desenho para reorganizar somente as alterações
+	private DesenhoSegundoPlano	desenhoSegundoPlano;
+	
+	//Aviso exibido até o fim do desenho em execução
+	private Dialog				cxDialog;
+	
 	/**
 	 * Cria um novo menu popup utilizado quando o usuário clicar no editor
 	 * e fora da área dos componentes do grafo.
@@ -146,12 +155,19 @@ public class MenuMouseArea extends MenuMouse
 		else if (e.getSource() == menuTemp[1])
 			desbloquearDiagrama();
 		else if (e.getSource() == menuTemp[3])
-			organizarDiagrama();
+			organizarDiagrama(null);
 		else
 		{
-			//Para os submenus no menu selecionar
+			//Para os submenus no menu organizar diagrama com
 			menuAux = (Menu) menuTemp[4];
 			
+			for (i = 0; i < menuAux.getItemCount(); i++)
+				if (e.getSource() == menuAux.getItem(i))
+					organizarDiagrama(menuAux.getItem(i).getLabel());
+			
+			//Para os submenus no menu selecionar
+			menuAux = (Menu) menuTemp[5];
+			
 			menuItemSelecionar = new MenuItem[menuAux.getItemCount()];
 			for (i = 0; i < menuAux.getItemCount(); i++)
 				menuItemSelecionar[i] = menuAux.getItem(i);
@@ -290,11 +306,15 @@ public class MenuMouseArea extends MenuMouse
 	private void criarMenuPadrao()
 	{
 		//Define os titulos dos menus
-		String titulosMenus[] = new String[4];
+		String titulosMenus[] = new String[5];
 		titulosMenus[0] = new String("Bloquear diagrama");
 		titulosMenus[1] = new String("Desbloquear diagrama");
 		titulosMenus[2] = new String("Organizar diagrama automaticamente");
-		titulosMenus[3] = new String("Selecionar diagrama");
+		titulosMenus[3] = new String("Organizar diagrama com");
+		titulosMenus[4] = new String("Selecionar diagrama");
+		
+		//Os subtitulos do titulo organizar com são os algoritmos registrados
+		String subTituloMenuOrganizar[] = RegistroAlgoritmos.getNomes();
 		
 		//Define os subtitulos do titulo selecionar
 		String subTituloMenuSelecionar[] = new String[5];
@@ -310,7 +330,12 @@ public class MenuMouseArea extends MenuMouse
 		menus[1] = new MenuItem(titulosMenus[1]);
 		menus[2] = new MenuItem(titulosMenus[2]);
 		
-		Menu menuSelecionar = new Menu(titulosMenus[3]);
+		Menu menuOrganizar = new Menu(titulosMenus[3]);
+		Menu menuSelecionar = new Menu(titulosMenus[4]);
+		
+		//Cria os submenus do menu organizar com
+		for (int i = 0; i < subTituloMenuOrganizar.length; i++)
+			menuOrganizar.add(new MenuItem(subTituloMenuOrganizar[i]));
 				
 		//Cria os submenus do menu selecionar
 		MenuItem subMenus[] = new MenuItem[5];
@@ -332,6 +357,7 @@ public class MenuMouseArea extends MenuMouse
 		addNovoMenu(menus[1]);
 		addSeparadorMenu();
 		addNovoMenu(menus[2]);
+		addNovoMenu(menuOrganizar);
 		addNovoMenu(menuSelecionar);
 	}
 	
@@ -347,7 +373,47 @@ public class MenuMouseArea extends MenuMouse
 		editorAppletGrafo.setEditar(EditorAppletGrafo.EDITAR);
 	}
 	
-	private void organizarDiagrama()
+	private void organizarDiagrama(String algoritmo)
+	{
+		final EditorAppletGrafo editorAppletGrafo = getAreaApplet().getEditorAppletGrafo();
+		
+		Grafo grafo = getAreaApplet().getGrafo();
+		
+		//O desenho é refeito quando o editor passa a apresentar outro grafo
+		if ((desenhoSegundoPlano == null) || (desenhoSegundoPlano.getGrafo() != grafo))
+		{
+			if (desenhoSegundoPlano != null)
+				desenhoSegundoPlano.cancelar();
+			
+			desenhoSegundoPlano = new DesenhoSegundoPlano(grafo, getAreaApplet());
+			desenhoSegundoPlano.setTamanhoAresta(130);
+			desenhoSegundoPlano.setAcaoConclusao(new Runnable()
+			{
+				public void run()
+				{
+					editorAppletGrafo.setBarrasRolagem();
+					
+					if (cxDialog != null)
+					{
+						cxDialog.dispose();
+						cxDialog = null;
+					}
+				}
+			});
+		}
+		
+		//Enquanto um desenho está em execução o novo pedido é ignorado e o 
+		//usuário é avisado para aguardar
+		if (!desenhoSegundoPlano.getExecutando())
+		{
+			desenhoSegundoPlano.setAlgoritmo(algoritmo);
+			desenhoSegundoPlano.iniciar();
+		}
+		else if (cxDialog == null)
+			exibirAguarde();
+	}
+	
+	private void exibirAguarde()
 	{
 		int x, y, largura, altura;
 		
@@ -359,24 +425,14 @@ public class MenuMouseArea extends MenuMouse
 		Label msg = new Label("Aguarde um momento.");
 		msg.setBounds(20, 35, 140, 15);
 		
-		Dialog cxDialog = new Dialog(new Frame(), false);
+		cxDialog = new Dialog(new Frame(), false);
 		cxDialog.setLayout(null);
 		cxDialog.setTitle("Caixa de Dialogo");
 		cxDialog.setResizable(false);
 		cxDialog.setSize(largura, altura);
 		cxDialog.setLocation(x, y);
 		cxDialog.add(msg);
-		cxDialog.show();		
-		
-		EditorAppletGrafo editorAppletGrafo = getAreaApplet().getEditorAppletGrafo();
-		
-		SpringModel organizarDiagrama = new SpringModel(getAreaApplet().getGrafo());
-		organizarDiagrama.setTamanhoAresta(130);
-		organizarDiagrama.desenharGrafo();
-		getAreaApplet().repaint();
-		editorAppletGrafo.setBarrasRolagem();
-			
-		cxDialog.dispose();
+		cxDialog.setVisible(true);
 	}
 	
 	private void selecionarArestas()